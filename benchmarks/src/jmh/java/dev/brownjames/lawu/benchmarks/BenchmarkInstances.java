@@ -0,0 +1,46 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.InstanceCreateInfo;
+import dev.brownjames.lawu.vulkan.TestVulkanDriver;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import dev.brownjames.lawu.vulkan.directdriverloading.DirectDriverLoadingMode;
+import dev.brownjames.lawu.vulkan.directdriverloading.VulkanDriver;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.SymbolLookup;
+import java.nio.file.Path;
+
+/**
+ * Creates the instances used by benchmarks.
+ * <p>
+ * When the {@value #DRIVER_PROPERTY} system property names the shared library of an ICD, such as lavapipe or
+ * SwiftShader, that driver is loaded directly and exclusively, so results do not depend on the GPU of the machine and
+ * can be compared between runs on different machines. When it is {@value #FAKE_DRIVER}, the {@link TestVulkanDriver} is
+ * loaded instead, which needs no GPU at all. Otherwise the loader picks the drivers as usual.
+ */
+final class BenchmarkInstances {
+	static final String DRIVER_PROPERTY = "lawu.benchmarks.driver";
+	static final String FAKE_DRIVER = "fake";
+
+	private BenchmarkInstances() { }
+
+	static InstanceCreateInfo builder() {
+		var builder = VulkanInstance.builder();
+
+		var driverPath = System.getProperty(DRIVER_PROPERTY);
+		if (driverPath == null || driverPath.isEmpty()) {
+			return builder;
+		}
+
+		if (driverPath.equals(FAKE_DRIVER)) {
+			return builder.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, new TestVulkanDriver());
+		}
+
+		var getInstanceProcAddress = SymbolLookup.libraryLookup(Path.of(driverPath), Arena.global())
+				.find("vk_icdGetInstanceProcAddr")
+				.orElseThrow(() -> new IllegalArgumentException("Not a Vulkan driver: " + driverPath));
+
+		VulkanDriver driver = () -> getInstanceProcAddress;
+		return builder.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, driver);
+	}
+}
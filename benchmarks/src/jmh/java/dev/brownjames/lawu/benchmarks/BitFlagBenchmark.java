@@ -0,0 +1,126 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.BitFlag;
+import dev.brownjames.lawu.vulkan.BitFlags;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Array;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding and querying flag bits through cached decode tables, immutable sets and {@link BitFlags} with the
+ * original approach of building a decode table from the enum constants for every set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class BitFlagBenchmark {
+	private int severityBit;
+	private int typeBits;
+	private Set<DebugUtilsMessageType> types;
+	private BitFlags<DebugUtilsMessageType> typeFlags;
+
+	@Setup
+	public void setup() {
+		severityBit = DebugUtilsMessageSeverity.WARNING.bit();
+		typeBits = DebugUtilsMessageType.VALIDATION.bit() | DebugUtilsMessageType.PERFORMANCE.bit();
+		types = BitFlag.flags(typeBits, DebugUtilsMessageType.class);
+		typeFlags = new BitFlags<>(DebugUtilsMessageType.class, typeBits);
+	}
+
+	/**
+	 * The decode table every set used to build in its constructor
+	 */
+	private static <ELEMENT extends Enum<ELEMENT> & BitFlag> ELEMENT[] uncachedDecodeTable(Class<ELEMENT> type) {
+		var enumConstants = type.getEnumConstants();
+
+		@SuppressWarnings("unchecked")
+		var array = (ELEMENT[]) Array.newInstance(enumConstants.getClass().componentType(), Integer.SIZE);
+		for (var e : enumConstants) {
+			array[Integer.numberOfTrailingZeros(e.bit())] = e;
+		}
+
+		return array;
+	}
+
+	@Benchmark
+	public DebugUtilsMessageSeverity decodeSeverityUncached() {
+		return uncachedDecodeTable(DebugUtilsMessageSeverity.class)[Integer.numberOfTrailingZeros(severityBit)];
+	}
+
+	@Benchmark
+	public DebugUtilsMessageSeverity decodeSeveritySet() {
+		return BitFlag.flags(severityBit, DebugUtilsMessageSeverity.class).iterator().next();
+	}
+
+	@Benchmark
+	public DebugUtilsMessageSeverity decodeSeverityDirect() {
+		return DebugUtilsMessageSeverity.of(severityBit);
+	}
+
+	@Benchmark
+	public void iterateUncached(Blackhole blackhole) {
+		var table = uncachedDecodeTable(DebugUtilsMessageType.class);
+		for (var bits = typeBits; bits != 0; bits &= bits - 1) {
+			blackhole.consume(table[Integer.numberOfTrailingZeros(bits)]);
+		}
+	}
+
+	@Benchmark
+	public void iterateSet(Blackhole blackhole) {
+		for (var type : BitFlag.flags(typeBits, DebugUtilsMessageType.class)) {
+			blackhole.consume(type);
+		}
+	}
+
+	@Benchmark
+	public void iterateImmutableSet(Blackhole blackhole) {
+		for (var type : BitFlag.immutableFlags(typeBits, DebugUtilsMessageType.class)) {
+			blackhole.consume(type);
+		}
+	}
+
+	@Benchmark
+	public boolean containsSet() {
+		return types.contains(DebugUtilsMessageType.PERFORMANCE);
+	}
+
+	@Benchmark
+	public boolean containsBitFlags() {
+		return typeFlags.contains(DebugUtilsMessageType.PERFORMANCE);
+	}
+
+	@Benchmark
+	public boolean containsDecodedBitFlags() {
+		return new BitFlags<>(DebugUtilsMessageType.class, typeBits).contains(DebugUtilsMessageType.PERFORMANCE);
+	}
+
+	@Benchmark
+	public int flagBitsSet() {
+		return BitFlag.getFlagBits(types);
+	}
+
+	@Benchmark
+	public int flagBitsBitFlags() {
+		return typeFlags.bits();
+	}
+
+	@Benchmark
+	public Set<DebugUtilsMessageType> withSet() {
+		var result = BitFlag.flags(typeBits, DebugUtilsMessageType.class);
+		result.add(DebugUtilsMessageType.GENERAL);
+		return result;
+	}
+
+	@Benchmark
+	public BitFlags<DebugUtilsMessageType> withBitFlags() {
+		return typeFlags.with(DebugUtilsMessageType.GENERAL);
+	}
+}
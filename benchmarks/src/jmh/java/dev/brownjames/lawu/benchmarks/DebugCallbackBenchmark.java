@@ -0,0 +1,93 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.BitFlag;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import dev.brownjames.lawu.vulkan.debugutils.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip of a message submitted with {@code vkSubmitDebugUtilsMessageEXT}, through the loader, the
+ * shared upcall stub and into a messenger callback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class DebugCallbackBenchmark {
+	public enum Callback {
+		/**
+		 * A callback that does nothing, measuring only the transitions
+		 */
+		EMPTY,
+		/**
+		 * A callback that reads the message through a {@link DebugUtilsMessengerCallbackData} view
+		 */
+		VIEW,
+		/**
+		 * A callback that copies the message into an {@link AsynchronousDebugUtilsMessengerCallback}
+		 */
+		ASYNCHRONOUS
+	}
+
+	@Param
+	public Callback callback;
+
+	private VulkanInstance instance;
+	private DebugUtilsExtension extension;
+	private DebugUtilsMessenger messenger;
+	private AsynchronousDebugUtilsMessengerCallback asynchronous;
+	private Arena arena;
+	private MemorySegment callbackData;
+	private long received;
+
+	@Setup
+	public void setup() {
+		instance = BenchmarkInstances.builder()
+				.withExtension(DebugUtilsExtension.extensionName())
+				.build();
+		extension = DebugUtilsExtension.extend(instance);
+
+		DebugUtilsMessengerCallback function = switch (callback) {
+			case EMPTY -> (severity, messageTypes, data) -> received++;
+			case VIEW -> (severity, messageTypes, data) -> received += new DebugUtilsMessengerCallbackData(data).messageIdNumber();
+			case ASYNCHRONOUS -> asynchronous = new AsynchronousDebugUtilsMessengerCallback(messages -> { });
+		};
+
+		messenger = extension.createDebugUtilsMessenger(
+				BitFlag.allFlags(DebugUtilsMessageSeverity.class),
+				BitFlag.allFlags(DebugUtilsMessageType.class),
+				function);
+
+		arena = Arena.ofConfined();
+		callbackData = VkDebugUtilsMessengerCallbackDataEXT.allocate(arena);
+		VkDebugUtilsMessengerCallbackDataEXT.sType$set(callbackData, vulkan_h.VK_STRUCTURE_TYPE_DEBUG_UTILS_MESSENGER_CALLBACK_DATA_EXT());
+		VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$set(callbackData, arena.allocateUtf8String("Benchmark"));
+		VkDebugUtilsMessengerCallbackDataEXT.messageIdNumber$set(callbackData, 1);
+		VkDebugUtilsMessengerCallbackDataEXT.pMessage$set(callbackData, arena.allocateUtf8String("A message submitted by a benchmark"));
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		messenger.close();
+		if (asynchronous != null) {
+			asynchronous.close();
+		}
+
+		arena.close();
+		instance.close();
+	}
+
+	@Benchmark
+	public long submit() {
+		extension.submitDebugUtilsMessage(DebugUtilsMessageSeverity.INFO, DebugUtilsMessageType.GENERAL.bit(), callbackData);
+		return received;
+	}
+}
@@ -0,0 +1,85 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.DispatchTable;
+import dev.brownjames.lawu.vulkan.PhysicalDevice;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import dev.brownjames.lawu.vulkan.bindings.PFN_vkGetPhysicalDeviceFeatures;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceFeatures;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the generated {@code PFN_*} wrappers and {@link DispatchTable} entries over invoking a
+ * downcall handle directly, using {@code vkGetPhysicalDeviceFeatures} as a cheap function with no side effects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class DowncallBenchmark {
+	private VulkanInstance instance;
+	private Arena arena;
+	private PhysicalDevice device;
+	private MemorySegment features;
+
+	private MethodHandle rawHandle;
+	private PFN_vkGetPhysicalDeviceFeatures wrapper;
+	private DispatchTable.Entry<PFN_vkGetPhysicalDeviceFeatures> entry;
+
+	@Setup
+	public void setup() {
+		instance = BenchmarkInstances.builder().build();
+		arena = Arena.ofConfined();
+		device = instance.allPhysicalDevices().getFirst();
+		features = VkPhysicalDeviceFeatures.allocate(arena);
+
+		var address = instance.instanceFunctionLookup()
+				.lookup("vkGetPhysicalDeviceFeatures")
+				.orElseThrow();
+
+		rawHandle = Linker.nativeLinker().downcallHandle(address, FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS));
+		wrapper = PFN_vkGetPhysicalDeviceFeatures.ofAddress(address, arena);
+		entry = new DispatchTable(instance.instanceFunctionLookup(), arena)
+				.entry("vkGetPhysicalDeviceFeatures", PFN_vkGetPhysicalDeviceFeatures::ofAddress);
+	}
+
+	@TearDown
+	public void tearDown() {
+		arena.close();
+		instance.close();
+	}
+
+	@Benchmark
+	public void rawMethodHandle() throws Throwable {
+		rawHandle.invokeExact(device.handle(), features);
+	}
+
+	@Benchmark
+	public void pfnWrapper() {
+		wrapper.apply(device.handle(), features);
+	}
+
+	@Benchmark
+	public void dispatchTableEntry() {
+		entry.get().apply(device.handle(), features);
+	}
+
+	@Benchmark
+	public void instanceMethod() {
+		instance.getPhysicalDeviceFeatures(device.handle(), features);
+	}
+
+	@Benchmark
+	public MemorySegment physicalDeviceQuery() {
+		return device.getFeatures();
+	}
+}
@@ -0,0 +1,68 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.FunctionLookup;
+import dev.brownjames.lawu.vulkan.InstanceFunctionLookup;
+import dev.brownjames.lawu.vulkan.Vulkan;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up a function through a {@link FunctionLookup}, with the name interned, already native, or copied
+ * into native memory for every lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class FunctionLookupBenchmark {
+	@Param({ "vkGetPhysicalDeviceProperties", "vkCreateDebugUtilsMessengerEXT", "vkNotAFunction" })
+	public String name;
+
+	private VulkanInstance instance;
+	private InstanceFunctionLookup lookup;
+	private Arena arena;
+	private MemorySegment nativeName;
+
+	@Setup
+	public void setup() {
+		instance = BenchmarkInstances.builder().build();
+		lookup = instance.instanceFunctionLookup();
+		arena = Arena.ofConfined();
+		nativeName = arena.allocateUtf8String(name);
+	}
+
+	@TearDown
+	public void tearDown() {
+		arena.close();
+		instance.close();
+	}
+
+	@Benchmark
+	public Optional<MemorySegment> instanceLookupInterned() {
+		return lookup.lookup(name);
+	}
+
+	@Benchmark
+	public Optional<MemorySegment> instanceLookupNative() {
+		return lookup.lookup(nativeName);
+	}
+
+	@Benchmark
+	public Optional<MemorySegment> instanceLookupCopied() {
+		try (var local = Arena.ofConfined()) {
+			return lookup.lookup(local.allocateUtf8String(name));
+		}
+	}
+
+	@Benchmark
+	public Optional<MemorySegment> globalLookupInterned() {
+		return Vulkan.globalFunctionLookup().lookup(name);
+	}
+}
@@ -0,0 +1,54 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.ApplicationInfo;
+import dev.brownjames.lawu.vulkan.BitFlag;
+import dev.brownjames.lawu.vulkan.InstanceCreateInfo;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import dev.brownjames.lawu.vulkan.VulkanVersionNumber;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting a typical {@link InstanceCreateInfo} into its native structure, without creating an instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class InstanceCreateInfoBenchmark {
+	@Param({ "false", "true" })
+	public boolean debugCallback;
+
+	private InstanceCreateInfo createInfo;
+
+	@Setup
+	public void setup() {
+		var builder = VulkanInstance.builder()
+				.withApplicationInfo(new ApplicationInfo().withApiVersion(VulkanVersionNumber.headerVersion()))
+				.withExtension("VK_KHR_surface")
+				.withExtension("VK_KHR_get_physical_device_properties2")
+				.withValidationLayers();
+
+		if (debugCallback) {
+			builder = builder.withDebugCallback(
+					BitFlag.allFlags(DebugUtilsMessageSeverity.class),
+					BitFlag.allFlags(DebugUtilsMessageType.class),
+					(severity, messageTypes, callbackData) -> { });
+		}
+
+		createInfo = builder;
+	}
+
+	@Benchmark
+	public long confinedArena() {
+		try (var arena = Arena.ofConfined()) {
+			return createInfo.createNativeStructure(arena).address();
+		}
+	}
+}
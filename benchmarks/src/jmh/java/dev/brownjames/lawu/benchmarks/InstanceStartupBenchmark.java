@@ -0,0 +1,135 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.DispatchTable;
+import dev.brownjames.lawu.vulkan.VulkanInstance;
+import dev.brownjames.lawu.vulkan.bindings.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Compares resolving every instance-level function up-front, as instances used to, with resolving them on first use
+ * through a {@link DispatchTable}. Both bind through the generated {@code PFN_*::ofAddress} factories, so each resolved
+ * function costs a lookup and a downcall handle.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 50)
+@Fork(3)
+@State(Scope.Benchmark)
+public class InstanceStartupBenchmark {
+	/**
+	 * A function and the binder that creates its downcall handle, as the instance declares it
+	 */
+	private record Declaration(String name, BiFunction<MemorySegment, Arena, ?> binder) { }
+
+	/**
+	 * The instance-level and physical-device-level functions of Vulkan 1.3 and the common instance extensions
+	 */
+	private static final List<Declaration> FUNCTIONS = List.of(
+			new Declaration("vkDestroyInstance", PFN_vkDestroyInstance::ofAddress),
+			new Declaration("vkEnumeratePhysicalDevices", PFN_vkEnumeratePhysicalDevices::ofAddress),
+			new Declaration("vkGetPhysicalDeviceFeatures", PFN_vkGetPhysicalDeviceFeatures::ofAddress),
+			new Declaration("vkGetPhysicalDeviceFormatProperties", PFN_vkGetPhysicalDeviceFormatProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceImageFormatProperties", PFN_vkGetPhysicalDeviceImageFormatProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceProperties", PFN_vkGetPhysicalDeviceProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceQueueFamilyProperties", PFN_vkGetPhysicalDeviceQueueFamilyProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceMemoryProperties", PFN_vkGetPhysicalDeviceMemoryProperties::ofAddress),
+			new Declaration("vkGetDeviceProcAddr", PFN_vkGetDeviceProcAddr::ofAddress),
+			new Declaration("vkCreateDevice", PFN_vkCreateDevice::ofAddress),
+			new Declaration("vkEnumerateDeviceExtensionProperties", PFN_vkEnumerateDeviceExtensionProperties::ofAddress),
+			new Declaration("vkEnumerateDeviceLayerProperties", PFN_vkEnumerateDeviceLayerProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSparseImageFormatProperties", PFN_vkGetPhysicalDeviceSparseImageFormatProperties::ofAddress),
+			new Declaration("vkEnumeratePhysicalDeviceGroups", PFN_vkEnumeratePhysicalDeviceGroups::ofAddress),
+			new Declaration("vkGetPhysicalDeviceFeatures2", PFN_vkGetPhysicalDeviceFeatures2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceProperties2", PFN_vkGetPhysicalDeviceProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceFormatProperties2", PFN_vkGetPhysicalDeviceFormatProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceImageFormatProperties2", PFN_vkGetPhysicalDeviceImageFormatProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceQueueFamilyProperties2", PFN_vkGetPhysicalDeviceQueueFamilyProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceMemoryProperties2", PFN_vkGetPhysicalDeviceMemoryProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSparseImageFormatProperties2", PFN_vkGetPhysicalDeviceSparseImageFormatProperties2::ofAddress),
+			new Declaration("vkGetPhysicalDeviceExternalBufferProperties", PFN_vkGetPhysicalDeviceExternalBufferProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceExternalFenceProperties", PFN_vkGetPhysicalDeviceExternalFenceProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceExternalSemaphoreProperties", PFN_vkGetPhysicalDeviceExternalSemaphoreProperties::ofAddress),
+			new Declaration("vkGetPhysicalDeviceToolProperties", PFN_vkGetPhysicalDeviceToolProperties::ofAddress),
+			new Declaration("vkDestroySurfaceKHR", PFN_vkDestroySurfaceKHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSurfaceSupportKHR", PFN_vkGetPhysicalDeviceSurfaceSupportKHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSurfaceCapabilitiesKHR", PFN_vkGetPhysicalDeviceSurfaceCapabilitiesKHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSurfaceFormatsKHR", PFN_vkGetPhysicalDeviceSurfaceFormatsKHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceSurfacePresentModesKHR", PFN_vkGetPhysicalDeviceSurfacePresentModesKHR::ofAddress),
+			new Declaration("vkCreateDebugUtilsMessengerEXT", PFN_vkCreateDebugUtilsMessengerEXT::ofAddress),
+			new Declaration("vkDestroyDebugUtilsMessengerEXT", PFN_vkDestroyDebugUtilsMessengerEXT::ofAddress),
+			new Declaration("vkSubmitDebugUtilsMessageEXT", PFN_vkSubmitDebugUtilsMessageEXT::ofAddress),
+			new Declaration("vkGetPhysicalDeviceFeatures2KHR", PFN_vkGetPhysicalDeviceFeatures2KHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceProperties2KHR", PFN_vkGetPhysicalDeviceProperties2KHR::ofAddress),
+			new Declaration("vkGetPhysicalDeviceImageFormatProperties2KHR", PFN_vkGetPhysicalDeviceImageFormatProperties2KHR::ofAddress)
+	);
+
+	/**
+	 * The functions a typical short-lived instance actually calls
+	 */
+	private static final Set<String> USED_FUNCTION_NAMES = Set.of(
+			"vkDestroyInstance",
+			"vkEnumeratePhysicalDevices",
+			"vkGetPhysicalDeviceProperties"
+	);
+
+	private VulkanInstance instance;
+
+	/**
+	 * Whether each function in {@link #FUNCTIONS} is called, decided once so that the lazy benchmark only measures
+	 * resolution
+	 */
+	private boolean[] used;
+
+	@Setup
+	public void createInstance() {
+		instance = BenchmarkInstances.builder().build();
+
+		used = new boolean[FUNCTIONS.size()];
+		for (int i = 0; i < used.length; i++) {
+			used[i] = USED_FUNCTION_NAMES.contains(FUNCTIONS.get(i).name());
+		}
+	}
+
+	@TearDown
+	public void closeInstance() {
+		instance.close();
+	}
+
+	@Benchmark
+	public void eagerResolution(Blackhole blackhole) {
+		try (var arena = Arena.ofConfined()) {
+			var table = new DispatchTable(instance.instanceFunctionLookup(), arena);
+
+			for (var declaration : FUNCTIONS) {
+				blackhole.consume(table.entry(declaration.name(), declaration.binder()));
+			}
+
+			table.resolveAll();
+		}
+	}
+
+	@Benchmark
+	public void lazyResolution(Blackhole blackhole) {
+		try (var arena = Arena.ofConfined()) {
+			var table = new DispatchTable(instance.instanceFunctionLookup(), arena);
+
+			for (int i = 0; i < used.length; i++) {
+				var declaration = FUNCTIONS.get(i);
+				var entry = table.entry(declaration.name(), declaration.binder());
+
+				if (used[i]) {
+					blackhole.consume(entry.find());
+				}
+			}
+		}
+	}
+}
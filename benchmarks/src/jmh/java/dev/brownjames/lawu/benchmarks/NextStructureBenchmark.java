@@ -0,0 +1,54 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.NextStructure;
+import dev.brownjames.lawu.vulkan.ScratchAllocator;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceVulkan12Features;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building pNext chains of different lengths, in a fresh confined arena and in a scratch scope.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class NextStructureBenchmark {
+	private static final NextStructure FEATURES = (arena, next) -> {
+		var features = VkPhysicalDeviceVulkan12Features.allocate(arena);
+		VkPhysicalDeviceVulkan12Features.sType$set(features, vulkan_h.VK_STRUCTURE_TYPE_PHYSICAL_DEVICE_VULKAN_1_2_FEATURES());
+		VkPhysicalDeviceVulkan12Features.pNext$set(features, next);
+		return features;
+	};
+
+	@Param({ "1", "4", "16" })
+	public int length;
+
+	private List<NextStructure> nexts;
+
+	@Setup
+	public void setup() {
+		nexts = Collections.nCopies(length, FEATURES);
+	}
+
+	@Benchmark
+	public long confinedArena() {
+		try (var arena = Arena.ofConfined()) {
+			return NextStructure.buildNativeStructureChain(arena, nexts).head().address();
+		}
+	}
+
+	@Benchmark
+	public long scratchScope() {
+		try (var scratch = ScratchAllocator.push()) {
+			return NextStructure.buildNativeStructureChain(scratch, nexts).head().address();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package dev.brownjames.lawu.benchmarks;
+
+import dev.brownjames.lawu.vulkan.*;
+import dev.brownjames.lawu.vulkan.bindings.VkViewport;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.foreign.Arena;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how recording a frame of small tasks scales with the number of recording threads. Each task records one
+ * {@code vkCmdSetViewport}, standing in for a draw. This needs a device that can be created, so run it on a software
+ * ICD such as lavapipe with {@code -PvulkanDriver}; the test driver cannot create devices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class ParallelRecordingBenchmark {
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	@Param({ "20000" })
+	public int tasks;
+
+	@Param({ "256" })
+	public int tasksPerBuffer;
+
+	private VulkanInstance instance;
+	private LogicalDevice device;
+	private CommandPools pools;
+	private ForkJoinPool forkJoinPool;
+	private ParallelCommandRecorder recorder;
+	private Arena arena;
+	private List<ParallelCommandRecorder.Task> frame;
+
+	@Setup
+	public void setup() {
+		instance = BenchmarkInstances.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.build();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		var queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.build(physicalDevice);
+
+		pools = new CommandPools(device, queueFamilyIndex, 2);
+		forkJoinPool = new ForkJoinPool(threads);
+		recorder = new ParallelCommandRecorder(pools, forkJoinPool, tasksPerBuffer);
+
+		arena = Arena.ofShared();
+		var viewport = VkViewport.allocate(arena);
+		VkViewport.width$set(viewport, 1920.0f);
+		VkViewport.height$set(viewport, 1080.0f);
+		VkViewport.maxDepth$set(viewport, 1.0f);
+
+		ParallelCommandRecorder.Task task = buffer -> buffer.setViewports(0, viewport);
+		frame = Collections.nCopies(tasks, task);
+	}
+
+	@TearDown
+	public void tearDown() {
+		forkJoinPool.close();
+		pools.close();
+		arena.close();
+		device.close();
+		instance.close();
+	}
+
+	@Benchmark
+	public List<CommandBuffer> recordFrame() {
+		// Nothing is submitted, so the buffers from the previous use of the slot can be reset straight away
+		pools.nextFrame();
+
+		var primary = pools.primary();
+		primary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		var secondaries = recorder.record(primary, frame);
+		primary.end();
+		return secondaries;
+	}
+
+	@Benchmark
+	public CommandBuffer recordFrameSerially() {
+		pools.nextFrame();
+
+		var primary = pools.primary();
+		primary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		var secondary = pools.secondary();
+		secondary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		for (var task : frame) {
+			task.record(secondary);
+		}
+		secondary.end();
+		primary.executeCommands(List.of(secondary));
+		primary.end();
+		return primary;
+	}
+}
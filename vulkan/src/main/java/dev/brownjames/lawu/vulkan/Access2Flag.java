@@ -0,0 +1,44 @@
+package dev.brownjames.lawu.vulkan;
+
+/**
+ * The memory access types of {@code VkAccessFlags2}, which extend {@link AccessFlag}
+ * <p>
+ * The values are written out because the header declares them as {@code static const} variables rather than enum
+ * constants, which have no bindings.
+ */
+public enum Access2Flag implements BitFlag64 {
+	INDIRECT_COMMAND_READ(0x00000001L),
+	INDEX_READ(0x00000002L),
+	VERTEX_ATTRIBUTE_READ(0x00000004L),
+	UNIFORM_READ(0x00000008L),
+	INPUT_ATTACHMENT_READ(0x00000010L),
+	SHADER_READ(0x00000020L),
+	SHADER_WRITE(0x00000040L),
+	COLOR_ATTACHMENT_READ(0x00000080L),
+	COLOR_ATTACHMENT_WRITE(0x00000100L),
+	DEPTH_STENCIL_ATTACHMENT_READ(0x00000200L),
+	DEPTH_STENCIL_ATTACHMENT_WRITE(0x00000400L),
+	TRANSFER_READ(0x00000800L),
+	TRANSFER_WRITE(0x00001000L),
+	HOST_READ(0x00002000L),
+	HOST_WRITE(0x00004000L),
+	MEMORY_READ(0x00008000L),
+	MEMORY_WRITE(0x00010000L),
+	CONDITIONAL_RENDERING_READ_EXT(0x00100000L),
+	ACCELERATION_STRUCTURE_READ_KHR(0x00200000L),
+	ACCELERATION_STRUCTURE_WRITE_KHR(0x00400000L),
+	SHADER_SAMPLED_READ(0x100000000L),
+	SHADER_STORAGE_READ(0x200000000L),
+	SHADER_STORAGE_WRITE(0x400000000L);
+
+	private final long bit;
+
+	Access2Flag(long bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public long bit() {
+		return bit;
+	}
+}
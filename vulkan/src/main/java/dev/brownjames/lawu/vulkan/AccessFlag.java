@@ -0,0 +1,37 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+/**
+ * The memory access types of {@code VkAccessFlags}
+ */
+public enum AccessFlag implements BitFlag {
+	INDIRECT_COMMAND_READ(vulkan_h.VK_ACCESS_INDIRECT_COMMAND_READ_BIT()),
+	INDEX_READ(vulkan_h.VK_ACCESS_INDEX_READ_BIT()),
+	VERTEX_ATTRIBUTE_READ(vulkan_h.VK_ACCESS_VERTEX_ATTRIBUTE_READ_BIT()),
+	UNIFORM_READ(vulkan_h.VK_ACCESS_UNIFORM_READ_BIT()),
+	INPUT_ATTACHMENT_READ(vulkan_h.VK_ACCESS_INPUT_ATTACHMENT_READ_BIT()),
+	SHADER_READ(vulkan_h.VK_ACCESS_SHADER_READ_BIT()),
+	SHADER_WRITE(vulkan_h.VK_ACCESS_SHADER_WRITE_BIT()),
+	COLOR_ATTACHMENT_READ(vulkan_h.VK_ACCESS_COLOR_ATTACHMENT_READ_BIT()),
+	COLOR_ATTACHMENT_WRITE(vulkan_h.VK_ACCESS_COLOR_ATTACHMENT_WRITE_BIT()),
+	DEPTH_STENCIL_ATTACHMENT_READ(vulkan_h.VK_ACCESS_DEPTH_STENCIL_ATTACHMENT_READ_BIT()),
+	DEPTH_STENCIL_ATTACHMENT_WRITE(vulkan_h.VK_ACCESS_DEPTH_STENCIL_ATTACHMENT_WRITE_BIT()),
+	TRANSFER_READ(vulkan_h.VK_ACCESS_TRANSFER_READ_BIT()),
+	TRANSFER_WRITE(vulkan_h.VK_ACCESS_TRANSFER_WRITE_BIT()),
+	HOST_READ(vulkan_h.VK_ACCESS_HOST_READ_BIT()),
+	HOST_WRITE(vulkan_h.VK_ACCESS_HOST_WRITE_BIT()),
+	MEMORY_READ(vulkan_h.VK_ACCESS_MEMORY_READ_BIT()),
+	MEMORY_WRITE(vulkan_h.VK_ACCESS_MEMORY_WRITE_BIT());
+
+	private final int bit;
+
+	AccessFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
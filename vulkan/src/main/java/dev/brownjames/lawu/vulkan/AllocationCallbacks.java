@@ -0,0 +1,148 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkAllocationCallbacks;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+/**
+ * Host memory allocation functions for the driver to use in place of its own.
+ * <p>
+ * The functions are called from whichever thread is calling into Vulkan, so implementations must be thread-safe. They
+ * are called from native code, so they must not throw; a failed allocation is reported by returning
+ * {@link MemorySegment#NULL}. Memory is passed around as zero-length segments holding only an address.
+ */
+public interface AllocationCallbacks {
+	/**
+	 * Allocates host memory
+	 * @param size the size in bytes
+	 * @param alignment the alignment of the memory, which is a power of two
+	 * @param scope the lifetime of the allocation
+	 * @return the memory, or {@link MemorySegment#NULL} if it could not be allocated
+	 */
+	MemorySegment allocate(long size, long alignment, SystemAllocationScope scope);
+
+	/**
+	 * Reallocates host memory, with the semantics of {@code PFN_vkReallocationFunction}
+	 * @param original memory previously allocated by this object, or {@link MemorySegment#NULL}
+	 * @param size the new size in bytes, or zero to free the memory
+	 * @param alignment the alignment of the memory, which is the same as when it was first allocated
+	 * @param scope the lifetime of the allocation
+	 * @return the memory, or {@link MemorySegment#NULL} if it could not be allocated
+	 */
+	MemorySegment reallocate(MemorySegment original, long size, long alignment, SystemAllocationScope scope);
+
+	/**
+	 * Frees host memory
+	 * @param memory memory previously allocated by this object, or {@link MemorySegment#NULL}
+	 */
+	void free(MemorySegment memory);
+
+	/**
+	 * Notifies that the driver allocated memory itself
+	 * @param size the size in bytes
+	 * @param type the kind of allocation
+	 * @param scope the lifetime of the allocation
+	 */
+	default void internalAllocation(long size, InternalAllocationType type, SystemAllocationScope scope) { }
+
+	/**
+	 * Notifies that the driver freed memory it allocated itself
+	 * @param size the size in bytes
+	 * @param type the kind of allocation
+	 * @param scope the lifetime of the allocation
+	 */
+	default void internalFree(long size, InternalAllocationType type, SystemAllocationScope scope) { }
+
+	/**
+	 * Creates a {@code VkAllocationCallbacks} structure which calls this object
+	 * @param arena the arena to allocate the structure and upcall stubs in, which must outlive every Vulkan object
+	 *              created with the structure
+	 * @return the structure
+	 */
+	default MemorySegment createNativeStructure(Arena arena) {
+		var adaptor = new Object() {
+			MemorySegment allocation(MemorySegment userData, long size, long alignment, int scope) {
+				try {
+					return allocate(size, alignment, SystemAllocationScope.of(scope));
+				} catch (Throwable t) {
+					return MemorySegment.NULL;
+				}
+			}
+
+			MemorySegment reallocation(MemorySegment userData, MemorySegment original, long size, long alignment, int scope) {
+				try {
+					return reallocate(original, size, alignment, SystemAllocationScope.of(scope));
+				} catch (Throwable t) {
+					return MemorySegment.NULL;
+				}
+			}
+
+			void free(MemorySegment userData, MemorySegment memory) {
+				try {
+					AllocationCallbacks.this.free(memory);
+				} catch (Throwable t) {
+					// Nothing can be reported to the driver
+				}
+			}
+
+			void internalAllocation(MemorySegment userData, long size, int type, int scope) {
+				try {
+					AllocationCallbacks.this.internalAllocation(size, InternalAllocationType.of(type), SystemAllocationScope.of(scope));
+				} catch (Throwable t) {
+					// Nothing can be reported to the driver
+				}
+			}
+
+			void internalFree(MemorySegment userData, long size, int type, int scope) {
+				try {
+					AllocationCallbacks.this.internalFree(size, InternalAllocationType.of(type), SystemAllocationScope.of(scope));
+				} catch (Throwable t) {
+					// Nothing can be reported to the driver
+				}
+			}
+		};
+
+		var structure = VkAllocationCallbacks.allocate(arena);
+		VkAllocationCallbacks.pUserData$set(structure, MemorySegment.NULL);
+
+		try {
+			var linker = Linker.nativeLinker();
+			var lookup = MethodHandles.lookup();
+
+			VkAllocationCallbacks.pfnAllocation$set(structure, linker.upcallStub(
+					lookup.bind(adaptor, "allocation", MethodType.methodType(MemorySegment.class, MemorySegment.class, Long.TYPE, Long.TYPE, Integer.TYPE)),
+					FunctionDescriptor.of(ADDRESS, ADDRESS, vulkan_h.size_t, vulkan_h.size_t, JAVA_INT),
+					arena));
+
+			VkAllocationCallbacks.pfnReallocation$set(structure, linker.upcallStub(
+					lookup.bind(adaptor, "reallocation", MethodType.methodType(MemorySegment.class, MemorySegment.class, MemorySegment.class, Long.TYPE, Long.TYPE, Integer.TYPE)),
+					FunctionDescriptor.of(ADDRESS, ADDRESS, ADDRESS, vulkan_h.size_t, vulkan_h.size_t, JAVA_INT),
+					arena));
+
+			VkAllocationCallbacks.pfnFree$set(structure, linker.upcallStub(
+					lookup.bind(adaptor, "free", MethodType.methodType(Void.TYPE, MemorySegment.class, MemorySegment.class)),
+					FunctionDescriptor.ofVoid(ADDRESS, ADDRESS),
+					arena));
+
+			VkAllocationCallbacks.pfnInternalAllocation$set(structure, linker.upcallStub(
+					lookup.bind(adaptor, "internalAllocation", MethodType.methodType(Void.TYPE, MemorySegment.class, Long.TYPE, Integer.TYPE, Integer.TYPE)),
+					FunctionDescriptor.ofVoid(ADDRESS, vulkan_h.size_t, JAVA_INT, JAVA_INT),
+					arena));
+
+			VkAllocationCallbacks.pfnInternalFree$set(structure, linker.upcallStub(
+					lookup.bind(adaptor, "internalFree", MethodType.methodType(Void.TYPE, MemorySegment.class, Long.TYPE, Integer.TYPE, Integer.TYPE)),
+					FunctionDescriptor.ofVoid(ADDRESS, vulkan_h.size_t, JAVA_INT, JAVA_INT),
+					arena));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new AssertionError(e);
+		}
+
+		return structure;
+	}
+}
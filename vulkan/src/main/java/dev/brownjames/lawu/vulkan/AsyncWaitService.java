@@ -0,0 +1,321 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkSemaphoreWaitInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Waits for fences and timeline semaphore values on one native thread, completing futures as they are signalled.
+ * <p>
+ * Waiting in {@code vkWaitForFences} or {@code vkWaitSemaphores} blocks a platform thread for as long as the GPU takes,
+ * and pins the carrier of a virtual thread. The service instead gives every outstanding wait on a device to a single
+ * daemon thread, which blocks in one call covering all of them and completes the futures of those that were signalled.
+ * Waits for values of the same semaphore share one entry in that call, so any number of submissions on a timeline cost
+ * no more to wait for than one.
+ * <p>
+ * Semaphores are waited for with {@code VK_SEMAPHORE_WAIT_ANY_BIT}, together with an internal semaphore that is
+ * signalled from the host when a wait is registered, so new waits are taken up at once. Fences can neither share that
+ * call nor be signalled from the host, so while any are outstanding the thread instead waits for any one of them for
+ * at most the poll interval, then checks the semaphores. Waits for semaphores alone are therefore completed promptly,
+ * and waits alongside fences within the poll interval.
+ * <p>
+ * The device must have been created with {@link DeviceCreateInfo#withTimelineSemaphores()} and from an instance created
+ * with {@link VulkanInstance.ThreadingMode#CONCURRENT}. Fences and semaphores must not be destroyed while they are
+ * waited for.
+ */
+public final class AsyncWaitService implements AutoCloseable {
+	/**
+	 * The default longest time between checks of semaphores while fences are outstanding
+	 */
+	public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(1);
+
+	private sealed interface Wait permits FenceWait, ValueWait {
+		CompletableFuture<Void> future();
+	}
+
+	private record FenceWait(Fence fence, CompletableFuture<Void> future) implements Wait { }
+
+	private record ValueWait(TimelineSemaphore semaphore, long value, CompletableFuture<Void> future) implements Wait { }
+
+	/**
+	 * The outstanding waits for one semaphore, smallest value first
+	 */
+	private static final class PendingValues {
+		private final TimelineSemaphore semaphore;
+		private final PriorityQueue<ValueWait> waits = new PriorityQueue<>(Comparator.comparingLong(ValueWait::value));
+
+		PendingValues(TimelineSemaphore semaphore) {
+			this.semaphore = semaphore;
+		}
+	}
+
+	private final LogicalDevice device;
+	private final Executor executor;
+	private final long pollIntervalNanos;
+
+	private final ConcurrentLinkedQueue<Wait> incoming = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean waiting = new AtomicBoolean();
+	private volatile RuntimeException stopReason;
+
+	private final TimelineSemaphore wake;
+	private long wakeValue;
+
+	private final Thread waiter;
+
+	public AsyncWaitService(LogicalDevice device) {
+		this(device, ForkJoinPool.commonPool(), DEFAULT_POLL_INTERVAL);
+	}
+
+	/**
+	 * Creates a service and starts its waiting thread
+	 * @param device the device whose fences and semaphores are waited for
+	 * @param executor the executor futures are completed on, so that their dependent stages do not run on the waiting
+	 *                 thread. Futures whose completion it rejects are completed on the waiting thread instead.
+	 * @param pollInterval the longest time between checks of semaphores while fences are outstanding
+	 */
+	public AsyncWaitService(LogicalDevice device, Executor executor, Duration pollInterval) {
+		this.device = device;
+		this.executor = executor;
+		this.pollIntervalNanos = pollInterval.toNanos();
+
+		wake = TimelineSemaphore.create(device);
+
+		// The thread spends its life blocked in the driver, so it must not be virtual
+		waiter = Thread.ofPlatform()
+				.name("vulkan-async-wait")
+				.daemon()
+				.start(this::run);
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	/**
+	 * Waits for a fence to be signalled
+	 * @param fence a fence of the service's device
+	 * @return a future that completes once the fence is signalled
+	 */
+	public CompletableFuture<Void> whenSignalled(Fence fence) {
+		assert fence.device() == device;
+		return register(new FenceWait(fence, new CompletableFuture<>()));
+	}
+
+	/**
+	 * Waits for a timeline semaphore to reach a value
+	 * @param semaphore a semaphore of the service's device
+	 * @param value the value
+	 * @return a future that completes once the semaphore's counter reaches the value
+	 */
+	public CompletableFuture<Void> whenReached(TimelineSemaphore semaphore, long value) {
+		assert semaphore.device() == device;
+		return register(new ValueWait(semaphore, value, new CompletableFuture<>()));
+	}
+
+	private CompletableFuture<Void> register(Wait wait) {
+		incoming.add(wait);
+
+		// The waiting thread publishes that it is about to block before checking for new waits, so either it sees this
+		// wait or this sees that it must be woken
+		var reason = stopReason;
+		if (reason != null) {
+			failIncoming(reason);
+		} else if (waiting.compareAndSet(true, false)) {
+			wake();
+		}
+
+		return wait.future();
+	}
+
+	/**
+	 * Signals the internal semaphore, which must only ever increase, under a lock
+	 */
+	private void wake() {
+		synchronized (wake) {
+			wake.signal(++wakeValue);
+		}
+	}
+
+	private void run() {
+		var fences = new ArrayList<FenceWait>();
+		var values = new HashMap<Long, PendingValues>();
+
+		try {
+			while (stopReason == null) {
+				var woken = wake.value();
+				takeIncoming(fences, values);
+
+				var fenceSignalled = false;
+				if (fences.isEmpty()) {
+					waiting.set(true);
+					if (incoming.isEmpty() && stopReason == null) {
+						waitForValues(values, woken);
+					}
+					waiting.set(false);
+				} else {
+					fenceSignalled = waitForFences(fences);
+				}
+
+				if (fenceSignalled) {
+					fences.removeIf(wait -> {
+						if (wait.fence().isSignalled()) {
+							complete(wait.future());
+							return true;
+						}
+
+						return false;
+					});
+				}
+
+				completeReached(values);
+			}
+		} catch (RuntimeException e) {
+			stopReason = e;
+		}
+
+		var reason = stopReason;
+		for (var wait : fences) {
+			fail(wait.future(), reason);
+		}
+
+		for (var pending : values.values()) {
+			for (var wait : pending.waits) {
+				fail(wait.future(), reason);
+			}
+		}
+
+		failIncoming(reason);
+	}
+
+	private void takeIncoming(List<FenceWait> fences, Map<Long, PendingValues> values) {
+		for (var wait = incoming.poll(); wait != null; wait = incoming.poll()) {
+			if (wait instanceof FenceWait fenceWait) {
+				fences.add(fenceWait);
+			} else if (wait instanceof ValueWait valueWait) {
+				values.computeIfAbsent(valueWait.semaphore().handle().address(), address -> new PendingValues(valueWait.semaphore()))
+						.waits.add(valueWait);
+			}
+		}
+	}
+
+	/**
+	 * Blocks until any semaphore reaches the smallest value waited for, or the service is woken
+	 */
+	private void waitForValues(Map<Long, PendingValues> values, long woken) {
+		try (var arena = ScratchAllocator.push()) {
+			var count = values.size() + 1;
+			var semaphores = arena.allocateArray(vulkan_h.VkSemaphore, count);
+			var targets = arena.allocateArray(vulkan_h.uint64_t, count);
+
+			semaphores.setAtIndex(vulkan_h.VkSemaphore, 0L, wake.handle());
+			targets.setAtIndex(vulkan_h.uint64_t, 0L, woken + 1);
+
+			var index = 1L;
+			for (var pending : values.values()) {
+				semaphores.setAtIndex(vulkan_h.VkSemaphore, index, pending.semaphore.handle());
+				targets.setAtIndex(vulkan_h.uint64_t, index, pending.waits.element().value());
+				index++;
+			}
+
+			var waitInfo = VkSemaphoreWaitInfo.allocate(arena);
+			VkSemaphoreWaitInfo.sType$set(waitInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_WAIT_INFO());
+			VkSemaphoreWaitInfo.pNext$set(waitInfo, MemorySegment.NULL);
+			VkSemaphoreWaitInfo.flags$set(waitInfo, vulkan_h.VK_SEMAPHORE_WAIT_ANY_BIT());
+			VkSemaphoreWaitInfo.semaphoreCount$set(waitInfo, count);
+			VkSemaphoreWaitInfo.pSemaphores$set(waitInfo, semaphores);
+			VkSemaphoreWaitInfo.pValues$set(waitInfo, targets);
+
+			device.waitSemaphores(waitInfo, -1L);
+		}
+	}
+
+	/**
+	 * Blocks until any fence is signalled, or the poll interval expires
+	 * @return whether a fence was signalled
+	 */
+	private boolean waitForFences(List<FenceWait> fences) {
+		try (var arena = ScratchAllocator.push()) {
+			var handles = arena.allocateArray(vulkan_h.VkFence, fences.size());
+			for (int i = 0; i < fences.size(); i++) {
+				handles.setAtIndex(vulkan_h.VkFence, i, fences.get(i).fence().handle());
+			}
+
+			return device.waitForFences(fences.size(), handles, false, pollIntervalNanos) == vulkan_h.VK_SUCCESS();
+		}
+	}
+
+	private void completeReached(Map<Long, PendingValues> values) {
+		var iterator = values.values().iterator();
+		while (iterator.hasNext()) {
+			var pending = iterator.next();
+			var value = pending.semaphore.value();
+
+			while (!pending.waits.isEmpty() && pending.waits.element().value() <= value) {
+				complete(pending.waits.remove().future());
+			}
+
+			if (pending.waits.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private void failIncoming(RuntimeException reason) {
+		for (var wait = incoming.poll(); wait != null; wait = incoming.poll()) {
+			fail(wait.future(), reason);
+		}
+	}
+
+	private void complete(CompletableFuture<Void> future) {
+		execute(() -> future.complete(null));
+	}
+
+	private void fail(CompletableFuture<Void> future, RuntimeException reason) {
+		execute(() -> future.completeExceptionally(reason));
+	}
+
+	/**
+	 * Runs a completion on the executor, or on the calling thread if the executor rejects it, such as after it has been
+	 * shut down, so that no future is left incomplete
+	 */
+	private void execute(Runnable completion) {
+		try {
+			executor.execute(completion);
+		} catch (RejectedExecutionException e) {
+			completion.run();
+		}
+	}
+
+	/**
+	 * Stops the waiting thread and destroys the internal semaphore. Waits that are still outstanding fail with a
+	 * {@link CancellationException}, as do any registered afterwards.
+	 */
+	@Override
+	public void close() throws InterruptedException {
+		if (stopReason == null) {
+			stopReason = new CancellationException("The wait service was closed");
+		}
+
+		if (waiter.isAlive()) {
+			wake();
+		}
+
+		waiter.join();
+		wake.close();
+	}
+}
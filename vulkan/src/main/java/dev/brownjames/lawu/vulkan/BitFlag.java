@@ -60,6 +60,17 @@ public interface BitFlag {
 		return new BitFlagSet<>(flags, flagClass);
 	}
 
+	/**
+	 * Creates an unmodifiable set of flags, which can be shared freely
+	 * @param flags the flag bits
+	 * @param flagClass the type of flag
+	 * @return an unmodifiable set of flags
+	 * @param <ELEMENT> the element type
+	 */
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag> Set<ELEMENT> immutableFlags(int flags, Class<ELEMENT> flagClass) {
+		return new BitFlagSet<>(flags, flagClass, false);
+	}
+
 	/**
 	 * Create an empty flag set with a known type
 	 * @param flagClass the type of flag
@@ -81,11 +92,16 @@ public interface BitFlag {
 	 * @param <ELEMENT> the element type
 	 */
 	static <ELEMENT extends Enum<ELEMENT> & BitFlag> int getFlagBits(Collection<ELEMENT> c) {
-		if (c.isEmpty()) {
-			return 0;
+		if (c instanceof BitFlagSet<ELEMENT> s) {
+			return s.flags();
 		}
 
-		return new BitFlagSet<>(c).flags();
+		var flags = 0;
+		for (var e : c) {
+			flags |= e.bit();
+		}
+
+		return flags;
 	}
 }
 
@@ -95,34 +111,69 @@ public interface BitFlag {
  * @param <ELEMENT> the type of element in this set
  */
 final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends AbstractSet<ELEMENT> {
+	/**
+	 * The flag for each bit position, built once per flag type and shared by every set of that type
+	 */
+	private static final ClassValue<Object[]> decodeTables = new ClassValue<>() {
+		@Override
+		protected Object[] computeValue(Class<?> type) {
+			var enumConstants = type.getEnumConstants();
+			assert enumConstants != null;
+
+			var array = (Object[]) Array.newInstance(type, Integer.SIZE);
+			for (var e : enumConstants) {
+				array[Integer.numberOfTrailingZeros(((BitFlag) e).bit())] = e;
+			}
+
+			return array;
+		}
+	};
+
+	private static final ClassValue<Integer> knownBits = new ClassValue<>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			var bits = 0;
+			for (var e : type.getEnumConstants()) {
+				bits |= ((BitFlag) e).bit();
+			}
+
+			return bits;
+		}
+	};
+
 	private int flags;
 	private final Class<ELEMENT> type;
 	private final ELEMENT[] allValues;
+	private final boolean mutable;
 
-	private static <ELEMENT extends Enum<ELEMENT> & BitFlag> ELEMENT[] createAllValues(ELEMENT[] enumConstants) {
-		assert enumConstants != null;
-
-		@SuppressWarnings("unchecked")
-		var array = (ELEMENT[]) Array.newInstance(enumConstants.getClass().componentType(), Integer.SIZE);
-		for (var e : enumConstants) {
-			array[Integer.numberOfTrailingZeros(e.bit())] = e;
-		}
+	@SuppressWarnings("unchecked")
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag> ELEMENT[] decodeTable(Class<ELEMENT> type) {
+		return (ELEMENT[]) decodeTables.get(type);
+	}
 
-		return array;
+	static int knownBits(Class<? extends BitFlag> type) {
+		return knownBits.get(type);
 	}
 
 	BitFlagSet(int flags, Class<ELEMENT> type) {
+		this(flags, type, true);
+	}
+
+	BitFlagSet(int flags, Class<ELEMENT> type, boolean mutable) {
 		assert type != null;
 
 		this.flags = flags;
 		this.type = type;
-		allValues = createAllValues(type.getEnumConstants());
+		this.allValues = decodeTable(type);
+		this.mutable = mutable;
 	}
 
 	BitFlagSet(Collection<ELEMENT> c) {
 		assert c != null;
 		assert !c.isEmpty();
 
+		this.mutable = true;
+
 		if (c instanceof BitFlagSet<ELEMENT> s) {
 			this.flags = s.flags;
 			this.type = s.type;
@@ -130,9 +181,7 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 		} else {
 			this.flags = 0;
 			this.type = c.iterator().next().getDeclaringClass();
-			allValues = createAllValues(type.getEnumConstants());
-
-			assert allValues != null;
+			allValues = decodeTable(type);
 
 			addAll(c);
 		}
@@ -142,6 +191,16 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 		return flags;
 	}
 
+	Class<ELEMENT> type() {
+		return type;
+	}
+
+	private void checkMutable() {
+		if (!mutable) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
 	@Override
 	public Iterator<ELEMENT> iterator() {
 		return new Iterator<>() {
@@ -180,6 +239,8 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
+		checkMutable();
+
 		if (c instanceof BitFlagSet<?> s && s.type.equals(type)) {
 			var modified = (s.flags & flags) != 0;
 			flags &= ~s.flags;
@@ -196,12 +257,14 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public boolean contains(Object o) {
-		return (o.getClass().equals(type) || o.getClass().getSuperclass().equals(type))
-				&& (flags & ((BitFlag) o).bit()) != 0;
+		// Constants with a class body are subclasses of the enum, which isInstance covers
+		return type.isInstance(o) && (flags & ((BitFlag) o).bit()) != 0;
 	}
 
 	@Override
 	public boolean add(ELEMENT element) {
+		checkMutable();
+
 		if (contains(element)) {
 			return false;
 		}
@@ -213,6 +276,8 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public boolean remove(Object o) {
+		checkMutable();
+
 		if (!contains(o)) {
 			return false;
 		}
@@ -232,6 +297,8 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public boolean addAll(Collection<? extends ELEMENT> c) {
+		checkMutable();
+
 		if (c instanceof BitFlagSet<?> s && s.type.equals(type)) {
 			var modified = !containsAll(c);
 			flags |= s.flags;
@@ -243,6 +310,8 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public boolean retainAll(Collection<?> c) {
+		checkMutable();
+
 		if (c instanceof BitFlagSet<?> s && s.type.equals(type)) {
 			@SuppressWarnings("SuspiciousMethodCalls")
 			var modified = !s.containsAll(this);
@@ -255,6 +324,7 @@ final class BitFlagSet<ELEMENT extends Enum<ELEMENT> & BitFlag> extends Abstract
 
 	@Override
 	public void clear() {
+		checkMutable();
 		flags = 0;
 	}
 }
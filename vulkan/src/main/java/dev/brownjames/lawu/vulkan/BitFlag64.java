@@ -0,0 +1,306 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A single flag bit in a 64-bit bitset, for the {@code VkFlags64} types
+ */
+public interface BitFlag64 {
+	/**
+	 * The bit set by this flag
+	 * @return a long with a single bit set
+	 */
+	long bit();
+
+	/**
+	 * Creates a set of flags from the given elements
+	 * @param elements the element, there must be at least one element
+	 * @return a set
+	 * @param <ELEMENT> the type of the elements
+	 */
+	@SafeVarargs
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> Set<ELEMENT> flags(ELEMENT... elements) {
+		assert elements != null;
+		assert Stream.of(elements).allMatch(Objects::nonNull);
+		assert elements.length != 0;
+
+		var set = noFlags(elements[0].getDeclaringClass());
+		Collections.addAll(set, elements);
+
+		return set;
+	}
+
+	/**
+	 * Creates a set of flags
+	 * @param flags the flag bits
+	 * @param flagClass the type of flag
+	 * @return a set of flags
+	 * @param <ELEMENT> the element type
+	 */
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> Set<ELEMENT> flags(long flags, Class<ELEMENT> flagClass) {
+		return new BitFlag64Set<>(flags, flagClass, true);
+	}
+
+	/**
+	 * Creates an unmodifiable set of flags, which can be shared freely
+	 * @param flags the flag bits
+	 * @param flagClass the type of flag
+	 * @return an unmodifiable set of flags
+	 * @param <ELEMENT> the element type
+	 */
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> Set<ELEMENT> immutableFlags(long flags, Class<ELEMENT> flagClass) {
+		return new BitFlag64Set<>(flags, flagClass, false);
+	}
+
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> Set<ELEMENT> noFlags(Class<ELEMENT> flagClass) {
+		return flags(0, flagClass);
+	}
+
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> Set<ELEMENT> allFlags(Class<ELEMENT> c) {
+		return flags(c.getEnumConstants());
+	}
+
+	/**
+	 * Gets a long containing all set flag bits
+	 * @param c the collection to extract the bits
+	 * @return a long
+	 * @param <ELEMENT> the element type
+	 */
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> long getFlagBits(Collection<ELEMENT> c) {
+		if (c instanceof BitFlag64Set<ELEMENT> s) {
+			return s.flags();
+		}
+
+		var flags = 0L;
+		for (var e : c) {
+			flags |= e.bit();
+		}
+
+		return flags;
+	}
+
+	/**
+	 * Converts 32-bit flags to the 64-bit type that extends them, such as {@code VkPipelineStageFlags} to
+	 * {@code VkPipelineStageFlags2}. Bits with no matching 64-bit flag are dropped.
+	 * @param flags the 32-bit flags
+	 * @param flagClass the 64-bit flag type
+	 * @return a set of flags
+	 * @param <NARROW> the 32-bit flag type
+	 * @param <WIDE> the 64-bit flag type
+	 */
+	static <NARROW extends Enum<NARROW> & BitFlag, WIDE extends Enum<WIDE> & BitFlag64> Set<WIDE> widen(Collection<NARROW> flags, Class<WIDE> flagClass) {
+		return flags(Integer.toUnsignedLong(BitFlag.getFlagBits(flags)) & BitFlag64Set.knownBits(flagClass), flagClass);
+	}
+
+	/**
+	 * Converts 64-bit flags to the 32-bit type they extend
+	 * @param flags the 64-bit flags
+	 * @param flagClass the 32-bit flag type
+	 * @return a set of flags
+	 * @throws IllegalArgumentException if any of the flags has no 32-bit equivalent
+	 * @param <WIDE> the 64-bit flag type
+	 * @param <NARROW> the 32-bit flag type
+	 */
+	static <WIDE extends Enum<WIDE> & BitFlag64, NARROW extends Enum<NARROW> & BitFlag> Set<NARROW> narrow(Collection<WIDE> flags, Class<NARROW> flagClass) {
+		var bits = getFlagBits(flags);
+		var narrowBits = (int) bits;
+		var known = BitFlagSet.knownBits(flagClass);
+
+		if (Integer.toUnsignedLong(narrowBits & known) != bits) {
+			throw new IllegalArgumentException("%s cannot be represented as %s".formatted(flags, flagClass.getSimpleName()));
+		}
+
+		return BitFlag.flags(narrowBits, flagClass);
+	}
+}
+
+/**
+ * A set of flags stored in a 64-bit bitfield. This set does not support null elements
+ *
+ * @param <ELEMENT> the type of element in this set
+ */
+final class BitFlag64Set<ELEMENT extends Enum<ELEMENT> & BitFlag64> extends AbstractSet<ELEMENT> {
+	/**
+	 * The flag for each bit position, built once per flag type and shared by every set of that type
+	 */
+	private static final ClassValue<Object[]> decodeTables = new ClassValue<>() {
+		@Override
+		protected Object[] computeValue(Class<?> type) {
+			var enumConstants = type.getEnumConstants();
+			assert enumConstants != null;
+
+			var array = (Object[]) Array.newInstance(type, Long.SIZE);
+			for (var e : enumConstants) {
+				array[Long.numberOfTrailingZeros(((BitFlag64) e).bit())] = e;
+			}
+
+			return array;
+		}
+	};
+
+	private static final ClassValue<Long> knownBits = new ClassValue<>() {
+		@Override
+		protected Long computeValue(Class<?> type) {
+			var bits = 0L;
+			for (var e : type.getEnumConstants()) {
+				bits |= ((BitFlag64) e).bit();
+			}
+
+			return bits;
+		}
+	};
+
+	private long flags;
+	private final Class<ELEMENT> type;
+	private final ELEMENT[] allValues;
+	private final boolean mutable;
+
+	@SuppressWarnings("unchecked")
+	static <ELEMENT extends Enum<ELEMENT> & BitFlag64> ELEMENT[] decodeTable(Class<ELEMENT> type) {
+		return (ELEMENT[]) decodeTables.get(type);
+	}
+
+	static long knownBits(Class<? extends BitFlag64> type) {
+		return knownBits.get(type);
+	}
+
+	BitFlag64Set(long flags, Class<ELEMENT> type, boolean mutable) {
+		assert type != null;
+
+		this.flags = flags;
+		this.type = type;
+		this.allValues = decodeTable(type);
+		this.mutable = mutable;
+	}
+
+	long flags() {
+		return flags;
+	}
+
+	private void checkMutable() {
+		if (!mutable) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Override
+	public Iterator<ELEMENT> iterator() {
+		return new Iterator<>() {
+			long flags = BitFlag64Set.this.flags;
+
+			@Override
+			public boolean hasNext() {
+				return flags != 0;
+			}
+
+			@Override
+			public ELEMENT next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				var result = Long.numberOfTrailingZeros(flags);
+				flags &= flags - 1;
+
+				return allValues[result];
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return Long.bitCount(flags);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return (o instanceof BitFlag64Set<?> s && s.flags == flags && s.type.equals(type)) || super.equals(o);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return flags == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return type.isInstance(o) && (flags & ((BitFlag64) o).bit()) != 0;
+	}
+
+	@Override
+	public boolean add(ELEMENT element) {
+		checkMutable();
+
+		var modified = (flags & element.bit()) == 0;
+		flags |= element.bit();
+		return modified;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		checkMutable();
+
+		if (!contains(o)) {
+			return false;
+		}
+
+		flags &= ~((BitFlag64) o).bit();
+		return true;
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		if (c instanceof BitFlag64Set<?> s && s.type.equals(type)) {
+			return (flags & s.flags) == s.flags;
+		}
+
+		return super.containsAll(c);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends ELEMENT> c) {
+		checkMutable();
+
+		if (c instanceof BitFlag64Set<?> s && s.type.equals(type)) {
+			var modified = (flags | s.flags) != flags;
+			flags |= s.flags;
+			return modified;
+		}
+
+		return super.addAll(c);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		checkMutable();
+
+		if (c instanceof BitFlag64Set<?> s && s.type.equals(type)) {
+			var modified = (s.flags & flags) != 0;
+			flags &= ~s.flags;
+			return modified;
+		}
+
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		checkMutable();
+
+		if (c instanceof BitFlag64Set<?> s && s.type.equals(type)) {
+			var modified = (flags & s.flags) != flags;
+			flags &= s.flags;
+			return modified;
+		}
+
+		return super.retainAll(c);
+	}
+
+	@Override
+	public void clear() {
+		checkMutable();
+		flags = 0;
+	}
+}
@@ -0,0 +1,84 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An immutable set of flags held as its bits. Operations return new values rather than changing this one, and unlike
+ * a {@link Set} nothing is allocated beyond the value itself, which escape analysis can usually remove.
+ * @param type the type of flag
+ * @param bits the flag bits
+ * @param <ELEMENT> the type of flag
+ */
+public record BitFlags<ELEMENT extends Enum<ELEMENT> & BitFlag>(Class<ELEMENT> type, int bits) {
+	public BitFlags {
+		assert type != null;
+	}
+
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag> BitFlags<ELEMENT> none(Class<ELEMENT> type) {
+		return new BitFlags<>(type, 0);
+	}
+
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag> BitFlags<ELEMENT> of(Class<ELEMENT> type, Collection<ELEMENT> c) {
+		return new BitFlags<>(type, BitFlag.getFlagBits(c));
+	}
+
+	@SafeVarargs
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag> BitFlags<ELEMENT> of(ELEMENT first, ELEMENT... rest) {
+		var bits = first.bit();
+		for (var e : rest) {
+			bits |= e.bit();
+		}
+
+		return new BitFlags<>(first.getDeclaringClass(), bits);
+	}
+
+	public boolean contains(ELEMENT flag) {
+		return (bits & flag.bit()) != 0;
+	}
+
+	public boolean containsAll(BitFlags<ELEMENT> other) {
+		return (bits & other.bits) == other.bits;
+	}
+
+	public boolean containsAny(BitFlags<ELEMENT> other) {
+		return (bits & other.bits) != 0;
+	}
+
+	public boolean isEmpty() {
+		return bits == 0;
+	}
+
+	public int size() {
+		return Integer.bitCount(bits);
+	}
+
+	public BitFlags<ELEMENT> with(ELEMENT flag) {
+		return new BitFlags<>(type, bits | flag.bit());
+	}
+
+	public BitFlags<ELEMENT> without(ELEMENT flag) {
+		return new BitFlags<>(type, bits & ~flag.bit());
+	}
+
+	public BitFlags<ELEMENT> union(BitFlags<ELEMENT> other) {
+		return new BitFlags<>(type, bits | other.bits);
+	}
+
+	public BitFlags<ELEMENT> intersection(BitFlags<ELEMENT> other) {
+		return new BitFlags<>(type, bits & other.bits);
+	}
+
+	/**
+	 * Views these flags as a set
+	 * @return an unmodifiable set
+	 */
+	public Set<ELEMENT> asSet() {
+		return BitFlag.immutableFlags(bits, type);
+	}
+
+	@Override
+	public String toString() {
+		return asSet().toString();
+	}
+}
@@ -0,0 +1,114 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An immutable set of 64-bit flags held as its bits, the {@code long} counterpart of {@link BitFlags}. Barrier masks
+ * can be built from these without boxing or hashing.
+ * @param type the type of flag
+ * @param bits the flag bits
+ * @param <ELEMENT> the type of flag
+ */
+public record BitFlags64<ELEMENT extends Enum<ELEMENT> & BitFlag64>(Class<ELEMENT> type, long bits) {
+	public BitFlags64 {
+		assert type != null;
+	}
+
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag64> BitFlags64<ELEMENT> none(Class<ELEMENT> type) {
+		return new BitFlags64<>(type, 0);
+	}
+
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag64> BitFlags64<ELEMENT> of(Class<ELEMENT> type, Collection<ELEMENT> c) {
+		return new BitFlags64<>(type, BitFlag64.getFlagBits(c));
+	}
+
+	@SafeVarargs
+	public static <ELEMENT extends Enum<ELEMENT> & BitFlag64> BitFlags64<ELEMENT> of(ELEMENT first, ELEMENT... rest) {
+		var bits = first.bit();
+		for (var e : rest) {
+			bits |= e.bit();
+		}
+
+		return new BitFlags64<>(first.getDeclaringClass(), bits);
+	}
+
+	/**
+	 * Converts 32-bit flags to the 64-bit type that extends them. Bits with no matching 64-bit flag are dropped.
+	 * @param flags the 32-bit flags
+	 * @param type the 64-bit flag type
+	 * @return the flags
+	 * @param <NARROW> the 32-bit flag type
+	 * @param <ELEMENT> the 64-bit flag type
+	 */
+	public static <NARROW extends Enum<NARROW> & BitFlag, ELEMENT extends Enum<ELEMENT> & BitFlag64> BitFlags64<ELEMENT> widen(BitFlags<NARROW> flags, Class<ELEMENT> type) {
+		return new BitFlags64<>(type, Integer.toUnsignedLong(flags.bits()) & BitFlag64Set.knownBits(type));
+	}
+
+	/**
+	 * Converts these flags to the 32-bit type they extend
+	 * @param type the 32-bit flag type
+	 * @return the flags
+	 * @throws IllegalArgumentException if any flag has no 32-bit equivalent
+	 * @param <NARROW> the 32-bit flag type
+	 */
+	public <NARROW extends Enum<NARROW> & BitFlag> BitFlags<NARROW> narrow(Class<NARROW> type) {
+		var narrowBits = (int) bits;
+		var known = BitFlagSet.knownBits(type);
+
+		if (Integer.toUnsignedLong(narrowBits & known) != bits) {
+			throw new IllegalArgumentException("%s cannot be represented as %s".formatted(this, type.getSimpleName()));
+		}
+
+		return new BitFlags<>(type, narrowBits);
+	}
+
+	public boolean contains(ELEMENT flag) {
+		return (bits & flag.bit()) != 0;
+	}
+
+	public boolean containsAll(BitFlags64<ELEMENT> other) {
+		return (bits & other.bits) == other.bits;
+	}
+
+	public boolean containsAny(BitFlags64<ELEMENT> other) {
+		return (bits & other.bits) != 0;
+	}
+
+	public boolean isEmpty() {
+		return bits == 0;
+	}
+
+	public int size() {
+		return Long.bitCount(bits);
+	}
+
+	public BitFlags64<ELEMENT> with(ELEMENT flag) {
+		return new BitFlags64<>(type, bits | flag.bit());
+	}
+
+	public BitFlags64<ELEMENT> without(ELEMENT flag) {
+		return new BitFlags64<>(type, bits & ~flag.bit());
+	}
+
+	public BitFlags64<ELEMENT> union(BitFlags64<ELEMENT> other) {
+		return new BitFlags64<>(type, bits | other.bits);
+	}
+
+	public BitFlags64<ELEMENT> intersection(BitFlags64<ELEMENT> other) {
+		return new BitFlags64<>(type, bits & other.bits);
+	}
+
+	/**
+	 * Views these flags as a set
+	 * @return an unmodifiable set
+	 */
+	public Set<ELEMENT> asSet() {
+		return BitFlag64.immutableFlags(bits, type);
+	}
+
+	@Override
+	public String toString() {
+		return asSet().toString();
+	}
+}
@@ -0,0 +1,133 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.BitSet;
+
+/**
+ * A binary buddy allocator over a range of offsets.
+ * <p>
+ * Every block is a power of two in size and is aligned to its own size, so alignment requirements up to the capacity
+ * of the allocator are met by rounding the request up. Freeing a block merges it with its buddy whenever the buddy is
+ * also free, so fragmentation does not grow unbounded. This class only tracks offsets and is not thread-safe.
+ */
+final class BuddyAllocator {
+	private final int minimumShift;
+	private final int maximumOrder;
+	private final BitSet[] freeBlocks;
+	private final byte[] allocatedOrders;
+	private long freeBytes;
+
+	/**
+	 * Creates a buddy allocator with everything free
+	 * @param capacity the size of the range in bytes, which must be a power of two
+	 * @param minimumBlockSize the smallest block that will be handed out, which must be a power of two
+	 */
+	BuddyAllocator(long capacity, long minimumBlockSize) {
+		assert Long.bitCount(capacity) == 1;
+		assert Long.bitCount(minimumBlockSize) == 1;
+		assert capacity >= minimumBlockSize;
+
+		minimumShift = Long.numberOfTrailingZeros(minimumBlockSize);
+		maximumOrder = Long.numberOfTrailingZeros(capacity) - minimumShift;
+		assert maximumOrder < Integer.SIZE - 1;
+
+		freeBlocks = new BitSet[maximumOrder + 1];
+		for (int order = 0; order <= maximumOrder; order++) {
+			freeBlocks[order] = new BitSet(1 << (maximumOrder - order));
+		}
+		freeBlocks[maximumOrder].set(0);
+
+		allocatedOrders = new byte[1 << maximumOrder];
+		freeBytes = capacity;
+	}
+
+	/**
+	 * Allocates a block
+	 * @param size the minimum size of the block
+	 * @param alignment the alignment of the block's offset, which must be a power of two
+	 * @return the offset of the block, or {@code -1} if there is no free block large enough
+	 */
+	long allocate(long size, long alignment) {
+		assert size > 0;
+		assert Long.bitCount(alignment) == 1;
+
+		var blockSize = Math.max(Math.max(size, alignment), minimumBlockSize());
+		var order = Long.SIZE - Long.numberOfLeadingZeros(blockSize - 1) - minimumShift;
+		if (order > maximumOrder) {
+			return -1;
+		}
+
+		var available = order;
+		while (freeBlocks[available].isEmpty()) {
+			if (++available > maximumOrder) {
+				return -1;
+			}
+		}
+
+		var index = freeBlocks[available].nextSetBit(0);
+		freeBlocks[available].clear(index);
+
+		// Split the block, keeping the lower half each time and freeing the upper half
+		while (available > order) {
+			available--;
+			index <<= 1;
+			freeBlocks[available].set(index + 1);
+		}
+
+		var unit = index << order;
+		allocatedOrders[unit] = (byte) (order + 1);
+		freeBytes -= blockSize(order);
+		return (long) unit << minimumShift;
+	}
+
+	/**
+	 * Frees a block
+	 * @param offset the offset previously returned from {@link #allocate(long, long)}
+	 */
+	void free(long offset) {
+		var unit = (int) (offset >>> minimumShift);
+		var order = allocatedOrders[unit] - 1;
+		assert order >= 0 : "offset is not allocated";
+
+		allocatedOrders[unit] = 0;
+		freeBytes += blockSize(order);
+
+		var index = unit >>> order;
+		while (order < maximumOrder && freeBlocks[order].get(index ^ 1)) {
+			freeBlocks[order].clear(index ^ 1);
+			index >>>= 1;
+			order++;
+		}
+		freeBlocks[order].set(index);
+	}
+
+	/**
+	 * Gets the size of an allocated block, which may be larger than was requested
+	 * @param offset the offset of the block
+	 * @return the size of the block in bytes
+	 */
+	long blockSize(long offset) {
+		var order = allocatedOrders[(int) (offset >>> minimumShift)] - 1;
+		assert order >= 0 : "offset is not allocated";
+		return blockSize(order);
+	}
+
+	long capacity() {
+		return blockSize(maximumOrder);
+	}
+
+	long minimumBlockSize() {
+		return 1L << minimumShift;
+	}
+
+	long freeBytes() {
+		return freeBytes;
+	}
+
+	boolean isEmpty() {
+		return freeBytes == capacity();
+	}
+
+	private long blockSize(int order) {
+		return 1L << (order + minimumShift);
+	}
+}
@@ -0,0 +1,131 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkCommandBufferBeginInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkCommandBufferInheritanceInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkViewport;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A command buffer allocated from a {@link CommandPool}. Command buffers are freed with their pool, or by
+ * {@link CommandPool#free}, and are externally synchronised with it.
+ * @param handle the command buffer handle
+ * @param pool the pool the buffer was allocated from
+ * @param level whether the buffer is primary or secondary
+ */
+public record CommandBuffer(MemorySegment handle, CommandPool pool, Level level) implements VulkanHandle {
+	public enum Level {
+		PRIMARY(vulkan_h.VK_COMMAND_BUFFER_LEVEL_PRIMARY()),
+		SECONDARY(vulkan_h.VK_COMMAND_BUFFER_LEVEL_SECONDARY());
+
+		private final int value;
+
+		Level(int value) {
+			this.value = value;
+		}
+
+		public int value() {
+			return value;
+		}
+	}
+
+	/**
+	 * An enumeration of flag bits describing how a recording will be used
+	 */
+	public enum Usage implements BitFlag {
+		ONE_TIME_SUBMIT(vulkan_h.VK_COMMAND_BUFFER_USAGE_ONE_TIME_SUBMIT_BIT()),
+		RENDER_PASS_CONTINUE(vulkan_h.VK_COMMAND_BUFFER_USAGE_RENDER_PASS_CONTINUE_BIT()),
+		SIMULTANEOUS_USE(vulkan_h.VK_COMMAND_BUFFER_USAGE_SIMULTANEOUS_USE_BIT());
+
+		private final int bit;
+
+		Usage(int bit) {
+			this.bit = bit;
+		}
+
+		@Override
+		public int bit() {
+			return bit;
+		}
+	}
+
+	public LogicalDevice device() {
+		return pool.device();
+	}
+
+	/**
+	 * Starts recording. Secondary buffers inherit nothing; use {@link #begin(Set, MemorySegment)} to record them for use
+	 * inside a render pass.
+	 * @param usage how the recording will be used
+	 */
+	public void begin(Set<Usage> usage) {
+		try (var arena = ScratchAllocator.push()) {
+			var inheritanceInfo = MemorySegment.NULL;
+			if (level == Level.SECONDARY) {
+				inheritanceInfo = VkCommandBufferInheritanceInfo.allocate(arena);
+				VkCommandBufferInheritanceInfo.sType$set(inheritanceInfo, vulkan_h.VK_STRUCTURE_TYPE_COMMAND_BUFFER_INHERITANCE_INFO());
+			}
+
+			begin(usage, inheritanceInfo);
+		}
+	}
+
+	/**
+	 * Starts recording
+	 * @param usage how the recording will be used
+	 * @param inheritanceInfo a {@code VkCommandBufferInheritanceInfo} structure, which is required for secondary buffers
+	 *                        and ignored for primary ones
+	 */
+	public void begin(Set<Usage> usage, MemorySegment inheritanceInfo) {
+		assert level == Level.PRIMARY || inheritanceInfo.address() != 0L;
+
+		try (var arena = ScratchAllocator.push()) {
+			var beginInfo = VkCommandBufferBeginInfo.allocate(arena);
+			VkCommandBufferBeginInfo.sType$set(beginInfo, vulkan_h.VK_STRUCTURE_TYPE_COMMAND_BUFFER_BEGIN_INFO());
+			VkCommandBufferBeginInfo.pNext$set(beginInfo, MemorySegment.NULL);
+			VkCommandBufferBeginInfo.flags$set(beginInfo, BitFlag.getFlagBits(usage));
+			VkCommandBufferBeginInfo.pInheritanceInfo$set(beginInfo, inheritanceInfo);
+
+			device().beginCommandBuffer(handle, beginInfo);
+		}
+	}
+
+	public void end() {
+		device().endCommandBuffer(handle);
+	}
+
+	/**
+	 * Records the execution of secondary command buffers, in order
+	 * @param secondaries the secondary buffers, which must have finished recording
+	 */
+	public void executeCommands(List<CommandBuffer> secondaries) {
+		assert level == Level.PRIMARY;
+		assert secondaries.stream().allMatch(secondary -> secondary.level == Level.SECONDARY);
+
+		if (secondaries.isEmpty()) {
+			return;
+		}
+
+		try (var arena = ScratchAllocator.push()) {
+			var handles = arena.allocateArray(vulkan_h.VkCommandBuffer, secondaries.size());
+			for (int i = 0; i < secondaries.size(); i++) {
+				handles.setAtIndex(vulkan_h.VkCommandBuffer, i, secondaries.get(i).handle);
+			}
+
+			device().cmdExecuteCommands(handle, secondaries.size(), handles);
+		}
+	}
+
+	/**
+	 * Records setting the dynamic viewports
+	 * @param firstViewport the index of the first viewport to set
+	 * @param viewports an array of {@code VkViewport} structures
+	 */
+	public void setViewports(int firstViewport, MemorySegment viewports) {
+		var count = viewports.byteSize() / VkViewport.$LAYOUT().byteSize();
+		device().cmdSetViewport(handle, firstViewport, (int) count, viewports);
+	}
+}
@@ -0,0 +1,158 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkCommandBufferAllocateInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkCommandPoolCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A command pool on a logical device, from which command buffers are allocated.
+ * <p>
+ * A pool and every command buffer allocated from it are externally synchronised: only one thread may allocate, free,
+ * reset, record or otherwise use any of them at a time. Recording on several threads at once needs a pool per thread,
+ * which is what {@link CommandPools} provides.
+ */
+public final class CommandPool implements AutoCloseable, VulkanHandle {
+	/**
+	 * An enumeration of flag bits for creating a command pool
+	 */
+	public enum Flag implements BitFlag {
+		TRANSIENT(vulkan_h.VK_COMMAND_POOL_CREATE_TRANSIENT_BIT()),
+		RESET_COMMAND_BUFFER(vulkan_h.VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT()),
+		PROTECTED(vulkan_h.VK_COMMAND_POOL_CREATE_PROTECTED_BIT());
+
+		private final int bit;
+
+		Flag(int bit) {
+			this.bit = bit;
+		}
+
+		@Override
+		public int bit() {
+			return bit;
+		}
+	}
+
+	private final MemorySegment handle;
+	private final LogicalDevice device;
+	private final int queueFamilyIndex;
+
+	/**
+	 * Creates a command pool
+	 * @param device the device to create the pool on
+	 * @param queueFamilyIndex the family of the queues the command buffers will be submitted to
+	 * @param flags the create flags
+	 * @return a command pool
+	 */
+	public static CommandPool create(LogicalDevice device, int queueFamilyIndex, Set<Flag> flags) {
+		try (var arena = ScratchAllocator.push()) {
+			var createInfo = VkCommandPoolCreateInfo.allocate(arena);
+			VkCommandPoolCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_COMMAND_POOL_CREATE_INFO());
+			VkCommandPoolCreateInfo.pNext$set(createInfo, MemorySegment.NULL);
+			VkCommandPoolCreateInfo.flags$set(createInfo, BitFlag.getFlagBits(flags));
+			VkCommandPoolCreateInfo.queueFamilyIndex$set(createInfo, queueFamilyIndex);
+
+			return new CommandPool(device.createCommandPool(createInfo), device, queueFamilyIndex);
+		}
+	}
+
+	public CommandPool(MemorySegment handle, LogicalDevice device, int queueFamilyIndex) {
+		this.handle = handle;
+		this.device = device;
+		this.queueFamilyIndex = queueFamilyIndex;
+	}
+
+	@Override
+	public MemorySegment handle() {
+		return handle;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	public int queueFamilyIndex() {
+		return queueFamilyIndex;
+	}
+
+	public CommandBuffer allocate(CommandBuffer.Level level) {
+		return allocate(level, 1).getFirst();
+	}
+
+	/**
+	 * Allocates command buffers in the initial state
+	 * @param level whether the buffers are primary or secondary
+	 * @param count the number of buffers
+	 * @return the command buffers
+	 */
+	public List<CommandBuffer> allocate(CommandBuffer.Level level, int count) {
+		assert count > 0;
+
+		try (var arena = ScratchAllocator.push()) {
+			var allocateInfo = VkCommandBufferAllocateInfo.allocate(arena);
+			VkCommandBufferAllocateInfo.sType$set(allocateInfo, vulkan_h.VK_STRUCTURE_TYPE_COMMAND_BUFFER_ALLOCATE_INFO());
+			VkCommandBufferAllocateInfo.pNext$set(allocateInfo, MemorySegment.NULL);
+			VkCommandBufferAllocateInfo.commandPool$set(allocateInfo, handle);
+			VkCommandBufferAllocateInfo.level$set(allocateInfo, level.value());
+			VkCommandBufferAllocateInfo.commandBufferCount$set(allocateInfo, count);
+
+			var handles = arena.allocateArray(vulkan_h.VkCommandBuffer, count);
+			device.allocateCommandBuffers(allocateInfo, handles);
+
+			var buffers = new ArrayList<CommandBuffer>(count);
+			for (int i = 0; i < count; i++) {
+				buffers.add(new CommandBuffer(handles.getAtIndex(vulkan_h.VkCommandBuffer, i), this, level));
+			}
+
+			return buffers;
+		}
+	}
+
+	/**
+	 * Frees command buffers, which must not be pending execution
+	 * @param buffers the buffers, which must have been allocated from this pool
+	 */
+	public void free(Collection<CommandBuffer> buffers) {
+		assert buffers.stream().allMatch(buffer -> buffer.pool() == this);
+
+		if (buffers.isEmpty()) {
+			return;
+		}
+
+		try (var arena = ScratchAllocator.push()) {
+			var handles = arena.allocateArray(vulkan_h.VkCommandBuffer, buffers.size());
+
+			int i = 0;
+			for (var buffer : buffers) {
+				handles.setAtIndex(vulkan_h.VkCommandBuffer, i, buffer.handle());
+				i++;
+			}
+
+			device.freeCommandBuffers(handle, buffers.size(), handles);
+		}
+	}
+
+	public void reset() {
+		reset(false);
+	}
+
+	/**
+	 * Returns every command buffer allocated from this pool to the initial state. None of them may be pending
+	 * execution.
+	 * @param releaseResources whether the pool should give its memory back to the system, rather than keeping it for
+	 *                         the next recording
+	 */
+	public void reset(boolean releaseResources) {
+		device.resetCommandPool(handle, releaseResources ? vulkan_h.VK_COMMAND_POOL_RESET_RELEASE_RESOURCES_BIT() : 0);
+	}
+
+	@Override
+	public void close() {
+		device.destroyCommandPool(handle);
+	}
+}
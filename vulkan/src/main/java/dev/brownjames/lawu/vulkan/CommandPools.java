@@ -0,0 +1,260 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Command pools for each recording thread and frame in flight, which hand out command buffers that are recycled
+ * rather than freed.
+ * <p>
+ * Command pools are externally synchronised, so threads recording at the same time need pools of their own. Each
+ * thread that asks for a command buffer is given a pool per frame in flight, on the queue family of this service. When
+ * a thread first asks for a buffer in a new frame, the pool for that frame's slot is reset with
+ * {@code vkResetCommandPool}, and the buffers it allocated before are handed out again; new buffers are only
+ * allocated when a thread records more in a frame than it has before. Only the owning thread touches a pool, so no
+ * locking is needed to record.
+ * <p>
+ * {@link #nextFrame()} starts a frame. Before it is called, the work submitted in the frame that last used the slot,
+ * {@link #framesInFlight()} frames ago, must have completed, since its command buffers are about to be reset. Buffers
+ * must not be kept past the frame they were taken in.
+ * <p>
+ * Using the service from more than one thread requires an instance created with
+ * {@link VulkanInstance.ThreadingMode#CONCURRENT}. The pools of a thread that has finished are destroyed by
+ * {@link #nextFrame()} once none of the frames that used them can still be executing, so threads may come and go, as
+ * the workers of {@link java.util.concurrent.ForkJoinPool#commonPool()} do, without the pools accumulating.
+ */
+public final class CommandPools implements AutoCloseable {
+	/**
+	 * The number of buffers allocated when a frame needs more than it has, which grows as a thread records more
+	 */
+	private static final int MINIMUM_ALLOCATION = 4;
+
+	/**
+	 * The buffers of one level in one frame's pool
+	 */
+	private static final class Buffers {
+		private final CommandBuffer.Level level;
+		private final List<CommandBuffer> buffers = new ArrayList<>();
+		private int used;
+
+		Buffers(CommandBuffer.Level level) {
+			this.level = level;
+		}
+
+		CommandBuffer next(CommandPool pool) {
+			if (used == buffers.size()) {
+				buffers.addAll(pool.allocate(level, Math.max(MINIMUM_ALLOCATION, buffers.size())));
+			}
+
+			return buffers.get(used++);
+		}
+	}
+
+	/**
+	 * The pool one thread records into during the frames that use one slot
+	 */
+	private static final class FramePool {
+		private final CommandPool pool;
+		private final Buffers primary = new Buffers(CommandBuffer.Level.PRIMARY);
+		private final Buffers secondary = new Buffers(CommandBuffer.Level.SECONDARY);
+
+		/**
+		 * The frame the buffers were last handed out in, or -1 if they never have been
+		 */
+		private long frame = -1;
+
+		FramePool(CommandPool pool) {
+			this.pool = pool;
+		}
+
+		/**
+		 * Resets the pool if it was last used in an earlier frame, so its buffers can be recorded again
+		 */
+		FramePool enter(long currentFrame) {
+			if (frame != currentFrame) {
+				if (primary.used > 0 || secondary.used > 0) {
+					pool.reset();
+				}
+
+				primary.used = 0;
+				secondary.used = 0;
+				frame = currentFrame;
+			}
+
+			return this;
+		}
+	}
+
+	private final LogicalDevice device;
+	private final int queueFamilyIndex;
+	private final int framesInFlight;
+
+	/**
+	 * The pools of one thread, one for each slot
+	 */
+	private record ThreadPools(Thread owner, FramePool[] pools) {
+		/**
+		 * Checks whether the pools can be destroyed, because the owner will never record into them again and none of
+		 * their buffers can still be pending execution
+		 * @param oldestPending the oldest frame whose work may still be executing
+		 */
+		boolean isReclaimable(long oldestPending) {
+			// The owner's writes to its pools happen before isAlive() sees that it has terminated
+			if (owner.isAlive()) {
+				return false;
+			}
+
+			for (var pool : pools) {
+				if (pool.frame >= oldestPending) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		void close() {
+			for (var pool : pools) {
+				pool.pool.close();
+			}
+		}
+	}
+
+	private final ConcurrentLinkedQueue<ThreadPools> allPools = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<FramePool[]> threadPools = ThreadLocal.withInitial(this::createThreadPools);
+
+	private volatile long frame;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a service, which creates no pools until a thread asks for a command buffer
+	 * @param device the device to create the pools on
+	 * @param queueFamilyIndex the family of the queues the command buffers will be submitted to
+	 * @param framesInFlight the number of frames whose work may be executing at once
+	 */
+	public CommandPools(LogicalDevice device, int queueFamilyIndex, int framesInFlight) {
+		assert framesInFlight > 0;
+
+		this.device = device;
+		this.queueFamilyIndex = queueFamilyIndex;
+		this.framesInFlight = framesInFlight;
+	}
+
+	private FramePool[] createThreadPools() {
+		var pools = new FramePool[framesInFlight];
+		for (int i = 0; i < framesInFlight; i++) {
+			pools[i] = new FramePool(CommandPool.create(device, queueFamilyIndex, EnumSet.of(CommandPool.Flag.TRANSIENT)));
+		}
+
+		var threadPools = new ThreadPools(Thread.currentThread(), pools);
+		allPools.add(threadPools);
+
+		// A close that raced with this would have missed the new pools
+		if (closed && allPools.remove(threadPools)) {
+			threadPools.close();
+			throw new IllegalStateException("The command pools have been closed");
+		}
+
+		return pools;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	public int queueFamilyIndex() {
+		return queueFamilyIndex;
+	}
+
+	public int framesInFlight() {
+		return framesInFlight;
+	}
+
+	/**
+	 * The number of the current frame, which starts at zero
+	 * @return the frame number
+	 */
+	public long frame() {
+		return frame;
+	}
+
+	/**
+	 * Starts the next frame, and destroys the pools of threads that have finished if they are no longer needed. The
+	 * buffers handed out in the frame {@link #framesInFlight()} before the new one must no longer be pending execution,
+	 * and no thread may still be recording into the current frame's buffers.
+	 * @return the number of the new frame
+	 */
+	public long nextFrame() {
+		// Only one thread drives the frames, so this does not need to be atomic
+		var next = frame + 1;
+		frame = next;
+
+		var oldestPending = next - framesInFlight + 1;
+		var iterator = allPools.iterator();
+		while (iterator.hasNext()) {
+			var pools = iterator.next();
+			if (pools.isReclaimable(oldestPending)) {
+				iterator.remove();
+				pools.close();
+			}
+		}
+
+		return next;
+	}
+
+	private FramePool current() {
+		if (closed) {
+			throw new IllegalStateException("The command pools have been closed");
+		}
+
+		var currentFrame = frame;
+		return threadPools.get()[(int) (currentFrame % framesInFlight)].enter(currentFrame);
+	}
+
+	/**
+	 * Gets a primary command buffer in the initial state, from the calling thread's pool for the current frame
+	 * @return a command buffer, which may only be used by the calling thread during the current frame
+	 * @throws IllegalStateException if the service has been closed
+	 */
+	public CommandBuffer primary() {
+		var pool = current();
+		return pool.primary.next(pool.pool);
+	}
+
+	/**
+	 * Gets a secondary command buffer in the initial state, from the calling thread's pool for the current frame
+	 * @return a command buffer, which may only be used by the calling thread during the current frame
+	 * @throws IllegalStateException if the service has been closed
+	 */
+	public CommandBuffer secondary() {
+		var pool = current();
+		return pool.secondary.next(pool.pool);
+	}
+
+	/**
+	 * The number of command pools alive, which is the number of threads whose pools have not been destroyed times the
+	 * number of frames in flight
+	 * @return the number of pools
+	 */
+	public int poolCount() {
+		return allPools.size() * framesInFlight;
+	}
+
+	/**
+	 * Destroys every pool, and so every buffer handed out. No buffer may be pending execution. Asking for a buffer
+	 * afterwards fails, on any thread.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+
+		ThreadPools pools;
+		while ((pools = allPools.poll()) != null) {
+			pools.close();
+		}
+
+		threadPools.remove();
+	}
+}
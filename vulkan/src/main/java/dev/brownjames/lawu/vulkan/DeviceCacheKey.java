@@ -0,0 +1,74 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.VarHandle;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+/**
+ * The identity of a physical device and driver, used to validate data cached on disk. Any driver update changes
+ * either the driver version or the pipeline cache UUID, so data stored under an older key must be discarded.
+ * @param vendorId the vendor of the device
+ * @param deviceId the device identifier
+ * @param driverVersion the vendor-specific driver version
+ * @param pipelineCacheUUID the pipeline cache UUID reported by the driver
+ */
+public record DeviceCacheKey(int vendorId, int deviceId, int driverVersion, PipelineCacheUUID pipelineCacheUUID) {
+	/**
+	 * The layout of a key when stored in a file
+	 */
+	public static final StructLayout LAYOUT = MemoryLayout.structLayout(
+			JAVA_INT.withName("vendorId"),
+			JAVA_INT.withName("deviceId"),
+			JAVA_INT.withName("driverVersion"),
+			MemoryLayout.sequenceLayout(vulkan_h.VK_UUID_SIZE(), JAVA_BYTE).withName("pipelineCacheUUID")
+	);
+
+	private static final VarHandle VENDOR_ID = LAYOUT.varHandle(MemoryLayout.PathElement.groupElement("vendorId"));
+	private static final VarHandle DEVICE_ID = LAYOUT.varHandle(MemoryLayout.PathElement.groupElement("deviceId"));
+	private static final VarHandle DRIVER_VERSION = LAYOUT.varHandle(MemoryLayout.PathElement.groupElement("driverVersion"));
+	private static final long PIPELINE_CACHE_UUID_OFFSET = LAYOUT.byteOffset(MemoryLayout.PathElement.groupElement("pipelineCacheUUID"));
+
+	public static DeviceCacheKey of(PhysicalDevice.Properties properties) {
+		return new DeviceCacheKey(properties.vendorId(), properties.deviceId(), properties.driverVersion(), properties.pipelineCacheUUID());
+	}
+
+	public static DeviceCacheKey of(PhysicalDevice device) {
+		return of(device.getProperties());
+	}
+
+	/**
+	 * Reads a key written by {@link #asNative(MemorySegment)}
+	 * @param raw the stored key
+	 * @return a key
+	 */
+	public static DeviceCacheKey of(MemorySegment raw) {
+		return new DeviceCacheKey(
+				(int) VENDOR_ID.get(raw),
+				(int) DEVICE_ID.get(raw),
+				(int) DRIVER_VERSION.get(raw),
+				PipelineCacheUUID.of(raw.asSlice(PIPELINE_CACHE_UUID_OFFSET, vulkan_h.VK_UUID_SIZE())));
+	}
+
+	public void asNative(MemorySegment destination) {
+		VENDOR_ID.set(destination, vendorId);
+		DEVICE_ID.set(destination, deviceId);
+		DRIVER_VERSION.set(destination, driverVersion);
+		pipelineCacheUUID.asNative(destination.asSlice(PIPELINE_CACHE_UUID_OFFSET, vulkan_h.VK_UUID_SIZE()));
+	}
+
+	/**
+	 * A file name that is shared by every driver version of the same device
+	 * @param prefix the prefix of the name
+	 * @param extension the file extension, without a dot
+	 * @return a file name
+	 */
+	public String deviceFileName(String prefix, String extension) {
+		return "%s-%04x-%04x.%s".formatted(prefix, vendorId, deviceId, extension);
+	}
+}
@@ -0,0 +1,567 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.*;
+import dev.brownjames.lawu.vulkan.getphysicaldeviceproperties2.GetPhysicalDeviceProperties2Extension;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * Everything needed to choose a physical device, captured in one pass so that it can be stored and reused by later
+ * launches.
+ * <p>
+ * A snapshot holds the raw structures returned by the driver: the properties, features, memory properties and queue
+ * families of the device, the structures of any requested {@code vkGetPhysicalDeviceProperties2} and
+ * {@code vkGetPhysicalDeviceFeatures2} chains, and the results of the requested format and image format queries. They
+ * are laid out in a single block of memory, which is also the file format, so a stored snapshot is used directly
+ * through a read-only memory mapping.
+ * <p>
+ * Stored snapshots are keyed by {@link DeviceCacheKey}, so a driver update invalidates them, and by a fingerprint of
+ * the {@link Request}, so a snapshot is never used to answer queries it did not capture. Segments and records read
+ * from a snapshot are only valid until it is closed.
+ */
+public final class DeviceCapabilitySnapshot implements AutoCloseable {
+	private static final System.Logger LOGGER = System.getLogger(String.valueOf(DeviceCapabilitySnapshot.class.getModule().getName()));
+
+	private static final int MAGIC = 0x5043574c;
+	private static final int FORMAT_VERSION = 1;
+	private static final String FILE_PREFIX = "capabilities";
+	private static final String FILE_EXTENSION = "bin";
+
+	private static final StructLayout HEADER = MemoryLayout.structLayout(
+			JAVA_INT.withName("magic"),
+			JAVA_INT.withName("formatVersion"),
+			DeviceCacheKey.LAYOUT.withName("key"),
+			MemoryLayout.paddingLayout(4),
+			JAVA_LONG.withName("fingerprint")
+	);
+
+	private static final VarHandle HEADER_MAGIC = HEADER.varHandle(MemoryLayout.PathElement.groupElement("magic"));
+	private static final VarHandle HEADER_FORMAT_VERSION = HEADER.varHandle(MemoryLayout.PathElement.groupElement("formatVersion"));
+	private static final VarHandle HEADER_FINGERPRINT = HEADER.varHandle(MemoryLayout.PathElement.groupElement("fingerprint"));
+	private static final long HEADER_KEY_OFFSET = HEADER.byteOffset(MemoryLayout.PathElement.groupElement("key"));
+
+	private static final StructLayout FORMAT_ENTRY = MemoryLayout.structLayout(
+			JAVA_INT.withName("format"),
+			VkFormatProperties.$LAYOUT().withName("properties")
+	);
+
+	private static final long FORMAT_ENTRY_PROPERTIES_OFFSET = FORMAT_ENTRY.byteOffset(MemoryLayout.PathElement.groupElement("properties"));
+
+	private static final StructLayout IMAGE_FORMAT_ENTRY = MemoryLayout.structLayout(
+			JAVA_INT.withName("format"),
+			JAVA_INT.withName("type"),
+			JAVA_INT.withName("tiling"),
+			JAVA_INT.withName("usage"),
+			JAVA_INT.withName("flags"),
+			JAVA_INT.withName("result"),
+			VkImageFormatProperties.$LAYOUT().withName("properties")
+	);
+
+	private static final long IMAGE_FORMAT_ENTRY_RESULT_OFFSET = IMAGE_FORMAT_ENTRY.byteOffset(MemoryLayout.PathElement.groupElement("result"));
+	private static final long IMAGE_FORMAT_ENTRY_PROPERTIES_OFFSET = IMAGE_FORMAT_ENTRY.byteOffset(MemoryLayout.PathElement.groupElement("properties"));
+
+	/**
+	 * The parameters of a {@code vkGetPhysicalDeviceImageFormatProperties} query
+	 */
+	public record ImageFormatQuery(int format, int type, int tiling, int usage, int flags) { }
+
+	/**
+	 * What to capture in a snapshot
+	 * @param formats the formats to capture the format properties of
+	 * @param imageFormatQueries the image format queries to capture the results of
+	 * @param propertiesNexts the structures to capture from {@code vkGetPhysicalDeviceProperties2}
+	 * @param featuresNexts the structures to capture from {@code vkGetPhysicalDeviceFeatures2}
+	 * @param extension the extension used for the chains when the instance is Vulkan 1.0
+	 */
+	public record Request(
+			List<Integer> formats,
+			List<ImageFormatQuery> imageFormatQueries,
+			List<? extends PhysicalDevice.PropertiesNext> propertiesNexts,
+			List<? extends PhysicalDevice.FeaturesNext> featuresNexts,
+			Optional<GetPhysicalDeviceProperties2Extension> extension
+	) {
+		/**
+		 * Every format defined by Vulkan 1.0
+		 */
+		public static final List<Integer> CORE_FORMATS = IntStream.rangeClosed(1, vulkan_h.VK_FORMAT_ASTC_12x12_SRGB_BLOCK())
+				.boxed()
+				.toList();
+
+		/**
+		 * A request for the format properties of every core format, and no image format queries or chains
+		 * @return a request
+		 */
+		public static Request of() {
+			return new Request(CORE_FORMATS, List.of(), List.of(), List.of(), Optional.empty());
+		}
+
+		public Request withFormats(List<Integer> formats) {
+			return new Request(formats, imageFormatQueries, propertiesNexts, featuresNexts, extension);
+		}
+
+		public Request withImageFormatQueries(List<ImageFormatQuery> imageFormatQueries) {
+			return new Request(formats, imageFormatQueries, propertiesNexts, featuresNexts, extension);
+		}
+
+		public Request withPropertiesNexts(List<? extends PhysicalDevice.PropertiesNext> propertiesNexts) {
+			return new Request(formats, imageFormatQueries, propertiesNexts, featuresNexts, extension);
+		}
+
+		public Request withFeaturesNexts(List<? extends PhysicalDevice.FeaturesNext> featuresNexts) {
+			return new Request(formats, imageFormatQueries, propertiesNexts, featuresNexts, extension);
+		}
+
+		public Request withExtension(GetPhysicalDeviceProperties2Extension extension) {
+			return new Request(formats, imageFormatQueries, propertiesNexts, featuresNexts, Optional.of(extension));
+		}
+
+		/**
+		 * A hash of everything that decides the contents of a snapshot. The chains are identified by the type and size
+		 * of each structure, which are found by building them in scratch memory without querying the driver.
+		 * @return a 64-bit FNV-1a hash
+		 */
+		long fingerprint() {
+			var hash = 0xcbf29ce484222325L;
+
+			for (var format : new TreeSet<>(formats)) {
+				hash = mix(hash, format);
+			}
+
+			hash = mix(hash, imageFormatQueries.size());
+			for (var query : imageFormatQueries) {
+				hash = mix(hash, query.format());
+				hash = mix(hash, query.type());
+				hash = mix(hash, query.tiling());
+				hash = mix(hash, query.usage());
+				hash = mix(hash, query.flags());
+			}
+
+			try (var scratch = ScratchAllocator.push()) {
+				for (var nexts : List.of(propertiesNexts, featuresNexts)) {
+					var items = NextStructure.buildNativeStructureChain(scratch, nexts).items();
+					hash = mix(hash, items.size());
+
+					for (var item : items) {
+						hash = mix(hash, item.get(JAVA_INT, 0));
+						hash = mix(hash, item.byteSize());
+					}
+				}
+			}
+
+			return hash;
+		}
+
+		private static long mix(long hash, long value) {
+			for (int i = 0; i < Long.BYTES; i++) {
+				hash ^= (value >>> (i * Byte.SIZE)) & 0xff;
+				hash *= 0x100000001b3L;
+			}
+
+			return hash;
+		}
+	}
+
+	private final Arena arena;
+	private final DeviceCacheKey key;
+	private final MemorySegment data;
+	private final MemorySegment properties;
+	private final MemorySegment features;
+	private final MemorySegment memoryProperties;
+	private final MemorySegment queueFamilies;
+	private final List<MemorySegment> propertiesNexts;
+	private final List<MemorySegment> featuresNexts;
+	private final MemorySegment formats;
+	private final Map<ImageFormatQuery, MemorySegment> imageFormats;
+
+	private DeviceCapabilitySnapshot(Arena arena, MemorySegment data) {
+		this.arena = arena;
+		this.data = data;
+
+		key = DeviceCacheKey.of(data.asSlice(HEADER_KEY_OFFSET, DeviceCacheKey.LAYOUT));
+
+		var sections = new Sections(data);
+		properties = sections.next();
+		features = sections.next();
+		memoryProperties = sections.next();
+		queueFamilies = sections.next();
+		propertiesNexts = sections.nextChain();
+		featuresNexts = sections.nextChain();
+		formats = sections.next();
+
+		var imageFormatEntries = sections.next();
+		var entryCount = imageFormatEntries.byteSize() / IMAGE_FORMAT_ENTRY.byteSize();
+		imageFormats = HashMap.newHashMap((int) entryCount);
+		for (long i = 0; i < entryCount; i++) {
+			var entry = imageFormatEntries.asSlice(i * IMAGE_FORMAT_ENTRY.byteSize(), IMAGE_FORMAT_ENTRY);
+			var query = new ImageFormatQuery(
+					entry.get(JAVA_INT, 0),
+					entry.get(JAVA_INT, 4),
+					entry.get(JAVA_INT, 8),
+					entry.get(JAVA_INT, 12),
+					entry.get(JAVA_INT, 16));
+			imageFormats.put(query, entry);
+		}
+	}
+
+	/**
+	 * Queries everything in a request from a device
+	 * @param device the device to query
+	 * @param request what to capture
+	 * @return a snapshot, which must be closed
+	 */
+	public static DeviceCapabilitySnapshot capture(PhysicalDevice device, Request request) {
+		var instance = device.instance();
+		var handle = device.handle();
+		var formats = new TreeSet<>(request.formats());
+		var fingerprint = request.fingerprint();
+
+		var arena = Arena.ofShared();
+		try (var temporary = Arena.ofConfined()) {
+			var queueFamilyCount = temporary.allocate(vulkan_h.uint32_t);
+			instance.getPhysicalDeviceQueueFamilyProperties(handle, queueFamilyCount, MemorySegment.NULL);
+
+			var propertiesNexts = request.propertiesNexts().isEmpty() ? List.<MemorySegment>of() : request.extension()
+					.map(extension -> device.getProperties(temporary, request.propertiesNexts(), extension))
+					.orElseGet(() -> device.getProperties(temporary, request.propertiesNexts()))
+					.nexts();
+
+			var featuresNexts = request.featuresNexts().isEmpty() ? List.<MemorySegment>of() : request.extension()
+					.map(extension -> device.getFeatures(temporary, request.featuresNexts(), extension))
+					.orElseGet(() -> device.getFeatures(temporary, request.featuresNexts()))
+					.nexts();
+
+			var size = HEADER.byteSize()
+					+ Sections.size(VkPhysicalDeviceProperties.$LAYOUT().byteSize())
+					+ Sections.size(VkPhysicalDeviceFeatures.$LAYOUT().byteSize())
+					+ Sections.size(VkPhysicalDeviceMemoryProperties.$LAYOUT().byteSize())
+					+ Sections.size(queueFamilyCount.get(vulkan_h.uint32_t, 0) * VkQueueFamilyProperties.$LAYOUT().byteSize())
+					+ Sections.chainSize(propertiesNexts)
+					+ Sections.chainSize(featuresNexts)
+					+ Sections.size(formats.size() * FORMAT_ENTRY.byteSize())
+					+ Sections.size(request.imageFormatQueries().size() * IMAGE_FORMAT_ENTRY.byteSize());
+
+			var data = arena.allocate(size, Long.BYTES);
+			var sections = new Sections(data);
+
+			var properties = sections.add(VkPhysicalDeviceProperties.$LAYOUT().byteSize());
+			instance.getPhysicalDeviceProperties(handle, properties);
+			instance.getPhysicalDeviceFeatures(handle, sections.add(VkPhysicalDeviceFeatures.$LAYOUT().byteSize()));
+			instance.getPhysicalDeviceMemoryProperties(handle, sections.add(VkPhysicalDeviceMemoryProperties.$LAYOUT().byteSize()));
+			instance.getPhysicalDeviceQueueFamilyProperties(handle, queueFamilyCount,
+					sections.add(queueFamilyCount.get(vulkan_h.uint32_t, 0) * VkQueueFamilyProperties.$LAYOUT().byteSize()));
+			sections.addChain(propertiesNexts);
+			sections.addChain(featuresNexts);
+
+			var formatEntries = sections.add(formats.size() * FORMAT_ENTRY.byteSize());
+			var formatIndex = 0L;
+			for (var format : formats) {
+				var entry = formatEntries.asSlice(formatIndex++ * FORMAT_ENTRY.byteSize(), FORMAT_ENTRY);
+				entry.set(JAVA_INT, 0, format);
+				instance.getPhysicalDeviceFormatProperties(handle, format, entry.asSlice(FORMAT_ENTRY_PROPERTIES_OFFSET, VkFormatProperties.$LAYOUT()));
+			}
+
+			var imageFormatEntries = sections.add(request.imageFormatQueries().size() * IMAGE_FORMAT_ENTRY.byteSize());
+			var imageFormatIndex = 0L;
+			for (var query : request.imageFormatQueries()) {
+				var entry = imageFormatEntries.asSlice(imageFormatIndex++ * IMAGE_FORMAT_ENTRY.byteSize(), IMAGE_FORMAT_ENTRY);
+				entry.set(JAVA_INT, 0, query.format());
+				entry.set(JAVA_INT, 4, query.type());
+				entry.set(JAVA_INT, 8, query.tiling());
+				entry.set(JAVA_INT, 12, query.usage());
+				entry.set(JAVA_INT, 16, query.flags());
+
+				var result = instance.tryGetPhysicalDeviceImageFormatProperties(handle, query.format(), query.type(), query.tiling(), query.usage(), query.flags(),
+						entry.asSlice(IMAGE_FORMAT_ENTRY_PROPERTIES_OFFSET, VkImageFormatProperties.$LAYOUT()));
+				entry.set(JAVA_INT, IMAGE_FORMAT_ENTRY_RESULT_OFFSET, result);
+			}
+
+			HEADER_MAGIC.set(data, MAGIC);
+			HEADER_FORMAT_VERSION.set(data, FORMAT_VERSION);
+			DeviceCacheKey.of(PhysicalDevice.Properties.of(properties)).asNative(data.asSlice(HEADER_KEY_OFFSET, DeviceCacheKey.LAYOUT));
+			HEADER_FINGERPRINT.set(data, fingerprint);
+
+			return new DeviceCapabilitySnapshot(arena, data);
+		} catch (RuntimeException | Error e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads a stored snapshot through a memory mapping
+	 * @param path the file to read
+	 * @param key the device and driver that the snapshot must have been captured from
+	 * @param request the request that the snapshot must have been captured with
+	 * @return the snapshot, or nothing if there is no file or it does not match the device, driver or request
+	 * @throws IOException if the file could not be read
+	 */
+	public static Optional<DeviceCapabilitySnapshot> load(Path path, DeviceCacheKey key, Request request) throws IOException {
+		var arena = Arena.ofShared();
+
+		try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			var data = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+
+			if (data.byteSize() >= HEADER.byteSize()
+					&& (int) HEADER_MAGIC.get(data) == MAGIC
+					&& (int) HEADER_FORMAT_VERSION.get(data) == FORMAT_VERSION
+					&& (long) HEADER_FINGERPRINT.get(data) == request.fingerprint()
+					&& DeviceCacheKey.of(data.asSlice(HEADER_KEY_OFFSET, DeviceCacheKey.LAYOUT)).equals(key)) {
+				return Optional.of(new DeviceCapabilitySnapshot(arena, data));
+			}
+		} catch (NoSuchFileException e) {
+			arena.close();
+			return Optional.empty();
+		} catch (IndexOutOfBoundsException e) {
+			// A truncated file, which is treated as stale
+		} catch (IOException | RuntimeException | Error e) {
+			arena.close();
+			throw e;
+		}
+
+		arena.close();
+		return Optional.empty();
+	}
+
+	/**
+	 * Loads the stored snapshot of a device, or captures and stores a new one if there is no valid stored snapshot.
+	 * Only the device properties are queried when the stored snapshot is used.
+	 * @param directory the directory of stored snapshots
+	 * @param device the device to get the snapshot of
+	 * @param request what to capture
+	 * @return a snapshot, which must be closed
+	 * @throws IOException if the stored snapshot could not be read or written
+	 */
+	public static DeviceCapabilitySnapshot loadOrCapture(Path directory, PhysicalDevice device, Request request) throws IOException {
+		var key = DeviceCacheKey.of(device);
+		var path = path(directory, key);
+
+		var stored = load(path, key, request);
+		if (stored.isPresent()) {
+			return stored.get();
+		}
+
+		LOGGER.log(System.Logger.Level.DEBUG, "Capturing device capabilities to {0}", path);
+
+		var snapshot = capture(device, request);
+		try {
+			Files.createDirectories(directory);
+			snapshot.save(path);
+		} catch (IOException | RuntimeException | Error e) {
+			snapshot.close();
+			throw e;
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * The file a snapshot is stored in, which is shared by every driver version of the same device
+	 * @param directory the directory of stored snapshots
+	 * @param key the device and driver of the snapshot
+	 * @return the path of the file
+	 */
+	public static Path path(Path directory, DeviceCacheKey key) {
+		return directory.resolve(key.deviceFileName(FILE_PREFIX, FILE_EXTENSION));
+	}
+
+	/**
+	 * Writes the snapshot, atomically replacing any existing file
+	 * @param path the file to write
+	 * @throws IOException if the snapshot could not be written
+	 */
+	public void save(Path path) throws IOException {
+		var temporary = Files.createTempFile(path.toAbsolutePath().getParent(), FILE_PREFIX, ".tmp");
+
+		try {
+			try (var channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			     var mappingArena = Arena.ofConfined()) {
+				var file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, data.byteSize(), mappingArena);
+				file.copyFrom(data);
+				file.force();
+			}
+
+			Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	public DeviceCacheKey key() {
+		return key;
+	}
+
+	public PhysicalDevice.Properties properties() {
+		return PhysicalDevice.Properties.of(properties);
+	}
+
+	public PhysicalDevicePropertiesView propertiesView() {
+		return new PhysicalDevicePropertiesView(properties);
+	}
+
+	/**
+	 * Gets the captured features
+	 * @return a read-only {@code VkPhysicalDeviceFeatures} structure
+	 */
+	public MemorySegment features() {
+		return features;
+	}
+
+	public MemoryProperties memoryProperties() {
+		return MemoryProperties.of(memoryProperties);
+	}
+
+	public List<QueueFamilyProperties> queueFamilyProperties() {
+		var count = (int) (queueFamilies.byteSize() / VkQueueFamilyProperties.$LAYOUT().byteSize());
+		var result = new ArrayList<QueueFamilyProperties>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(QueueFamilyProperties.of(i, queueFamilies.asSlice(i * VkQueueFamilyProperties.$LAYOUT().byteSize(), VkQueueFamilyProperties.$LAYOUT())));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the structures captured from {@code vkGetPhysicalDeviceProperties2}, in the order they were requested
+	 * @return read-only structures, whose {@code pNext} fields are null
+	 */
+	public List<MemorySegment> propertiesNexts() {
+		return propertiesNexts;
+	}
+
+	/**
+	 * Gets the structures captured from {@code vkGetPhysicalDeviceFeatures2}, in the order they were requested
+	 * @return read-only structures, whose {@code pNext} fields are null
+	 */
+	public List<MemorySegment> featuresNexts() {
+		return featuresNexts;
+	}
+
+	/**
+	 * Gets the captured properties of a format
+	 * @param format the format
+	 * @return the properties, or nothing if the format was not captured
+	 */
+	public Optional<FormatProperties> formatProperties(int format) {
+		var low = 0L;
+		var high = formats.byteSize() / FORMAT_ENTRY.byteSize() - 1;
+
+		while (low <= high) {
+			var middle = (low + high) >>> 1;
+			var entryFormat = formats.get(JAVA_INT, middle * FORMAT_ENTRY.byteSize());
+
+			if (entryFormat < format) {
+				low = middle + 1;
+			} else if (entryFormat > format) {
+				high = middle - 1;
+			} else {
+				return Optional.of(FormatProperties.of(formats.asSlice(middle * FORMAT_ENTRY.byteSize() + FORMAT_ENTRY_PROPERTIES_OFFSET, VkFormatProperties.$LAYOUT())));
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Gets the captured result of an image format query
+	 * @param query the query
+	 * @return the properties, or nothing if the combination is not supported
+	 * @throws IllegalArgumentException if the query was not captured
+	 */
+	public Optional<ImageFormatProperties> imageFormatProperties(ImageFormatQuery query) {
+		var entry = imageFormats.get(query);
+		if (entry == null) {
+			throw new IllegalArgumentException("Image format query was not captured: " + query);
+		}
+
+		if (entry.get(JAVA_INT, IMAGE_FORMAT_ENTRY_RESULT_OFFSET) != vulkan_h.VK_SUCCESS()) {
+			return Optional.empty();
+		}
+
+		return Optional.of(ImageFormatProperties.of(entry.asSlice(IMAGE_FORMAT_ENTRY_PROPERTIES_OFFSET, VkImageFormatProperties.$LAYOUT())));
+	}
+
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+	/**
+	 * Reads or writes the sections after the header, each of which is a size followed by data padded to eight bytes
+	 */
+	private static final class Sections {
+		private final MemorySegment data;
+		private long position = HEADER.byteSize();
+
+		Sections(MemorySegment data) {
+			this.data = data;
+		}
+
+		static long size(long dataSize) {
+			return Long.BYTES + align(dataSize);
+		}
+
+		static long chainSize(List<MemorySegment> items) {
+			return Long.BYTES + items.stream()
+					.mapToLong(item -> size(item.byteSize()))
+					.sum();
+		}
+
+		MemorySegment add(long size) {
+			data.set(JAVA_LONG, position, size);
+			var section = data.asSlice(position + Long.BYTES, size);
+			position += size(size);
+			return section;
+		}
+
+		void addChain(List<MemorySegment> items) {
+			data.set(JAVA_LONG, position, items.size());
+			position += Long.BYTES;
+
+			for (var item : items) {
+				var copy = add(item.byteSize());
+				copy.copyFrom(item);
+				// The next pointer is meaningless once the chain is stored
+				VkBaseOutStructure.pNext$set(copy, MemorySegment.NULL);
+			}
+		}
+
+		MemorySegment next() {
+			var size = data.get(JAVA_LONG, position);
+			var section = data.asSlice(position + Long.BYTES, size).asReadOnly();
+			position += size(size);
+			return section;
+		}
+
+		List<MemorySegment> nextChain() {
+			var count = data.get(JAVA_LONG, position);
+			position += Long.BYTES;
+
+			var items = new ArrayList<MemorySegment>();
+			for (long i = 0; i < count; i++) {
+				items.add(next());
+			}
+
+			return Collections.unmodifiableList(items);
+		}
+
+		private static long align(long size) {
+			return (size + Long.BYTES - 1) & -Long.BYTES;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDeviceCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkDeviceQueueCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceFeatures;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceSynchronization2Features;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceTimelineSemaphoreFeatures;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public record DeviceCreateInfo(
+		Collection<DeviceQueueCreateInfo> queueCreateInfos,
+		Collection<String> extensionNames,
+		Optional<MemorySegment> enabledFeatures,
+		Collection<Next> nexts
+) {
+	/**
+	 * A description of a pNext member for the createDevice function
+	 */
+	public interface Next extends NextStructure { }
+
+	public DeviceCreateInfo() {
+		this(List.of(), List.of(), Optional.empty(), List.of());
+	}
+
+	public DeviceCreateInfo withQueues(DeviceQueueCreateInfo queueCreateInfo) {
+		var newQueueCreateInfos = new ArrayList<>(queueCreateInfos);
+		newQueueCreateInfos.add(queueCreateInfo);
+		return new DeviceCreateInfo(newQueueCreateInfos, extensionNames, enabledFeatures, nexts);
+	}
+
+	public DeviceCreateInfo withQueues(int queueFamilyIndex, int queueCount) {
+		return withQueues(DeviceQueueCreateInfo.of(queueFamilyIndex, queueCount));
+	}
+
+	public DeviceCreateInfo withExtension(String extensionName) {
+		var newNames = new ArrayList<>(extensionNames);
+		newNames.add(extensionName);
+		return new DeviceCreateInfo(queueCreateInfos, newNames, enabledFeatures, nexts);
+	}
+
+	/**
+	 * Sets the enabled features
+	 * @param features a {@code VkPhysicalDeviceFeatures} structure
+	 * @return a new create-info structure
+	 */
+	public DeviceCreateInfo withEnabledFeatures(MemorySegment features) {
+		assert features != null;
+
+		return new DeviceCreateInfo(queueCreateInfos, extensionNames, Optional.of(features), nexts);
+	}
+
+	public DeviceCreateInfo withNext(Next next) {
+		var newNexts = new ArrayList<>(nexts);
+		newNexts.add(next);
+		return new DeviceCreateInfo(queueCreateInfos, extensionNames, enabledFeatures, newNexts);
+	}
+
+	/**
+	 * Enables timeline semaphores, which are core in Vulkan 1.2 but must still be requested
+	 * @return a new create-info structure
+	 */
+	public DeviceCreateInfo withTimelineSemaphores() {
+		return withNext((arena, next) -> {
+			var features = VkPhysicalDeviceTimelineSemaphoreFeatures.allocate(arena);
+			VkPhysicalDeviceTimelineSemaphoreFeatures.sType$set(features, vulkan_h.VK_STRUCTURE_TYPE_PHYSICAL_DEVICE_TIMELINE_SEMAPHORE_FEATURES());
+			VkPhysicalDeviceTimelineSemaphoreFeatures.pNext$set(features, next);
+			VkPhysicalDeviceTimelineSemaphoreFeatures.timelineSemaphore$set(features, vulkan_h.VK_TRUE());
+			return features;
+		});
+	}
+
+	/**
+	 * Enables the second version of the synchronisation commands, such as {@code vkQueueSubmit2}, which are core in
+	 * Vulkan 1.3 but must still be requested
+	 * @return a new create-info structure
+	 */
+	public DeviceCreateInfo withSynchronization2() {
+		return withNext((arena, next) -> {
+			var features = VkPhysicalDeviceSynchronization2Features.allocate(arena);
+			VkPhysicalDeviceSynchronization2Features.sType$set(features, vulkan_h.VK_STRUCTURE_TYPE_PHYSICAL_DEVICE_SYNCHRONIZATION_2_FEATURES());
+			VkPhysicalDeviceSynchronization2Features.pNext$set(features, next);
+			VkPhysicalDeviceSynchronization2Features.synchronization2$set(features, vulkan_h.VK_TRUE());
+			return features;
+		});
+	}
+
+	public void validateExtensions(PhysicalDevice device) throws UnsupportedExtensionException {
+		var allExtensions = device.getExtensionProperties();
+
+		var unmatchedExtensions = extensionNames.stream()
+				.filter(name -> allExtensions.stream().noneMatch(extension -> extension.name().equals(name)))
+				.toList();
+
+		if (!unmatchedExtensions.isEmpty()) {
+			throw new UnsupportedExtensionException(unmatchedExtensions, allExtensions);
+		}
+	}
+
+	/**
+	 * Checks the extensions for validity then builds the device
+	 * @param device the physical device to create the logical device from
+	 * @return a logical device
+	 * @throws UnsupportedExtensionException if the requested extensions are not supported
+	 */
+	public LogicalDevice validate(PhysicalDevice device) throws VulkanValidationException {
+		validateExtensions(device);
+
+		return build(device);
+	}
+
+	public LogicalDevice build(PhysicalDevice device) {
+		try (var arena = Arena.ofConfined()) {
+			return LogicalDevice.create(device, createNativeStructure(arena));
+		}
+	}
+
+	public MemorySegment createNativeStructure(Arena arena) {
+		var deviceCreateInfo = VkDeviceCreateInfo.allocate(arena);
+		VkDeviceCreateInfo.sType$set(deviceCreateInfo, vulkan_h.VK_STRUCTURE_TYPE_DEVICE_CREATE_INFO());
+
+		VkDeviceCreateInfo.pNext$set(deviceCreateInfo, NextStructure.buildNativeStructureChain(arena, nexts).head());
+		VkDeviceCreateInfo.flags$set(deviceCreateInfo, 0);
+
+		VkDeviceCreateInfo.queueCreateInfoCount$set(deviceCreateInfo, queueCreateInfos.size());
+		if (!queueCreateInfos.isEmpty()) {
+			var queueCreateInfoArray = VkDeviceQueueCreateInfo.allocateArray(queueCreateInfos.size(), arena);
+
+			long i = 0;
+			for (var info : queueCreateInfos) {
+				info.asNative(queueCreateInfoArray.asSlice(i * VkDeviceQueueCreateInfo.$LAYOUT().byteSize(), VkDeviceQueueCreateInfo.$LAYOUT().byteSize()), arena);
+				i++;
+			}
+
+			VkDeviceCreateInfo.pQueueCreateInfos$set(deviceCreateInfo, queueCreateInfoArray);
+		}
+
+		VkDeviceCreateInfo.enabledExtensionCount$set(deviceCreateInfo, extensionNames.size());
+		if (!extensionNames.isEmpty()) {
+			var extensionNamesArray = arena.allocateArray(BindingHelper.CHAR_POINTER, extensionNames.size());
+
+			int i = 0;
+			for (var name : extensionNames) {
+				extensionNamesArray.setAtIndex(BindingHelper.CHAR_POINTER, i, NativeStringPool.intern(name));
+				i++;
+			}
+
+			VkDeviceCreateInfo.ppEnabledExtensionNames$set(deviceCreateInfo, extensionNamesArray);
+		}
+
+		// Copy the features, which may have been read into heap memory
+		VkDeviceCreateInfo.pEnabledFeatures$set(deviceCreateInfo, enabledFeatures
+				.map(features -> VkPhysicalDeviceFeatures.allocate(arena).copyFrom(features))
+				.orElse(MemorySegment.NULL));
+
+		return deviceCreateInfo;
+	}
+}
@@ -0,0 +1,24 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.PFN_vkGetDeviceProcAddr;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+/**
+ * A lookup for device-level functions. Functions found by this lookup dispatch directly to the driver, bypassing the
+ * loader trampoline used by functions looked up from the instance.
+ */
+public interface DeviceFunctionLookup extends FunctionLookup.FromMemorySegment {
+	static DeviceFunctionLookup from(PFN_vkGetDeviceProcAddr getDeviceProcAddr, MemorySegment device) {
+		assert getDeviceProcAddr != null;
+		assert device != null;
+
+		return name -> {
+			assert name != null;
+
+			var address = getDeviceProcAddr.apply(device, name);
+			return address.address() == 0L ? Optional.empty() : Optional.of(address);
+		};
+	}
+}
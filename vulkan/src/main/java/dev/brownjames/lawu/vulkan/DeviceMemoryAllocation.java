@@ -0,0 +1,92 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+/**
+ * A range of device memory handed out by a {@link DeviceMemoryAllocator}.
+ * <p>
+ * Closing the allocation returns the range to the allocator. Resources bound to the range must be destroyed first.
+ */
+public final class DeviceMemoryAllocation implements AutoCloseable {
+	private final DeviceMemoryAllocator allocator;
+	private final DeviceMemoryAllocator.Block block;
+	private final MemorySegment memory;
+	private final long offset;
+	private final long size;
+	private final int memoryTypeIndex;
+	private final MemorySegment mapped;
+	private boolean freed;
+
+	DeviceMemoryAllocation(DeviceMemoryAllocator allocator, DeviceMemoryAllocator.Block block, MemorySegment memory,
+	                       long offset, long size, int memoryTypeIndex, MemorySegment mapped) {
+		this.allocator = allocator;
+		this.block = block;
+		this.memory = memory;
+		this.offset = offset;
+		this.size = size;
+		this.memoryTypeIndex = memoryTypeIndex;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Gets the device memory this allocation is part of
+	 * @return the device memory handle
+	 */
+	public MemorySegment memory() {
+		return memory;
+	}
+
+	public long offset() {
+		return offset;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public int memoryTypeIndex() {
+		return memoryTypeIndex;
+	}
+
+	/**
+	 * Checks whether this allocation has its own device memory, rather than sharing a block with other allocations
+	 * @return whether the allocation is dedicated
+	 */
+	public boolean isDedicated() {
+		return block == null;
+	}
+
+	/**
+	 * Gets the host mapping of this allocation. Host visible memory is mapped for as long as it is allocated, so the
+	 * returned segment may be used until this allocation is closed.
+	 * @return the mapped memory, if the memory type is host visible
+	 */
+	public Optional<MemorySegment> mapped() {
+		return Optional.ofNullable(mapped);
+	}
+
+	public void bindBuffer(MemorySegment buffer) {
+		allocator.device().bindBufferMemory(buffer, memory, offset);
+	}
+
+	public void bindImage(MemorySegment image) {
+		allocator.device().bindImageMemory(image, memory, offset);
+	}
+
+	DeviceMemoryAllocator.Block block() {
+		return block;
+	}
+
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (freed) {
+				return;
+			}
+			freed = true;
+		}
+
+		allocator.free(this);
+	}
+}
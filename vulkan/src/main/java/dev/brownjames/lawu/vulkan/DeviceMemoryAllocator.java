@@ -0,0 +1,253 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sub-allocates device memory from large blocks.
+ * <p>
+ * Drivers limit the number of live {@code vkAllocateMemory} allocations (often to 4096) and each call is expensive, so
+ * resources are placed in shared blocks of device memory managed by a {@link BuddyAllocator}. Allocations too large to
+ * share a block sensibly get dedicated device memory instead.
+ * <p>
+ * Linear resources (buffers and linearly tiled images) and optimal resources (optimally tiled images) may not share a
+ * page of {@code bufferImageGranularity} bytes. When the granularity is larger than the smallest block, they are kept
+ * in separate blocks; otherwise every block is aligned to the granularity already and they share.
+ * <p>
+ * Blocks of host visible memory are mapped once when allocated, and each allocation exposes its own slice of the
+ * mapping. This class is thread-safe.
+ */
+public final class DeviceMemoryAllocator implements AutoCloseable {
+	public static final long DEFAULT_BLOCK_SIZE = 64L << 20;
+	public static final long MINIMUM_BLOCK_SIZE = 256;
+
+	/**
+	 * The kind of resource an allocation is for, as far as {@code bufferImageGranularity} is concerned
+	 */
+	public enum ResourceKind {
+		LINEAR,
+		OPTIMAL
+	}
+
+	/**
+	 * A block of device memory shared by many allocations
+	 */
+	static final class Block {
+		private final MemorySegment memory;
+		private final MemorySegment mapped;
+		private final BuddyAllocator offsets;
+		private final PoolKey pool;
+
+		private Block(MemorySegment memory, MemorySegment mapped, BuddyAllocator offsets, PoolKey pool) {
+			this.memory = memory;
+			this.mapped = mapped;
+			this.offsets = offsets;
+			this.pool = pool;
+		}
+	}
+
+	private record PoolKey(int memoryTypeIndex, ResourceKind kind) { }
+
+	private final LogicalDevice device;
+	private final MemoryProperties memoryProperties;
+	private final long preferredBlockSize;
+	private final boolean separateResourceKinds;
+	private final Map<PoolKey, List<Block>> pools = new HashMap<>();
+	private final List<MemorySegment> dedicated = new ArrayList<>();
+	private boolean closed;
+
+	public DeviceMemoryAllocator(LogicalDevice device) {
+		this(device, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates an allocator
+	 * @param device the device to allocate memory on
+	 * @param preferredBlockSize the size of the blocks to allocate, which must be a power of two. Smaller blocks are
+	 *                           used for heaps that are small in comparison.
+	 */
+	public DeviceMemoryAllocator(LogicalDevice device, long preferredBlockSize) {
+		assert Long.bitCount(preferredBlockSize) == 1;
+		assert preferredBlockSize >= MINIMUM_BLOCK_SIZE;
+
+		this.device = device;
+		this.memoryProperties = device.physicalDevice().getMemoryProperties();
+		this.preferredBlockSize = preferredBlockSize;
+
+		var granularity = device.physicalDevice().propertiesView().limits().bufferImageGranularity();
+		this.separateResourceKinds = granularity > MINIMUM_BLOCK_SIZE;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	public MemoryProperties memoryProperties() {
+		return memoryProperties;
+	}
+
+	/**
+	 * Allocates memory for a buffer and binds it
+	 * @param buffer the buffer handle
+	 * @param required the properties the memory must have
+	 * @param preferred the properties the memory should have, if possible
+	 * @return the allocation
+	 */
+	public DeviceMemoryAllocation allocateForBuffer(MemorySegment buffer, Set<MemoryPropertyFlag> required, Set<MemoryPropertyFlag> preferred) {
+		var allocation = allocate(device.getBufferMemoryRequirements(buffer), ResourceKind.LINEAR, required, preferred);
+		allocation.bindBuffer(buffer);
+		return allocation;
+	}
+
+	/**
+	 * Allocates memory for an image and binds it
+	 * @param image the image handle
+	 * @param kind whether the image is linearly or optimally tiled
+	 * @param required the properties the memory must have
+	 * @param preferred the properties the memory should have, if possible
+	 * @return the allocation
+	 */
+	public DeviceMemoryAllocation allocateForImage(MemorySegment image, ResourceKind kind, Set<MemoryPropertyFlag> required, Set<MemoryPropertyFlag> preferred) {
+		var allocation = allocate(device.getImageMemoryRequirements(image), kind, required, preferred);
+		allocation.bindImage(image);
+		return allocation;
+	}
+
+	/**
+	 * Allocates memory
+	 * @param requirements the memory requirements of the resource
+	 * @param kind the kind of resource the memory will be bound to
+	 * @param required the properties the memory must have
+	 * @param preferred the properties the memory should have, if possible
+	 * @return the allocation
+	 * @throws IllegalArgumentException if there is no memory type with the required properties
+	 * @throws VulkanException if the device memory cannot be allocated
+	 */
+	public DeviceMemoryAllocation allocate(MemoryRequirements requirements, ResourceKind kind, Set<MemoryPropertyFlag> required, Set<MemoryPropertyFlag> preferred) {
+		var memoryTypeIndex = memoryProperties.findMemoryType(requirements.memoryTypeBits(), required, preferred)
+				.orElseThrow(() -> new IllegalArgumentException("No memory type has %s".formatted(required)));
+
+		var blockSize = blockSize(memoryTypeIndex);
+		if (requirements.size() > blockSize / 2 || requirements.alignment() > blockSize) {
+			return allocateDedicated(requirements.size(), memoryTypeIndex);
+		}
+
+		var key = new PoolKey(memoryTypeIndex, separateResourceKinds ? kind : ResourceKind.LINEAR);
+		synchronized (pools) {
+			var blocks = pools.computeIfAbsent(key, k -> new ArrayList<>());
+			for (var block : blocks) {
+				var offset = block.offsets.allocate(requirements.size(), requirements.alignment());
+				if (offset >= 0) {
+					return createAllocation(block, offset, requirements.size(), memoryTypeIndex);
+				}
+			}
+
+			var block = allocateBlock(blockSize, key);
+			blocks.add(block);
+			var offset = block.offsets.allocate(requirements.size(), requirements.alignment());
+			assert offset >= 0;
+			return createAllocation(block, offset, requirements.size(), memoryTypeIndex);
+		}
+	}
+
+	void free(DeviceMemoryAllocation allocation) {
+		var block = allocation.block();
+		if (block == null) {
+			synchronized (pools) {
+				// The allocator may have freed it already, when it was closed
+				if (closed || !dedicated.remove(allocation.memory())) {
+					return;
+				}
+			}
+			device.freeMemory(allocation.memory());
+			return;
+		}
+
+		synchronized (pools) {
+			var blocks = pools.get(block.pool);
+			if (closed || blocks == null) {
+				return;
+			}
+
+			block.offsets.free(allocation.offset());
+
+			// Keep one empty block per pool around, so that a pattern of allocating and freeing does not thrash
+			if (block.offsets.isEmpty()) {
+				if (blocks.stream().filter(b -> b.offsets.isEmpty()).count() > 1) {
+					blocks.remove(block);
+					device.freeMemory(block.memory);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of device memory allocations made by this allocator, which counts towards the device's
+	 * {@code maxMemoryAllocationCount}
+	 * @return the number of blocks and dedicated allocations
+	 */
+	public int deviceAllocationCount() {
+		synchronized (pools) {
+			return pools.values().stream().mapToInt(List::size).sum() + dedicated.size();
+		}
+	}
+
+	/**
+	 * Frees all device memory. Every allocation made by this allocator becomes invalid, though closing one afterwards
+	 * does nothing.
+	 */
+	@Override
+	public void close() {
+		synchronized (pools) {
+			closed = true;
+
+			for (var blocks : pools.values()) {
+				for (var block : blocks) {
+					device.freeMemory(block.memory);
+				}
+			}
+			pools.clear();
+
+			for (var memory : dedicated) {
+				device.freeMemory(memory);
+			}
+			dedicated.clear();
+		}
+	}
+
+	private long blockSize(int memoryTypeIndex) {
+		// Avoid claiming a large share of a small heap with a single block
+		var heapSize = memoryProperties.heaps().get(memoryProperties.types().get(memoryTypeIndex).heapIndex()).size();
+		var limit = Long.highestOneBit(Math.max(heapSize / 8, MINIMUM_BLOCK_SIZE));
+		return Math.min(preferredBlockSize, limit);
+	}
+
+	private boolean isHostVisible(int memoryTypeIndex) {
+		return memoryProperties.types().get(memoryTypeIndex).propertyFlags().contains(MemoryPropertyFlag.HOST_VISIBLE);
+	}
+
+	private Block allocateBlock(long size, PoolKey pool) {
+		var memory = device.allocateMemory(size, pool.memoryTypeIndex());
+		var mapped = isHostVisible(pool.memoryTypeIndex()) ? device.mapMemory(memory, 0, size) : null;
+		return new Block(memory, mapped, new BuddyAllocator(size, MINIMUM_BLOCK_SIZE), pool);
+	}
+
+	private DeviceMemoryAllocation allocateDedicated(long size, int memoryTypeIndex) {
+		var memory = device.allocateMemory(size, memoryTypeIndex);
+		var mapped = isHostVisible(memoryTypeIndex) ? device.mapMemory(memory, 0, size) : null;
+
+		synchronized (pools) {
+			dedicated.add(memory);
+		}
+		return new DeviceMemoryAllocation(this, null, memory, 0, size, memoryTypeIndex, mapped);
+	}
+
+	private DeviceMemoryAllocation createAllocation(Block block, long offset, long size, int memoryTypeIndex) {
+		var mapped = block.mapped == null ? null : block.mapped.asSlice(offset, size);
+		return new DeviceMemoryAllocation(this, block, block.memory, offset, size, memoryTypeIndex, mapped);
+	}
+}
@@ -0,0 +1,54 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkSubmitInfo;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+
+/**
+ * A queue on a logical device. Queues are owned by their device and are not destroyed separately.
+ * <p>
+ * Submitting to a queue is externally synchronised: only one thread may submit to a queue at a time, including
+ * through other {@code DeviceQueue} objects for the same queue.
+ * @param handle the queue handle
+ * @param device the device that owns this queue
+ * @param queueFamilyIndex the family this queue belongs to
+ * @param queueIndex the index of this queue within its family
+ */
+public record DeviceQueue(MemorySegment handle, LogicalDevice device, int queueFamilyIndex, int queueIndex) implements VulkanHandle {
+	public void waitIdle() {
+		device.queueWaitIdle(handle);
+	}
+
+	public void submit(SubmitInfo submit) {
+		submit(List.of(submit));
+	}
+
+	/**
+	 * Submits batches of work
+	 * @param submits the batches, which start in order but may complete in any order
+	 */
+	public void submit(List<SubmitInfo> submits) {
+		submit(submits, MemorySegment.NULL);
+	}
+
+	/**
+	 * Submits batches of work, signalling a fence once they have all completed
+	 * @param submits the batches, which start in order but may complete in any order
+	 * @param fence an unsignalled fence
+	 */
+	public void submit(List<SubmitInfo> submits, Fence fence) {
+		submit(submits, fence.handle());
+	}
+
+	private void submit(List<SubmitInfo> submits, MemorySegment fence) {
+		try (var arena = ScratchAllocator.push()) {
+			var submitInfos = VkSubmitInfo.allocateArray(submits.size(), arena);
+			for (int i = 0; i < submits.size(); i++) {
+				submits.get(i).asNative(submitInfos.asSlice(i * VkSubmitInfo.$LAYOUT().byteSize(), VkSubmitInfo.$LAYOUT()), arena);
+			}
+
+			device.queueSubmit(handle, submits.size(), submitInfos, fence);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDeviceQueueCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A request for queues from a single queue family
+ * @param queueFamilyIndex the family to create the queues from
+ * @param priorities the priority of each queue, in the range [0, 1]
+ */
+public record DeviceQueueCreateInfo(int queueFamilyIndex, List<Float> priorities) {
+	public DeviceQueueCreateInfo {
+		assert priorities != null;
+		assert !priorities.isEmpty();
+		assert priorities.stream().allMatch(priority -> priority >= 0.0f && priority <= 1.0f);
+	}
+
+	/**
+	 * Requests queues that all share the same priority
+	 * @param queueFamilyIndex the family to create the queues from
+	 * @param queueCount the number of queues
+	 * @return a queue create-info
+	 */
+	public static DeviceQueueCreateInfo of(int queueFamilyIndex, int queueCount) {
+		return new DeviceQueueCreateInfo(queueFamilyIndex, Collections.nCopies(queueCount, 1.0f));
+	}
+
+	/**
+	 * Writes this structure into an already allocated structure
+	 * @param destination the structure to write to
+	 * @param arena the arena to allocate the priority array from
+	 */
+	public void asNative(MemorySegment destination, Arena arena) {
+		VkDeviceQueueCreateInfo.sType$set(destination, vulkan_h.VK_STRUCTURE_TYPE_DEVICE_QUEUE_CREATE_INFO());
+		VkDeviceQueueCreateInfo.pNext$set(destination, MemorySegment.NULL);
+		VkDeviceQueueCreateInfo.flags$set(destination, 0);
+		VkDeviceQueueCreateInfo.queueFamilyIndex$set(destination, queueFamilyIndex);
+		VkDeviceQueueCreateInfo.queueCount$set(destination, priorities.size());
+
+		var priorityArray = arena.allocateArray(ValueLayout.JAVA_FLOAT, priorities.size());
+		for (int i = 0; i < priorities.size(); i++) {
+			priorityArray.setAtIndex(ValueLayout.JAVA_FLOAT, i, priorities.get(i));
+		}
+
+		VkDeviceQueueCreateInfo.pQueuePriorities$set(destination, priorityArray);
+	}
+}
@@ -0,0 +1,142 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A table of Vulkan functions, each of which is looked up the first time it is used.
+ * <p>
+ * Entries are declared up-front, normally in the constructor of the object that owns the table, and are stored in
+ * final fields of that object. Declaring an entry performs no lookup; the function pointer is found and bound to the
+ * table's arena on the first call to {@link Entry#get()}, after which every call is a single field load.
+ * <p>
+ * Tables may be shared between threads if their arena may be. Two threads racing to resolve the same entry may both
+ * look it up, but will bind equivalent functions and either result may be kept.
+ */
+public final class DispatchTable {
+	private final FunctionLookup lookup;
+	private final Arena arena;
+	private final List<Entry<?>> entries = new ArrayList<>();
+
+	/**
+	 * Creates a dispatch table
+	 * @param lookup the lookup used to find function addresses
+	 * @param arena the arena to bind the functions to, this must outlive any use of the table
+	 */
+	public DispatchTable(FunctionLookup lookup, Arena arena) {
+		assert lookup != null;
+		assert arena != null;
+
+		this.lookup = lookup;
+		this.arena = arena;
+	}
+
+	/**
+	 * Declares an entry in this table
+	 * @param name the name of the function
+	 * @param binder a function that binds an address to a callable object, such as {@code PFN_vkDestroyInstance::ofAddress}
+	 * @return an unresolved entry
+	 * @param <FUNCTION> the type of the bound function
+	 */
+	public <FUNCTION> Entry<FUNCTION> entry(String name, BiFunction<? super MemorySegment, ? super Arena, ? extends FUNCTION> binder) {
+		assert name != null;
+		assert binder != null;
+
+		var entry = new Entry<FUNCTION>(name, binder);
+
+		synchronized (entries) {
+			entries.add(entry);
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Resolves every entry in the table that is not already resolved. This restores the behaviour of looking up all
+	 * functions eagerly, for example to move the cost out of a latency-sensitive path.
+	 * @throws UnsupportedOperationException if a declared function is not available
+	 */
+	public void resolveAll() {
+		List<Entry<?>> snapshot;
+		synchronized (entries) {
+			snapshot = List.copyOf(entries);
+		}
+
+		for (var entry : snapshot) {
+			entry.get();
+		}
+	}
+
+	public FunctionLookup lookup() {
+		return lookup;
+	}
+
+	public Arena arena() {
+		return arena;
+	}
+
+	/**
+	 * A single function in a dispatch table
+	 * @param <FUNCTION> the type of the bound function
+	 */
+	public final class Entry<FUNCTION> implements Supplier<FUNCTION> {
+		private final String name;
+		private final BiFunction<? super MemorySegment, ? super Arena, ? extends FUNCTION> binder;
+
+		/*
+		 * This is deliberately not volatile. It is written at most once per racing thread with a bound function whose
+		 * state is held in final fields, so a reader either sees null and resolves again, or sees a complete function.
+		 */
+		private FUNCTION function;
+
+		private Entry(String name, BiFunction<? super MemorySegment, ? super Arena, ? extends FUNCTION> binder) {
+			this.name = name;
+			this.binder = binder;
+		}
+
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * Gets the function, looking it up if this is the first use
+		 * @return the bound function
+		 * @throws UnsupportedOperationException if the function is not available
+		 */
+		@Override
+		public FUNCTION get() {
+			var result = function;
+
+			if (result == null) {
+				result = find().orElseThrow(() -> new UnsupportedOperationException("%s is not available".formatted(name)));
+			}
+
+			return result;
+		}
+
+		/**
+		 * Gets the function if it is available. This can be used for functions from optional extensions.
+		 * @return the bound function, or an empty optional if it is not available
+		 */
+		public Optional<FUNCTION> find() {
+			var result = function;
+
+			if (result == null) {
+				Optional<FUNCTION> found = lookup.lookup(name).map(address -> binder.apply(address, arena));
+				found.ifPresent(f -> function = f);
+				return found;
+			}
+
+			return Optional.of(result);
+		}
+
+		public boolean isResolved() {
+			return function != null;
+		}
+	}
+}
@@ -20,9 +20,7 @@ public record ExtensionProperties(String name, int version) {
 	}
 
 	public static List<ExtensionProperties> forLayer(String layerName) {
-		try (var arena = Arena.ofConfined()) {
-			return forLayer(arena.allocateUtf8String(layerName));
-		}
+		return forLayer(NativeStringPool.intern(layerName));
 	}
 
 	public static List<ExtensionProperties> forLayer(MemorySegment layerName) {
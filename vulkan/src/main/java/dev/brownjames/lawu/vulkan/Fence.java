@@ -0,0 +1,94 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkFenceCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+
+/**
+ * A fence, which a queue submission signals once all of its work has completed.
+ * <p>
+ * Waiting for a fence with {@link #await} blocks the calling thread in the driver. To wait for many fences, or from
+ * virtual threads, use an {@link AsyncWaitService} instead.
+ */
+public final class Fence implements AutoCloseable, VulkanHandle {
+	private final MemorySegment handle;
+	private final LogicalDevice device;
+
+	public static Fence create(LogicalDevice device) {
+		return create(device, false);
+	}
+
+	/**
+	 * Creates a fence
+	 * @param device the device to create the fence on
+	 * @param signalled whether the fence starts signalled
+	 * @return a fence
+	 */
+	public static Fence create(LogicalDevice device, boolean signalled) {
+		try (var arena = ScratchAllocator.push()) {
+			var createInfo = VkFenceCreateInfo.allocate(arena);
+			VkFenceCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_FENCE_CREATE_INFO());
+			VkFenceCreateInfo.pNext$set(createInfo, MemorySegment.NULL);
+			VkFenceCreateInfo.flags$set(createInfo, signalled ? vulkan_h.VK_FENCE_CREATE_SIGNALED_BIT() : 0);
+
+			return new Fence(device.createFence(createInfo), device);
+		}
+	}
+
+	public Fence(MemorySegment handle, LogicalDevice device) {
+		this.handle = handle;
+		this.device = device;
+	}
+
+	@Override
+	public MemorySegment handle() {
+		return handle;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	public boolean isSignalled() {
+		return device.getFenceStatus(handle) == vulkan_h.VK_SUCCESS();
+	}
+
+	/**
+	 * Returns the fence to the unsignalled state, so that it can be used by another submission
+	 */
+	public void reset() {
+		try (var arena = ScratchAllocator.push()) {
+			var fences = arena.allocate(vulkan_h.VkFence);
+			fences.set(vulkan_h.VkFence, 0L, handle);
+			device.resetFences(1, fences);
+		}
+	}
+
+	public void await() {
+		await(-1L);
+	}
+
+	/**
+	 * Waits for the fence to be signalled, or a timeout to expire
+	 * @param timeout the longest time to wait
+	 * @return whether the fence was signalled
+	 */
+	public boolean await(Duration timeout) {
+		return await(timeout.toNanos());
+	}
+
+	private boolean await(long timeoutNanos) {
+		try (var arena = ScratchAllocator.push()) {
+			var fences = arena.allocate(vulkan_h.VkFence);
+			fences.set(vulkan_h.VkFence, 0L, handle);
+			return device.waitForFences(1, fences, true, timeoutNanos) == vulkan_h.VK_SUCCESS();
+		}
+	}
+
+	@Override
+	public void close() {
+		device.destroyFence(handle);
+	}
+}
@@ -0,0 +1,40 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+public enum FormatFeatureFlag implements BitFlag {
+	SAMPLED_IMAGE(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_BIT()),
+	STORAGE_IMAGE(vulkan_h.VK_FORMAT_FEATURE_STORAGE_IMAGE_BIT()),
+	STORAGE_IMAGE_ATOMIC(vulkan_h.VK_FORMAT_FEATURE_STORAGE_IMAGE_ATOMIC_BIT()),
+	UNIFORM_TEXEL_BUFFER(vulkan_h.VK_FORMAT_FEATURE_UNIFORM_TEXEL_BUFFER_BIT()),
+	STORAGE_TEXEL_BUFFER(vulkan_h.VK_FORMAT_FEATURE_STORAGE_TEXEL_BUFFER_BIT()),
+	STORAGE_TEXEL_BUFFER_ATOMIC(vulkan_h.VK_FORMAT_FEATURE_STORAGE_TEXEL_BUFFER_ATOMIC_BIT()),
+	VERTEX_BUFFER(vulkan_h.VK_FORMAT_FEATURE_VERTEX_BUFFER_BIT()),
+	COLOR_ATTACHMENT(vulkan_h.VK_FORMAT_FEATURE_COLOR_ATTACHMENT_BIT()),
+	COLOR_ATTACHMENT_BLEND(vulkan_h.VK_FORMAT_FEATURE_COLOR_ATTACHMENT_BLEND_BIT()),
+	DEPTH_STENCIL_ATTACHMENT(vulkan_h.VK_FORMAT_FEATURE_DEPTH_STENCIL_ATTACHMENT_BIT()),
+	BLIT_SRC(vulkan_h.VK_FORMAT_FEATURE_BLIT_SRC_BIT()),
+	BLIT_DST(vulkan_h.VK_FORMAT_FEATURE_BLIT_DST_BIT()),
+	SAMPLED_IMAGE_FILTER_LINEAR(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_FILTER_LINEAR_BIT()),
+	TRANSFER_SRC(vulkan_h.VK_FORMAT_FEATURE_TRANSFER_SRC_BIT()),
+	TRANSFER_DST(vulkan_h.VK_FORMAT_FEATURE_TRANSFER_DST_BIT()),
+	MIDPOINT_CHROMA_SAMPLES(vulkan_h.VK_FORMAT_FEATURE_MIDPOINT_CHROMA_SAMPLES_BIT()),
+	SAMPLED_IMAGE_YCBCR_CONVERSION_LINEAR_FILTER(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_YCBCR_CONVERSION_LINEAR_FILTER_BIT()),
+	SAMPLED_IMAGE_YCBCR_CONVERSION_SEPARATE_RECONSTRUCTION_FILTER(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_YCBCR_CONVERSION_SEPARATE_RECONSTRUCTION_FILTER_BIT()),
+	SAMPLED_IMAGE_YCBCR_CONVERSION_CHROMA_RECONSTRUCTION_EXPLICIT(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_YCBCR_CONVERSION_CHROMA_RECONSTRUCTION_EXPLICIT_BIT()),
+	SAMPLED_IMAGE_YCBCR_CONVERSION_CHROMA_RECONSTRUCTION_EXPLICIT_FORCEABLE(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_YCBCR_CONVERSION_CHROMA_RECONSTRUCTION_EXPLICIT_FORCEABLE_BIT()),
+	DISJOINT(vulkan_h.VK_FORMAT_FEATURE_DISJOINT_BIT()),
+	COSITED_CHROMA_SAMPLES(vulkan_h.VK_FORMAT_FEATURE_COSITED_CHROMA_SAMPLES_BIT()),
+	SAMPLED_IMAGE_FILTER_MINMAX(vulkan_h.VK_FORMAT_FEATURE_SAMPLED_IMAGE_FILTER_MINMAX_BIT());
+
+	private final int bit;
+
+	FormatFeatureFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
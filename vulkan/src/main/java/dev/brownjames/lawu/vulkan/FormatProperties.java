@@ -0,0 +1,51 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkFormatProperties;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+
+/**
+ * The features supported by a format on a physical device
+ * @param linearTilingFeatures the features supported by images with linear tiling
+ * @param optimalTilingFeatures the features supported by images with optimal tiling
+ * @param bufferFeatures the features supported by buffers
+ */
+public record FormatProperties(
+		BitFlags<FormatFeatureFlag> linearTilingFeatures,
+		BitFlags<FormatFeatureFlag> optimalTilingFeatures,
+		BitFlags<FormatFeatureFlag> bufferFeatures
+) {
+	public static FormatProperties of(MemorySegment raw) {
+		return new FormatProperties(
+				new BitFlags<>(FormatFeatureFlag.class, VkFormatProperties.linearTilingFeatures$get(raw)),
+				new BitFlags<>(FormatFeatureFlag.class, VkFormatProperties.optimalTilingFeatures$get(raw)),
+				new BitFlags<>(FormatFeatureFlag.class, VkFormatProperties.bufferFeatures$get(raw))
+		);
+	}
+
+	/**
+	 * Whether the format supports nothing at all, as is the case for formats the device does not know of
+	 * @return if there are no features
+	 */
+	public boolean isEmpty() {
+		return linearTilingFeatures.isEmpty() && optimalTilingFeatures.isEmpty() && bufferFeatures.isEmpty();
+	}
+
+	public void asNative(MemorySegment destination) {
+		VkFormatProperties.linearTilingFeatures$set(destination, linearTilingFeatures.bits());
+		VkFormatProperties.optimalTilingFeatures$set(destination, optimalTilingFeatures.bits());
+		VkFormatProperties.bufferFeatures$set(destination, bufferFeatures.bits());
+	}
+
+	public MemorySegment asNative(SegmentAllocator allocator) {
+		var raw = VkFormatProperties.allocate(allocator);
+		asNative(raw);
+		return raw;
+	}
+
+	public MemorySegment asNative() {
+		return asNative(Arena.ofAuto());
+	}
+}
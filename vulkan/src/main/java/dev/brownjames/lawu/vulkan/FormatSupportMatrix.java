@@ -0,0 +1,308 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkExtent3D;
+import dev.brownjames.lawu.vulkan.bindings.VkImageFormatProperties;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The image format support of a device for every combination of a set of formats, types, tilings, usages and create
+ * flags.
+ * <p>
+ * The combinations are queried in parallel on a fork-join pool, with each worker writing the results into shared
+ * primitive arrays and using its {@link ScratchAllocator} for the native structures, so building even a large matrix
+ * allocates no native memory per query. Workers can only use an instance created with
+ * {@link VulkanInstance.ThreadingMode#CONCURRENT}; for a {@link VulkanInstance.ThreadingMode#CONFINED} instance the
+ * combinations are queried one after another on the calling thread instead. Each combination has a dense index, given
+ * by {@link #index}, with the flags varying fastest and the formats slowest.
+ */
+public final class FormatSupportMatrix {
+	/**
+	 * The depth formats, in the order they are preferred by {@link #bestDepthFormat(int)}
+	 */
+	public static final List<Integer> DEPTH_FORMATS = List.of(
+			vulkan_h.VK_FORMAT_D32_SFLOAT(),
+			vulkan_h.VK_FORMAT_D32_SFLOAT_S8_UINT(),
+			vulkan_h.VK_FORMAT_D24_UNORM_S8_UINT(),
+			vulkan_h.VK_FORMAT_X8_D24_UNORM_PACK32(),
+			vulkan_h.VK_FORMAT_D16_UNORM(),
+			vulkan_h.VK_FORMAT_D16_UNORM_S8_UINT()
+	);
+
+	// The fields of an entry in the properties array
+	private static final int WIDTH = 0;
+	private static final int HEIGHT = 1;
+	private static final int DEPTH = 2;
+	private static final int MIP_LEVELS = 3;
+	private static final int ARRAY_LAYERS = 4;
+	private static final int SAMPLE_COUNTS = 5;
+	private static final int STRIDE = 6;
+
+	private static final int LEAF_SIZE = 32;
+
+	private final int[] formats;
+	private final int[] types;
+	private final int[] tilings;
+	private final int[] usages;
+	private final int[] flags;
+
+	private final int[] properties;
+	private final long[] maxResourceSizes;
+
+	private FormatSupportMatrix(int[] formats, int[] types, int[] tilings, int[] usages, int[] flags) {
+		this.formats = formats;
+		this.types = types;
+		this.tilings = tilings;
+		this.usages = usages;
+		this.flags = flags;
+
+		var size = (long) formats.length * types.length * tilings.length * usages.length * flags.length;
+		if (size * STRIDE > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many combinations: " + size);
+		}
+
+		properties = new int[(int) size * STRIDE];
+		maxResourceSizes = new long[(int) size];
+	}
+
+	/**
+	 * Queries every combination on the common pool
+	 * @see #query(PhysicalDevice, List, List, List, List, List, ForkJoinPool)
+	 */
+	public static FormatSupportMatrix query(PhysicalDevice device,
+	                                        List<Integer> formats,
+	                                        List<Integer> types,
+	                                        List<Integer> tilings,
+	                                        List<Integer> usages,
+	                                        List<Integer> flags) {
+		return query(device, formats, types, tilings, usages, flags, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Queries every combination
+	 * @param device the device to query
+	 * @param formats the formats
+	 * @param types the image types
+	 * @param tilings the image tilings
+	 * @param usages the usages, each of which is a combination of usage bits
+	 * @param flags the create flags, each of which is a combination of create bits
+	 * @param pool the pool to run the queries on, which is only used if the device's instance is
+	 *             {@link VulkanInstance.ThreadingMode#CONCURRENT}
+	 * @return the support for every combination
+	 */
+	public static FormatSupportMatrix query(PhysicalDevice device,
+	                                        List<Integer> formats,
+	                                        List<Integer> types,
+	                                        List<Integer> tilings,
+	                                        List<Integer> usages,
+	                                        List<Integer> flags,
+	                                        ForkJoinPool pool) {
+		var matrix = new FormatSupportMatrix(toArray(formats), toArray(types), toArray(tilings), toArray(usages), toArray(flags));
+		if (device.instance().threadingMode() == VulkanInstance.ThreadingMode.CONCURRENT) {
+			pool.invoke(matrix.new Query(device, 0, matrix.size()));
+		} else {
+			// A confined instance throws if a worker touches it
+			matrix.queryRange(device, 0, matrix.size());
+		}
+
+		return matrix;
+	}
+
+	private static int[] toArray(List<Integer> values) {
+		return values.stream()
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+
+	/**
+	 * Queries a range of combinations, splitting it between workers until it is small enough
+	 */
+	private final class Query extends RecursiveAction {
+		private final PhysicalDevice device;
+		private final int start;
+		private final int end;
+
+		Query(PhysicalDevice device, int start, int end) {
+			this.device = device;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > LEAF_SIZE) {
+				var middle = (start + end) >>> 1;
+				invokeAll(new Query(device, start, middle), new Query(device, middle, end));
+				return;
+			}
+
+			queryRange(device, start, end);
+		}
+	}
+
+	/**
+	 * Queries a range of combinations on the calling thread
+	 */
+	private void queryRange(PhysicalDevice device, int start, int end) {
+		var instance = device.instance();
+		try (var scratch = ScratchAllocator.push()) {
+			var raw = VkImageFormatProperties.allocate(scratch);
+
+			for (int index = start; index < end; index++) {
+				var flagsIndex = index % flags.length;
+				var remainder = index / flags.length;
+				var usageIndex = remainder % usages.length;
+				remainder /= usages.length;
+				var tilingIndex = remainder % tilings.length;
+				remainder /= tilings.length;
+				var typeIndex = remainder % types.length;
+				var formatIndex = remainder / types.length;
+
+				var result = instance.tryGetPhysicalDeviceImageFormatProperties(device.handle(),
+						formats[formatIndex], types[typeIndex], tilings[tilingIndex], usages[usageIndex], flags[flagsIndex], raw);
+
+				// Unsupported entries are left zeroed; supported ones always have at least one mip level
+				if (result == vulkan_h.VK_SUCCESS()) {
+					var extent = VkImageFormatProperties.maxExtent$slice(raw);
+					var offset = index * STRIDE;
+					properties[offset + WIDTH] = VkExtent3D.width$get(extent);
+					properties[offset + HEIGHT] = VkExtent3D.height$get(extent);
+					properties[offset + DEPTH] = VkExtent3D.depth$get(extent);
+					properties[offset + MIP_LEVELS] = VkImageFormatProperties.maxMipLevels$get(raw);
+					properties[offset + ARRAY_LAYERS] = VkImageFormatProperties.maxArrayLayers$get(raw);
+					properties[offset + SAMPLE_COUNTS] = VkImageFormatProperties.sampleCounts$get(raw);
+					maxResourceSizes[index] = VkImageFormatProperties.maxResourceSize$get(raw);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The number of combinations in the matrix
+	 * @return the number of combinations
+	 */
+	public int size() {
+		return maxResourceSizes.length;
+	}
+
+	/**
+	 * Finds the dense index of a combination
+	 * @return the index, or -1 if the combination is not part of the matrix
+	 */
+	public int index(int format, int type, int tiling, int usage, int flags) {
+		var formatIndex = indexOf(formats, format);
+		var typeIndex = indexOf(types, type);
+		var tilingIndex = indexOf(tilings, tiling);
+		var usageIndex = indexOf(usages, usage);
+		var flagsIndex = indexOf(this.flags, flags);
+
+		if (formatIndex < 0 || typeIndex < 0 || tilingIndex < 0 || usageIndex < 0 || flagsIndex < 0) {
+			return -1;
+		}
+
+		return (((formatIndex * types.length + typeIndex) * tilings.length + tilingIndex) * usages.length + usageIndex) * this.flags.length + flagsIndex;
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	public boolean isSupported(int index) {
+		return properties[index * STRIDE + MIP_LEVELS] != 0;
+	}
+
+	/**
+	 * Whether a combination is supported
+	 * @throws IllegalArgumentException if the combination is not part of the matrix
+	 */
+	public boolean isSupported(int format, int type, int tiling, int usage, int flags) {
+		return isSupported(checkedIndex(format, type, tiling, usage, flags));
+	}
+
+	public Extent3d maxExtent(int index) {
+		var offset = index * STRIDE;
+		return new Extent3d(properties[offset + WIDTH], properties[offset + HEIGHT], properties[offset + DEPTH]);
+	}
+
+	public int maxMipLevels(int index) {
+		return properties[index * STRIDE + MIP_LEVELS];
+	}
+
+	public int maxArrayLayers(int index) {
+		return properties[index * STRIDE + ARRAY_LAYERS];
+	}
+
+	public BitFlags<SampleCountFlag> sampleCounts(int index) {
+		return new BitFlags<>(SampleCountFlag.class, properties[index * STRIDE + SAMPLE_COUNTS]);
+	}
+
+	public long maxResourceSize(int index) {
+		return maxResourceSizes[index];
+	}
+
+	/**
+	 * Gets the properties of a combination
+	 * @param index the index of the combination
+	 * @return the properties, or nothing if the combination is not supported
+	 */
+	public Optional<ImageFormatProperties> properties(int index) {
+		if (!isSupported(index)) {
+			return Optional.empty();
+		}
+
+		return Optional.of(new ImageFormatProperties(maxExtent(index), maxMipLevels(index), maxArrayLayers(index),
+				sampleCounts(index).asSet(), maxResourceSize(index)));
+	}
+
+	/**
+	 * Finds the first supported format out of some candidates, ignoring candidates that are not part of the matrix
+	 * @param candidates the formats, in order of preference
+	 * @throws IllegalArgumentException if the type, tiling, usage or flags are not part of the matrix
+	 */
+	public OptionalInt bestFormat(List<Integer> candidates, int type, int tiling, int usage, int flags) {
+		if (indexOf(types, type) < 0 || indexOf(tilings, tiling) < 0 || indexOf(usages, usage) < 0 || indexOf(this.flags, flags) < 0) {
+			throw new IllegalArgumentException("Combination is not part of the matrix: type %d, tiling %d, usage %d, flags %d"
+					.formatted(type, tiling, usage, flags));
+		}
+
+		for (var candidate : candidates) {
+			var index = index(candidate, type, tiling, usage, flags);
+			if (index >= 0 && isSupported(index)) {
+				return OptionalInt.of(candidate);
+			}
+		}
+
+		return OptionalInt.empty();
+	}
+
+	/**
+	 * Finds the preferred depth format for two-dimensional, optimally tiled images without create flags
+	 * @param usage the combination of usage bits the images need
+	 * @return the best supported format out of {@link #DEPTH_FORMATS}, if any is supported
+	 * @throws IllegalArgumentException if the matrix does not contain the needed type, tiling, usage or flags
+	 */
+	public OptionalInt bestDepthFormat(int usage) {
+		return bestFormat(DEPTH_FORMATS, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(), usage, 0);
+	}
+
+	private int checkedIndex(int format, int type, int tiling, int usage, int flags) {
+		var index = index(format, type, tiling, usage, flags);
+		if (index < 0) {
+			throw new IllegalArgumentException("Combination is not part of the matrix: format %d, type %d, tiling %d, usage %d, flags %d"
+					.formatted(format, type, tiling, usage, flags));
+		}
+
+		return index;
+	}
+}
@@ -1,6 +1,5 @@
 package dev.brownjames.lawu.vulkan;
 
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.util.Optional;
 
@@ -12,11 +11,14 @@ public interface FunctionLookup {
 	interface FromMemorySegment extends FunctionLookup {
 		Optional<MemorySegment> lookup(MemorySegment name);
 
+		/**
+		 * Looks up a function using the pooled native copy of its name
+		 * @param name the name of the function
+		 * @return the address of the function, if it is present
+		 */
 		@Override
 		default Optional<MemorySegment> lookup(String name) {
-			try (var arena = Arena.ofConfined()) {
-				return lookup(arena.allocateUtf8String(name));
-			}
+			return lookup(NativeStringPool.intern(name));
 		}
 	}
 }
@@ -14,14 +14,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public record InstanceCreateInfo(
 		Optional<ApplicationInfo> applicationInfo,
 		Collection<Flag> flags,
 		Collection<String> extensionNames,
 		Collection<String> layerNames,
-		Collection<Next> nexts
+		Collection<Next> nexts,
+		VulkanInstance.ThreadingMode threadingMode,
+		Optional<AllocationCallbacks> allocationCallbacks
 ) {
 	/**
 	 * An enumeration of flag bits for the create-info structure
@@ -47,29 +48,40 @@ public record InstanceCreateInfo(
 	public interface Next extends NextStructure { }
 
 	public InstanceCreateInfo() {
-		this(Optional.empty(), BitFlag.noFlags(Flag.class), List.of(), List.of(), List.of());
+		this(Optional.empty(), BitFlag.noFlags(Flag.class), List.of(), List.of(), List.of(), VulkanInstance.ThreadingMode.CONFINED, Optional.empty());
 	}
 
 	public InstanceCreateInfo withApplicationInfo(ApplicationInfo info) {
-		return new InstanceCreateInfo(Optional.of(info), flags, extensionNames, layerNames, nexts);
+		return new InstanceCreateInfo(Optional.of(info), flags, extensionNames, layerNames, nexts, threadingMode, allocationCallbacks);
 	}
 
 	public InstanceCreateInfo withFlag(Flag flag) {
 		var newFlags = BitFlag.flags(flags);
 		newFlags.add(flag);
-		return new InstanceCreateInfo(applicationInfo, newFlags, extensionNames, layerNames, nexts);
+		return new InstanceCreateInfo(applicationInfo, newFlags, extensionNames, layerNames, nexts, threadingMode, allocationCallbacks);
 	}
 
 	public InstanceCreateInfo withExtension(String extensionName) {
 		var newNames = new ArrayList<>(extensionNames);
 		newNames.add(extensionName);
-		return new InstanceCreateInfo(applicationInfo, flags, newNames, layerNames, nexts);
+		return new InstanceCreateInfo(applicationInfo, flags, newNames, layerNames, nexts, threadingMode, allocationCallbacks);
+	}
+
+	/**
+	 * Adds several extensions at once, such as those a windowing library requires
+	 * @param extensionNames the names of the extensions
+	 * @return a new create-info structure
+	 */
+	public InstanceCreateInfo withExtensions(Collection<String> extensionNames) {
+		var newNames = new ArrayList<>(this.extensionNames);
+		newNames.addAll(extensionNames);
+		return new InstanceCreateInfo(applicationInfo, flags, newNames, layerNames, nexts, threadingMode, allocationCallbacks);
 	}
 
 	public InstanceCreateInfo withLayer(String layerName) {
 		var newNames = new ArrayList<>(layerNames);
 		newNames.add(layerName);
-		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, newNames, nexts);
+		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, newNames, nexts, threadingMode, allocationCallbacks);
 	}
 
 	public InstanceCreateInfo withPortabilityEnumeration() {
@@ -77,10 +89,30 @@ public record InstanceCreateInfo(
 				.withExtension("VK_KHR_portability_enumeration");
 	}
 
+	/**
+	 * Sets the threads that may use the built instance
+	 * @param mode the threading mode
+	 * @return a new create-info structure
+	 */
+	public InstanceCreateInfo withThreadingMode(VulkanInstance.ThreadingMode mode) {
+		assert mode != null;
+
+		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, layerNames, nexts, mode, allocationCallbacks);
+	}
+
+	/**
+	 * Sets the callbacks the instance allocates host memory with, instead of the driver's own allocator
+	 * @param callbacks the allocation callbacks, such as {@link PooledAllocationCallbacks}
+	 * @return a new create-info structure
+	 */
+	public InstanceCreateInfo withAllocationCallbacks(AllocationCallbacks callbacks) {
+		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, layerNames, nexts, threadingMode, Optional.of(callbacks));
+	}
+
 	public InstanceCreateInfo withNext(Next next) {
 		var newNexts = new ArrayList<>(nexts);
 		newNexts.add(next);
-		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, layerNames, newNexts);
+		return new InstanceCreateInfo(applicationInfo, flags, extensionNames, layerNames, newNexts, threadingMode, allocationCallbacks);
 	}
 
 	public InstanceCreateInfo withDrivers(DirectDriverLoadingMode mode, VulkanDriver... drivers) {
@@ -102,53 +134,79 @@ public record InstanceCreateInfo(
 	}
 
 	public void validateLayers() throws UnsupportedLayerException {
-		var allLayers = LayerProperties.all();
-
-		var unmatchedLayers = layerNames.stream()
-				.filter(name -> allLayers.stream().noneMatch(layer -> layer.name().equals(name)))
-				.toList();
+		validateLayers(VulkanCatalogue.global());
+	}
 
-		if (!unmatchedLayers.isEmpty()) {
-			throw new UnsupportedLayerException(unmatchedLayers, allLayers);
-		}
+	public void validateLayers(VulkanCatalogue catalogue) throws UnsupportedLayerException {
+		catalogue.requireLayers(layerNames);
 	}
 
 	public void validateExtensions() throws UnsupportedExtensionException {
-		var allExtensions = layerNames.stream()
-				.flatMap(name -> ExtensionProperties.forLayer(name).stream())
-				.collect(Collectors.toCollection(ArrayList::new));
-		allExtensions.addAll(ExtensionProperties.vulkanOrImplicit());
-		
-		var unmatchedExtensions = extensionNames.stream()
-				.filter(name -> allExtensions.stream().noneMatch(extension -> extension.name().equals(name)))
-				.toList();
-		
-		if (!unmatchedExtensions.isEmpty()) {
-			throw new UnsupportedExtensionException(unmatchedExtensions, allExtensions);
-		}
+		validateExtensions(VulkanCatalogue.global());
+	}
+
+	public void validateExtensions(VulkanCatalogue catalogue) throws UnsupportedExtensionException {
+		catalogue.requireExtensions(extensionNames, layerNames);
 	}
 
 	/**
-	 * Checks the layers and extensions for validity then builds the instance
+	 * Checks the layers and extensions against the global catalogue then builds the instance
 	 * @return a vulkan instance
 	 * @throws UnsupportedLayerException if layers are not supported
 	 * @throws UnsupportedExtensionException if the requested extensions are not supported
 	 */
 	public VulkanInstance validate() throws VulkanValidationException {
+		return validate(VulkanCatalogue.global());
+	}
+
+	/**
+	 * Checks the layers and extensions for validity then builds the instance
+	 * @param catalogue the layers and extensions available
+	 * @return a vulkan instance
+	 * @throws UnsupportedLayerException if layers are not supported
+	 * @throws UnsupportedExtensionException if the requested extensions are not supported
+	 */
+	public VulkanInstance validate(VulkanCatalogue catalogue) throws VulkanValidationException {
 		if (applicationInfo.isPresent()) {
 			applicationInfo.get().validate();
 		}
 
-		validateLayers();
-		validateExtensions();
+		validateLayers(catalogue);
+		validateExtensions(catalogue);
 
 		return build();
 	}
 
+	/**
+	 * Compiles the create-info structure into native memory, so that many instances can be built from it without
+	 * encoding it again. The layers and extensions are not validated.
+	 * @return a template, which must be closed after every instance built from it
+	 */
+	public InstanceTemplate freeze() {
+		return new InstanceTemplate(this);
+	}
+
+	/**
+	 * The version of Vulkan requested by the application info, or 1.0 if there is none
+	 */
+	VulkanVersionNumber apiVersion() {
+		return applicationInfo.flatMap(ApplicationInfo::apiVersion).orElse(VulkanVersionNumber.of(vulkan_h.VK_API_VERSION_1_0()));
+	}
+
 	public VulkanInstance build() {
-		try (var arena = Arena.ofConfined()) {
-			return VulkanInstance.create(createNativeStructure(arena),
-					applicationInfo.flatMap(ApplicationInfo::apiVersion).orElse(VulkanVersionNumber.of(vulkan_h.VK_API_VERSION_1_0())));
+		var version = apiVersion();
+
+		// The chain may hold debug messenger callbacks, which the loader uses until the instance is destroyed
+		var arena = threadingMode.createArena();
+		try {
+			var allocator = allocationCallbacks
+					.map(callbacks -> callbacks.createNativeStructure(arena))
+					.orElse(MemorySegment.NULL);
+
+			return VulkanInstance.create(createNativeStructure(arena), version, threadingMode, arena, allocator);
+		} catch (RuntimeException e) {
+			arena.close();
+			throw e;
 		}
 	}
 
@@ -168,7 +226,7 @@ public record InstanceCreateInfo(
 
 			int i = 0;
 			for (var name : extensionNames) {
-				extensionNamesArray.setAtIndex(BindingHelper.CHAR_POINTER, i, arena.allocateUtf8String(name));
+				extensionNamesArray.setAtIndex(BindingHelper.CHAR_POINTER, i, NativeStringPool.intern(name));
 				i++;
 			}
 
@@ -181,7 +239,7 @@ public record InstanceCreateInfo(
 
 			int i = 0;
 			for (var name : layerNames) {
-				layerNamesArray.setAtIndex(BindingHelper.CHAR_POINTER, i, arena.allocateUtf8String(name));
+				layerNamesArray.setAtIndex(BindingHelper.CHAR_POINTER, i, NativeStringPool.intern(name));
 				i++;
 			}
 
@@ -0,0 +1,142 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkApplicationInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkInstanceCreateInfo;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * A create-info structure compiled into native memory once, from which any number of instances can be built.
+ * <p>
+ * {@link InstanceCreateInfo#build()} encodes every string, array and pNext structure again for each instance. A
+ * template does that once, in an arena it owns, so building an instance from it only creates the instance. Overrides
+ * of the application info are applied to a copy of the two top-level structures in scratch memory, leaving the rest
+ * of the template shared.
+ * <p>
+ * The loader keeps using the debug messenger callbacks in the chain, and the allocation callbacks, until each instance
+ * is destroyed, so a template must not be closed until every instance built from it has been. Building is thread-safe.
+ */
+public final class InstanceTemplate implements AutoCloseable {
+	/**
+	 * Changes made to the application info of a single instance
+	 * @param applicationName the application name to use instead of the template's
+	 * @param applicationVersion the application version to use instead of the template's
+	 */
+	public record Overrides(Optional<String> applicationName, OptionalInt applicationVersion) {
+		public Overrides() {
+			this(Optional.empty(), OptionalInt.empty());
+		}
+
+		public Overrides withApplicationName(String name) {
+			assert name != null;
+
+			return new Overrides(Optional.of(name), applicationVersion);
+		}
+
+		public Overrides withApplicationVersion(int version) {
+			return new Overrides(applicationName, OptionalInt.of(version));
+		}
+
+		public boolean isEmpty() {
+			return applicationName.isEmpty() && applicationVersion.isEmpty();
+		}
+	}
+
+	private final InstanceCreateInfo createInfo;
+	private final Arena arena;
+	private final MemorySegment instanceCreateInfo;
+	private final MemorySegment applicationInfo;
+	private final MemorySegment allocator;
+	private final VulkanVersionNumber version;
+
+	InstanceTemplate(InstanceCreateInfo createInfo) {
+		this.createInfo = createInfo;
+
+		arena = Arena.ofShared();
+		try {
+			instanceCreateInfo = createInfo.createNativeStructure(arena);
+
+			// Overrides need an application info structure to change, even when the create-info has none
+			var pApplicationInfo = VkInstanceCreateInfo.pApplicationInfo$get(instanceCreateInfo);
+			applicationInfo = pApplicationInfo.address() == 0L
+					? new ApplicationInfo().createNativeStructure(arena)
+					: pApplicationInfo.reinterpret(VkApplicationInfo.$LAYOUT().byteSize());
+
+			allocator = createInfo.allocationCallbacks()
+					.map(callbacks -> callbacks.createNativeStructure(arena))
+					.orElse(MemorySegment.NULL);
+		} catch (RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+
+		version = createInfo.apiVersion();
+	}
+
+	/**
+	 * The create-info structure the template was compiled from
+	 * @return the create-info structure
+	 */
+	public InstanceCreateInfo createInfo() {
+		return createInfo;
+	}
+
+	/**
+	 * Builds an instance exactly as described by the template
+	 * @return a vulkan instance
+	 */
+	public VulkanInstance build() {
+		return create(instanceCreateInfo);
+	}
+
+	public VulkanInstance build(String applicationName) {
+		return build(new Overrides().withApplicationName(applicationName));
+	}
+
+	/**
+	 * Builds an instance with a different application info
+	 * @param overrides the changes to the application info
+	 * @return a vulkan instance
+	 */
+	public VulkanInstance build(Overrides overrides) {
+		if (overrides.isEmpty()) {
+			return build();
+		}
+
+		// The loader copies everything it needs from the create-info during the call, except the chain
+		try (var scratch = ScratchAllocator.push()) {
+			var applicationInfoCopy = VkApplicationInfo.allocate(scratch).copyFrom(applicationInfo);
+			overrides.applicationName().ifPresent(name ->
+					VkApplicationInfo.pApplicationName$set(applicationInfoCopy, scratch.allocateUtf8String(name)));
+			overrides.applicationVersion().ifPresent(version ->
+					VkApplicationInfo.applicationVersion$set(applicationInfoCopy, version));
+
+			var instanceCreateInfoCopy = VkInstanceCreateInfo.allocate(scratch).copyFrom(instanceCreateInfo);
+			VkInstanceCreateInfo.pApplicationInfo$set(instanceCreateInfoCopy, applicationInfoCopy);
+
+			return create(instanceCreateInfoCopy);
+		}
+	}
+
+	private VulkanInstance create(MemorySegment instanceCreateInfo) {
+		var threadingMode = createInfo.threadingMode();
+		var instanceArena = threadingMode.createArena();
+		try {
+			return VulkanInstance.create(instanceCreateInfo, version, threadingMode, instanceArena, allocator);
+		} catch (RuntimeException e) {
+			instanceArena.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Frees the compiled structures. Every instance built from the template must already be closed.
+	 */
+	@Override
+	public void close() {
+		arena.close();
+	}
+}
@@ -0,0 +1,30 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+/**
+ * The kind of a host memory allocation the driver made itself and reported through a notification
+ */
+public enum InternalAllocationType {
+	EXECUTABLE(vulkan_h.VK_INTERNAL_ALLOCATION_TYPE_EXECUTABLE());
+
+	private final int value;
+
+	InternalAllocationType(int value) {
+		this.value = value;
+	}
+
+	public int value() {
+		return value;
+	}
+
+	public static InternalAllocationType of(int value) {
+		for (var type : values()) {
+			if (type.value == value) {
+				return type;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown internal allocation type %d".formatted(value));
+	}
+}
@@ -0,0 +1,464 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.*;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A Vulkan device and the device-level functions bound to it.
+ * <p>
+ * Device-level functions are looked up using {@code vkGetDeviceProcAddr}, so they call directly into the driver rather
+ * than through the loader. The device uses the same {@link VulkanInstance.ThreadingMode} as the instance it was
+ * created from.
+ */
+public final class LogicalDevice implements AutoCloseable, VulkanHandle {
+	private final MemorySegment handle;
+	private final PhysicalDevice physicalDevice;
+	private final Arena arena;
+
+	private final DeviceFunctionLookup deviceFunctionLookup;
+	private final DispatchTable dispatchTable;
+
+	private final DispatchTable.Entry<PFN_vkDestroyDevice> destroyDevice;
+	private final DispatchTable.Entry<PFN_vkGetDeviceQueue> getDeviceQueue;
+	private final DispatchTable.Entry<PFN_vkDeviceWaitIdle> deviceWaitIdle;
+	private final DispatchTable.Entry<PFN_vkQueueWaitIdle> queueWaitIdle;
+	private final DispatchTable.Entry<PFN_vkCreatePipelineCache> createPipelineCache;
+	private final DispatchTable.Entry<PFN_vkDestroyPipelineCache> destroyPipelineCache;
+	private final DispatchTable.Entry<PFN_vkGetPipelineCacheData> getPipelineCacheData;
+	private final DispatchTable.Entry<PFN_vkMergePipelineCaches> mergePipelineCaches;
+	private final DispatchTable.Entry<PFN_vkAllocateMemory> allocateMemory;
+	private final DispatchTable.Entry<PFN_vkFreeMemory> freeMemory;
+	private final DispatchTable.Entry<PFN_vkMapMemory> mapMemory;
+	private final DispatchTable.Entry<PFN_vkUnmapMemory> unmapMemory;
+	private final DispatchTable.Entry<PFN_vkGetBufferMemoryRequirements> getBufferMemoryRequirements;
+	private final DispatchTable.Entry<PFN_vkGetImageMemoryRequirements> getImageMemoryRequirements;
+	private final DispatchTable.Entry<PFN_vkBindBufferMemory> bindBufferMemory;
+	private final DispatchTable.Entry<PFN_vkBindImageMemory> bindImageMemory;
+	private final DispatchTable.Entry<PFN_vkCreateBuffer> createBuffer;
+	private final DispatchTable.Entry<PFN_vkDestroyBuffer> destroyBuffer;
+	private final DispatchTable.Entry<PFN_vkCreateImage> createImage;
+	private final DispatchTable.Entry<PFN_vkDestroyImage> destroyImage;
+	private final DispatchTable.Entry<PFN_vkCreateCommandPool> createCommandPool;
+	private final DispatchTable.Entry<PFN_vkDestroyCommandPool> destroyCommandPool;
+	private final DispatchTable.Entry<PFN_vkResetCommandPool> resetCommandPool;
+	private final DispatchTable.Entry<PFN_vkAllocateCommandBuffers> allocateCommandBuffers;
+	private final DispatchTable.Entry<PFN_vkFreeCommandBuffers> freeCommandBuffers;
+	private final DispatchTable.Entry<PFN_vkBeginCommandBuffer> beginCommandBuffer;
+	private final DispatchTable.Entry<PFN_vkEndCommandBuffer> endCommandBuffer;
+	private final DispatchTable.Entry<PFN_vkCmdExecuteCommands> cmdExecuteCommands;
+	private final DispatchTable.Entry<PFN_vkCmdSetViewport> cmdSetViewport;
+	private final DispatchTable.Entry<PFN_vkCreateSemaphore> createSemaphore;
+	private final DispatchTable.Entry<PFN_vkDestroySemaphore> destroySemaphore;
+	private final DispatchTable.Entry<PFN_vkGetSemaphoreCounterValue> getSemaphoreCounterValue;
+	private final DispatchTable.Entry<PFN_vkWaitSemaphores> waitSemaphores;
+	private final DispatchTable.Entry<PFN_vkSignalSemaphore> signalSemaphore;
+	private final DispatchTable.Entry<PFN_vkQueueSubmit> queueSubmit;
+	private final DispatchTable.Entry<PFN_vkQueueSubmit2> queueSubmit2;
+	private final DispatchTable.Entry<PFN_vkCreateFence> createFence;
+	private final DispatchTable.Entry<PFN_vkDestroyFence> destroyFence;
+	private final DispatchTable.Entry<PFN_vkResetFences> resetFences;
+	private final DispatchTable.Entry<PFN_vkGetFenceStatus> getFenceStatus;
+	private final DispatchTable.Entry<PFN_vkWaitForFences> waitForFences;
+
+	public static DeviceCreateInfo builder() {
+		return new DeviceCreateInfo();
+	}
+
+	public static LogicalDevice create(PhysicalDevice physicalDevice, MemorySegment deviceCreateInfo) {
+		return new LogicalDevice(physicalDevice.instance().createDevice(physicalDevice.handle(), deviceCreateInfo), physicalDevice);
+	}
+
+	public LogicalDevice(MemorySegment handle, PhysicalDevice physicalDevice) {
+		this.handle = handle;
+		this.physicalDevice = physicalDevice;
+		this.arena = physicalDevice.instance().threadingMode().createArena();
+
+		deviceFunctionLookup = physicalDevice.instance().deviceFunctionLookup(handle);
+		dispatchTable = new DispatchTable(deviceFunctionLookup, arena);
+
+		destroyDevice = dispatchTable.entry("vkDestroyDevice", PFN_vkDestroyDevice::ofAddress);
+		getDeviceQueue = dispatchTable.entry("vkGetDeviceQueue", PFN_vkGetDeviceQueue::ofAddress);
+		deviceWaitIdle = dispatchTable.entry("vkDeviceWaitIdle", PFN_vkDeviceWaitIdle::ofAddress);
+		queueWaitIdle = dispatchTable.entry("vkQueueWaitIdle", PFN_vkQueueWaitIdle::ofAddress);
+		createPipelineCache = dispatchTable.entry("vkCreatePipelineCache", PFN_vkCreatePipelineCache::ofAddress);
+		destroyPipelineCache = dispatchTable.entry("vkDestroyPipelineCache", PFN_vkDestroyPipelineCache::ofAddress);
+		getPipelineCacheData = dispatchTable.entry("vkGetPipelineCacheData", PFN_vkGetPipelineCacheData::ofAddress);
+		mergePipelineCaches = dispatchTable.entry("vkMergePipelineCaches", PFN_vkMergePipelineCaches::ofAddress);
+		allocateMemory = dispatchTable.entry("vkAllocateMemory", PFN_vkAllocateMemory::ofAddress);
+		freeMemory = dispatchTable.entry("vkFreeMemory", PFN_vkFreeMemory::ofAddress);
+		mapMemory = dispatchTable.entry("vkMapMemory", PFN_vkMapMemory::ofAddress);
+		unmapMemory = dispatchTable.entry("vkUnmapMemory", PFN_vkUnmapMemory::ofAddress);
+		getBufferMemoryRequirements = dispatchTable.entry("vkGetBufferMemoryRequirements", PFN_vkGetBufferMemoryRequirements::ofAddress);
+		getImageMemoryRequirements = dispatchTable.entry("vkGetImageMemoryRequirements", PFN_vkGetImageMemoryRequirements::ofAddress);
+		bindBufferMemory = dispatchTable.entry("vkBindBufferMemory", PFN_vkBindBufferMemory::ofAddress);
+		bindImageMemory = dispatchTable.entry("vkBindImageMemory", PFN_vkBindImageMemory::ofAddress);
+		createBuffer = dispatchTable.entry("vkCreateBuffer", PFN_vkCreateBuffer::ofAddress);
+		destroyBuffer = dispatchTable.entry("vkDestroyBuffer", PFN_vkDestroyBuffer::ofAddress);
+		createImage = dispatchTable.entry("vkCreateImage", PFN_vkCreateImage::ofAddress);
+		destroyImage = dispatchTable.entry("vkDestroyImage", PFN_vkDestroyImage::ofAddress);
+		createCommandPool = dispatchTable.entry("vkCreateCommandPool", PFN_vkCreateCommandPool::ofAddress);
+		destroyCommandPool = dispatchTable.entry("vkDestroyCommandPool", PFN_vkDestroyCommandPool::ofAddress);
+		resetCommandPool = dispatchTable.entry("vkResetCommandPool", PFN_vkResetCommandPool::ofAddress);
+		allocateCommandBuffers = dispatchTable.entry("vkAllocateCommandBuffers", PFN_vkAllocateCommandBuffers::ofAddress);
+		freeCommandBuffers = dispatchTable.entry("vkFreeCommandBuffers", PFN_vkFreeCommandBuffers::ofAddress);
+		beginCommandBuffer = dispatchTable.entry("vkBeginCommandBuffer", PFN_vkBeginCommandBuffer::ofAddress);
+		endCommandBuffer = dispatchTable.entry("vkEndCommandBuffer", PFN_vkEndCommandBuffer::ofAddress);
+		cmdExecuteCommands = dispatchTable.entry("vkCmdExecuteCommands", PFN_vkCmdExecuteCommands::ofAddress);
+		cmdSetViewport = dispatchTable.entry("vkCmdSetViewport", PFN_vkCmdSetViewport::ofAddress);
+		createSemaphore = dispatchTable.entry("vkCreateSemaphore", PFN_vkCreateSemaphore::ofAddress);
+		destroySemaphore = dispatchTable.entry("vkDestroySemaphore", PFN_vkDestroySemaphore::ofAddress);
+		getSemaphoreCounterValue = dispatchTable.entry("vkGetSemaphoreCounterValue", PFN_vkGetSemaphoreCounterValue::ofAddress);
+		waitSemaphores = dispatchTable.entry("vkWaitSemaphores", PFN_vkWaitSemaphores::ofAddress);
+		signalSemaphore = dispatchTable.entry("vkSignalSemaphore", PFN_vkSignalSemaphore::ofAddress);
+		queueSubmit = dispatchTable.entry("vkQueueSubmit", PFN_vkQueueSubmit::ofAddress);
+		queueSubmit2 = dispatchTable.entry("vkQueueSubmit2", PFN_vkQueueSubmit2::ofAddress);
+		createFence = dispatchTable.entry("vkCreateFence", PFN_vkCreateFence::ofAddress);
+		destroyFence = dispatchTable.entry("vkDestroyFence", PFN_vkDestroyFence::ofAddress);
+		resetFences = dispatchTable.entry("vkResetFences", PFN_vkResetFences::ofAddress);
+		getFenceStatus = dispatchTable.entry("vkGetFenceStatus", PFN_vkGetFenceStatus::ofAddress);
+		waitForFences = dispatchTable.entry("vkWaitForFences", PFN_vkWaitForFences::ofAddress);
+	}
+
+	@Override
+	public MemorySegment handle() {
+		return handle;
+	}
+
+	public PhysicalDevice physicalDevice() {
+		return physicalDevice;
+	}
+
+	public VulkanInstance instance() {
+		return physicalDevice.instance();
+	}
+
+	public MemorySegment allocator() {
+		return instance().allocator();
+	}
+
+	public Arena arena() {
+		return arena;
+	}
+
+	public DeviceFunctionLookup deviceFunctionLookup() {
+		return deviceFunctionLookup;
+	}
+
+	/**
+	 * Gets the table of device-level functions used by this device. Functions are looked up on first use.
+	 * @return the dispatch table
+	 */
+	public DispatchTable dispatchTable() {
+		return dispatchTable;
+	}
+
+	/**
+	 * Gets a queue that was requested when this device was created
+	 * @param queueFamilyIndex the family of the queue
+	 * @param queueIndex the index of the queue within the family
+	 * @return a queue
+	 */
+	public DeviceQueue getQueue(int queueFamilyIndex, int queueIndex) {
+		try (var arena = ScratchAllocator.push()) {
+			var queue = arena.allocate(vulkan_h.VkQueue);
+			getDeviceQueue.get().apply(handle, queueFamilyIndex, queueIndex, queue);
+			return new DeviceQueue(queue.get(vulkan_h.VkQueue, 0), this, queueFamilyIndex, queueIndex);
+		}
+	}
+
+	public void waitIdle() {
+		Vulkan.checkResult(deviceWaitIdle.get().apply(handle));
+	}
+
+	public void queueWaitIdle(MemorySegment queue) {
+		Vulkan.checkResult(queueWaitIdle.get().apply(queue));
+	}
+
+	/**
+	 * Creates a pipeline cache
+	 * @param pipelineCacheCreateInfo a {@code VkPipelineCacheCreateInfo} structure
+	 * @return the pipeline cache handle
+	 */
+	public MemorySegment createPipelineCache(MemorySegment pipelineCacheCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var pipelineCache = arena.allocate(vulkan_h.VkPipelineCache);
+			Vulkan.checkResult(createPipelineCache.get().apply(handle, pipelineCacheCreateInfo, allocator(), pipelineCache));
+			return pipelineCache.get(vulkan_h.VkPipelineCache, 0L);
+		}
+	}
+
+	public void destroyPipelineCache(MemorySegment pipelineCache) {
+		destroyPipelineCache.get().apply(handle, pipelineCache, allocator());
+	}
+
+	public int getPipelineCacheData(MemorySegment pipelineCache, MemorySegment dataSize, MemorySegment data) {
+		return Vulkan.checkResult(getPipelineCacheData.get().apply(handle, pipelineCache, dataSize, data));
+	}
+
+	public void mergePipelineCaches(MemorySegment destination, int sourceCount, MemorySegment sources) {
+		Vulkan.checkResult(mergePipelineCaches.get().apply(handle, destination, sourceCount, sources));
+	}
+
+	/**
+	 * Allocates device memory
+	 * @param size the size of the allocation in bytes
+	 * @param memoryTypeIndex the type of memory to allocate
+	 * @return the device memory handle
+	 */
+	public MemorySegment allocateMemory(long size, int memoryTypeIndex) {
+		try (var arena = ScratchAllocator.push()) {
+			var allocateInfo = VkMemoryAllocateInfo.allocate(arena);
+			VkMemoryAllocateInfo.sType$set(allocateInfo, vulkan_h.VK_STRUCTURE_TYPE_MEMORY_ALLOCATE_INFO());
+			VkMemoryAllocateInfo.pNext$set(allocateInfo, MemorySegment.NULL);
+			VkMemoryAllocateInfo.allocationSize$set(allocateInfo, size);
+			VkMemoryAllocateInfo.memoryTypeIndex$set(allocateInfo, memoryTypeIndex);
+
+			var memory = arena.allocate(vulkan_h.VkDeviceMemory);
+			Vulkan.checkResult(allocateMemory.get().apply(handle, allocateInfo, allocator(), memory));
+			return memory.get(vulkan_h.VkDeviceMemory, 0L);
+		}
+	}
+
+	public void freeMemory(MemorySegment memory) {
+		freeMemory.get().apply(handle, memory, allocator());
+	}
+
+	/**
+	 * Maps device memory into the host address space
+	 * @param memory the memory to map
+	 * @param offset the offset of the mapped range
+	 * @param size the size of the mapped range
+	 * @return a segment covering the mapped range, which is valid until the memory is unmapped or freed
+	 */
+	public MemorySegment mapMemory(MemorySegment memory, long offset, long size) {
+		try (var arena = ScratchAllocator.push()) {
+			var data = arena.allocate(vulkan_h.C_POINTER);
+			Vulkan.checkResult(mapMemory.get().apply(handle, memory, offset, size, 0, data));
+			return data.get(vulkan_h.C_POINTER, 0L).reinterpret(size);
+		}
+	}
+
+	public void unmapMemory(MemorySegment memory) {
+		unmapMemory.get().apply(handle, memory);
+	}
+
+	public MemoryRequirements getBufferMemoryRequirements(MemorySegment buffer) {
+		try (var arena = ScratchAllocator.push()) {
+			var requirements = VkMemoryRequirements.allocate(arena);
+			getBufferMemoryRequirements.get().apply(handle, buffer, requirements);
+			return MemoryRequirements.of(requirements);
+		}
+	}
+
+	public MemoryRequirements getImageMemoryRequirements(MemorySegment image) {
+		try (var arena = ScratchAllocator.push()) {
+			var requirements = VkMemoryRequirements.allocate(arena);
+			getImageMemoryRequirements.get().apply(handle, image, requirements);
+			return MemoryRequirements.of(requirements);
+		}
+	}
+
+	public void bindBufferMemory(MemorySegment buffer, MemorySegment memory, long offset) {
+		Vulkan.checkResult(bindBufferMemory.get().apply(handle, buffer, memory, offset));
+	}
+
+	public void bindImageMemory(MemorySegment image, MemorySegment memory, long offset) {
+		Vulkan.checkResult(bindImageMemory.get().apply(handle, image, memory, offset));
+	}
+
+	/**
+	 * Creates a buffer, with no memory bound
+	 * @param bufferCreateInfo a {@code VkBufferCreateInfo} structure
+	 * @return the buffer handle
+	 */
+	public MemorySegment createBuffer(MemorySegment bufferCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var buffer = arena.allocate(vulkan_h.VkBuffer);
+			Vulkan.checkResult(createBuffer.get().apply(handle, bufferCreateInfo, allocator(), buffer));
+			return buffer.get(vulkan_h.VkBuffer, 0L);
+		}
+	}
+
+	public void destroyBuffer(MemorySegment buffer) {
+		destroyBuffer.get().apply(handle, buffer, allocator());
+	}
+
+	/**
+	 * Creates an image, with no memory bound
+	 * @param imageCreateInfo a {@code VkImageCreateInfo} structure
+	 * @return the image handle
+	 */
+	public MemorySegment createImage(MemorySegment imageCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var image = arena.allocate(vulkan_h.VkImage);
+			Vulkan.checkResult(createImage.get().apply(handle, imageCreateInfo, allocator(), image));
+			return image.get(vulkan_h.VkImage, 0L);
+		}
+	}
+
+	public void destroyImage(MemorySegment image) {
+		destroyImage.get().apply(handle, image, allocator());
+	}
+
+	/**
+	 * Creates a command pool
+	 * @param commandPoolCreateInfo a {@code VkCommandPoolCreateInfo} structure
+	 * @return the command pool handle
+	 */
+	public MemorySegment createCommandPool(MemorySegment commandPoolCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var commandPool = arena.allocate(vulkan_h.VkCommandPool);
+			Vulkan.checkResult(createCommandPool.get().apply(handle, commandPoolCreateInfo, allocator(), commandPool));
+			return commandPool.get(vulkan_h.VkCommandPool, 0L);
+		}
+	}
+
+	public void destroyCommandPool(MemorySegment commandPool) {
+		destroyCommandPool.get().apply(handle, commandPool, allocator());
+	}
+
+	public void resetCommandPool(MemorySegment commandPool, int flags) {
+		Vulkan.checkResult(resetCommandPool.get().apply(handle, commandPool, flags));
+	}
+
+	/**
+	 * Allocates command buffers
+	 * @param commandBufferAllocateInfo a {@code VkCommandBufferAllocateInfo} structure
+	 * @param commandBuffers an array to write the handles to, with room for as many buffers as are allocated
+	 */
+	public void allocateCommandBuffers(MemorySegment commandBufferAllocateInfo, MemorySegment commandBuffers) {
+		Vulkan.checkResult(allocateCommandBuffers.get().apply(handle, commandBufferAllocateInfo, commandBuffers));
+	}
+
+	public void freeCommandBuffers(MemorySegment commandPool, int commandBufferCount, MemorySegment commandBuffers) {
+		freeCommandBuffers.get().apply(handle, commandPool, commandBufferCount, commandBuffers);
+	}
+
+	public void beginCommandBuffer(MemorySegment commandBuffer, MemorySegment beginInfo) {
+		Vulkan.checkResult(beginCommandBuffer.get().apply(commandBuffer, beginInfo));
+	}
+
+	public void endCommandBuffer(MemorySegment commandBuffer) {
+		Vulkan.checkResult(endCommandBuffer.get().apply(commandBuffer));
+	}
+
+	public void cmdExecuteCommands(MemorySegment commandBuffer, int commandBufferCount, MemorySegment commandBuffers) {
+		cmdExecuteCommands.get().apply(commandBuffer, commandBufferCount, commandBuffers);
+	}
+
+	public void cmdSetViewport(MemorySegment commandBuffer, int firstViewport, int viewportCount, MemorySegment viewports) {
+		cmdSetViewport.get().apply(commandBuffer, firstViewport, viewportCount, viewports);
+	}
+
+	/**
+	 * Creates a semaphore
+	 * @param semaphoreCreateInfo a {@code VkSemaphoreCreateInfo} structure
+	 * @return the semaphore handle
+	 */
+	public MemorySegment createSemaphore(MemorySegment semaphoreCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var semaphore = arena.allocate(vulkan_h.VkSemaphore);
+			Vulkan.checkResult(createSemaphore.get().apply(handle, semaphoreCreateInfo, allocator(), semaphore));
+			return semaphore.get(vulkan_h.VkSemaphore, 0L);
+		}
+	}
+
+	public void destroySemaphore(MemorySegment semaphore) {
+		destroySemaphore.get().apply(handle, semaphore, allocator());
+	}
+
+	public long getSemaphoreCounterValue(MemorySegment semaphore) {
+		try (var arena = ScratchAllocator.push()) {
+			var value = arena.allocate(vulkan_h.uint64_t);
+			Vulkan.checkResult(getSemaphoreCounterValue.get().apply(handle, semaphore, value));
+			return value.get(vulkan_h.uint64_t, 0L);
+		}
+	}
+
+	/**
+	 * Waits for timeline semaphores to reach values
+	 * @param waitInfo a {@code VkSemaphoreWaitInfo} structure
+	 * @param timeout the timeout in nanoseconds, which is treated as unsigned
+	 * @return {@code VK_SUCCESS}, or {@code VK_TIMEOUT} if the timeout expired first
+	 */
+	public int waitSemaphores(MemorySegment waitInfo, long timeout) {
+		return Vulkan.checkResult(waitSemaphores.get().apply(handle, waitInfo, timeout));
+	}
+
+	public void signalSemaphore(MemorySegment signalInfo) {
+		Vulkan.checkResult(signalSemaphore.get().apply(handle, signalInfo));
+	}
+
+	/**
+	 * Submits work to a queue, which must be externally synchronised
+	 * @param queue the queue handle
+	 * @param submitCount the number of submissions
+	 * @param submits an array of {@code VkSubmitInfo} structures
+	 * @param fence a fence to signal once all the work completes, or {@link MemorySegment#NULL}
+	 */
+	public void queueSubmit(MemorySegment queue, int submitCount, MemorySegment submits, MemorySegment fence) {
+		Vulkan.checkResult(queueSubmit.get().apply(queue, submitCount, submits, fence));
+	}
+
+	/**
+	 * Submits work to a queue with {@code VkSubmitInfo2} structures, which must be externally synchronised. This is
+	 * core in Vulkan 1.3, and needs {@link DeviceCreateInfo#withSynchronization2()}.
+	 * @param queue the queue handle
+	 * @param submitCount the number of submissions
+	 * @param submits an array of {@code VkSubmitInfo2} structures
+	 * @param fence a fence to signal once all the work completes, or {@link MemorySegment#NULL}
+	 */
+	public void queueSubmit2(MemorySegment queue, int submitCount, MemorySegment submits, MemorySegment fence) {
+		Vulkan.checkResult(queueSubmit2.get().apply(queue, submitCount, submits, fence));
+	}
+
+	/**
+	 * Creates a fence
+	 * @param fenceCreateInfo a {@code VkFenceCreateInfo} structure
+	 * @return the fence handle
+	 */
+	public MemorySegment createFence(MemorySegment fenceCreateInfo) {
+		try (var arena = ScratchAllocator.push()) {
+			var fence = arena.allocate(vulkan_h.VkFence);
+			Vulkan.checkResult(createFence.get().apply(handle, fenceCreateInfo, allocator(), fence));
+			return fence.get(vulkan_h.VkFence, 0L);
+		}
+	}
+
+	public void destroyFence(MemorySegment fence) {
+		destroyFence.get().apply(handle, fence, allocator());
+	}
+
+	public void resetFences(int fenceCount, MemorySegment fences) {
+		Vulkan.checkResult(resetFences.get().apply(handle, fenceCount, fences));
+	}
+
+	/**
+	 * Gets the status of a fence
+	 * @param fence the fence handle
+	 * @return {@code VK_SUCCESS} if the fence is signalled, or {@code VK_NOT_READY}
+	 */
+	public int getFenceStatus(MemorySegment fence) {
+		return Vulkan.checkResult(getFenceStatus.get().apply(handle, fence));
+	}
+
+	/**
+	 * Waits for fences to be signalled
+	 * @param fenceCount the number of fences
+	 * @param fences an array of fence handles
+	 * @param waitAll whether to wait for every fence, rather than any one
+	 * @param timeout the timeout in nanoseconds, which is treated as unsigned
+	 * @return {@code VK_SUCCESS}, or {@code VK_TIMEOUT} if the timeout expired first
+	 */
+	public int waitForFences(int fenceCount, MemorySegment fences, boolean waitAll, long timeout) {
+		return Vulkan.checkResult(waitForFences.get().apply(handle, fenceCount, fences, waitAll ? vulkan_h.VK_TRUE() : vulkan_h.VK_FALSE(), timeout));
+	}
+
+	@Override
+	public void close() {
+		destroyDevice.get().apply(handle, allocator());
+		arena.close();
+	}
+}
@@ -0,0 +1,19 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+public enum MemoryHeapFlag implements BitFlag {
+	DEVICE_LOCAL(vulkan_h.VK_MEMORY_HEAP_DEVICE_LOCAL_BIT()),
+	MULTI_INSTANCE(vulkan_h.VK_MEMORY_HEAP_MULTI_INSTANCE_BIT());
+
+	private final int bit;
+
+	MemoryHeapFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
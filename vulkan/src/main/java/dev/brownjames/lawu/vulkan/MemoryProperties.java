@@ -0,0 +1,95 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkMemoryHeap;
+import dev.brownjames.lawu.vulkan.bindings.VkMemoryType;
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceMemoryProperties;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * The memory types and heaps of a physical device
+ * @param types the memory types, in the order the device reports them
+ * @param heaps the memory heaps
+ */
+public record MemoryProperties(List<MemoryType> types, List<MemoryHeap> heaps) {
+	/**
+	 * A memory type
+	 * @param index the index of this type, as used in memory type bitmasks
+	 * @param propertyFlags the properties of memory of this type
+	 * @param heapIndex the heap this type allocates from
+	 */
+	public record MemoryType(int index, Set<MemoryPropertyFlag> propertyFlags, int heapIndex) {
+		public static MemoryType of(int index, MemorySegment raw) {
+			return new MemoryType(index,
+					BitFlag.flags(VkMemoryType.propertyFlags$get(raw), MemoryPropertyFlag.class),
+					VkMemoryType.heapIndex$get(raw));
+		}
+	}
+
+	/**
+	 * A memory heap
+	 * @param index the index of this heap
+	 * @param size the total size of the heap in bytes
+	 * @param flags the properties of the heap
+	 */
+	public record MemoryHeap(int index, long size, Set<MemoryHeapFlag> flags) {
+		public static MemoryHeap of(int index, MemorySegment raw) {
+			return new MemoryHeap(index,
+					VkMemoryHeap.size$get(raw),
+					BitFlag.flags(VkMemoryHeap.flags$get(raw), MemoryHeapFlag.class));
+		}
+	}
+
+	public static MemoryProperties of(MemorySegment raw) {
+		var typeCount = VkPhysicalDeviceMemoryProperties.memoryTypeCount$get(raw);
+		var typeArray = VkPhysicalDeviceMemoryProperties.memoryTypes$slice(raw);
+		var types = new ArrayList<MemoryType>(typeCount);
+		for (int i = 0; i < typeCount; i++) {
+			types.add(MemoryType.of(i, typeArray.asSlice(i * VkMemoryType.$LAYOUT().byteSize(), VkMemoryType.$LAYOUT())));
+		}
+
+		var heapCount = VkPhysicalDeviceMemoryProperties.memoryHeapCount$get(raw);
+		var heapArray = VkPhysicalDeviceMemoryProperties.memoryHeaps$slice(raw);
+		var heaps = new ArrayList<MemoryHeap>(heapCount);
+		for (int i = 0; i < heapCount; i++) {
+			heaps.add(MemoryHeap.of(i, heapArray.asSlice(i * VkMemoryHeap.$LAYOUT().byteSize(), VkMemoryHeap.$LAYOUT())));
+		}
+
+		return new MemoryProperties(List.copyOf(types), List.copyOf(heaps));
+	}
+
+	/**
+	 * Finds the first memory type that is allowed, has all the required properties, and has as many of the preferred
+	 * properties as any other such type
+	 * @param memoryTypeBits a bitmask of the allowed memory types, as given in memory requirements
+	 * @param required the properties the memory must have
+	 * @param preferred the properties the memory should have
+	 * @return the index of a memory type, if there is a suitable type
+	 */
+	public OptionalInt findMemoryType(int memoryTypeBits, Set<MemoryPropertyFlag> required, Set<MemoryPropertyFlag> preferred) {
+		var requiredBits = BitFlag.getFlagBits(required);
+		var preferredBits = BitFlag.getFlagBits(preferred);
+
+		int best = -1;
+		int bestScore = -1;
+		for (var type : types) {
+			var typeBits = BitFlag.getFlagBits(type.propertyFlags());
+
+			if ((memoryTypeBits & (1 << type.index())) == 0 || (typeBits & requiredBits) != requiredBits) {
+				continue;
+			}
+
+			var score = Integer.bitCount(typeBits & preferredBits);
+			if (score > bestScore) {
+				best = type.index();
+				bestScore = score;
+			}
+		}
+
+		return best < 0 ? OptionalInt.empty() : OptionalInt.of(best);
+	}
+}
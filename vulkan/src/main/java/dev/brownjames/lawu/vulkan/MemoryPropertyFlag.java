@@ -0,0 +1,23 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+public enum MemoryPropertyFlag implements BitFlag {
+	DEVICE_LOCAL(vulkan_h.VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT()),
+	HOST_VISIBLE(vulkan_h.VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT()),
+	HOST_COHERENT(vulkan_h.VK_MEMORY_PROPERTY_HOST_COHERENT_BIT()),
+	HOST_CACHED(vulkan_h.VK_MEMORY_PROPERTY_HOST_CACHED_BIT()),
+	LAZILY_ALLOCATED(vulkan_h.VK_MEMORY_PROPERTY_LAZILY_ALLOCATED_BIT()),
+	PROTECTED(vulkan_h.VK_MEMORY_PROPERTY_PROTECTED_BIT());
+
+	private final int bit;
+
+	MemoryPropertyFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
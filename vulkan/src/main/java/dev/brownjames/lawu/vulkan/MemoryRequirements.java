@@ -0,0 +1,20 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkMemoryRequirements;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * The memory requirements of a buffer or image
+ * @param size the size of the memory needed in bytes
+ * @param alignment the alignment of the memory offset in bytes
+ * @param memoryTypeBits a bitmask of the memory types that the resource may use
+ */
+public record MemoryRequirements(long size, long alignment, int memoryTypeBits) {
+	public static MemoryRequirements of(MemorySegment raw) {
+		return new MemoryRequirements(
+				VkMemoryRequirements.size$get(raw),
+				VkMemoryRequirements.alignment$get(raw),
+				VkMemoryRequirements.memoryTypeBits$get(raw));
+	}
+}
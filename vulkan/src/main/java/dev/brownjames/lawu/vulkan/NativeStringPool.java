@@ -0,0 +1,65 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A global pool of NUL-terminated UTF-8 strings in native memory.
+ * <p>
+ * Each distinct string is encoded once into the global arena and the same segment is returned for every later
+ * request, so looking up functions, layers and extensions by name does no encoding or allocation after the first use.
+ * Pooled strings are never freed, so this pool is only for names drawn from a bounded set, such as Vulkan function,
+ * layer and extension names; it must not be used for arbitrary text such as application names or messages.
+ * <p>
+ * The returned segments must be treated as read-only. This class is thread-safe.
+ */
+public final class NativeStringPool {
+	/**
+	 * The usage counters of the pool
+	 * @param hits the number of requests that were served by an existing string
+	 * @param misses the number of requests that encoded a new string
+	 * @param size the number of strings in the pool
+	 */
+	public record Statistics(long hits, long misses, int size) {
+		/**
+		 * The fraction of requests served without encoding
+		 * @return a number between zero and one, or zero if there have been no requests
+		 */
+		public double hitRate() {
+			var total = hits + misses;
+			return total == 0 ? 0.0 : (double) hits / total;
+		}
+	}
+
+	private static final ConcurrentHashMap<String, MemorySegment> strings = new ConcurrentHashMap<>();
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+
+	private NativeStringPool() { }
+
+	/**
+	 * Gets the pooled native copy of a string
+	 * @param string the string to look up
+	 * @return a NUL-terminated UTF-8 string that lives for the lifetime of the program
+	 */
+	public static MemorySegment intern(String string) {
+		assert string != null;
+
+		var result = strings.get(string);
+		if (result != null) {
+			hits.increment();
+			return result;
+		}
+
+		return strings.computeIfAbsent(string, s -> {
+			misses.increment();
+			return Arena.global().allocateUtf8String(s);
+		});
+	}
+
+	public static Statistics statistics() {
+		return new Statistics(hits.sum(), misses.sum(), strings.size());
+	}
+}
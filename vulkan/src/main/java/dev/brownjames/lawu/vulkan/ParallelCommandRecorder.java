@@ -0,0 +1,154 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Records a list of tasks into secondary command buffers in parallel, then executes them from a primary command buffer
+ * in the order of the tasks.
+ * <p>
+ * The tasks are split into consecutive batches, each of which is recorded into one secondary buffer by a worker of a
+ * fork-join pool. Each worker takes its buffers from its own pools in a {@link CommandPools}, so recording needs no
+ * locking. Once every batch is recorded, the calling thread records {@code vkCmdExecuteCommands} with the buffers in
+ * the order of their batches, so the commands execute as if the tasks had been recorded one after another.
+ * <p>
+ * Tasks run on the pool's workers, so they must only use the buffer they are given and state that is safe to read from
+ * other threads. The instance must have been created with {@link VulkanInstance.ThreadingMode#CONCURRENT}.
+ */
+public final class ParallelCommandRecorder {
+	/**
+	 * The default number of tasks recorded into each secondary buffer. Smaller batches balance the work better, but
+	 * each buffer costs a begin, an end and an execution.
+	 */
+	public static final int DEFAULT_TASKS_PER_BUFFER = 256;
+
+	/**
+	 * A unit of recording, such as one draw
+	 */
+	@FunctionalInterface
+	public interface Task {
+		/**
+		 * Records commands
+		 * @param buffer a secondary command buffer in the recording state
+		 */
+		void record(CommandBuffer buffer);
+	}
+
+	private final CommandPools pools;
+	private final ForkJoinPool forkJoinPool;
+	private final int tasksPerBuffer;
+
+	/**
+	 * Creates a recorder on the common pool, whose workers come and go; the pools of those that have finished are
+	 * destroyed by {@link CommandPools#nextFrame()}
+	 * @param pools the pools the secondary buffers are taken from
+	 */
+	public ParallelCommandRecorder(CommandPools pools) {
+		this(pools, ForkJoinPool.commonPool(), DEFAULT_TASKS_PER_BUFFER);
+	}
+
+	/**
+	 * Creates a recorder
+	 * @param pools the pools the secondary buffers are taken from
+	 * @param forkJoinPool the pool to record on
+	 * @param tasksPerBuffer the largest number of tasks recorded into one secondary buffer
+	 */
+	public ParallelCommandRecorder(CommandPools pools, ForkJoinPool forkJoinPool, int tasksPerBuffer) {
+		assert tasksPerBuffer > 0;
+
+		this.pools = pools;
+		this.forkJoinPool = forkJoinPool;
+		this.tasksPerBuffer = tasksPerBuffer;
+	}
+
+	public CommandPools pools() {
+		return pools;
+	}
+
+	/**
+	 * Records tasks outside of a render pass
+	 * @see #record(CommandBuffer, List, Set, MemorySegment)
+	 */
+	public List<CommandBuffer> record(CommandBuffer primary, List<? extends Task> tasks) {
+		return record(primary, tasks, EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT), MemorySegment.NULL);
+	}
+
+	/**
+	 * Records tasks into secondary buffers, and their execution into a primary buffer
+	 * @param primary a primary command buffer in the recording state
+	 * @param tasks the tasks, in the order their commands should execute
+	 * @param usage how the secondary buffers will be used, which should include
+	 *              {@link CommandBuffer.Usage#RENDER_PASS_CONTINUE} inside a render pass
+	 * @param inheritanceInfo a {@code VkCommandBufferInheritanceInfo} structure, or {@link MemorySegment#NULL} to inherit
+	 *                        nothing. It is read by every worker, so it must be accessible from any thread.
+	 * @return the secondary buffers, in the order they are executed
+	 */
+	public List<CommandBuffer> record(CommandBuffer primary, List<? extends Task> tasks, Set<CommandBuffer.Usage> usage, MemorySegment inheritanceInfo) {
+		assert primary.level() == CommandBuffer.Level.PRIMARY;
+
+		if (tasks.isEmpty()) {
+			return List.of();
+		}
+
+		var batchCount = (tasks.size() + tasksPerBuffer - 1) / tasksPerBuffer;
+		var secondaries = new CommandBuffer[batchCount];
+		forkJoinPool.invoke(new Batches(tasks, usage, inheritanceInfo, secondaries, 0, batchCount));
+
+		var ordered = Arrays.asList(secondaries);
+		primary.executeCommands(ordered);
+		return ordered;
+	}
+
+	/**
+	 * Records a range of batches, splitting it between workers until it is a single batch
+	 */
+	private final class Batches extends RecursiveAction {
+		private final List<? extends Task> tasks;
+		private final Set<CommandBuffer.Usage> usage;
+		private final MemorySegment inheritanceInfo;
+		private final CommandBuffer[] secondaries;
+		private final int start;
+		private final int end;
+
+		Batches(List<? extends Task> tasks, Set<CommandBuffer.Usage> usage, MemorySegment inheritanceInfo, CommandBuffer[] secondaries, int start, int end) {
+			this.tasks = tasks;
+			this.usage = usage;
+			this.inheritanceInfo = inheritanceInfo;
+			this.secondaries = secondaries;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				var middle = (start + end) >>> 1;
+				invokeAll(new Batches(tasks, usage, inheritanceInfo, secondaries, start, middle),
+						new Batches(tasks, usage, inheritanceInfo, secondaries, middle, end));
+				return;
+			}
+
+			var buffer = pools.secondary();
+			if (inheritanceInfo.address() == 0L) {
+				buffer.begin(usage);
+			} else {
+				buffer.begin(usage, inheritanceInfo);
+			}
+
+			var last = Math.min(tasks.size(), (start + 1) * tasksPerBuffer);
+			for (int i = start * tasksPerBuffer; i < last; i++) {
+				tasks.get(i).record(buffer);
+			}
+
+			buffer.end();
+
+			// Joining the tasks publishes the array writes to the recording thread
+			secondaries[start] = buffer;
+		}
+	}
+}
@@ -6,8 +6,10 @@ import dev.brownjames.lawu.vulkan.getphysicaldeviceproperties2.GetPhysicalDevice
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -60,6 +62,24 @@ public final class PhysicalDevice implements VulkanHandle {
 			);
 		}
 
+		/**
+		 * Copies the limits and sparse properties onto the heap, so that the properties outlive the memory they were
+		 * read from
+		 * @return properties which do not refer to native memory
+		 */
+		public Properties detached() {
+			return new Properties(apiVersion, driverVersion, vendorId, deviceId, deviceType, deviceName, pipelineCacheUUID,
+					heapCopy(limits), heapCopy(sparseProperties));
+		}
+
+		public PhysicalDeviceLimits limitsView() {
+			return new PhysicalDeviceLimits(limits);
+		}
+
+		public PhysicalDeviceSparseProperties sparsePropertiesView() {
+			return new PhysicalDeviceSparseProperties(sparseProperties);
+		}
+
 		public void asNative(MemorySegment destination) {
 			VkPhysicalDeviceProperties.apiVersion$set(destination, apiVersion.encoded());
 			VkPhysicalDeviceProperties.driverVersion$set(destination, driverVersion);
@@ -83,8 +103,21 @@ public final class PhysicalDevice implements VulkanHandle {
 		}
 	}
 
+	/**
+	 * Copies a structure into heap memory, aligned for any field it may contain
+	 * @param segment the structure to copy
+	 * @return a heap segment
+	 */
+	static MemorySegment heapCopy(MemorySegment segment) {
+		var copy = MemorySegment.ofArray(new long[(int) ((segment.byteSize() + Long.BYTES - 1) / Long.BYTES)])
+				.asSlice(0, segment.byteSize());
+		copy.copyFrom(segment);
+		return copy;
+	}
+
 	private final MemorySegment handle;
 	private final VulkanInstance instance;
+	private PhysicalDevicePropertiesView propertiesView;
 
 	public PhysicalDevice(MemorySegment handle, VulkanInstance instance) {
 		this.handle = handle;
@@ -96,6 +129,53 @@ public final class PhysicalDevice implements VulkanHandle {
 		return handle;
 	}
 
+	public VulkanInstance instance() {
+		return instance;
+	}
+
+	public List<QueueFamilyProperties> getQueueFamilyProperties() {
+		try (var arena = ScratchAllocator.push()) {
+			var propertyCount = arena.allocate(vulkan_h.uint32_t);
+			instance.getPhysicalDeviceQueueFamilyProperties(handle, propertyCount, MemorySegment.NULL);
+
+			var properties = VkQueueFamilyProperties.allocateArray(propertyCount.get(vulkan_h.uint32_t, 0), arena);
+			instance.getPhysicalDeviceQueueFamilyProperties(handle, propertyCount, properties);
+
+			var count = propertyCount.get(vulkan_h.uint32_t, 0);
+			var result = new ArrayList<QueueFamilyProperties>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(QueueFamilyProperties.of(i, properties.asSlice(i * VkQueueFamilyProperties.$LAYOUT().byteSize(), VkQueueFamilyProperties.$LAYOUT())));
+			}
+
+			return result;
+		}
+	}
+
+	public MemoryProperties getMemoryProperties() {
+		try (var arena = ScratchAllocator.push()) {
+			var properties = VkPhysicalDeviceMemoryProperties.allocate(arena);
+			instance.getPhysicalDeviceMemoryProperties(handle, properties);
+			return MemoryProperties.of(properties);
+		}
+	}
+
+	public List<ExtensionProperties> getExtensionProperties() {
+		try (var arena = ScratchAllocator.push()) {
+			var propertyCount = arena.allocate(vulkan_h.uint32_t);
+
+			MemorySegment properties;
+			do {
+				instance.enumerateDeviceExtensionProperties(handle, MemorySegment.NULL, propertyCount, MemorySegment.NULL);
+				properties = VkExtensionProperties.allocateArray(propertyCount.get(vulkan_h.uint32_t, 0), arena);
+			} while (instance.enumerateDeviceExtensionProperties(handle, MemorySegment.NULL, propertyCount, properties) == vulkan_h.VK_INCOMPLETE());
+
+			return properties.elements(VkExtensionProperties.$LAYOUT())
+					.limit(propertyCount.get(vulkan_h.uint32_t, 0))
+					.map(ExtensionProperties::from)
+					.toList();
+		}
+	}
+
 	public Properties getProperties(Arena arena) {
 		var properties = VkPhysicalDeviceProperties.allocate(arena);
 		instance.getPhysicalDeviceProperties(handle, properties);
@@ -103,7 +183,36 @@ public final class PhysicalDevice implements VulkanHandle {
 	}
 
 	public Properties getProperties() {
-		return getProperties(Arena.ofAuto());
+		try (var scratch = ScratchAllocator.push()) {
+			return getProperties(scratch).detached();
+		}
+	}
+
+	/**
+	 * Queries the properties into memory allocated from an arena, without copying them out
+	 * @param arena the arena to allocate the properties structure in
+	 * @return a view over the properties
+	 */
+	public PhysicalDevicePropertiesView getPropertiesView(Arena arena) {
+		var properties = VkPhysicalDeviceProperties.allocate(arena);
+		instance.getPhysicalDeviceProperties(handle, properties);
+		return new PhysicalDevicePropertiesView(properties);
+	}
+
+	/**
+	 * Gets a view over the properties, which is queried once and kept for the lifetime of the instance. Properties do
+	 * not change, so this is the cheapest way to check limits repeatedly.
+	 * @return a view over the properties
+	 */
+	public PhysicalDevicePropertiesView propertiesView() {
+		// A benign race: concurrent callers may each query, but every view holds the same values
+		var view = propertiesView;
+		if (view == null) {
+			view = getPropertiesView(instance.arena());
+			propertiesView = view;
+		}
+
+		return view;
 	}
 
 	/**
@@ -147,8 +256,14 @@ public final class PhysicalDevice implements VulkanHandle {
 		return features;
 	}
 
+	/**
+	 * Gets the features of the device
+	 * @return a {@code VkPhysicalDeviceFeatures} structure in heap memory
+	 */
 	public MemorySegment getFeatures() {
-		return getFeatures(Arena.ofAuto());
+		try (var scratch = ScratchAllocator.push()) {
+			return heapCopy(getFeatures(scratch));
+		}
 	}
 
 	public interface FeaturesNext extends NextStructure { }
@@ -183,6 +298,14 @@ public final class PhysicalDevice implements VulkanHandle {
 		return getFeatures(Arena.ofAuto(), nexts, extension);
 	}
 
+	public FormatProperties getFormatProperties(int format) {
+		try (var scratch = ScratchAllocator.push()) {
+			var properties = VkFormatProperties.allocate(scratch);
+			instance.getPhysicalDeviceFormatProperties(handle, format, properties);
+			return FormatProperties.of(properties);
+		}
+	}
+
 	public ImageFormatProperties getImageFormatProperties(Arena arena, int format, int type, int imageTiling, int imageUsageFlags, int imageCreateFlags) {
 		var properties = VkImageFormatProperties.allocate(arena);
 		instance.getPhysicalDeviceImageFormatProperties(handle, format, type, imageTiling, imageUsageFlags, imageCreateFlags, properties);
@@ -190,7 +313,21 @@ public final class PhysicalDevice implements VulkanHandle {
 	}
 
 	public ImageFormatProperties getImageFormatProperties(int format, int type, int imageTiling, int imageUsageFlags, int imageCreateFlags) {
-		return getImageFormatProperties(Arena.ofAuto(), format, type, imageTiling, imageUsageFlags, imageCreateFlags);
+		try (var scratch = ScratchAllocator.push()) {
+			return getImageFormatProperties(scratch, format, type, imageTiling, imageUsageFlags, imageCreateFlags);
+		}
+	}
+
+	/**
+	 * Gets the properties of an image format, without treating an unsupported combination as an error
+	 * @return the properties, or nothing if the combination is not supported
+	 */
+	public Optional<ImageFormatProperties> findImageFormatProperties(int format, int type, int imageTiling, int imageUsageFlags, int imageCreateFlags) {
+		try (var scratch = ScratchAllocator.push()) {
+			var properties = VkImageFormatProperties.allocate(scratch);
+			var result = instance.tryGetPhysicalDeviceImageFormatProperties(handle, format, type, imageTiling, imageUsageFlags, imageCreateFlags, properties);
+			return result == vulkan_h.VK_SUCCESS() ? Optional.of(ImageFormatProperties.of(properties)) : Optional.empty();
+		}
 	}
 
 	public interface ImageFormatPropertiesNext extends NextStructure { }
@@ -198,24 +335,19 @@ public final class PhysicalDevice implements VulkanHandle {
 
 	public record GetImageFormatPropertiesResult(ImageFormatProperties properties, List<MemorySegment> nexts) { }
 
-	private GetImageFormatPropertiesResult getImageFormatProperties(Arena arena,
-	                                                                 MemorySegment info,
-	                                                                 List<? extends ImageFormatPropertiesNext> nexts,
-	                                                                 BiConsumer<? super MemorySegment, ? super MemorySegment> propertiesPopulator) {
+	/**
+	 * Queries image format properties into structures allocated from an arena. The outputs are allocated before the
+	 * scratch scope for the input is pushed, so that the arena may itself be a scratch scope.
+	 */
+	private GetImageFormatPropertiesResult getImageFormatProperties(Arena arena, int format, int type, int imageTiling, int imageUsageFlags, int imageCreateFlags,
+	                                                                List<? extends ImageFormatInfoNext> infoNexts, List<? extends ImageFormatPropertiesNext> nexts, BiConsumer<? super MemorySegment, ? super MemorySegment> propertiesPopulator) {
 		var properties = VkImageFormatProperties2.allocate(arena);
 		VkImageFormatProperties2.sType$set(properties, vulkan_h.VK_STRUCTURE_TYPE_IMAGE_FORMAT_PROPERTIES_2());
 
-		var chain = NextStructure.buildNativeStructureChain(arena, nexts);
-		VkImageFormatProperties2.pNext$set(properties, chain.head());
-
-		propertiesPopulator.accept(info, properties);
-
-		return new GetImageFormatPropertiesResult(ImageFormatProperties.of(VkImageFormatProperties2.imageFormatProperties$slice(properties)), chain.items());
-	}
+		var propertiesChain = NextStructure.buildNativeStructureChain(arena, nexts);
+		VkImageFormatProperties2.pNext$set(properties, propertiesChain.head());
 
-	private GetImageFormatPropertiesResult getImageFormatProperties(Arena arena, int format, int type, int imageTiling, int imageUsageFlags, int imageCreateFlags,
-	                                                                List<? extends ImageFormatInfoNext> infoNexts, List<? extends ImageFormatPropertiesNext> nexts, BiConsumer<? super MemorySegment, ? super MemorySegment> propertiesPopulator) {
-		try (var temporaryArena = Arena.ofConfined()) {
+		try (var temporaryArena = ScratchAllocator.push()) {
 			var information = VkPhysicalDeviceImageFormatInfo2.allocate(temporaryArena);
 			VkPhysicalDeviceImageFormatInfo2.sType$set(information, vulkan_h.VK_STRUCTURE_TYPE_PHYSICAL_DEVICE_IMAGE_FORMAT_INFO_2());
 
@@ -228,8 +360,10 @@ public final class PhysicalDevice implements VulkanHandle {
 			VkPhysicalDeviceImageFormatInfo2.usage$set(information, imageUsageFlags);
 			VkPhysicalDeviceImageFormatInfo2.flags$set(information, imageCreateFlags);
 
-			return getImageFormatProperties(arena, information, nexts, propertiesPopulator);
+			propertiesPopulator.accept(information, properties);
 		}
+
+		return new GetImageFormatPropertiesResult(ImageFormatProperties.of(VkImageFormatProperties2.imageFormatProperties$slice(properties)), propertiesChain.items());
 	}
 
 	public GetImageFormatPropertiesResult getImageFormatProperties(int format, int type, int imageTiling, int imageUsageFlags,
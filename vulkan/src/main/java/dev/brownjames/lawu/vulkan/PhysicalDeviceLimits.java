@@ -0,0 +1,466 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceLimits;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+/**
+ * A read-only view over a {@code VkPhysicalDeviceLimits} structure. Each accessor reads the field from native memory
+ * when it is called, so nothing is copied up-front. Unsigned fields are returned as their signed Java equivalent.
+ * @param segment the limits structure
+ */
+public record PhysicalDeviceLimits(MemorySegment segment) {
+	/**
+	 * Rounds a uniform buffer offset up to the device's alignment
+	 * @param offset the offset
+	 * @return the aligned offset
+	 */
+	public long alignUniformBufferOffset(long offset) {
+		var alignment = minUniformBufferOffsetAlignment();
+		return (offset + alignment - 1) & -alignment;
+	}
+
+	/**
+	 * Rounds a storage buffer offset up to the device's alignment
+	 * @param offset the offset
+	 * @return the aligned offset
+	 */
+	public long alignStorageBufferOffset(long offset) {
+		var alignment = minStorageBufferOffsetAlignment();
+		return (offset + alignment - 1) & -alignment;
+	}
+
+	public int maxImageDimension1D() {
+		return VkPhysicalDeviceLimits.maxImageDimension1D$get(segment);
+	}
+
+	public int maxImageDimension2D() {
+		return VkPhysicalDeviceLimits.maxImageDimension2D$get(segment);
+	}
+
+	public int maxImageDimension3D() {
+		return VkPhysicalDeviceLimits.maxImageDimension3D$get(segment);
+	}
+
+	public int maxImageDimensionCube() {
+		return VkPhysicalDeviceLimits.maxImageDimensionCube$get(segment);
+	}
+
+	public int maxImageArrayLayers() {
+		return VkPhysicalDeviceLimits.maxImageArrayLayers$get(segment);
+	}
+
+	public int maxTexelBufferElements() {
+		return VkPhysicalDeviceLimits.maxTexelBufferElements$get(segment);
+	}
+
+	public int maxUniformBufferRange() {
+		return VkPhysicalDeviceLimits.maxUniformBufferRange$get(segment);
+	}
+
+	public int maxStorageBufferRange() {
+		return VkPhysicalDeviceLimits.maxStorageBufferRange$get(segment);
+	}
+
+	public int maxPushConstantsSize() {
+		return VkPhysicalDeviceLimits.maxPushConstantsSize$get(segment);
+	}
+
+	public int maxMemoryAllocationCount() {
+		return VkPhysicalDeviceLimits.maxMemoryAllocationCount$get(segment);
+	}
+
+	public int maxSamplerAllocationCount() {
+		return VkPhysicalDeviceLimits.maxSamplerAllocationCount$get(segment);
+	}
+
+	public long bufferImageGranularity() {
+		return VkPhysicalDeviceLimits.bufferImageGranularity$get(segment);
+	}
+
+	public long sparseAddressSpaceSize() {
+		return VkPhysicalDeviceLimits.sparseAddressSpaceSize$get(segment);
+	}
+
+	public int maxBoundDescriptorSets() {
+		return VkPhysicalDeviceLimits.maxBoundDescriptorSets$get(segment);
+	}
+
+	public int maxPerStageDescriptorSamplers() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorSamplers$get(segment);
+	}
+
+	public int maxPerStageDescriptorUniformBuffers() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorUniformBuffers$get(segment);
+	}
+
+	public int maxPerStageDescriptorStorageBuffers() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorStorageBuffers$get(segment);
+	}
+
+	public int maxPerStageDescriptorSampledImages() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorSampledImages$get(segment);
+	}
+
+	public int maxPerStageDescriptorStorageImages() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorStorageImages$get(segment);
+	}
+
+	public int maxPerStageDescriptorInputAttachments() {
+		return VkPhysicalDeviceLimits.maxPerStageDescriptorInputAttachments$get(segment);
+	}
+
+	public int maxPerStageResources() {
+		return VkPhysicalDeviceLimits.maxPerStageResources$get(segment);
+	}
+
+	public int maxDescriptorSetSamplers() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetSamplers$get(segment);
+	}
+
+	public int maxDescriptorSetUniformBuffers() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetUniformBuffers$get(segment);
+	}
+
+	public int maxDescriptorSetUniformBuffersDynamic() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetUniformBuffersDynamic$get(segment);
+	}
+
+	public int maxDescriptorSetStorageBuffers() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetStorageBuffers$get(segment);
+	}
+
+	public int maxDescriptorSetStorageBuffersDynamic() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetStorageBuffersDynamic$get(segment);
+	}
+
+	public int maxDescriptorSetSampledImages() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetSampledImages$get(segment);
+	}
+
+	public int maxDescriptorSetStorageImages() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetStorageImages$get(segment);
+	}
+
+	public int maxDescriptorSetInputAttachments() {
+		return VkPhysicalDeviceLimits.maxDescriptorSetInputAttachments$get(segment);
+	}
+
+	public int maxVertexInputAttributes() {
+		return VkPhysicalDeviceLimits.maxVertexInputAttributes$get(segment);
+	}
+
+	public int maxVertexInputBindings() {
+		return VkPhysicalDeviceLimits.maxVertexInputBindings$get(segment);
+	}
+
+	public int maxVertexInputAttributeOffset() {
+		return VkPhysicalDeviceLimits.maxVertexInputAttributeOffset$get(segment);
+	}
+
+	public int maxVertexInputBindingStride() {
+		return VkPhysicalDeviceLimits.maxVertexInputBindingStride$get(segment);
+	}
+
+	public int maxVertexOutputComponents() {
+		return VkPhysicalDeviceLimits.maxVertexOutputComponents$get(segment);
+	}
+
+	public int maxTessellationGenerationLevel() {
+		return VkPhysicalDeviceLimits.maxTessellationGenerationLevel$get(segment);
+	}
+
+	public int maxTessellationPatchSize() {
+		return VkPhysicalDeviceLimits.maxTessellationPatchSize$get(segment);
+	}
+
+	public int maxTessellationControlPerVertexInputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationControlPerVertexInputComponents$get(segment);
+	}
+
+	public int maxTessellationControlPerVertexOutputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationControlPerVertexOutputComponents$get(segment);
+	}
+
+	public int maxTessellationControlPerPatchOutputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationControlPerPatchOutputComponents$get(segment);
+	}
+
+	public int maxTessellationControlTotalOutputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationControlTotalOutputComponents$get(segment);
+	}
+
+	public int maxTessellationEvaluationInputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationEvaluationInputComponents$get(segment);
+	}
+
+	public int maxTessellationEvaluationOutputComponents() {
+		return VkPhysicalDeviceLimits.maxTessellationEvaluationOutputComponents$get(segment);
+	}
+
+	public int maxGeometryShaderInvocations() {
+		return VkPhysicalDeviceLimits.maxGeometryShaderInvocations$get(segment);
+	}
+
+	public int maxGeometryInputComponents() {
+		return VkPhysicalDeviceLimits.maxGeometryInputComponents$get(segment);
+	}
+
+	public int maxGeometryOutputComponents() {
+		return VkPhysicalDeviceLimits.maxGeometryOutputComponents$get(segment);
+	}
+
+	public int maxGeometryOutputVertices() {
+		return VkPhysicalDeviceLimits.maxGeometryOutputVertices$get(segment);
+	}
+
+	public int maxGeometryTotalOutputComponents() {
+		return VkPhysicalDeviceLimits.maxGeometryTotalOutputComponents$get(segment);
+	}
+
+	public int maxFragmentInputComponents() {
+		return VkPhysicalDeviceLimits.maxFragmentInputComponents$get(segment);
+	}
+
+	public int maxFragmentOutputAttachments() {
+		return VkPhysicalDeviceLimits.maxFragmentOutputAttachments$get(segment);
+	}
+
+	public int maxFragmentDualSrcAttachments() {
+		return VkPhysicalDeviceLimits.maxFragmentDualSrcAttachments$get(segment);
+	}
+
+	public int maxFragmentCombinedOutputResources() {
+		return VkPhysicalDeviceLimits.maxFragmentCombinedOutputResources$get(segment);
+	}
+
+	public int maxComputeSharedMemorySize() {
+		return VkPhysicalDeviceLimits.maxComputeSharedMemorySize$get(segment);
+	}
+
+	public int maxComputeWorkGroupCount(int index) {
+		assert index >= 0 && index < 3;
+		return VkPhysicalDeviceLimits.maxComputeWorkGroupCount$slice(segment).getAtIndex(JAVA_INT, index);
+	}
+
+	public int maxComputeWorkGroupInvocations() {
+		return VkPhysicalDeviceLimits.maxComputeWorkGroupInvocations$get(segment);
+	}
+
+	public int maxComputeWorkGroupSize(int index) {
+		assert index >= 0 && index < 3;
+		return VkPhysicalDeviceLimits.maxComputeWorkGroupSize$slice(segment).getAtIndex(JAVA_INT, index);
+	}
+
+	public int subPixelPrecisionBits() {
+		return VkPhysicalDeviceLimits.subPixelPrecisionBits$get(segment);
+	}
+
+	public int subTexelPrecisionBits() {
+		return VkPhysicalDeviceLimits.subTexelPrecisionBits$get(segment);
+	}
+
+	public int mipmapPrecisionBits() {
+		return VkPhysicalDeviceLimits.mipmapPrecisionBits$get(segment);
+	}
+
+	public int maxDrawIndexedIndexValue() {
+		return VkPhysicalDeviceLimits.maxDrawIndexedIndexValue$get(segment);
+	}
+
+	public int maxDrawIndirectCount() {
+		return VkPhysicalDeviceLimits.maxDrawIndirectCount$get(segment);
+	}
+
+	public float maxSamplerLodBias() {
+		return VkPhysicalDeviceLimits.maxSamplerLodBias$get(segment);
+	}
+
+	public float maxSamplerAnisotropy() {
+		return VkPhysicalDeviceLimits.maxSamplerAnisotropy$get(segment);
+	}
+
+	public int maxViewports() {
+		return VkPhysicalDeviceLimits.maxViewports$get(segment);
+	}
+
+	public int maxViewportDimensions(int index) {
+		assert index >= 0 && index < 2;
+		return VkPhysicalDeviceLimits.maxViewportDimensions$slice(segment).getAtIndex(JAVA_INT, index);
+	}
+
+	public float viewportBoundsRange(int index) {
+		assert index >= 0 && index < 2;
+		return VkPhysicalDeviceLimits.viewportBoundsRange$slice(segment).getAtIndex(JAVA_FLOAT, index);
+	}
+
+	public int viewportSubPixelBits() {
+		return VkPhysicalDeviceLimits.viewportSubPixelBits$get(segment);
+	}
+
+	public long minMemoryMapAlignment() {
+		return VkPhysicalDeviceLimits.minMemoryMapAlignment$get(segment);
+	}
+
+	public long minTexelBufferOffsetAlignment() {
+		return VkPhysicalDeviceLimits.minTexelBufferOffsetAlignment$get(segment);
+	}
+
+	public long minUniformBufferOffsetAlignment() {
+		return VkPhysicalDeviceLimits.minUniformBufferOffsetAlignment$get(segment);
+	}
+
+	public long minStorageBufferOffsetAlignment() {
+		return VkPhysicalDeviceLimits.minStorageBufferOffsetAlignment$get(segment);
+	}
+
+	public int minTexelOffset() {
+		return VkPhysicalDeviceLimits.minTexelOffset$get(segment);
+	}
+
+	public int maxTexelOffset() {
+		return VkPhysicalDeviceLimits.maxTexelOffset$get(segment);
+	}
+
+	public int minTexelGatherOffset() {
+		return VkPhysicalDeviceLimits.minTexelGatherOffset$get(segment);
+	}
+
+	public int maxTexelGatherOffset() {
+		return VkPhysicalDeviceLimits.maxTexelGatherOffset$get(segment);
+	}
+
+	public float minInterpolationOffset() {
+		return VkPhysicalDeviceLimits.minInterpolationOffset$get(segment);
+	}
+
+	public float maxInterpolationOffset() {
+		return VkPhysicalDeviceLimits.maxInterpolationOffset$get(segment);
+	}
+
+	public int subPixelInterpolationOffsetBits() {
+		return VkPhysicalDeviceLimits.subPixelInterpolationOffsetBits$get(segment);
+	}
+
+	public int maxFramebufferWidth() {
+		return VkPhysicalDeviceLimits.maxFramebufferWidth$get(segment);
+	}
+
+	public int maxFramebufferHeight() {
+		return VkPhysicalDeviceLimits.maxFramebufferHeight$get(segment);
+	}
+
+	public int maxFramebufferLayers() {
+		return VkPhysicalDeviceLimits.maxFramebufferLayers$get(segment);
+	}
+
+	public BitFlags<SampleCountFlag> framebufferColorSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.framebufferColorSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> framebufferDepthSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.framebufferDepthSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> framebufferStencilSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.framebufferStencilSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> framebufferNoAttachmentsSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.framebufferNoAttachmentsSampleCounts$get(segment));
+	}
+
+	public int maxColorAttachments() {
+		return VkPhysicalDeviceLimits.maxColorAttachments$get(segment);
+	}
+
+	public BitFlags<SampleCountFlag> sampledImageColorSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.sampledImageColorSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> sampledImageIntegerSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.sampledImageIntegerSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> sampledImageDepthSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.sampledImageDepthSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> sampledImageStencilSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.sampledImageStencilSampleCounts$get(segment));
+	}
+
+	public BitFlags<SampleCountFlag> storageImageSampleCounts() {
+		return new BitFlags<>(SampleCountFlag.class, VkPhysicalDeviceLimits.storageImageSampleCounts$get(segment));
+	}
+
+	public int maxSampleMaskWords() {
+		return VkPhysicalDeviceLimits.maxSampleMaskWords$get(segment);
+	}
+
+	public boolean timestampComputeAndGraphics() {
+		return VkPhysicalDeviceLimits.timestampComputeAndGraphics$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public float timestampPeriod() {
+		return VkPhysicalDeviceLimits.timestampPeriod$get(segment);
+	}
+
+	public int maxClipDistances() {
+		return VkPhysicalDeviceLimits.maxClipDistances$get(segment);
+	}
+
+	public int maxCullDistances() {
+		return VkPhysicalDeviceLimits.maxCullDistances$get(segment);
+	}
+
+	public int maxCombinedClipAndCullDistances() {
+		return VkPhysicalDeviceLimits.maxCombinedClipAndCullDistances$get(segment);
+	}
+
+	public int discreteQueuePriorities() {
+		return VkPhysicalDeviceLimits.discreteQueuePriorities$get(segment);
+	}
+
+	public float pointSizeRange(int index) {
+		assert index >= 0 && index < 2;
+		return VkPhysicalDeviceLimits.pointSizeRange$slice(segment).getAtIndex(JAVA_FLOAT, index);
+	}
+
+	public float lineWidthRange(int index) {
+		assert index >= 0 && index < 2;
+		return VkPhysicalDeviceLimits.lineWidthRange$slice(segment).getAtIndex(JAVA_FLOAT, index);
+	}
+
+	public float pointSizeGranularity() {
+		return VkPhysicalDeviceLimits.pointSizeGranularity$get(segment);
+	}
+
+	public float lineWidthGranularity() {
+		return VkPhysicalDeviceLimits.lineWidthGranularity$get(segment);
+	}
+
+	public boolean strictLines() {
+		return VkPhysicalDeviceLimits.strictLines$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public boolean standardSampleLocations() {
+		return VkPhysicalDeviceLimits.standardSampleLocations$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public long optimalBufferCopyOffsetAlignment() {
+		return VkPhysicalDeviceLimits.optimalBufferCopyOffsetAlignment$get(segment);
+	}
+
+	public long optimalBufferCopyRowPitchAlignment() {
+		return VkPhysicalDeviceLimits.optimalBufferCopyRowPitchAlignment$get(segment);
+	}
+
+	public long nonCoherentAtomSize() {
+		return VkPhysicalDeviceLimits.nonCoherentAtomSize$get(segment);
+	}
+}
@@ -0,0 +1,58 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceProperties;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A read-only view over a {@code VkPhysicalDeviceProperties} structure.
+ * <p>
+ * Unlike {@link PhysicalDevice.Properties}, nothing is copied or decoded until it is asked for, so a view can be kept
+ * and queried repeatedly, for example to check limits every frame.
+ * @param segment the properties structure
+ */
+public record PhysicalDevicePropertiesView(MemorySegment segment) {
+	public VulkanVersionNumber apiVersion() {
+		return VulkanVersionNumber.of(VkPhysicalDeviceProperties.apiVersion$get(segment));
+	}
+
+	public int driverVersion() {
+		return VkPhysicalDeviceProperties.driverVersion$get(segment);
+	}
+
+	public int vendorId() {
+		return VkPhysicalDeviceProperties.vendorID$get(segment);
+	}
+
+	public int deviceId() {
+		return VkPhysicalDeviceProperties.deviceID$get(segment);
+	}
+
+	public PhysicalDevice.Type deviceType() {
+		return PhysicalDevice.Type.of(VkPhysicalDeviceProperties.deviceType$get(segment));
+	}
+
+	public String deviceName() {
+		return VkPhysicalDeviceProperties.deviceName$slice(segment).getUtf8String(0);
+	}
+
+	public PipelineCacheUUID pipelineCacheUUID() {
+		return PipelineCacheUUID.of(VkPhysicalDeviceProperties.pipelineCacheUUID$slice(segment));
+	}
+
+	public PhysicalDeviceLimits limits() {
+		return new PhysicalDeviceLimits(VkPhysicalDeviceProperties.limits$slice(segment));
+	}
+
+	public PhysicalDeviceSparseProperties sparseProperties() {
+		return new PhysicalDeviceSparseProperties(VkPhysicalDeviceProperties.sparseProperties$slice(segment));
+	}
+
+	/**
+	 * Copies the properties into a record
+	 * @return the properties
+	 */
+	public PhysicalDevice.Properties toProperties() {
+		return PhysicalDevice.Properties.of(segment);
+	}
+}
@@ -0,0 +1,32 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkPhysicalDeviceSparseProperties;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * A read-only view over a {@code VkPhysicalDeviceSparseProperties} structure
+ * @param segment the sparse properties structure
+ */
+public record PhysicalDeviceSparseProperties(MemorySegment segment) {
+	public boolean residencyStandard2DBlockShape() {
+		return VkPhysicalDeviceSparseProperties.residencyStandard2DBlockShape$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public boolean residencyStandard2DMultisampleBlockShape() {
+		return VkPhysicalDeviceSparseProperties.residencyStandard2DMultisampleBlockShape$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public boolean residencyStandard3DBlockShape() {
+		return VkPhysicalDeviceSparseProperties.residencyStandard3DBlockShape$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public boolean residencyAlignedMipSize() {
+		return VkPhysicalDeviceSparseProperties.residencyAlignedMipSize$get(segment) != vulkan_h.VK_FALSE();
+	}
+
+	public boolean residencyNonResidentStrict() {
+		return VkPhysicalDeviceSparseProperties.residencyNonResidentStrict$get(segment) != vulkan_h.VK_FALSE();
+	}
+}
@@ -0,0 +1,136 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkPipelineCacheCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.Collection;
+import java.util.OptionalLong;
+
+/**
+ * A pipeline cache on a logical device.
+ * <p>
+ * Creating pipelines with a cache is internally synchronised by the driver, so one cache can be shared by many
+ * threads. Reading the data from a cache, or merging other caches into it, must not happen concurrently with any other
+ * use of the cache.
+ */
+public final class PipelineCache implements AutoCloseable, VulkanHandle {
+	private final MemorySegment handle;
+	private final LogicalDevice device;
+
+	public static PipelineCache create(LogicalDevice device) {
+		return create(device, MemorySegment.NULL);
+	}
+
+	/**
+	 * Creates a pipeline cache
+	 * @param device the device to create the cache on
+	 * @param initialData data previously read from a compatible cache, or {@link MemorySegment#NULL}. This is copied
+	 *                    by the driver and may be released once this method returns. The driver ignores data that is
+	 *                    incompatible with the device.
+	 * @return a pipeline cache
+	 */
+	public static PipelineCache create(LogicalDevice device, MemorySegment initialData) {
+		try (var arena = Arena.ofConfined()) {
+			var createInfo = VkPipelineCacheCreateInfo.allocate(arena);
+			VkPipelineCacheCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_PIPELINE_CACHE_CREATE_INFO());
+			VkPipelineCacheCreateInfo.pNext$set(createInfo, MemorySegment.NULL);
+			VkPipelineCacheCreateInfo.flags$set(createInfo, 0);
+			VkPipelineCacheCreateInfo.initialDataSize$set(createInfo, initialData.byteSize());
+			VkPipelineCacheCreateInfo.pInitialData$set(createInfo, initialData);
+
+			return new PipelineCache(device.createPipelineCache(createInfo), device);
+		}
+	}
+
+	public PipelineCache(MemorySegment handle, LogicalDevice device) {
+		this.handle = handle;
+		this.device = device;
+	}
+
+	@Override
+	public MemorySegment handle() {
+		return handle;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	/**
+	 * Gets the size of the data in this cache. The size may grow if pipelines are created concurrently.
+	 * @return the size in bytes
+	 */
+	public long dataSize() {
+		try (var arena = Arena.ofConfined()) {
+			var dataSize = arena.allocate(vulkan_h.size_t);
+			device.getPipelineCacheData(handle, dataSize, MemorySegment.NULL);
+			return dataSize.get(vulkan_h.size_t, 0);
+		}
+	}
+
+	/**
+	 * Reads the cache data into existing memory
+	 * @param destination the memory to write the data to
+	 * @return the number of bytes written, or an empty optional if the destination was too small to hold all the data
+	 */
+	public OptionalLong getData(MemorySegment destination) {
+		try (var arena = Arena.ofConfined()) {
+			var dataSize = arena.allocate(vulkan_h.size_t);
+			dataSize.set(vulkan_h.size_t, 0, destination.byteSize());
+
+			if (device.getPipelineCacheData(handle, dataSize, destination) == vulkan_h.VK_INCOMPLETE()) {
+				return OptionalLong.empty();
+			}
+
+			return OptionalLong.of(dataSize.get(vulkan_h.size_t, 0));
+		}
+	}
+
+	/**
+	 * Reads all of the cache data
+	 * @param allocator the allocator for the returned data
+	 * @return the data in this cache
+	 */
+	public MemorySegment getData(SegmentAllocator allocator) {
+		while (true) {
+			var data = allocator.allocate(dataSize());
+			var written = getData(data);
+
+			if (written.isPresent()) {
+				return data.asSlice(0, written.getAsLong());
+			}
+		}
+	}
+
+	/**
+	 * Merges other caches into this cache
+	 * @param sources the caches to merge, these must not include this cache
+	 */
+	public void merge(Collection<PipelineCache> sources) {
+		assert sources.stream().allMatch(source -> source.device == device && source != this);
+
+		if (sources.isEmpty()) {
+			return;
+		}
+
+		try (var arena = Arena.ofConfined()) {
+			var sourceArray = arena.allocateArray(vulkan_h.VkPipelineCache, sources.size());
+
+			int i = 0;
+			for (var source : sources) {
+				sourceArray.setAtIndex(vulkan_h.VkPipelineCache, i, source.handle);
+				i++;
+			}
+
+			device.mergePipelineCaches(handle, sources.size(), sourceArray);
+		}
+	}
+
+	@Override
+	public void close() {
+		device.destroyPipelineCache(handle);
+	}
+}
@@ -0,0 +1,183 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkPipelineCacheHeaderVersionOne;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+/**
+ * A directory of pipeline cache data, with one file per physical device.
+ * <p>
+ * Each file records the {@link DeviceCacheKey} of the driver that wrote it. Loading a file written by any other driver,
+ * including an older version of the same driver, deletes it and starts with an empty cache. Files are read through a
+ * memory mapping, and written to a temporary file that atomically replaces the previous data once it is complete, so
+ * a crash while saving never leaves a partial cache behind.
+ */
+public final class PipelineCacheStore {
+	private static final System.Logger LOGGER = System.getLogger(String.valueOf(PipelineCacheStore.class.getModule().getName()));
+
+	private static final int MAGIC = 0x4350574c;
+	private static final int FORMAT_VERSION = 1;
+	private static final String FILE_PREFIX = "pipeline-cache";
+	private static final String FILE_EXTENSION = "bin";
+
+	private static final StructLayout HEADER = MemoryLayout.structLayout(
+			JAVA_INT.withName("magic"),
+			JAVA_INT.withName("formatVersion"),
+			DeviceCacheKey.LAYOUT.withName("key"),
+			MemoryLayout.paddingLayout(4),
+			JAVA_LONG.withName("dataSize")
+	);
+
+	private static final VarHandle HEADER_MAGIC = HEADER.varHandle(MemoryLayout.PathElement.groupElement("magic"));
+	private static final VarHandle HEADER_FORMAT_VERSION = HEADER.varHandle(MemoryLayout.PathElement.groupElement("formatVersion"));
+	private static final VarHandle HEADER_DATA_SIZE = HEADER.varHandle(MemoryLayout.PathElement.groupElement("dataSize"));
+	private static final long HEADER_KEY_OFFSET = HEADER.byteOffset(MemoryLayout.PathElement.groupElement("key"));
+
+	private final Path directory;
+
+	public PipelineCacheStore(Path directory) {
+		assert directory != null;
+
+		this.directory = directory;
+	}
+
+	public Path directory() {
+		return directory;
+	}
+
+	public Path path(DeviceCacheKey key) {
+		return directory.resolve(key.deviceFileName(FILE_PREFIX, FILE_EXTENSION));
+	}
+
+	/**
+	 * Creates a pipeline cache seeded with any stored data that was written by the device's current driver
+	 * @param device the device to create the cache for
+	 * @return a pipeline cache, which is empty if there was no valid stored data
+	 * @throws IOException if the stored data could not be read
+	 */
+	public PipelineCache load(LogicalDevice device) throws IOException {
+		var key = DeviceCacheKey.of(device.physicalDevice());
+		var path = path(key);
+
+		try (var arena = Arena.ofConfined();
+		     var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			var file = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size(), arena);
+			var data = validatedData(file, key);
+
+			if (data.isPresent()) {
+				return PipelineCache.create(device, data.get());
+			}
+		} catch (NoSuchFileException e) {
+			return PipelineCache.create(device);
+		}
+
+		LOGGER.log(System.Logger.Level.INFO, "Discarding pipeline cache {0} written by a different driver", path);
+		Files.deleteIfExists(path);
+
+		return PipelineCache.create(device);
+	}
+
+	/**
+	 * Writes the data from a cache, replacing any previously stored data for its device
+	 * @param cache the cache to save, this must not be used by any other thread during the save
+	 * @throws IOException if the data could not be written
+	 */
+	public void save(PipelineCache cache) throws IOException {
+		var key = DeviceCacheKey.of(cache.device().physicalDevice());
+
+		Files.createDirectories(directory);
+		var temporary = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+
+		try {
+			try (var channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				var dataSize = write(channel, cache, key);
+				channel.truncate(HEADER.byteSize() + dataSize);
+				channel.force(true);
+			}
+
+			Files.move(temporary, path(key), StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Merges caches, such as those filled by different threads, and saves the result
+	 * @param device the device that owns the caches
+	 * @param caches the caches to merge, these are not modified
+	 * @throws IOException if the data could not be written
+	 */
+	public void save(LogicalDevice device, Collection<PipelineCache> caches) throws IOException {
+		try (var merged = PipelineCache.create(device)) {
+			merged.merge(caches);
+			save(merged);
+		}
+	}
+
+	private static long write(FileChannel channel, PipelineCache cache, DeviceCacheKey key) throws IOException {
+		/*
+		 * The cache may grow between querying its size and reading it, if pipelines are being created at the same time,
+		 * so retry with the new size until the data fits.
+		 */
+		while (true) {
+			try (var arena = Arena.ofConfined()) {
+				var file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER.byteSize() + cache.dataSize(), arena);
+				var written = cache.getData(file.asSlice(HEADER.byteSize()));
+
+				if (written.isPresent()) {
+					HEADER_MAGIC.set(file, MAGIC);
+					HEADER_FORMAT_VERSION.set(file, FORMAT_VERSION);
+					key.asNative(file.asSlice(HEADER_KEY_OFFSET, DeviceCacheKey.LAYOUT));
+					HEADER_DATA_SIZE.set(file, written.getAsLong());
+					file.force();
+
+					return written.getAsLong();
+				}
+			}
+		}
+	}
+
+	private static Optional<MemorySegment> validatedData(MemorySegment file, DeviceCacheKey key) {
+		if (file.byteSize() < HEADER.byteSize()
+				|| (int) HEADER_MAGIC.get(file) != MAGIC
+				|| (int) HEADER_FORMAT_VERSION.get(file) != FORMAT_VERSION
+				|| !DeviceCacheKey.of(file.asSlice(HEADER_KEY_OFFSET, DeviceCacheKey.LAYOUT)).equals(key)) {
+			return Optional.empty();
+		}
+
+		var dataSize = (long) HEADER_DATA_SIZE.get(file);
+		if (dataSize < 0 || dataSize > file.byteSize() - HEADER.byteSize()) {
+			return Optional.empty();
+		}
+
+		var data = file.asSlice(HEADER.byteSize(), dataSize);
+
+		// The driver checks its own header as well, but a mismatch here means the file cannot be trusted at all
+		if (dataSize < VkPipelineCacheHeaderVersionOne.$LAYOUT().byteSize()
+				|| VkPipelineCacheHeaderVersionOne.headerVersion$get(data) != vulkan_h.VK_PIPELINE_CACHE_HEADER_VERSION_ONE()
+				|| VkPipelineCacheHeaderVersionOne.vendorID$get(data) != key.vendorId()
+				|| VkPipelineCacheHeaderVersionOne.deviceID$get(data) != key.deviceId()
+				|| !PipelineCacheUUID.of(VkPipelineCacheHeaderVersionOne.pipelineCacheUUID$slice(data)).equals(key.pipelineCacheUUID())) {
+			return Optional.empty();
+		}
+
+		return Optional.of(data);
+	}
+}
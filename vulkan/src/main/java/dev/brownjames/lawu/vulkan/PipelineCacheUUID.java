@@ -4,6 +4,8 @@ import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+import java.util.HexFormat;
 
 public record PipelineCacheUUID(byte[] value) {
 	public PipelineCacheUUID {
@@ -22,4 +24,19 @@ public record PipelineCacheUUID(byte[] value) {
 	public MemorySegment asNative() {
 		return MemorySegment.ofArray(value);
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof PipelineCacheUUID uuid && Arrays.equals(value, uuid.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(value);
+	}
+
+	@Override
+	public String toString() {
+		return HexFormat.of().formatHex(value);
+	}
 }
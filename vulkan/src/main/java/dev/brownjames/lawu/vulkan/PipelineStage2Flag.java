@@ -0,0 +1,52 @@
+package dev.brownjames.lawu.vulkan;
+
+/**
+ * The pipeline stages of {@code VkPipelineStageFlags2}, which extend {@link PipelineStageFlag}
+ * <p>
+ * The values are written out because the header declares them as {@code static const} variables rather than enum
+ * constants, which have no bindings.
+ */
+public enum PipelineStage2Flag implements BitFlag64 {
+	TOP_OF_PIPE(0x00000001L),
+	DRAW_INDIRECT(0x00000002L),
+	VERTEX_INPUT(0x00000004L),
+	VERTEX_SHADER(0x00000008L),
+	TESSELLATION_CONTROL_SHADER(0x00000010L),
+	TESSELLATION_EVALUATION_SHADER(0x00000020L),
+	GEOMETRY_SHADER(0x00000040L),
+	FRAGMENT_SHADER(0x00000080L),
+	EARLY_FRAGMENT_TESTS(0x00000100L),
+	LATE_FRAGMENT_TESTS(0x00000200L),
+	COLOR_ATTACHMENT_OUTPUT(0x00000400L),
+	COMPUTE_SHADER(0x00000800L),
+	ALL_TRANSFER(0x00001000L),
+	BOTTOM_OF_PIPE(0x00002000L),
+	HOST(0x00004000L),
+	ALL_GRAPHICS(0x00008000L),
+	ALL_COMMANDS(0x00010000L),
+	CONDITIONAL_RENDERING_EXT(0x00040000L),
+	TASK_SHADER_EXT(0x00080000L),
+	MESH_SHADER_EXT(0x00100000L),
+	RAY_TRACING_SHADER_KHR(0x00200000L),
+	FRAGMENT_SHADING_RATE_ATTACHMENT_KHR(0x00400000L),
+	TRANSFORM_FEEDBACK_EXT(0x01000000L),
+	ACCELERATION_STRUCTURE_BUILD_KHR(0x02000000L),
+	COPY(0x100000000L),
+	RESOLVE(0x200000000L),
+	BLIT(0x400000000L),
+	CLEAR(0x800000000L),
+	INDEX_INPUT(0x1000000000L),
+	VERTEX_ATTRIBUTE_INPUT(0x2000000000L),
+	PRE_RASTERIZATION_SHADERS(0x4000000000L);
+
+	private final long bit;
+
+	PipelineStage2Flag(long bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public long bit() {
+		return bit;
+	}
+}
@@ -0,0 +1,37 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+/**
+ * The pipeline stages of {@code VkPipelineStageFlags}
+ */
+public enum PipelineStageFlag implements BitFlag {
+	TOP_OF_PIPE(vulkan_h.VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT()),
+	DRAW_INDIRECT(vulkan_h.VK_PIPELINE_STAGE_DRAW_INDIRECT_BIT()),
+	VERTEX_INPUT(vulkan_h.VK_PIPELINE_STAGE_VERTEX_INPUT_BIT()),
+	VERTEX_SHADER(vulkan_h.VK_PIPELINE_STAGE_VERTEX_SHADER_BIT()),
+	TESSELLATION_CONTROL_SHADER(vulkan_h.VK_PIPELINE_STAGE_TESSELLATION_CONTROL_SHADER_BIT()),
+	TESSELLATION_EVALUATION_SHADER(vulkan_h.VK_PIPELINE_STAGE_TESSELLATION_EVALUATION_SHADER_BIT()),
+	GEOMETRY_SHADER(vulkan_h.VK_PIPELINE_STAGE_GEOMETRY_SHADER_BIT()),
+	FRAGMENT_SHADER(vulkan_h.VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT()),
+	EARLY_FRAGMENT_TESTS(vulkan_h.VK_PIPELINE_STAGE_EARLY_FRAGMENT_TESTS_BIT()),
+	LATE_FRAGMENT_TESTS(vulkan_h.VK_PIPELINE_STAGE_LATE_FRAGMENT_TESTS_BIT()),
+	COLOR_ATTACHMENT_OUTPUT(vulkan_h.VK_PIPELINE_STAGE_COLOR_ATTACHMENT_OUTPUT_BIT()),
+	COMPUTE_SHADER(vulkan_h.VK_PIPELINE_STAGE_COMPUTE_SHADER_BIT()),
+	TRANSFER(vulkan_h.VK_PIPELINE_STAGE_TRANSFER_BIT()),
+	BOTTOM_OF_PIPE(vulkan_h.VK_PIPELINE_STAGE_BOTTOM_OF_PIPE_BIT()),
+	HOST(vulkan_h.VK_PIPELINE_STAGE_HOST_BIT()),
+	ALL_GRAPHICS(vulkan_h.VK_PIPELINE_STAGE_ALL_GRAPHICS_BIT()),
+	ALL_COMMANDS(vulkan_h.VK_PIPELINE_STAGE_ALL_COMMANDS_BIT());
+
+	private final int bit;
+
+	PipelineStageFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
@@ -0,0 +1,317 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Allocation callbacks backed by pooled slabs of native memory, which keep statistics for each allocation scope.
+ * <p>
+ * Small allocations are served from power-of-two size classes. Each class carves blocks out of large slabs and keeps
+ * freed blocks on an intrusive free list, so that allocating and freeing is a pointer swap under a per-class lock. Slabs
+ * are only returned when this object is closed. Allocations too large for any class go straight to {@code malloc}.
+ * <p>
+ * Every allocation is preceded by a 16-byte header recording its size, size class, scope and its distance from the
+ * start of its block. This lets {@link #free(MemorySegment)} and {@link #reallocate} work from the address alone.
+ */
+public final class PooledAllocationCallbacks implements AllocationCallbacks, AutoCloseable {
+	/**
+	 * Allocation counters for one allocation scope, at one point in time
+	 * @param currentBytes the number of bytes currently allocated
+	 * @param peakBytes the largest number of bytes allocated at once
+	 * @param allocations the total number of allocations made
+	 * @param frees the total number of allocations freed
+	 * @param allocatedBytes the total number of bytes ever allocated
+	 * @param internalBytes the number of bytes currently allocated by the driver itself
+	 * @param timestamp the value of {@link System#nanoTime()} when the statistics were read
+	 */
+	public record Statistics(long currentBytes, long peakBytes, long allocations, long frees, long allocatedBytes,
+	                         long internalBytes, long timestamp) {
+		/**
+		 * Gets the rate of allocation between earlier statistics and these
+		 * @param earlier statistics read before these
+		 * @return the number of allocations per second
+		 */
+		public double allocationRate(Statistics earlier) {
+			var seconds = (timestamp - earlier.timestamp) / 1e9;
+			return seconds > 0 ? (allocations - earlier.allocations) / seconds : 0;
+		}
+
+		/**
+		 * Gets the rate of allocation between earlier statistics and these
+		 * @param earlier statistics read before these
+		 * @return the number of bytes allocated per second
+		 */
+		public double byteRate(Statistics earlier) {
+			var seconds = (timestamp - earlier.timestamp) / 1e9;
+			return seconds > 0 ? (allocatedBytes - earlier.allocatedBytes) / seconds : 0;
+		}
+	}
+
+	private static final class ScopeCounters {
+		private final AtomicLong currentBytes = new AtomicLong();
+		private final AtomicLong peakBytes = new AtomicLong();
+		private final LongAdder allocations = new LongAdder();
+		private final LongAdder frees = new LongAdder();
+		private final LongAdder allocatedBytes = new LongAdder();
+		private final AtomicLong internalBytes = new AtomicLong();
+
+		void allocated(long size) {
+			allocations.increment();
+			allocatedBytes.add(size);
+			peakBytes.accumulateAndGet(currentBytes.addAndGet(size), Math::max);
+		}
+
+		void freed(long size) {
+			frees.increment();
+			currentBytes.addAndGet(-size);
+		}
+
+		Statistics read(long timestamp) {
+			return new Statistics(currentBytes.get(), peakBytes.get(), allocations.sum(), frees.sum(),
+					allocatedBytes.sum(), internalBytes.get(), timestamp);
+		}
+	}
+
+	private static final class SizeClass {
+		private final long blockSize;
+		private long freeList;
+
+		SizeClass(long blockSize) {
+			this.blockSize = blockSize;
+		}
+	}
+
+	private static final long HEADER_SIZE = 16;
+	private static final int MINIMUM_CLASS_SHIFT = 5;
+	private static final int MAXIMUM_CLASS_SHIFT = 16;
+	private static final long SLAB_SIZE = 1L << 20;
+	private static final long SLAB_ALIGNMENT = 4096;
+	private static final byte LARGE = -1;
+
+	private static final MethodHandle malloc;
+	private static final MethodHandle mallocFree;
+
+	static {
+		var linker = Linker.nativeLinker();
+		malloc = linker.downcallHandle(linker.defaultLookup().find("malloc").orElseThrow(), FunctionDescriptor.of(ADDRESS, JAVA_LONG));
+		mallocFree = linker.downcallHandle(linker.defaultLookup().find("free").orElseThrow(), FunctionDescriptor.ofVoid(ADDRESS));
+	}
+
+	private final Arena arena = Arena.ofShared();
+	private final SizeClass[] sizeClasses = new SizeClass[MAXIMUM_CLASS_SHIFT - MINIMUM_CLASS_SHIFT + 1];
+	private final Map<SystemAllocationScope, ScopeCounters> counters = new EnumMap<>(SystemAllocationScope.class);
+	private final MemorySegment nativeStructure;
+
+	public PooledAllocationCallbacks() {
+		for (int i = 0; i < sizeClasses.length; i++) {
+			sizeClasses[i] = new SizeClass(1L << (i + MINIMUM_CLASS_SHIFT));
+		}
+
+		for (var scope : SystemAllocationScope.values()) {
+			counters.put(scope, new ScopeCounters());
+		}
+
+		nativeStructure = AllocationCallbacks.super.createNativeStructure(arena);
+	}
+
+	/**
+	 * Gets the {@code VkAllocationCallbacks} structure of this object, which is created once with its upcall stubs and
+	 * shared by every instance and device that uses these callbacks. It is valid until this object is closed, which
+	 * must already outlive every Vulkan object created with it.
+	 * @param arena ignored
+	 * @return the structure
+	 */
+	@Override
+	public MemorySegment createNativeStructure(Arena arena) {
+		return nativeStructure;
+	}
+
+	@Override
+	public MemorySegment allocate(long size, long alignment, SystemAllocationScope scope) {
+		if (size == 0) {
+			return MemorySegment.NULL;
+		}
+
+		var headerSize = Math.max(HEADER_SIZE, alignment);
+		var blockSize = size + headerSize;
+		var classIndex = Long.SIZE - Long.numberOfLeadingZeros(blockSize - 1) - MINIMUM_CLASS_SHIFT;
+
+		long block;
+		long shift;
+		byte sizeClass;
+		if (classIndex < sizeClasses.length && alignment <= SLAB_ALIGNMENT) {
+			classIndex = Math.max(classIndex, 0);
+			block = takeBlock(sizeClasses[classIndex]);
+			shift = headerSize;
+			sizeClass = (byte) classIndex;
+		} else {
+			var raw = malloc(size + headerSize + alignment);
+			if (raw == 0) {
+				return MemorySegment.NULL;
+			}
+
+			block = raw;
+			shift = alignUp(raw + HEADER_SIZE, alignment) - raw;
+			sizeClass = LARGE;
+		}
+
+		var address = block + shift;
+		var header = MemorySegment.ofAddress(address - HEADER_SIZE).reinterpret(HEADER_SIZE);
+		header.set(JAVA_LONG, 0, size);
+		header.set(JAVA_BYTE, 8, sizeClass);
+		header.set(JAVA_BYTE, 9, (byte) scope.ordinal());
+		header.set(JAVA_INT, 12, (int) shift);
+
+		counters.get(scope).allocated(size);
+		return MemorySegment.ofAddress(address);
+	}
+
+	@Override
+	public MemorySegment reallocate(MemorySegment original, long size, long alignment, SystemAllocationScope scope) {
+		if (original.address() == 0) {
+			return allocate(size, alignment, scope);
+		}
+
+		if (size == 0) {
+			free(original);
+			return MemorySegment.NULL;
+		}
+
+		var header = MemorySegment.ofAddress(original.address() - HEADER_SIZE).reinterpret(HEADER_SIZE);
+		var originalSize = header.get(JAVA_LONG, 0);
+		var sizeClass = header.get(JAVA_BYTE, 8);
+		var originalScope = SystemAllocationScope.values()[header.get(JAVA_BYTE, 9)];
+
+		// Grow or shrink in place when the block has room
+		if (sizeClass != LARGE && header.get(JAVA_INT, 12) + size <= sizeClasses[sizeClass].blockSize) {
+			header.set(JAVA_LONG, 0, size);
+			counters.get(originalScope).freed(originalSize);
+			counters.get(scope).allocated(size);
+			header.set(JAVA_BYTE, 9, (byte) scope.ordinal());
+			return original;
+		}
+
+		var result = allocate(size, alignment, scope);
+		if (result.address() != 0) {
+			result.reinterpret(size).copyFrom(original.reinterpret(Math.min(size, originalSize)));
+			free(original);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void free(MemorySegment memory) {
+		if (memory.address() == 0) {
+			return;
+		}
+
+		var header = MemorySegment.ofAddress(memory.address() - HEADER_SIZE).reinterpret(HEADER_SIZE);
+		var size = header.get(JAVA_LONG, 0);
+		var sizeClass = header.get(JAVA_BYTE, 8);
+		var scope = SystemAllocationScope.values()[header.get(JAVA_BYTE, 9)];
+		var block = memory.address() - header.get(JAVA_INT, 12);
+
+		counters.get(scope).freed(size);
+
+		if (sizeClass == LARGE) {
+			mallocFree(block);
+		} else {
+			returnBlock(sizeClasses[sizeClass], block);
+		}
+	}
+
+	@Override
+	public void internalAllocation(long size, InternalAllocationType type, SystemAllocationScope scope) {
+		counters.get(scope).internalBytes.addAndGet(size);
+	}
+
+	@Override
+	public void internalFree(long size, InternalAllocationType type, SystemAllocationScope scope) {
+		counters.get(scope).internalBytes.addAndGet(-size);
+	}
+
+	/**
+	 * Reads the counters for one allocation scope
+	 * @param scope the allocation scope
+	 * @return the current statistics
+	 */
+	public Statistics statistics(SystemAllocationScope scope) {
+		return counters.get(scope).read(System.nanoTime());
+	}
+
+	/**
+	 * Reads the counters for every allocation scope
+	 * @return the current statistics of each scope
+	 */
+	public Map<SystemAllocationScope, Statistics> statistics() {
+		var timestamp = System.nanoTime();
+		var result = new EnumMap<SystemAllocationScope, Statistics>(SystemAllocationScope.class);
+		counters.forEach((scope, scopeCounters) -> result.put(scope, scopeCounters.read(timestamp)));
+		return result;
+	}
+
+	/**
+	 * Releases every slab. Any object created with these callbacks must have been destroyed.
+	 */
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+	private long takeBlock(SizeClass sizeClass) {
+		synchronized (sizeClass) {
+			if (sizeClass.freeList == 0) {
+				refill(sizeClass);
+			}
+
+			var block = sizeClass.freeList;
+			sizeClass.freeList = MemorySegment.ofAddress(block).reinterpret(ADDRESS.byteSize()).get(JAVA_LONG, 0);
+			return block;
+		}
+	}
+
+	private void returnBlock(SizeClass sizeClass, long block) {
+		synchronized (sizeClass) {
+			MemorySegment.ofAddress(block).reinterpret(ADDRESS.byteSize()).set(JAVA_LONG, 0, sizeClass.freeList);
+			sizeClass.freeList = block;
+		}
+	}
+
+	private void refill(SizeClass sizeClass) {
+		var slabSize = Math.max(SLAB_SIZE, sizeClass.blockSize * 8);
+		var slab = arena.allocate(slabSize, SLAB_ALIGNMENT);
+
+		// Thread the blocks onto the free list, last first, so they are handed out in address order
+		for (var offset = slabSize - sizeClass.blockSize; offset >= 0; offset -= sizeClass.blockSize) {
+			slab.set(JAVA_LONG, offset, sizeClass.freeList);
+			sizeClass.freeList = slab.address() + offset;
+		}
+	}
+
+	private static long alignUp(long value, long alignment) {
+		return (value + alignment - 1) & -alignment;
+	}
+
+	private static long malloc(long size) {
+		try {
+			return ((MemorySegment) malloc.invokeExact(size)).address();
+		} catch (Throwable t) {
+			throw new AssertionError(t);
+		}
+	}
+
+	private static void mallocFree(long address) {
+		try {
+			mallocFree.invokeExact(MemorySegment.ofAddress(address));
+		} catch (Throwable t) {
+			throw new AssertionError(t);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkQueueFamilyProperties;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.Set;
+
+/**
+ * The properties of a family of queues on a physical device
+ * @param index the index of this queue family on the device
+ * @param queueFlags the capabilities of the queues in this family
+ * @param queueCount the number of queues in this family
+ * @param timestampValidBits the number of meaningful bits in timestamps written by these queues
+ * @param minImageTransferGranularity the minimum granularity of image transfers on these queues
+ */
+public record QueueFamilyProperties(
+		int index,
+		Set<QueueFlag> queueFlags,
+		int queueCount,
+		int timestampValidBits,
+		Extent3d minImageTransferGranularity
+) {
+	public static QueueFamilyProperties of(int index, MemorySegment raw) {
+		return new QueueFamilyProperties(
+				index,
+				BitFlag.flags(VkQueueFamilyProperties.queueFlags$get(raw), QueueFlag.class),
+				VkQueueFamilyProperties.queueCount$get(raw),
+				VkQueueFamilyProperties.timestampValidBits$get(raw),
+				Extent3d.of(VkQueueFamilyProperties.minImageTransferGranularity$slice(raw))
+		);
+	}
+
+	public void asNative(MemorySegment destination) {
+		VkQueueFamilyProperties.queueFlags$set(destination, BitFlag.getFlagBits(queueFlags));
+		VkQueueFamilyProperties.queueCount$set(destination, queueCount);
+		VkQueueFamilyProperties.timestampValidBits$set(destination, timestampValidBits);
+		minImageTransferGranularity.asNative(VkQueueFamilyProperties.minImageTransferGranularity$slice(destination));
+	}
+
+	public MemorySegment asNative(SegmentAllocator allocator) {
+		var raw = VkQueueFamilyProperties.allocate(allocator);
+		asNative(raw);
+		return raw;
+	}
+
+	public MemorySegment asNative() {
+		return asNative(Arena.ofAuto());
+	}
+}
@@ -0,0 +1,22 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+public enum QueueFlag implements BitFlag {
+	GRAPHICS(vulkan_h.VK_QUEUE_GRAPHICS_BIT()),
+	COMPUTE(vulkan_h.VK_QUEUE_COMPUTE_BIT()),
+	TRANSFER(vulkan_h.VK_QUEUE_TRANSFER_BIT()),
+	SPARSE_BINDING(vulkan_h.VK_QUEUE_SPARSE_BINDING_BIT()),
+	PROTECTED(vulkan_h.VK_QUEUE_PROTECTED_BIT());
+
+	private final int bit;
+
+	QueueFlag(int bit) {
+		this.bit = bit;
+	}
+
+	@Override
+	public int bit() {
+		return bit;
+	}
+}
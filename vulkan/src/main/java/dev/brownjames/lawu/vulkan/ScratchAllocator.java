@@ -0,0 +1,136 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A per-thread bump allocator for short-lived native memory, such as the structures passed to a single query.
+ * <p>
+ * {@link #push()} opens a scope, which is an {@link Arena} that hands out zeroed slices of a per-thread buffer. Closing
+ * the scope gives back everything allocated in it at once, so repeated queries reuse the same memory instead of
+ * allocating and freeing, or registering with the {@code Cleaner} as {@link Arena#ofAuto()} does.
+ * <pre>{@code
+ * try (var scratch = ScratchAllocator.push()) {
+ *     var properties = VkImageFormatProperties.allocate(scratch);
+ *     ...
+ * }
+ * }</pre>
+ * Scopes nest, but only the innermost open scope may allocate or be closed. Segments from a scope must not be used
+ * after it is closed; this is not checked, because the buffer stays alive for the next scope. For the same reason,
+ * cleanup actions attached to a scope with {@link MemorySegment#reinterpret(Arena, java.util.function.Consumer)} only
+ * run once the thread has gone, so structures that register callbacks should not be built in a scope.
+ */
+public final class ScratchAllocator {
+	private static final long CHUNK_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<ScratchAllocator> allocators = ThreadLocal.withInitial(ScratchAllocator::new);
+
+	/**
+	 * A scope of scratch allocations, which are all released when it is closed
+	 */
+	public final class Scope implements Arena {
+		private final int level;
+		private int markChunk;
+		private long markOffset;
+		private boolean open;
+
+		private Scope(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public MemorySegment allocate(long byteSize, long byteAlignment) {
+			checkInnermost();
+			return ScratchAllocator.this.allocate(byteSize, byteAlignment);
+		}
+
+		@Override
+		public MemorySegment.Scope scope() {
+			return backing.scope();
+		}
+
+		@Override
+		public void close() {
+			checkInnermost();
+
+			chunkIndex = markChunk;
+			offset = markOffset;
+			open = false;
+			depth--;
+		}
+
+		private void checkInnermost() {
+			assert Thread.currentThread() == owner : "scratch scopes are confined to the thread that opened them";
+
+			if (!open || level != depth - 1) {
+				throw new IllegalStateException("Only the innermost open scratch scope can be used");
+			}
+		}
+	}
+
+	private final Thread owner = Thread.currentThread();
+	// Chunks are freed by the garbage collector once the thread, and so this allocator, is gone
+	private final Arena backing = Arena.ofAuto();
+	private final List<MemorySegment> chunks = new ArrayList<>();
+	private int chunkIndex;
+	private long offset;
+
+	private Scope[] scopes = new Scope[8];
+	private int depth;
+
+	private ScratchAllocator() {
+		chunks.add(backing.allocate(CHUNK_SIZE, 16));
+	}
+
+	/**
+	 * Opens a scratch scope on the current thread
+	 * @return the scope, which must be closed on this thread
+	 */
+	public static Scope push() {
+		return allocators.get().pushScope();
+	}
+
+	private Scope pushScope() {
+		if (depth == scopes.length) {
+			scopes = Arrays.copyOf(scopes, depth * 2);
+		}
+
+		var scope = scopes[depth];
+		if (scope == null) {
+			scope = new Scope(depth);
+			scopes[depth] = scope;
+		}
+
+		scope.markChunk = chunkIndex;
+		scope.markOffset = offset;
+		scope.open = true;
+		depth++;
+
+		return scope;
+	}
+
+	private MemorySegment allocate(long byteSize, long byteAlignment) {
+		assert byteSize >= 0;
+		assert Long.bitCount(byteAlignment) == 1;
+
+		while (true) {
+			var chunk = chunks.get(chunkIndex);
+			var start = ((chunk.address() + offset + byteAlignment - 1) & -byteAlignment) - chunk.address();
+
+			if (start + byteSize <= chunk.byteSize()) {
+				offset = start + byteSize;
+				return chunk.asSlice(start, byteSize).fill((byte) 0);
+			}
+
+			if (chunkIndex + 1 == chunks.size()) {
+				chunks.add(backing.allocate(Math.max(CHUNK_SIZE, byteSize + byteAlignment), 16));
+			}
+
+			chunkIndex++;
+			offset = 0;
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkSubmitInfo2;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects submissions to a queue from any number of threads and submits them together with one
+ * {@code vkQueueSubmit2}.
+ * <p>
+ * Each call to {@link #submit} pushes onto a lock-free staging list, so producers never wait for each other or for the
+ * queue. A {@link #flush} takes everything staged so far and submits it in the order it was staged, typically once per
+ * frame; a flush also happens as soon as the batch size is reached. Consecutive submissions with the same waits, which
+ * is usually none, are merged into one {@code VkSubmitInfo2}: neither one's commands then start any later than they
+ * would alone, so merging cannot create a deadlock, though the earlier one's signals are delayed until the later one's
+ * commands complete. Signals of the same semaphore in a merged submission keep only the largest value.
+ * <p>
+ * The batcher must be the only thing that submits to its queue. The device must support Vulkan 1.3 and have been
+ * created with {@link DeviceCreateInfo#withSynchronization2()} and {@link DeviceCreateInfo#withTimelineSemaphores()}.
+ */
+public final class SubmissionBatcher {
+	/**
+	 * The default number of staged submissions that causes a flush
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	/**
+	 * The counters of a batcher
+	 * @param submissions the number of submissions flushed
+	 * @param flushes the number of flushes that submitted anything
+	 * @param batches the number of {@code VkSubmitInfo2} structures submitted, after merging
+	 * @param largestFlush the largest number of submissions flushed at once
+	 * @param totalFlushTime the time spent merging and submitting
+	 * @param longestFlushTime the longest time a flush took
+	 * @param longestStagedTime the longest time a submission was staged before it was submitted
+	 */
+	public record Statistics(long submissions, long flushes, long batches, long largestFlush, Duration totalFlushTime, Duration longestFlushTime, Duration longestStagedTime) {
+		/**
+		 * The mean number of submissions in each flush
+		 * @return the batch size, or zero if nothing has been flushed
+		 */
+		public double averageFlushSize() {
+			return flushes == 0 ? 0.0 : (double) submissions / flushes;
+		}
+
+		/**
+		 * The mean time a flush took
+		 * @return the latency, or zero if nothing has been flushed
+		 */
+		public Duration averageFlushTime() {
+			return flushes == 0 ? Duration.ZERO : totalFlushTime.dividedBy(flushes);
+		}
+	}
+
+	/**
+	 * An entry in the staging list, which links to the one staged before it
+	 */
+	private record Staged(SubmitInfo submit, long stagedNanos, int depth, Staged previous) { }
+
+	private final DeviceQueue queue;
+	private final int batchSize;
+
+	private final AtomicReference<Staged> stagingList = new AtomicReference<>();
+
+	private final LongAdder submissions = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final AtomicLong largestFlush = new AtomicLong();
+	private final LongAdder totalFlushNanos = new LongAdder();
+	private final AtomicLong longestFlushNanos = new AtomicLong();
+	private final AtomicLong longestStagedNanos = new AtomicLong();
+
+	public SubmissionBatcher(DeviceQueue queue) {
+		this(queue, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a batcher
+	 * @param queue the queue to submit to
+	 * @param batchSize the number of staged submissions that causes a flush, or {@link Integer#MAX_VALUE} to only flush
+	 *                  when asked
+	 */
+	public SubmissionBatcher(DeviceQueue queue, int batchSize) {
+		assert batchSize > 0;
+
+		this.queue = queue;
+		this.batchSize = batchSize;
+	}
+
+	public DeviceQueue queue() {
+		return queue;
+	}
+
+	/**
+	 * Stages a submission. If this fills a batch, it and everything staged before it are flushed on the calling thread.
+	 * @param submit the submission
+	 */
+	public void submit(SubmitInfo submit) {
+		var now = System.nanoTime();
+
+		Staged previous;
+		Staged next;
+		do {
+			previous = stagingList.get();
+			next = new Staged(submit, now, previous == null ? 1 : previous.depth() + 1, previous);
+		} while (!stagingList.compareAndSet(previous, next));
+
+		if (next.depth() >= batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Submits everything staged so far
+	 */
+	public void flush() {
+		flush(MemorySegment.NULL);
+	}
+
+	/**
+	 * Submits everything staged so far, signalling a fence once it has completed. The fence is submitted even if
+	 * nothing was staged.
+	 * @param fence an unsignalled fence
+	 */
+	public void flush(Fence fence) {
+		flush(fence.handle());
+	}
+
+	/**
+	 * Takes and submits the staged list under a lock, both because submission to the queue must be externally
+	 * synchronised and so that lists taken one after another are submitted in the same order
+	 */
+	private synchronized void flush(MemorySegment fence) {
+		var start = System.nanoTime();
+
+		var head = stagingList.getAndSet(null);
+		if (head == null) {
+			if (fence.address() != 0L) {
+				queue.device().queueSubmit2(queue.handle(), 0, MemorySegment.NULL, fence);
+			}
+
+			return;
+		}
+
+		var ordered = new SubmitInfo[head.depth()];
+		var oldest = start;
+		for (var entry = head; entry != null; entry = entry.previous()) {
+			ordered[entry.depth() - 1] = entry.submit();
+			oldest = Math.min(oldest, entry.stagedNanos());
+		}
+
+		var merged = merge(List.of(ordered));
+		try (var arena = ScratchAllocator.push()) {
+			var submitInfos = VkSubmitInfo2.allocateArray(merged.size(), arena);
+			for (int i = 0; i < merged.size(); i++) {
+				merged.get(i).asNative2(submitInfos.asSlice(i * VkSubmitInfo2.$LAYOUT().byteSize(), VkSubmitInfo2.$LAYOUT()), arena);
+			}
+
+			queue.device().queueSubmit2(queue.handle(), merged.size(), submitInfos, fence);
+		}
+
+		var end = System.nanoTime();
+		submissions.add(ordered.length);
+		flushes.increment();
+		batches.add(merged.size());
+		largestFlush.accumulateAndGet(ordered.length, Math::max);
+		totalFlushNanos.add(end - start);
+		longestFlushNanos.accumulateAndGet(end - start, Math::max);
+		longestStagedNanos.accumulateAndGet(end - oldest, Math::max);
+	}
+
+	/**
+	 * Merges each submission into the one before it if they wait for the same values at the same stages. Merging any
+	 * other waits could hold back commands until a value that depends on their own signals, which would never arrive.
+	 * @param submits the submissions, in order
+	 * @return the merged submissions, in order
+	 */
+	static List<SubmitInfo> merge(List<SubmitInfo> submits) {
+		var merged = new ArrayList<SubmitInfo>(submits.size());
+
+		var first = 0;
+		while (first < submits.size()) {
+			var waits = submits.get(first).waits();
+			var last = first + 1;
+			while (last < submits.size() && submits.get(last).waits().equals(waits)) {
+				last++;
+			}
+
+			if (last - first == 1) {
+				merged.add(submits.get(first));
+			} else {
+				var commandBuffers = new ArrayList<CommandBuffer>();
+
+				// A timeline that reaches the larger value has passed the smaller one, so only the largest is signalled
+				var signals = new LinkedHashMap<Long, SubmitInfo.SemaphoreSignal>();
+				for (var submit : submits.subList(first, last)) {
+					commandBuffers.addAll(submit.commandBuffers());
+					for (var signal : submit.signals()) {
+						signals.merge(signal.semaphore().handle().address(), signal, SubmissionBatcher::larger);
+					}
+				}
+
+				merged.add(new SubmitInfo(commandBuffers, waits, List.copyOf(signals.values())));
+			}
+
+			first = last;
+		}
+
+		return merged;
+	}
+
+	private static SubmitInfo.SemaphoreSignal larger(SubmitInfo.SemaphoreSignal a, SubmitInfo.SemaphoreSignal b) {
+		return a.value() >= b.value() ? a : b;
+	}
+
+	/**
+	 * Gets the number of submissions staged and not yet flushed
+	 * @return the number of submissions
+	 */
+	public int staged() {
+		var head = stagingList.get();
+		return head == null ? 0 : head.depth();
+	}
+
+	public Statistics statistics() {
+		return new Statistics(
+				submissions.sum(),
+				flushes.sum(),
+				batches.sum(),
+				largestFlush.get(),
+				Duration.ofNanos(totalFlushNanos.sum()),
+				Duration.ofNanos(longestFlushNanos.get()),
+				Duration.ofNanos(longestStagedNanos.get()));
+	}
+}
@@ -0,0 +1,202 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkCommandBufferSubmitInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkSemaphoreSubmitInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkSubmitInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkSubmitInfo2;
+import dev.brownjames.lawu.vulkan.bindings.VkTimelineSemaphoreSubmitInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A batch of command buffers to submit to a queue, with the timeline semaphore values it waits for and signals
+ * @param commandBuffers the primary command buffers, executed in order
+ * @param waits the values to wait for before the commands reach the waiting stages
+ * @param signals the values to signal once the commands complete
+ */
+public record SubmitInfo(List<CommandBuffer> commandBuffers, List<SemaphoreWait> waits, List<SemaphoreSignal> signals) {
+	/**
+	 * A wait for a timeline semaphore to reach a value
+	 * @param semaphore the semaphore
+	 * @param value the value to wait for
+	 * @param stages the stages of the submitted commands that wait
+	 */
+	public record SemaphoreWait(TimelineSemaphore semaphore, long value, Set<PipelineStageFlag> stages) {
+		public SemaphoreWait(TimelineSemaphore semaphore, long value) {
+			this(semaphore, value, EnumSet.of(PipelineStageFlag.ALL_COMMANDS));
+		}
+	}
+
+	/**
+	 * A signal of a timeline semaphore to a value
+	 * @param semaphore the semaphore
+	 * @param value the value to signal, which must be greater than any value already signalled or pending
+	 */
+	public record SemaphoreSignal(TimelineSemaphore semaphore, long value) { }
+
+	public SubmitInfo() {
+		this(List.of(), List.of(), List.of());
+	}
+
+	public static SubmitInfo of(List<CommandBuffer> commandBuffers) {
+		return new SubmitInfo(commandBuffers, List.of(), List.of());
+	}
+
+	public SubmitInfo withCommandBuffer(CommandBuffer commandBuffer) {
+		assert commandBuffer.level() == CommandBuffer.Level.PRIMARY;
+
+		var newCommandBuffers = new ArrayList<>(commandBuffers);
+		newCommandBuffers.add(commandBuffer);
+		return new SubmitInfo(newCommandBuffers, waits, signals);
+	}
+
+	public SubmitInfo withWait(SemaphoreWait wait) {
+		var newWaits = new ArrayList<>(waits);
+		newWaits.add(wait);
+		return new SubmitInfo(commandBuffers, newWaits, signals);
+	}
+
+	public SubmitInfo withWait(TimelineSemaphore semaphore, long value) {
+		return withWait(new SemaphoreWait(semaphore, value));
+	}
+
+	public SubmitInfo withSignal(SemaphoreSignal signal) {
+		var newSignals = new ArrayList<>(signals);
+		newSignals.add(signal);
+		return new SubmitInfo(commandBuffers, waits, newSignals);
+	}
+
+	public SubmitInfo withSignal(TimelineSemaphore semaphore, long value) {
+		return withSignal(new SemaphoreSignal(semaphore, value));
+	}
+
+	/**
+	 * Writes this submission into an already allocated structure, chaining the timeline semaphore values
+	 * @param destination the {@code VkSubmitInfo} structure to write to
+	 * @param allocator the allocator for the arrays and the chained structure
+	 */
+	public void asNative(MemorySegment destination, SegmentAllocator allocator) {
+		VkSubmitInfo.sType$set(destination, vulkan_h.VK_STRUCTURE_TYPE_SUBMIT_INFO());
+
+		VkSubmitInfo.waitSemaphoreCount$set(destination, waits.size());
+		var timelineSubmitInfo = MemorySegment.NULL;
+		if (!waits.isEmpty() || !signals.isEmpty()) {
+			timelineSubmitInfo = VkTimelineSemaphoreSubmitInfo.allocate(allocator);
+			VkTimelineSemaphoreSubmitInfo.sType$set(timelineSubmitInfo, vulkan_h.VK_STRUCTURE_TYPE_TIMELINE_SEMAPHORE_SUBMIT_INFO());
+			VkTimelineSemaphoreSubmitInfo.pNext$set(timelineSubmitInfo, MemorySegment.NULL);
+		}
+
+		if (!waits.isEmpty()) {
+			var semaphores = allocator.allocateArray(vulkan_h.VkSemaphore, waits.size());
+			var values = allocator.allocateArray(vulkan_h.uint64_t, waits.size());
+			var stages = allocator.allocateArray(vulkan_h.VkPipelineStageFlags, waits.size());
+
+			for (int i = 0; i < waits.size(); i++) {
+				var wait = waits.get(i);
+				semaphores.setAtIndex(vulkan_h.VkSemaphore, i, wait.semaphore().handle());
+				values.setAtIndex(vulkan_h.uint64_t, i, wait.value());
+				stages.setAtIndex(vulkan_h.VkPipelineStageFlags, i, BitFlag.getFlagBits(wait.stages()));
+			}
+
+			VkSubmitInfo.pWaitSemaphores$set(destination, semaphores);
+			VkSubmitInfo.pWaitDstStageMask$set(destination, stages);
+			VkTimelineSemaphoreSubmitInfo.waitSemaphoreValueCount$set(timelineSubmitInfo, waits.size());
+			VkTimelineSemaphoreSubmitInfo.pWaitSemaphoreValues$set(timelineSubmitInfo, values);
+		}
+
+		VkSubmitInfo.commandBufferCount$set(destination, commandBuffers.size());
+		if (!commandBuffers.isEmpty()) {
+			var handles = allocator.allocateArray(vulkan_h.VkCommandBuffer, commandBuffers.size());
+			for (int i = 0; i < commandBuffers.size(); i++) {
+				handles.setAtIndex(vulkan_h.VkCommandBuffer, i, commandBuffers.get(i).handle());
+			}
+
+			VkSubmitInfo.pCommandBuffers$set(destination, handles);
+		}
+
+		VkSubmitInfo.signalSemaphoreCount$set(destination, signals.size());
+		if (!signals.isEmpty()) {
+			var semaphores = allocator.allocateArray(vulkan_h.VkSemaphore, signals.size());
+			var values = allocator.allocateArray(vulkan_h.uint64_t, signals.size());
+
+			for (int i = 0; i < signals.size(); i++) {
+				var signal = signals.get(i);
+				semaphores.setAtIndex(vulkan_h.VkSemaphore, i, signal.semaphore().handle());
+				values.setAtIndex(vulkan_h.uint64_t, i, signal.value());
+			}
+
+			VkSubmitInfo.pSignalSemaphores$set(destination, semaphores);
+			VkTimelineSemaphoreSubmitInfo.signalSemaphoreValueCount$set(timelineSubmitInfo, signals.size());
+			VkTimelineSemaphoreSubmitInfo.pSignalSemaphoreValues$set(timelineSubmitInfo, values);
+		}
+
+		VkSubmitInfo.pNext$set(destination, timelineSubmitInfo);
+	}
+
+	/**
+	 * Writes this submission into an already allocated {@code VkSubmitInfo2} structure, for {@code vkQueueSubmit2}
+	 * @param destination the {@code VkSubmitInfo2} structure to write to
+	 * @param allocator the allocator for the arrays of semaphore and command buffer infos
+	 */
+	public void asNative2(MemorySegment destination, SegmentAllocator allocator) {
+		VkSubmitInfo2.sType$set(destination, vulkan_h.VK_STRUCTURE_TYPE_SUBMIT_INFO_2());
+		VkSubmitInfo2.pNext$set(destination, MemorySegment.NULL);
+		VkSubmitInfo2.flags$set(destination, 0);
+
+		VkSubmitInfo2.waitSemaphoreInfoCount$set(destination, waits.size());
+		if (!waits.isEmpty()) {
+			var waitInfos = VkSemaphoreSubmitInfo.allocateArray(waits.size(), allocator);
+			for (int i = 0; i < waits.size(); i++) {
+				var wait = waits.get(i);
+				var stages = BitFlag64.getFlagBits(BitFlag64.widen(wait.stages(), PipelineStage2Flag.class));
+				writeSemaphoreInfo(semaphoreInfo(waitInfos, i), wait.semaphore(), wait.value(), stages);
+			}
+
+			VkSubmitInfo2.pWaitSemaphoreInfos$set(destination, waitInfos);
+		}
+
+		VkSubmitInfo2.commandBufferInfoCount$set(destination, commandBuffers.size());
+		if (!commandBuffers.isEmpty()) {
+			var commandBufferInfos = VkCommandBufferSubmitInfo.allocateArray(commandBuffers.size(), allocator);
+			for (int i = 0; i < commandBuffers.size(); i++) {
+				var commandBufferInfo = commandBufferInfos.asSlice(i * VkCommandBufferSubmitInfo.$LAYOUT().byteSize(), VkCommandBufferSubmitInfo.$LAYOUT());
+				VkCommandBufferSubmitInfo.sType$set(commandBufferInfo, vulkan_h.VK_STRUCTURE_TYPE_COMMAND_BUFFER_SUBMIT_INFO());
+				VkCommandBufferSubmitInfo.pNext$set(commandBufferInfo, MemorySegment.NULL);
+				VkCommandBufferSubmitInfo.commandBuffer$set(commandBufferInfo, commandBuffers.get(i).handle());
+				VkCommandBufferSubmitInfo.deviceMask$set(commandBufferInfo, 0);
+			}
+
+			VkSubmitInfo2.pCommandBufferInfos$set(destination, commandBufferInfos);
+		}
+
+		VkSubmitInfo2.signalSemaphoreInfoCount$set(destination, signals.size());
+		if (!signals.isEmpty()) {
+			var signalInfos = VkSemaphoreSubmitInfo.allocateArray(signals.size(), allocator);
+			for (int i = 0; i < signals.size(); i++) {
+				var signal = signals.get(i);
+				writeSemaphoreInfo(semaphoreInfo(signalInfos, i), signal.semaphore(), signal.value(), PipelineStage2Flag.ALL_COMMANDS.bit());
+			}
+
+			VkSubmitInfo2.pSignalSemaphoreInfos$set(destination, signalInfos);
+		}
+	}
+
+	private static MemorySegment semaphoreInfo(MemorySegment semaphoreInfos, int index) {
+		return semaphoreInfos.asSlice(index * VkSemaphoreSubmitInfo.$LAYOUT().byteSize(), VkSemaphoreSubmitInfo.$LAYOUT());
+	}
+
+	private static void writeSemaphoreInfo(MemorySegment semaphoreInfo, TimelineSemaphore semaphore, long value, long stages) {
+		VkSemaphoreSubmitInfo.sType$set(semaphoreInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_SUBMIT_INFO());
+		VkSemaphoreSubmitInfo.pNext$set(semaphoreInfo, MemorySegment.NULL);
+		VkSemaphoreSubmitInfo.semaphore$set(semaphoreInfo, semaphore.handle());
+		VkSemaphoreSubmitInfo.value$set(semaphoreInfo, value);
+		VkSemaphoreSubmitInfo.stageMask$set(semaphoreInfo, stages);
+		VkSemaphoreSubmitInfo.deviceIndex$set(semaphoreInfo, 0);
+	}
+}
@@ -0,0 +1,36 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+/**
+ * The lifetime of a host memory allocation requested by the driver
+ */
+public enum SystemAllocationScope {
+	COMMAND(vulkan_h.VK_SYSTEM_ALLOCATION_SCOPE_COMMAND()),
+	OBJECT(vulkan_h.VK_SYSTEM_ALLOCATION_SCOPE_OBJECT()),
+	CACHE(vulkan_h.VK_SYSTEM_ALLOCATION_SCOPE_CACHE()),
+	DEVICE(vulkan_h.VK_SYSTEM_ALLOCATION_SCOPE_DEVICE()),
+	INSTANCE(vulkan_h.VK_SYSTEM_ALLOCATION_SCOPE_INSTANCE());
+
+	private static final SystemAllocationScope[] values = values();
+
+	private final int value;
+
+	SystemAllocationScope(int value) {
+		this.value = value;
+	}
+
+	public int value() {
+		return value;
+	}
+
+	public static SystemAllocationScope of(int value) {
+		for (var scope : values) {
+			if (scope.value == value) {
+				return scope;
+			}
+		}
+
+		throw new IllegalArgumentException("Unknown allocation scope %d".formatted(value));
+	}
+}
@@ -0,0 +1,235 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A dependency graph of CPU tasks and GPU submissions, ordered by one timeline semaphore per queue.
+ * <p>
+ * Nodes are added with their dependencies and start as soon as those are met, so a graph can be built while it runs.
+ * A CPU node runs on the executor once its dependencies have completed. A GPU node is submitted once its CPU
+ * dependencies have completed and its GPU dependencies have been submitted; it waits for the values its GPU
+ * dependencies signal on the device rather than on the host, and signals the next value of its queue's semaphore.
+ * Nodes that depend on a GPU node from the CPU run when its value is reached.
+ * <p>
+ * Every submission to a queue made through the graph signals a larger value of the queue's semaphore, so no fences or
+ * binary semaphores are created as the graph runs. The graph must be the only thing that submits to its queues. The
+ * device must have been created with {@link DeviceCreateInfo#withTimelineSemaphores()} and from an instance created
+ * with {@link VulkanInstance.ThreadingMode#CONCURRENT}.
+ * <p>
+ * GPU nodes are waited for by an {@link AsyncWaitService}, so no thread is blocked while the device works.
+ */
+public final class TaskGraph implements AutoCloseable {
+	/**
+	 * A node in the graph
+	 */
+	public sealed interface Node permits CpuNode, GpuNode {
+		/**
+		 * Completes once the work of the node has finished, or exceptionally if it or a dependency failed
+		 * @return a future
+		 */
+		CompletableFuture<Void> completion();
+	}
+
+	/**
+	 * A task run on the executor
+	 */
+	public static final class CpuNode implements Node {
+		private final CompletableFuture<Void> completion;
+
+		private CpuNode(CompletableFuture<Void> completion) {
+			this.completion = completion;
+		}
+
+		@Override
+		public CompletableFuture<Void> completion() {
+			return completion;
+		}
+	}
+
+	/**
+	 * A submission to a queue
+	 */
+	public static final class GpuNode implements Node {
+		private final CompletableFuture<SubmitInfo.SemaphoreSignal> submission;
+		private final CompletableFuture<Void> completion;
+
+		private GpuNode(CompletableFuture<SubmitInfo.SemaphoreSignal> submission, CompletableFuture<Void> completion) {
+			this.submission = submission;
+			this.completion = completion;
+		}
+
+		/**
+		 * Completes once the node has been submitted, with the value of its queue's semaphore it signals on completion
+		 * @return a future
+		 */
+		public CompletableFuture<SubmitInfo.SemaphoreSignal> submission() {
+			return submission;
+		}
+
+		@Override
+		public CompletableFuture<Void> completion() {
+			return completion;
+		}
+	}
+
+	/**
+	 * The semaphore of one queue and the last value submitted to it
+	 */
+	private static final class QueueTimeline {
+		private final DeviceQueue queue;
+		private final TimelineSemaphore semaphore;
+		private long lastValue;
+
+		QueueTimeline(DeviceQueue queue) {
+			this.queue = queue;
+			this.semaphore = TimelineSemaphore.create(queue.device());
+		}
+
+		/**
+		 * Submits work that signals the next value. Values are taken and submitted under one lock, so each queue's
+		 * submissions signal increasing values in the order they are made.
+		 */
+		synchronized SubmitInfo.SemaphoreSignal submit(SubmitInfo submit) {
+			var signal = new SubmitInfo.SemaphoreSignal(semaphore, lastValue + 1);
+			queue.submit(submit.withSignal(signal));
+			lastValue = signal.value();
+			return signal;
+		}
+	}
+
+	private final LogicalDevice device;
+	private final Executor executor;
+	private final AsyncWaitService waits;
+
+	private final Map<Long, QueueTimeline> timelines = new ConcurrentHashMap<>();
+	private final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates a graph
+	 * @param device the device whose queues the GPU nodes are submitted to
+	 * @param executor the executor CPU nodes run on
+	 * @param waits the service that waits for GPU nodes to complete, which must outlive the graph
+	 */
+	public TaskGraph(LogicalDevice device, Executor executor, AsyncWaitService waits) {
+		assert waits.device() == device;
+
+		this.device = device;
+		this.executor = executor;
+		this.waits = waits;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	/**
+	 * Adds a task that runs on the executor
+	 * @param task the task
+	 * @param dependencies the nodes that must complete first
+	 * @return the node
+	 */
+	public CpuNode cpu(Runnable task, Node... dependencies) {
+		var completion = allCompleted(Arrays.asList(dependencies)).thenRunAsync(task, executor);
+		track(completion);
+		return new CpuNode(completion);
+	}
+
+	/**
+	 * Adds a submission of command buffers that are already recorded
+	 * @see #gpu(DeviceQueue, Supplier, Node...)
+	 */
+	public GpuNode gpu(DeviceQueue queue, List<CommandBuffer> commandBuffers, Node... dependencies) {
+		return gpu(queue, () -> SubmitInfo.of(commandBuffers), dependencies);
+	}
+
+	/**
+	 * Adds a submission to a queue
+	 * @param queue the queue to submit to, which must belong to the graph's device
+	 * @param submit creates the submission once the CPU dependencies have completed, so it may use command buffers
+	 *               they recorded. It may add waits and signals of its own.
+	 * @param dependencies the nodes that must complete, or for GPU nodes be submitted and then complete on the device,
+	 *                     first
+	 * @return the node
+	 */
+	public GpuNode gpu(DeviceQueue queue, Supplier<SubmitInfo> submit, Node... dependencies) {
+		assert queue.device() == device;
+
+		var timeline = timelines.computeIfAbsent(queue.handle().address(), address -> new QueueTimeline(queue));
+
+		var cpuDependencies = new ArrayList<CompletableFuture<?>>();
+		var gpuDependencies = new ArrayList<CompletableFuture<SubmitInfo.SemaphoreSignal>>();
+		for (var dependency : dependencies) {
+			if (dependency instanceof GpuNode gpuNode) {
+				gpuDependencies.add(gpuNode.submission());
+			} else {
+				cpuDependencies.add(dependency.completion());
+			}
+		}
+
+		cpuDependencies.addAll(gpuDependencies);
+		var submission = CompletableFuture.allOf(cpuDependencies.toArray(CompletableFuture[]::new))
+				.thenApplyAsync(ignored -> {
+					var submitInfo = submit.get();
+					for (var dependency : gpuDependencies) {
+						var signal = dependency.join();
+						submitInfo = submitInfo.withWait(signal.semaphore(), signal.value());
+					}
+
+					return timeline.submit(submitInfo);
+				}, executor);
+
+		var completion = submission.thenCompose(signal -> waits.whenReached(signal.semaphore(), signal.value()));
+		track(completion);
+		return new GpuNode(submission, completion);
+	}
+
+	/**
+	 * Keeps a node until it completes, so that closing can wait for it
+	 */
+	private void track(CompletableFuture<Void> completion) {
+		pending.add(completion);
+		completion.whenComplete((result, exception) -> pending.remove(completion));
+	}
+
+	/**
+	 * Completes once every node added so far has completed
+	 * @return a future
+	 */
+	public CompletableFuture<Void> whenIdle() {
+		return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
+	}
+
+	private static CompletableFuture<Void> allCompleted(List<Node> nodes) {
+		return CompletableFuture.allOf(nodes.stream()
+				.map(Node::completion)
+				.toArray(CompletableFuture[]::new));
+	}
+
+	/**
+	 * Waits for every node to complete, then destroys the semaphores. No nodes may be added while closing.
+	 */
+	@Override
+	public void close() {
+		for (var completion : List.copyOf(pending)) {
+			try {
+				completion.join();
+			} catch (RuntimeException ignored) {
+				// A failed node has nothing left to wait for
+			}
+		}
+
+		for (var timeline : timelines.values()) {
+			timeline.semaphore.close();
+		}
+
+		timelines.clear();
+	}
+}
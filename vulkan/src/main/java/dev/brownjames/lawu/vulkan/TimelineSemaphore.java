@@ -0,0 +1,127 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.*;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+
+/**
+ * A timeline semaphore, whose payload is a 64-bit counter that only increases.
+ * <p>
+ * Queue submissions wait for the counter to reach a value and signal it to a higher one, and the host can read, wait
+ * for and signal the counter directly. One semaphore can therefore order any number of submissions, where binary
+ * semaphores and fences would need an object for each. The device must have been created with
+ * {@link DeviceCreateInfo#withTimelineSemaphores()}.
+ */
+public final class TimelineSemaphore implements AutoCloseable, VulkanHandle {
+	private final MemorySegment handle;
+	private final LogicalDevice device;
+
+	public static TimelineSemaphore create(LogicalDevice device) {
+		return create(device, 0L);
+	}
+
+	/**
+	 * Creates a timeline semaphore
+	 * @param device the device to create the semaphore on
+	 * @param initialValue the initial value of the counter
+	 * @return a timeline semaphore
+	 */
+	public static TimelineSemaphore create(LogicalDevice device, long initialValue) {
+		try (var arena = ScratchAllocator.push()) {
+			var typeCreateInfo = VkSemaphoreTypeCreateInfo.allocate(arena);
+			VkSemaphoreTypeCreateInfo.sType$set(typeCreateInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_TYPE_CREATE_INFO());
+			VkSemaphoreTypeCreateInfo.pNext$set(typeCreateInfo, MemorySegment.NULL);
+			VkSemaphoreTypeCreateInfo.semaphoreType$set(typeCreateInfo, vulkan_h.VK_SEMAPHORE_TYPE_TIMELINE());
+			VkSemaphoreTypeCreateInfo.initialValue$set(typeCreateInfo, initialValue);
+
+			var createInfo = VkSemaphoreCreateInfo.allocate(arena);
+			VkSemaphoreCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_CREATE_INFO());
+			VkSemaphoreCreateInfo.pNext$set(createInfo, typeCreateInfo);
+			VkSemaphoreCreateInfo.flags$set(createInfo, 0);
+
+			return new TimelineSemaphore(device.createSemaphore(createInfo), device);
+		}
+	}
+
+	public TimelineSemaphore(MemorySegment handle, LogicalDevice device) {
+		this.handle = handle;
+		this.device = device;
+	}
+
+	@Override
+	public MemorySegment handle() {
+		return handle;
+	}
+
+	public LogicalDevice device() {
+		return device;
+	}
+
+	/**
+	 * Reads the current value of the counter
+	 * @return the value
+	 */
+	public long value() {
+		return device.getSemaphoreCounterValue(handle);
+	}
+
+	/**
+	 * Sets the counter from the host
+	 * @param value the new value, which must be greater than the current value and any value a pending operation
+	 *              waits for or signals
+	 */
+	public void signal(long value) {
+		try (var arena = ScratchAllocator.push()) {
+			var signalInfo = VkSemaphoreSignalInfo.allocate(arena);
+			VkSemaphoreSignalInfo.sType$set(signalInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_SIGNAL_INFO());
+			VkSemaphoreSignalInfo.pNext$set(signalInfo, MemorySegment.NULL);
+			VkSemaphoreSignalInfo.semaphore$set(signalInfo, handle);
+			VkSemaphoreSignalInfo.value$set(signalInfo, value);
+
+			device.signalSemaphore(signalInfo);
+		}
+	}
+
+	/**
+	 * Waits until the counter reaches a value
+	 * @param value the value
+	 */
+	public void await(long value) {
+		await(value, -1L);
+	}
+
+	/**
+	 * Waits until the counter reaches a value, or a timeout expires
+	 * @param value the value
+	 * @param timeout the longest time to wait
+	 * @return whether the value was reached
+	 */
+	public boolean await(long value, Duration timeout) {
+		return await(value, timeout.toNanos());
+	}
+
+	private boolean await(long value, long timeoutNanos) {
+		try (var arena = ScratchAllocator.push()) {
+			var semaphores = arena.allocate(vulkan_h.VkSemaphore);
+			semaphores.set(vulkan_h.VkSemaphore, 0L, handle);
+			var values = arena.allocate(vulkan_h.uint64_t);
+			values.set(vulkan_h.uint64_t, 0L, value);
+
+			var waitInfo = VkSemaphoreWaitInfo.allocate(arena);
+			VkSemaphoreWaitInfo.sType$set(waitInfo, vulkan_h.VK_STRUCTURE_TYPE_SEMAPHORE_WAIT_INFO());
+			VkSemaphoreWaitInfo.pNext$set(waitInfo, MemorySegment.NULL);
+			VkSemaphoreWaitInfo.flags$set(waitInfo, 0);
+			VkSemaphoreWaitInfo.semaphoreCount$set(waitInfo, 1);
+			VkSemaphoreWaitInfo.pSemaphores$set(waitInfo, semaphores);
+			VkSemaphoreWaitInfo.pValues$set(waitInfo, values);
+
+			return device.waitSemaphores(waitInfo, timeoutNanos) == vulkan_h.VK_SUCCESS();
+		}
+	}
+
+	@Override
+	public void close() {
+		device.destroySemaphore(handle);
+	}
+}
@@ -76,10 +76,20 @@ public final class Vulkan {
 	}
 
 	public static MemorySegment createInstance(MemorySegment instanceCreateInfo) {
+		return createInstance(instanceCreateInfo, MemorySegment.NULL);
+	}
+
+	/**
+	 * Creates an instance
+	 * @param instanceCreateInfo the create-info structure
+	 * @param allocator a {@code VkAllocationCallbacks} structure, or {@link MemorySegment#NULL} to use the driver's
+	 * @return the instance handle
+	 */
+	public static MemorySegment createInstance(MemorySegment instanceCreateInfo, MemorySegment allocator) {
 		try (var arena = Arena.ofConfined()) {
 			var instance = arena.allocate(vulkan_h.VkInstance);
 
-			int result = createInstance.apply(instanceCreateInfo, MemorySegment.NULL, instance);
+			int result = createInstance.apply(instanceCreateInfo, allocator, instance);
 			Vulkan.checkResult(result);
 
 			return instance.get(vulkan_h.VkInstance, 0L);
@@ -0,0 +1,177 @@
+package dev.brownjames.lawu.vulkan;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The instance layers and extensions available from the loader, indexed by name.
+ * <p>
+ * Layers and the extensions available without a layer are enumerated when the catalogue is created, and the
+ * extensions of a layer the first time they are needed, so checking whether a name is available is a hash lookup
+ * rather than a call into the loader and a linear scan. The layers installed may change while the process runs; the
+ * catalogue does not see those changes until {@link #refresh()} is called.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class VulkanCatalogue {
+	/**
+	 * The enumerated names, which are replaced as a whole on refresh
+	 */
+	private record Contents(
+			Map<String, LayerProperties> layers,
+			Map<String, ExtensionProperties> extensions,
+			Map<String, Map<String, ExtensionProperties>> layerExtensions
+	) {
+		static Contents enumerate() {
+			return new Contents(
+					index(LayerProperties.all(), LayerProperties::name),
+					index(ExtensionProperties.vulkanOrImplicit(), ExtensionProperties::name),
+					new ConcurrentHashMap<>());
+		}
+
+		private static <T> Map<String, T> index(List<T> values, Function<T, String> name) {
+			// Keeps the loader's order, so error messages list names as the loader reported them
+			return Collections.unmodifiableMap(values.stream()
+					.collect(Collectors.toMap(name, value -> value, (first, second) -> first, LinkedHashMap::new)));
+		}
+
+		Map<String, ExtensionProperties> extensionsOf(String layerName) {
+			if (!layers.containsKey(layerName)) {
+				return Map.of();
+			}
+
+			return layerExtensions.computeIfAbsent(layerName, name -> index(ExtensionProperties.forLayer(name), ExtensionProperties::name));
+		}
+	}
+
+	private static final class GlobalHolder {
+		static final VulkanCatalogue GLOBAL = new VulkanCatalogue();
+	}
+
+	private volatile Contents contents;
+
+	/**
+	 * Creates a catalogue, enumerating the layers and extensions now
+	 */
+	public VulkanCatalogue() {
+		contents = Contents.enumerate();
+	}
+
+	/**
+	 * The catalogue shared by the whole process, which instance creation validates against
+	 * @return the global catalogue
+	 */
+	public static VulkanCatalogue global() {
+		return GlobalHolder.GLOBAL;
+	}
+
+	/**
+	 * Enumerates the layers and extensions again, forgetting the extensions of every layer
+	 */
+	public void refresh() {
+		contents = Contents.enumerate();
+	}
+
+	public Collection<LayerProperties> layers() {
+		return contents.layers().values();
+	}
+
+	public Optional<LayerProperties> layer(String name) {
+		return Optional.ofNullable(contents.layers().get(name));
+	}
+
+	public boolean hasLayer(String name) {
+		return contents.layers().containsKey(name);
+	}
+
+	/**
+	 * The extensions provided by the implementation or by implicit layers
+	 * @return the extensions
+	 */
+	public Collection<ExtensionProperties> extensions() {
+		return contents.extensions().values();
+	}
+
+	/**
+	 * The extensions provided by a layer
+	 * @param layerName the name of the layer
+	 * @return the extensions, which are empty if the layer is not available
+	 */
+	public Collection<ExtensionProperties> extensions(String layerName) {
+		return contents.extensionsOf(layerName).values();
+	}
+
+	/**
+	 * Finds an extension provided by the implementation, an implicit layer or one of some layers
+	 * @param name the name of the extension
+	 * @param layerNames the layers that will be enabled
+	 * @return the extension, if it is available
+	 */
+	public Optional<ExtensionProperties> extension(String name, Collection<String> layerNames) {
+		var current = contents;
+
+		var extension = current.extensions().get(name);
+		if (extension != null) {
+			return Optional.of(extension);
+		}
+
+		for (var layerName : layerNames) {
+			extension = current.extensionsOf(layerName).get(name);
+			if (extension != null) {
+				return Optional.of(extension);
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	public boolean hasExtension(String name) {
+		return contents.extensions().containsKey(name);
+	}
+
+	public boolean hasExtension(String name, Collection<String> layerNames) {
+		return extension(name, layerNames).isPresent();
+	}
+
+	/**
+	 * Checks that layers are available
+	 * @param layerNames the names of the layers
+	 * @throws UnsupportedLayerException if any layer is not available
+	 */
+	public void requireLayers(Collection<String> layerNames) throws UnsupportedLayerException {
+		var current = contents;
+
+		var unmatchedLayers = layerNames.stream()
+				.filter(name -> !current.layers().containsKey(name))
+				.toList();
+
+		if (!unmatchedLayers.isEmpty()) {
+			throw new UnsupportedLayerException(unmatchedLayers, List.copyOf(current.layers().values()));
+		}
+	}
+
+	/**
+	 * Checks that extensions are available
+	 * @param extensionNames the names of the extensions
+	 * @param layerNames the layers that will be enabled, whose extensions are also available
+	 * @throws UnsupportedExtensionException if any extension is not available
+	 */
+	public void requireExtensions(Collection<String> extensionNames, Collection<String> layerNames) throws UnsupportedExtensionException {
+		var unmatchedExtensions = extensionNames.stream()
+				.filter(name -> !hasExtension(name, layerNames))
+				.toList();
+
+		if (!unmatchedExtensions.isEmpty()) {
+			var current = contents;
+
+			var allExtensions = layerNames.stream()
+					.flatMap(name -> current.extensionsOf(name).values().stream())
+					.collect(Collectors.toCollection(ArrayList::new));
+			allExtensions.addAll(current.extensions().values());
+
+			throw new UnsupportedExtensionException(unmatchedExtensions, allExtensions);
+		}
+	}
+}
@@ -5,20 +5,67 @@ import java.util.*;
 
 import dev.brownjames.lawu.vulkan.bindings.*;
 
+/**
+ * A Vulkan instance and the instance-level functions bound to it.
+ * <p>
+ * The thread-safety of an instance is set by its {@link ThreadingMode}. In {@link ThreadingMode#CONFINED} mode, the
+ * function pointers and any memory owned by the instance are bound to a confined arena, and the instance, along with
+ * every {@link PhysicalDevice} and extension derived from it, may only be used from the thread that created it.
+ * <p>
+ * In {@link ThreadingMode#CONCURRENT} mode the instance owns a shared arena and every method on this class, and on the
+ * {@link PhysicalDevice} objects it returns, may be called from any thread. The Vulkan external synchronisation rules
+ * still apply: {@link #close()} must not be called while any other thread is using the instance, or any object
+ * derived from it, and objects created from the instance such as debug messengers must each be destroyed by a single
+ * thread.
+ */
 public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	private static final System.Logger LOGGER = System.getLogger(String.valueOf(VulkanInstance.class.getModule().getName()));
 
+	/**
+	 * The set of threads that may use an instance
+	 */
+	public enum ThreadingMode {
+		/**
+		 * Only the thread that created the instance may use it
+		 */
+		CONFINED,
+
+		/**
+		 * Any thread may use the instance, subject to the Vulkan external synchronisation rules
+		 */
+		CONCURRENT;
+
+		/**
+		 * Creates an arena that can be accessed by the threads this mode allows
+		 * @return a new arena
+		 */
+		public Arena createArena() {
+			return switch (this) {
+				case CONFINED -> Arena.ofConfined();
+				case CONCURRENT -> Arena.ofShared();
+			};
+		}
+	}
+
 	private final MemorySegment handle;
 	private final MemorySegment allocator;
+	private final ThreadingMode threadingMode;
 	private final Arena arena;
 
 	private final InstanceFunctionLookup instanceFunctionLookup;
-
-	private final PFN_vkDestroyInstance destroyInstance;
-	private final PFN_vkEnumeratePhysicalDevices enumeratePhysicalDevices;
-	private final PFN_vkGetPhysicalDeviceProperties getPhysicalDeviceProperties;
-	private final PFN_vkGetPhysicalDeviceFeatures getPhysicalDeviceFeatures;
-	private final PFN_vkGetPhysicalDeviceImageFormatProperties getPhysicalDeviceImageFormatProperties;
+	private final DispatchTable dispatchTable;
+
+	private final DispatchTable.Entry<PFN_vkDestroyInstance> destroyInstance;
+	private final DispatchTable.Entry<PFN_vkEnumeratePhysicalDevices> enumeratePhysicalDevices;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceProperties> getPhysicalDeviceProperties;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceFeatures> getPhysicalDeviceFeatures;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceFormatProperties> getPhysicalDeviceFormatProperties;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceImageFormatProperties> getPhysicalDeviceImageFormatProperties;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceQueueFamilyProperties> getPhysicalDeviceQueueFamilyProperties;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceMemoryProperties> getPhysicalDeviceMemoryProperties;
+	private final DispatchTable.Entry<PFN_vkEnumerateDeviceExtensionProperties> enumerateDeviceExtensionProperties;
+	private final DispatchTable.Entry<PFN_vkCreateDevice> createDevice;
+	private final DispatchTable.Entry<PFN_vkGetDeviceProcAddr> getDeviceProcAddr;
 
 	private interface VersionedFunctionality {
 		default void getPhysicalDeviceProperties2(MemorySegment device, MemorySegment properties) {
@@ -43,31 +90,25 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	 * An implementation of functionality specific to version one
 	 */
 	private sealed class VersionOne extends VersionZero permits VersionTwo {
-		private final PFN_vkGetPhysicalDeviceProperties2 getPhysicalDeviceProperties2 = instanceFunctionLookup.lookup("vkGetPhysicalDeviceProperties2")
-				.map(address -> PFN_vkGetPhysicalDeviceProperties2.ofAddress(address, arena))
-				.orElseThrow();
+		private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceProperties2> getPhysicalDeviceProperties2 = dispatchTable.entry("vkGetPhysicalDeviceProperties2", PFN_vkGetPhysicalDeviceProperties2::ofAddress);
 
-		private final PFN_vkGetPhysicalDeviceFeatures2 getPhysicalDeviceFeatures2 = instanceFunctionLookup.lookup("vkGetPhysicalDeviceFeatures2")
-				.map(address -> PFN_vkGetPhysicalDeviceFeatures2.ofAddress(address, arena))
-				.orElseThrow();
+		private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceFeatures2> getPhysicalDeviceFeatures2 = dispatchTable.entry("vkGetPhysicalDeviceFeatures2", PFN_vkGetPhysicalDeviceFeatures2::ofAddress);
 
-		private final PFN_vkGetPhysicalDeviceImageFormatProperties2 getPhysicalDeviceImageFormatProperties2 = instanceFunctionLookup.lookup("vkGetPhysicalDeviceImageFormatProperties2")
-				.map(address -> PFN_vkGetPhysicalDeviceImageFormatProperties2.ofAddress(address, arena))
-				.orElseThrow();
+		private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceImageFormatProperties2> getPhysicalDeviceImageFormatProperties2 = dispatchTable.entry("vkGetPhysicalDeviceImageFormatProperties2", PFN_vkGetPhysicalDeviceImageFormatProperties2::ofAddress);
 
 		@Override
 		public void getPhysicalDeviceProperties2(MemorySegment device, MemorySegment properties) {
-			getPhysicalDeviceProperties2.apply(device, properties);
+			getPhysicalDeviceProperties2.get().apply(device, properties);
 		}
 
 		@Override
 		public void getPhysicalDeviceFeatures2(MemorySegment device, MemorySegment features) {
-			getPhysicalDeviceFeatures2.apply(device, features);
+			getPhysicalDeviceFeatures2.get().apply(device, features);
 		}
 
 		@Override
 		public int getPhysicalDeviceImageFormatProperties2(MemorySegment device, MemorySegment info, MemorySegment properties) {
-			return getPhysicalDeviceImageFormatProperties2.apply(device, info, properties);
+			return getPhysicalDeviceImageFormatProperties2.get().apply(device, info, properties);
 		}
 	}
 
@@ -92,41 +133,78 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	}
 
 	public static VulkanInstance create(MemorySegment instanceCreateInfo, VulkanVersionNumber version) {
-		return new VulkanInstance(Vulkan.createInstance(instanceCreateInfo), version);
+		return create(instanceCreateInfo, version, ThreadingMode.CONFINED);
 	}
 
-	public VulkanInstance(MemorySegment handle, VulkanVersionNumber version) {
-		this.handle = handle;
-		this.allocator = MemorySegment.NULL;
-		this.arena = Arena.ofConfined();
+	public static VulkanInstance create(MemorySegment instanceCreateInfo, VulkanVersionNumber version, ThreadingMode threadingMode) {
+		return new VulkanInstance(Vulkan.createInstance(instanceCreateInfo), version, threadingMode);
+	}
 
-		instanceFunctionLookup = Vulkan.globalFunctionLookup()
-				.instanceFunctionLookup(this);
+	/**
+	 * Creates an instance whose host memory is allocated through callbacks
+	 * @param instanceCreateInfo the create-info structure
+	 * @param version the version of Vulkan the instance uses
+	 * @param threadingMode the threads that may use the instance
+	 * @param allocationCallbacks the callbacks to allocate host memory with, which are used for the instance and every
+	 *                            object created from it
+	 * @return the instance
+	 */
+	public static VulkanInstance create(MemorySegment instanceCreateInfo, VulkanVersionNumber version, ThreadingMode threadingMode, AllocationCallbacks allocationCallbacks) {
+		var arena = threadingMode.createArena();
+		try {
+			return create(instanceCreateInfo, version, threadingMode, arena, allocationCallbacks.createNativeStructure(arena));
+		} catch (RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
 
-		destroyInstance = instanceFunctionLookup
-				.lookup("vkDestroyInstance")
-				.map(address -> PFN_vkDestroyInstance.ofAddress(address, arena))
-				.orElseThrow();
+	/**
+	 * Creates an instance which owns an arena. Anything the instance needs for its whole lifetime, such as the debug
+	 * messenger callbacks in the create-info chain, can be allocated in the arena; it is closed after the instance is
+	 * destroyed.
+	 * @param instanceCreateInfo the create-info structure
+	 * @param version the version of Vulkan the instance uses
+	 * @param threadingMode the threads that may use the instance
+	 * @param arena an arena created by {@link ThreadingMode#createArena()}, which the instance takes ownership of
+	 * @param allocator a {@code VkAllocationCallbacks} structure, or {@link MemorySegment#NULL}
+	 * @return the instance
+	 */
+	public static VulkanInstance create(MemorySegment instanceCreateInfo, VulkanVersionNumber version, ThreadingMode threadingMode, Arena arena, MemorySegment allocator) {
+		return new VulkanInstance(Vulkan.createInstance(instanceCreateInfo, allocator), version, threadingMode, arena, allocator);
+	}
 
-		enumeratePhysicalDevices = instanceFunctionLookup
-				.lookup("vkEnumeratePhysicalDevices")
-				.map(address -> PFN_vkEnumeratePhysicalDevices.ofAddress(address, arena))
-				.orElseThrow();
+	public VulkanInstance(MemorySegment handle, VulkanVersionNumber version) {
+		this(handle, version, ThreadingMode.CONFINED);
+	}
 
-		getPhysicalDeviceProperties = instanceFunctionLookup
-				.lookup("vkGetPhysicalDeviceProperties")
-				.map(address -> PFN_vkGetPhysicalDeviceProperties.ofAddress(address, arena))
-				.orElseThrow();
+	public VulkanInstance(MemorySegment handle, VulkanVersionNumber version, ThreadingMode threadingMode) {
+		this(handle, version, threadingMode, threadingMode.createArena(), MemorySegment.NULL);
+	}
 
-		getPhysicalDeviceFeatures = instanceFunctionLookup
-				.lookup("vkGetPhysicalDeviceFeatures")
-				.map(address -> PFN_vkGetPhysicalDeviceFeatures.ofAddress(address, arena))
-				.orElseThrow();
+	private VulkanInstance(MemorySegment handle, VulkanVersionNumber version, ThreadingMode threadingMode, Arena arena, MemorySegment allocator) {
+		assert threadingMode != null;
 
-		getPhysicalDeviceImageFormatProperties = instanceFunctionLookup
-				.lookup("vkGetPhysicalDeviceImageFormatProperties")
-				.map(address -> PFN_vkGetPhysicalDeviceImageFormatProperties.ofAddress(address, arena))
-				.orElseThrow();
+		this.handle = handle;
+		this.allocator = allocator;
+		this.threadingMode = threadingMode;
+		this.arena = arena;
+
+		instanceFunctionLookup = Vulkan.globalFunctionLookup()
+				.instanceFunctionLookup(this);
+		dispatchTable = new DispatchTable(instanceFunctionLookup, arena);
+
+		destroyInstance = dispatchTable.entry("vkDestroyInstance", PFN_vkDestroyInstance::ofAddress);
+		enumeratePhysicalDevices = dispatchTable.entry("vkEnumeratePhysicalDevices", PFN_vkEnumeratePhysicalDevices::ofAddress);
+		getPhysicalDeviceProperties = dispatchTable.entry("vkGetPhysicalDeviceProperties", PFN_vkGetPhysicalDeviceProperties::ofAddress);
+		getPhysicalDeviceFeatures = dispatchTable.entry("vkGetPhysicalDeviceFeatures", PFN_vkGetPhysicalDeviceFeatures::ofAddress);
+		getPhysicalDeviceFormatProperties = dispatchTable.entry("vkGetPhysicalDeviceFormatProperties", PFN_vkGetPhysicalDeviceFormatProperties::ofAddress);
+		getPhysicalDeviceImageFormatProperties = dispatchTable.entry("vkGetPhysicalDeviceImageFormatProperties", PFN_vkGetPhysicalDeviceImageFormatProperties::ofAddress);
+		getPhysicalDeviceQueueFamilyProperties = dispatchTable.entry("vkGetPhysicalDeviceQueueFamilyProperties", PFN_vkGetPhysicalDeviceQueueFamilyProperties::ofAddress);
+		getPhysicalDeviceMemoryProperties = dispatchTable.entry("vkGetPhysicalDeviceMemoryProperties", PFN_vkGetPhysicalDeviceMemoryProperties::ofAddress);
+		enumerateDeviceExtensionProperties = dispatchTable.entry("vkEnumerateDeviceExtensionProperties", PFN_vkEnumerateDeviceExtensionProperties::ofAddress);
+		createDevice = dispatchTable.entry("vkCreateDevice", PFN_vkCreateDevice::ofAddress);
+		getDeviceProcAddr = dispatchTable.entry("vkGetDeviceProcAddr", PFN_vkGetDeviceProcAddr::ofAddress);
 
 		assert version.major() == VulkanVersionNumber.headerVersion().major() && version.isStandardVariant();
 
@@ -143,6 +221,10 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 		return handle;
 	}
 
+	/**
+	 * Gets the host memory allocation callbacks the instance was created with
+	 * @return a {@code VkAllocationCallbacks} structure, or {@link MemorySegment#NULL} if the driver allocates
+	 */
 	public MemorySegment allocator() {
 		return allocator;
 	}
@@ -151,17 +233,29 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 		return arena;
 	}
 
+	public ThreadingMode threadingMode() {
+		return threadingMode;
+	}
+
 	public InstanceFunctionLookup instanceFunctionLookup() {
 		return instanceFunctionLookup;
 	}
 
+	/**
+	 * Gets the table of instance-level functions used by this instance. Functions are looked up on first use.
+	 * @return the dispatch table
+	 */
+	public DispatchTable dispatchTable() {
+		return dispatchTable;
+	}
+
 	public List<PhysicalDevice> allPhysicalDevices() {
 		try (var arena = Arena.ofConfined()) {
 			var deviceCount = arena.allocate(vulkan_h.uint32_t);
-			Vulkan.checkResult(enumeratePhysicalDevices.apply(handle, deviceCount, MemorySegment.NULL));
+			Vulkan.checkResult(enumeratePhysicalDevices.get().apply(handle, deviceCount, MemorySegment.NULL));
 
 			var devices = arena.allocateArray(vulkan_h.VkPhysicalDevice, deviceCount.get(vulkan_h.uint32_t, 0L));
-			int result = Vulkan.checkResult(enumeratePhysicalDevices.apply(handle, deviceCount, devices));
+			int result = Vulkan.checkResult(enumeratePhysicalDevices.get().apply(handle, deviceCount, devices));
 			assert result == vulkan_h.VK_SUCCESS();
 
 			return devices.elements(vulkan_h.VkPhysicalDevice)
@@ -171,7 +265,7 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	}
 
 	public void getPhysicalDeviceProperties(MemorySegment device, MemorySegment properties) {
-		getPhysicalDeviceProperties.apply(device, properties);
+		getPhysicalDeviceProperties.get().apply(device, properties);
 	}
 
 	public void getPhysicalDeviceProperties2(MemorySegment device, MemorySegment properties) {
@@ -179,13 +273,17 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	}
 
 	public void getPhysicalDeviceFeatures(MemorySegment device, MemorySegment features) {
-		getPhysicalDeviceFeatures.apply(device, features);
+		getPhysicalDeviceFeatures.get().apply(device, features);
 	}
 
 	public void getPhysicalDeviceFeatures2(MemorySegment device, MemorySegment features) {
 		versionedFunctionality.getPhysicalDeviceFeatures2(device, features);
 	}
 
+	public void getPhysicalDeviceFormatProperties(MemorySegment device, int format, MemorySegment properties) {
+		getPhysicalDeviceFormatProperties.get().apply(device, format, properties);
+	}
+
 	public void getPhysicalDeviceImageFormatProperties(MemorySegment device,
 	                                                    int format,
 	                                                    int imageType,
@@ -193,7 +291,7 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 	                                                    int imageUsageFlags,
 	                                                    int imageCreateFlags,
 	                                                    MemorySegment properties) {
-		Vulkan.checkResult(getPhysicalDeviceImageFormatProperties.apply(device,
+		Vulkan.checkResult(getPhysicalDeviceImageFormatProperties.get().apply(device,
 				format,
 				imageType,
 				imageTiling,
@@ -202,13 +300,70 @@ public final class VulkanInstance implements AutoCloseable, VulkanHandle {
 				properties));
 	}
 
+	/**
+	 * Queries the support for an image format, treating an unsupported combination as a result rather than an error
+	 * @return {@code VK_SUCCESS}, or {@code VK_ERROR_FORMAT_NOT_SUPPORTED} if the combination is not supported
+	 */
+	public int tryGetPhysicalDeviceImageFormatProperties(MemorySegment device,
+	                                                     int format,
+	                                                     int imageType,
+	                                                     int imageTiling,
+	                                                     int imageUsageFlags,
+	                                                     int imageCreateFlags,
+	                                                     MemorySegment properties) {
+		var result = getPhysicalDeviceImageFormatProperties.get().apply(device,
+				format,
+				imageType,
+				imageTiling,
+				imageUsageFlags,
+				imageCreateFlags,
+				properties);
+
+		return result == vulkan_h.VK_ERROR_FORMAT_NOT_SUPPORTED() ? result : Vulkan.checkResult(result);
+	}
+
 	public void getPhysicalDeviceImageFormatProperties2(MemorySegment device, MemorySegment info, MemorySegment properties) {
 		Vulkan.checkResult(versionedFunctionality.getPhysicalDeviceImageFormatProperties2(device, info, properties));
 	}
 
+	public void getPhysicalDeviceQueueFamilyProperties(MemorySegment device, MemorySegment propertyCount, MemorySegment properties) {
+		getPhysicalDeviceQueueFamilyProperties.get().apply(device, propertyCount, properties);
+	}
+
+	public void getPhysicalDeviceMemoryProperties(MemorySegment device, MemorySegment properties) {
+		getPhysicalDeviceMemoryProperties.get().apply(device, properties);
+	}
+
+	public int enumerateDeviceExtensionProperties(MemorySegment device, MemorySegment layerName, MemorySegment propertyCount, MemorySegment properties) {
+		return Vulkan.checkResult(enumerateDeviceExtensionProperties.get().apply(device, layerName, propertyCount, properties));
+	}
+
+	/**
+	 * Creates a device
+	 * @param physicalDevice the physical device to create the device from
+	 * @param deviceCreateInfo a {@code VkDeviceCreateInfo} structure
+	 * @return the device handle
+	 */
+	public MemorySegment createDevice(MemorySegment physicalDevice, MemorySegment deviceCreateInfo) {
+		try (var arena = Arena.ofConfined()) {
+			var device = arena.allocate(vulkan_h.VkDevice);
+			Vulkan.checkResult(createDevice.get().apply(physicalDevice, deviceCreateInfo, allocator, device));
+			return device.get(vulkan_h.VkDevice, 0L);
+		}
+	}
+
+	/**
+	 * Creates a lookup for the device-level functions of a device created from this instance
+	 * @param device the device handle
+	 * @return a device function lookup
+	 */
+	public DeviceFunctionLookup deviceFunctionLookup(MemorySegment device) {
+		return DeviceFunctionLookup.from(getDeviceProcAddr.get(), device);
+	}
+
 	@Override
 	public void close() {
-		destroyInstance.apply(handle, allocator);
+		destroyInstance.get().apply(handle, allocator);
 		arena.close();
 	}
 }
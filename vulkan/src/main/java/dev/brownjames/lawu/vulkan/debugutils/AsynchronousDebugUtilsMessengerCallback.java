@@ -0,0 +1,238 @@
+package dev.brownjames.lawu.vulkan.debugutils;
+
+import dev.brownjames.lawu.vulkan.BitFlag;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+
+/**
+ * A debug messenger callback which queues messages and delivers them in batches on a virtual thread.
+ * <p>
+ * The driver calls a messenger callback synchronously, on whichever thread logged the message, so slow handling there
+ * stalls the application. This callback only copies the message into a preallocated ring buffer and returns. When the
+ * ring is full the message is dropped and counted rather than blocking the driver. Nothing is allocated on the driver's
+ * thread; decoding the copied message happens on the consumer thread.
+ */
+public final class AsynchronousDebugUtilsMessengerCallback implements DebugUtilsMessengerCallback, AutoCloseable {
+	public static final int DEFAULT_CAPACITY = 1024;
+	public static final int DEFAULT_MAXIMUM_MESSAGE_LENGTH = 4096;
+
+	private static final int MAXIMUM_ID_NAME_LENGTH = 256;
+	private static final long IDLE_PARK_NANOS = 10_000_000;
+
+	private final Consumer<? super List<DebugUtilsMessage>> handler;
+	private final int mask;
+
+	private final AtomicLongArray sequences;
+	private final int[] severities;
+	private final int[] messageTypes;
+	private final int[] messageIdNumbers;
+	private final byte[][] messageIdNames;
+	private final int[] messageIdNameLengths;
+	private final byte[][] messages;
+	private final int[] messageLengths;
+
+	private final AtomicLong tail = new AtomicLong();
+	private long head;
+
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder delivered = new LongAdder();
+
+	private final Thread consumer;
+	private volatile boolean running = true;
+	private volatile boolean consumerParked;
+
+	public AsynchronousDebugUtilsMessengerCallback(Consumer<? super List<DebugUtilsMessage>> handler) {
+		this(handler, DEFAULT_CAPACITY, DEFAULT_MAXIMUM_MESSAGE_LENGTH);
+	}
+
+	/**
+	 * Creates a callback and starts its consumer thread
+	 * @param handler receives each batch of messages, in the order they were logged, on the consumer thread
+	 * @param capacity the number of messages the ring buffer holds, which must be a power of two
+	 * @param maximumMessageLength the length in bytes after which messages are truncated
+	 */
+	public AsynchronousDebugUtilsMessengerCallback(Consumer<? super List<DebugUtilsMessage>> handler, int capacity, int maximumMessageLength) {
+		assert Integer.bitCount(capacity) == 1;
+		assert maximumMessageLength > 0;
+
+		this.handler = handler;
+		this.mask = capacity - 1;
+
+		sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+
+		severities = new int[capacity];
+		messageTypes = new int[capacity];
+		messageIdNumbers = new int[capacity];
+		messageIdNames = new byte[capacity][MAXIMUM_ID_NAME_LENGTH];
+		messageIdNameLengths = new int[capacity];
+		messages = new byte[capacity][maximumMessageLength];
+		messageLengths = new int[capacity];
+
+		consumer = Thread.ofVirtual()
+				.name("debug-utils-messenger")
+				.start(this::consume);
+	}
+
+	@Override
+	public void callback(DebugUtilsMessageSeverity severity, int messageTypes, MemorySegment callbackData) {
+		// Claim a slot, as in a bounded multi-producer queue; a slot whose sequence lags the position is still full
+		var position = tail.get();
+		int index;
+		while (true) {
+			index = (int) (position & mask);
+			var difference = sequences.getAcquire(index) - position;
+
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				dropped.increment();
+				return;
+			} else {
+				position = tail.get();
+			}
+		}
+
+		severities[index] = severity.bit();
+		this.messageTypes[index] = messageTypes;
+		messageIdNumbers[index] = VkDebugUtilsMessengerCallbackDataEXT.messageIdNumber$get(callbackData);
+		messageIdNameLengths[index] = copyString(VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$get(callbackData), messageIdNames[index]);
+		messageLengths[index] = copyString(VkDebugUtilsMessengerCallbackDataEXT.pMessage$get(callbackData), messages[index]);
+
+		sequences.setRelease(index, position + 1);
+
+		if (consumerParked) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	/**
+	 * Gets the number of messages dropped because the ring buffer was full
+	 * @return the number of dropped messages
+	 */
+	public long dropped() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Gets the number of messages passed to the handler
+	 * @return the number of delivered messages
+	 */
+	public long delivered() {
+		return delivered.sum();
+	}
+
+	/**
+	 * Delivers any queued messages then stops the consumer thread. Messages logged after this are dropped silently, so
+	 * the messenger using this callback should be destroyed first.
+	 */
+	@Override
+	public void close() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(consumer);
+		consumer.join();
+	}
+
+	private void consume() {
+		var batch = new ArrayList<DebugUtilsMessage>(mask + 1);
+
+		while (true) {
+			var stopping = !running;
+
+			while (poll(batch)) {
+				if (batch.size() > mask) {
+					deliver(batch);
+				}
+			}
+			deliver(batch);
+
+			if (stopping) {
+				return;
+			}
+
+			consumerParked = true;
+			if (isEmpty() && running) {
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+			}
+			consumerParked = false;
+		}
+	}
+
+	private boolean isEmpty() {
+		return sequences.getAcquire((int) (head & mask)) != head + 1;
+	}
+
+	private boolean poll(List<DebugUtilsMessage> batch) {
+		var index = (int) (head & mask);
+		if (sequences.getAcquire(index) != head + 1) {
+			return false;
+		}
+
+		batch.add(new DebugUtilsMessage(
+				DebugUtilsMessageSeverity.of(severities[index]),
+				BitFlag.flags(messageTypes[index], DebugUtilsMessageType.class),
+				new String(messageIdNames[index], 0, messageIdNameLengths[index], StandardCharsets.UTF_8),
+				messageIdNumbers[index],
+				new String(messages[index], 0, messageLengths[index], StandardCharsets.UTF_8)));
+
+		sequences.setRelease(index, head + mask + 1);
+		head++;
+		return true;
+	}
+
+	private void deliver(List<DebugUtilsMessage> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			handler.accept(List.copyOf(batch));
+		} catch (RuntimeException e) {
+			// Keep consuming, so that one bad batch does not silently stop all later messages
+			var thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		} finally {
+			delivered.add(batch.size());
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Copies a NUL-terminated string, truncating it to the destination
+	 * @return the number of bytes copied
+	 */
+	private static int copyString(MemorySegment string, byte[] destination) {
+		if (string.address() == 0) {
+			return 0;
+		}
+
+		// The string's length is unknown, so scan one byte at a time rather than reading past its end
+		var unbounded = string.reinterpret(destination.length);
+		int length = 0;
+		while (length < destination.length) {
+			var value = unbounded.get(JAVA_BYTE, length);
+			if (value == 0) {
+				break;
+			}
+			destination[length++] = value;
+		}
+
+		return length;
+	}
+}
@@ -0,0 +1,117 @@
+package dev.brownjames.lawu.vulkan.debugutils;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+/**
+ * The registered Java callbacks of all debug messengers, called through one shared upcall stub.
+ * <p>
+ * Each registration is a slot number, which is passed to the driver as {@code pUserData} and used by the trampoline to
+ * find the callback again. Registrations are tied to an arena and released when it closes, so building create-info
+ * structures repeatedly does not grow native memory.
+ */
+public final class DebugUtilsCallbackRegistry {
+	private static final MemorySegment trampoline;
+
+	/**
+	 * The callback in each slot, which drivers read from their own threads without locking. The array is only written
+	 * under the class lock, and is grown by filling a copy before publishing it.
+	 */
+	private static volatile AtomicReferenceArray<DebugUtilsMessengerCallback> slots = new AtomicReferenceArray<>(16);
+	private static int[] freeSlots = new int[0];
+	private static int freeSlotCount;
+	private static int nextSlot = 1;
+	private static int size;
+
+	static {
+		try {
+			trampoline = Linker.nativeLinker().upcallStub(
+					MethodHandles.lookup().findStatic(DebugUtilsCallbackRegistry.class, "dispatch", MethodType.methodType(Integer.TYPE, Integer.TYPE, Integer.TYPE, MemorySegment.class, MemorySegment.class)),
+					FunctionDescriptor.of(vulkan_h.VkBool32,
+							JAVA_INT,
+							JAVA_INT,
+							AddressLayout.ADDRESS.withTargetLayout(VkDebugUtilsMessengerCallbackDataEXT.$LAYOUT()),
+							AddressLayout.ADDRESS),
+					Arena.global());
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private DebugUtilsCallbackRegistry() { }
+
+	/**
+	 * Gets the function pointer to use as {@code pfnUserCallback}
+	 * @return the shared upcall stub
+	 */
+	public static MemorySegment trampoline() {
+		return trampoline;
+	}
+
+	/**
+	 * Registers a callback until an arena is closed
+	 * @param callback the callback
+	 * @param arena the arena whose lifetime the registration shares
+	 * @return the value to use as {@code pUserData}
+	 */
+	public static MemorySegment register(DebugUtilsMessengerCallback callback, Arena arena) {
+		var slot = acquire(callback);
+		MemorySegment.NULL.reinterpret(arena, segment -> release(slot));
+		return MemorySegment.ofAddress(slot);
+	}
+
+	/**
+	 * Gets the number of callbacks currently registered
+	 * @return the number of registrations
+	 */
+	public static synchronized int size() {
+		return size;
+	}
+
+	private static synchronized int acquire(DebugUtilsMessengerCallback callback) {
+		int slot;
+		if (freeSlotCount > 0) {
+			slot = freeSlots[--freeSlotCount];
+		} else {
+			slot = nextSlot++;
+			if (slot >= slots.length()) {
+				var grown = new AtomicReferenceArray<DebugUtilsMessengerCallback>(slots.length() * 2);
+				for (int i = 0; i < slots.length(); i++) {
+					grown.setPlain(i, slots.getPlain(i));
+				}
+				slots = grown;
+			}
+		}
+
+		slots.setRelease(slot, callback);
+		size++;
+		return slot;
+	}
+
+	private static synchronized void release(int slot) {
+		slots.setRelease(slot, null);
+		size--;
+
+		if (freeSlotCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+		}
+		freeSlots[freeSlotCount++] = slot;
+	}
+
+	private static int dispatch(int severity, int types, MemorySegment callbackData, MemorySegment userData) {
+		var callback = slots.getAcquire((int) userData.address());
+		if (callback != null) {
+			callback.callback(DebugUtilsMessageSeverity.of(severity), types, callbackData);
+		}
+
+		return vulkan_h.VK_FALSE();
+	}
+}
@@ -1,11 +1,14 @@
 package dev.brownjames.lawu.vulkan.debugutils;
 
+import dev.brownjames.lawu.vulkan.BitFlag;
+import dev.brownjames.lawu.vulkan.DispatchTable;
 import dev.brownjames.lawu.vulkan.InstanceFunctionLookup;
 import dev.brownjames.lawu.vulkan.Vulkan;
 import dev.brownjames.lawu.vulkan.VulkanHandle;
 import dev.brownjames.lawu.vulkan.VulkanInstance;
 import dev.brownjames.lawu.vulkan.bindings.PFN_vkCreateDebugUtilsMessengerEXT;
 import dev.brownjames.lawu.vulkan.bindings.PFN_vkDestroyDebugUtilsMessengerEXT;
+import dev.brownjames.lawu.vulkan.bindings.PFN_vkSubmitDebugUtilsMessageEXT;
 import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
 
 import java.lang.foreign.Arena;
@@ -14,12 +17,14 @@ import java.util.Collection;
 
 public final class DebugUtilsExtension implements VulkanHandle {
 	private final MemorySegment handle, allocator;
+	private final VulkanInstance.ThreadingMode threadingMode;
 
-	private final PFN_vkCreateDebugUtilsMessengerEXT createDebugUtilsMessenger;
-	private final PFN_vkDestroyDebugUtilsMessengerEXT destroyDebugUtilsMessenger;
+	private final DispatchTable.Entry<PFN_vkCreateDebugUtilsMessengerEXT> createDebugUtilsMessenger;
+	private final DispatchTable.Entry<PFN_vkDestroyDebugUtilsMessengerEXT> destroyDebugUtilsMessenger;
+	private final DispatchTable.Entry<PFN_vkSubmitDebugUtilsMessageEXT> submitDebugUtilsMessage;
 
 	public static DebugUtilsExtension extend(VulkanInstance instance) {
-		return new DebugUtilsExtension(instance.handle(), instance.allocator(), instance.arena(), instance.instanceFunctionLookup());
+		return new DebugUtilsExtension(instance.handle(), instance.allocator(), instance.arena(), instance.instanceFunctionLookup(), instance.threadingMode());
 	}
 
 	public static String extensionName() {
@@ -27,16 +32,27 @@ public final class DebugUtilsExtension implements VulkanHandle {
 	}
 
 	public DebugUtilsExtension(MemorySegment handle, MemorySegment allocator, Arena arena, InstanceFunctionLookup lookup) {
+		this(handle, allocator, arena, lookup, VulkanInstance.ThreadingMode.CONFINED);
+	}
+
+	/**
+	 * Loads the extension's functions
+	 * @param handle the instance handle
+	 * @param allocator a {@code VkAllocationCallbacks} structure, or {@link MemorySegment#NULL}
+	 * @param arena the arena of the instance
+	 * @param lookup the instance function lookup
+	 * @param threadingMode the threading mode of the instance, which sets which threads may destroy its messengers
+	 */
+	public DebugUtilsExtension(MemorySegment handle, MemorySegment allocator, Arena arena, InstanceFunctionLookup lookup, VulkanInstance.ThreadingMode threadingMode) {
 		this.handle = handle;
 		this.allocator = allocator;
+		this.threadingMode = threadingMode;
 
-		createDebugUtilsMessenger = lookup.lookup("vkCreateDebugUtilsMessengerEXT")
-				.map(address -> PFN_vkCreateDebugUtilsMessengerEXT.ofAddress(address, arena))
-				.orElseThrow();
+		var dispatchTable = new DispatchTable(lookup, arena);
 
-		destroyDebugUtilsMessenger = lookup.lookup("vkDestroyDebugUtilsMessengerEXT")
-				.map(address -> PFN_vkDestroyDebugUtilsMessengerEXT.ofAddress(address, arena))
-				.orElseThrow();
+		createDebugUtilsMessenger = dispatchTable.entry("vkCreateDebugUtilsMessengerEXT", PFN_vkCreateDebugUtilsMessengerEXT::ofAddress);
+		destroyDebugUtilsMessenger = dispatchTable.entry("vkDestroyDebugUtilsMessengerEXT", PFN_vkDestroyDebugUtilsMessengerEXT::ofAddress);
+		submitDebugUtilsMessage = dispatchTable.entry("vkSubmitDebugUtilsMessageEXT", PFN_vkSubmitDebugUtilsMessageEXT::ofAddress);
 	}
 
 	@Override
@@ -49,20 +65,49 @@ public final class DebugUtilsExtension implements VulkanHandle {
 	}
 
 	public DebugUtilsMessenger createDebugUtilsMessenger(DebugUtilsMessengerCreateInfo createInfo) {
-		try (var arena = Arena.ofConfined()) {
-			return createDebugUtilsMessenger(createInfo.createNativeStructure(arena));
+		// The driver may call back from any thread, until the messenger is destroyed
+		var arena = Arena.ofShared();
+		try {
+			return createDebugUtilsMessenger(createInfo.createNativeStructure(arena), arena);
+		} catch (RuntimeException e) {
+			arena.close();
+			throw e;
 		}
 	}
 
 	public DebugUtilsMessenger createDebugUtilsMessenger(MemorySegment debugUtilsMessengerCreateInfo) {
-		try (var arena = Arena.ofConfined()) {
-			var result = arena.allocate(vulkan_h.VkDebugUtilsMessengerEXT);
-			Vulkan.checkResult(createDebugUtilsMessenger.apply(handle, debugUtilsMessengerCreateInfo, allocator, result));
-			return new DebugUtilsMessenger(this, result.get(vulkan_h.VkDebugUtilsMessengerEXT, 0));
+		return createDebugUtilsMessenger(debugUtilsMessengerCreateInfo, threadingMode.createArena());
+	}
+
+	/**
+	 * Creates a messenger
+	 * @param debugUtilsMessengerCreateInfo the create-info structure
+	 * @param arena an arena the messenger takes ownership of, and closes when it is destroyed
+	 * @return the messenger
+	 */
+	public DebugUtilsMessenger createDebugUtilsMessenger(MemorySegment debugUtilsMessengerCreateInfo, Arena arena) {
+		try (var local = Arena.ofConfined()) {
+			var result = local.allocate(vulkan_h.VkDebugUtilsMessengerEXT);
+			Vulkan.checkResult(createDebugUtilsMessenger.get().apply(handle, debugUtilsMessengerCreateInfo, allocator, result));
+			return new DebugUtilsMessenger(this, result.get(vulkan_h.VkDebugUtilsMessengerEXT, 0), arena);
 		}
 	}
 
 	public void destroyDebugUtilsMessenger(MemorySegment messenger) {
-		destroyDebugUtilsMessenger.apply(handle, messenger, allocator);
+		destroyDebugUtilsMessenger.get().apply(handle, messenger, allocator);
+	}
+
+	/**
+	 * Sends a message to every messenger of the instance that accepts it
+	 * @param severity the severity of the message
+	 * @param types the types of the message
+	 * @param callbackData a {@code VkDebugUtilsMessengerCallbackDataEXT} structure
+	 */
+	public void submitDebugUtilsMessage(DebugUtilsMessageSeverity severity, Collection<DebugUtilsMessageType> types, MemorySegment callbackData) {
+		submitDebugUtilsMessage(severity, BitFlag.getFlagBits(types), callbackData);
+	}
+
+	public void submitDebugUtilsMessage(DebugUtilsMessageSeverity severity, int messageTypes, MemorySegment callbackData) {
+		submitDebugUtilsMessage.get().apply(handle, severity.bit(), messageTypes, callbackData);
 	}
 }
@@ -0,0 +1,19 @@
+package dev.brownjames.lawu.vulkan.debugutils;
+
+import java.util.Set;
+
+/**
+ * A debug message copied out of the driver's callback data
+ * @param severity the severity of the message
+ * @param types the types of the message
+ * @param messageIdName the name of the message identifier, which may be empty
+ * @param messageIdNumber the number of the message identifier
+ * @param message the message text
+ */
+public record DebugUtilsMessage(
+		DebugUtilsMessageSeverity severity,
+		Set<DebugUtilsMessageType> types,
+		String messageIdName,
+		int messageIdNumber,
+		String message
+) { }
@@ -15,6 +15,25 @@ public enum DebugUtilsMessageSeverity implements BitFlag {
 		this.bit = bit;
 	}
 
+	/**
+	 * Gets the severity with a single bit set, without allocating a flag set
+	 * @param bit the severity bit
+	 * @return the severity
+	 */
+	public static DebugUtilsMessageSeverity of(int bit) {
+		if (bit == VERBOSE.bit) {
+			return VERBOSE;
+		} else if (bit == INFO.bit) {
+			return INFO;
+		} else if (bit == WARNING.bit) {
+			return WARNING;
+		} else if (bit == ERROR.bit) {
+			return ERROR;
+		}
+
+		throw new IllegalArgumentException("Not a single severity bit: %d".formatted(bit));
+	}
+
 	@Override
 	public int bit() {
 		return bit;
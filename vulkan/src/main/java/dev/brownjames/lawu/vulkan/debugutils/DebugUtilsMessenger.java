@@ -2,11 +2,19 @@ package dev.brownjames.lawu.vulkan.debugutils;
 
 import dev.brownjames.lawu.vulkan.VulkanHandle;
 
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 
-public record DebugUtilsMessenger(DebugUtilsExtension instance, MemorySegment handle) implements VulkanHandle, AutoCloseable {
+/**
+ * A debug messenger
+ * @param instance the instance the messenger belongs to
+ * @param handle the messenger handle
+ * @param arena the arena holding the messenger's callback registration, which is closed with the messenger
+ */
+public record DebugUtilsMessenger(DebugUtilsExtension instance, MemorySegment handle, Arena arena) implements VulkanHandle, AutoCloseable {
 	@Override
 	public void close() {
 		instance.destroyDebugUtilsMessenger(handle);
+		arena.close();
 	}
 }
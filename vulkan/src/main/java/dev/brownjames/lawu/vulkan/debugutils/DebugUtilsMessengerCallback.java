@@ -1,7 +1,27 @@
 package dev.brownjames.lawu.vulkan.debugutils;
 
 import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
 
 public interface DebugUtilsMessengerCallback {
 	void callback(DebugUtilsMessageSeverity severity, int messageTypes, MemorySegment callbackData);
+
+	/**
+	 * Creates a callback which discards messages with certain identifiers before they reach another callback. The
+	 * identifiers are compared as numbers, so nothing is decoded or allocated for discarded messages.
+	 * @param messageIdNumbers the message identifier numbers to discard
+	 * @param callback the callback to pass other messages to
+	 * @return a filtering callback
+	 */
+	static DebugUtilsMessengerCallback ignoring(int[] messageIdNumbers, DebugUtilsMessengerCallback callback) {
+		var sorted = messageIdNumbers.clone();
+		Arrays.sort(sorted);
+
+		return (severity, messageTypes, callbackData) -> {
+			var data = new DebugUtilsMessengerCallbackData(callbackData);
+			if (Arrays.binarySearch(sorted, data.messageIdNumber()) < 0) {
+				callback.callback(severity, messageTypes, callbackData);
+			}
+		};
+	}
 }
@@ -0,0 +1,176 @@
+package dev.brownjames.lawu.vulkan.debugutils;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsLabelEXT;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsObjectNameInfoEXT;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+
+/**
+ * A typed view over the {@code VkDebugUtilsMessengerCallbackDataEXT} passed to a messenger callback.
+ * <p>
+ * Nothing is copied or decoded until it is asked for, and the comparison methods work on the native strings directly,
+ * so a filter can discard a message without allocating. The view is only valid during the callback.
+ * @param segment the callback data structure
+ */
+public record DebugUtilsMessengerCallbackData(MemorySegment segment) {
+	/**
+	 * A view over a {@code VkDebugUtilsLabelEXT}
+	 * @param segment the label structure
+	 */
+	public record Label(MemorySegment segment) {
+		public String name() {
+			return VkDebugUtilsLabelEXT.pLabelName$get(segment).getUtf8String(0);
+		}
+
+		public boolean nameEquals(String name) {
+			return nulTerminatedEquals(VkDebugUtilsLabelEXT.pLabelName$get(segment), name);
+		}
+
+		/**
+		 * Gets a component of the label's colour
+		 * @param component the index of the red, green, blue or alpha component
+		 * @return the component value
+		 */
+		public float color(int component) {
+			assert component >= 0 && component < 4;
+			return VkDebugUtilsLabelEXT.color$slice(segment).getAtIndex(JAVA_FLOAT, component);
+		}
+	}
+
+	/**
+	 * A view over a {@code VkDebugUtilsObjectNameInfoEXT}
+	 * @param segment the object structure
+	 */
+	public record ObjectInfo(MemorySegment segment) {
+		/**
+		 * Gets the type of the object
+		 * @return a {@code VkObjectType} value
+		 */
+		public int objectType() {
+			return VkDebugUtilsObjectNameInfoEXT.objectType$get(segment);
+		}
+
+		public long objectHandle() {
+			return VkDebugUtilsObjectNameInfoEXT.objectHandle$get(segment);
+		}
+
+		public Optional<String> objectName() {
+			var name = VkDebugUtilsObjectNameInfoEXT.pObjectName$get(segment);
+			return name.address() == 0 ? Optional.empty() : Optional.of(name.getUtf8String(0));
+		}
+	}
+
+	public int messageIdNumber() {
+		return VkDebugUtilsMessengerCallbackDataEXT.messageIdNumber$get(segment);
+	}
+
+	public Optional<String> messageIdName() {
+		var name = VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$get(segment);
+		return name.address() == 0 ? Optional.empty() : Optional.of(name.getUtf8String(0));
+	}
+
+	/**
+	 * Checks the message identifier name without decoding it
+	 * @param name the name to compare with, such as a validation VUID
+	 * @return whether the message has that identifier name
+	 */
+	public boolean messageIdNameEquals(String name) {
+		return nulTerminatedEquals(VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$get(segment), name);
+	}
+
+	/**
+	 * Gets the message text as a native NUL-terminated string, without decoding it
+	 * @return the message text segment
+	 */
+	public MemorySegment messageSegment() {
+		return VkDebugUtilsMessengerCallbackDataEXT.pMessage$get(segment);
+	}
+
+	public String message() {
+		return messageSegment().getUtf8String(0);
+	}
+
+	public int queueLabelCount() {
+		return VkDebugUtilsMessengerCallbackDataEXT.queueLabelCount$get(segment);
+	}
+
+	public Label queueLabel(int index) {
+		assert index >= 0 && index < queueLabelCount();
+		return new Label(element(VkDebugUtilsMessengerCallbackDataEXT.pQueueLabels$get(segment), index, VkDebugUtilsLabelEXT.$LAYOUT().byteSize()));
+	}
+
+	public int commandBufferLabelCount() {
+		return VkDebugUtilsMessengerCallbackDataEXT.cmdBufLabelCount$get(segment);
+	}
+
+	public Label commandBufferLabel(int index) {
+		assert index >= 0 && index < commandBufferLabelCount();
+		return new Label(element(VkDebugUtilsMessengerCallbackDataEXT.pCmdBufLabels$get(segment), index, VkDebugUtilsLabelEXT.$LAYOUT().byteSize()));
+	}
+
+	public int objectCount() {
+		return VkDebugUtilsMessengerCallbackDataEXT.objectCount$get(segment);
+	}
+
+	public ObjectInfo object(int index) {
+		assert index >= 0 && index < objectCount();
+		return new ObjectInfo(element(VkDebugUtilsMessengerCallbackDataEXT.pObjects$get(segment), index, VkDebugUtilsObjectNameInfoEXT.$LAYOUT().byteSize()));
+	}
+
+	private static MemorySegment element(MemorySegment array, int index, long size) {
+		return MemorySegment.ofAddress(array.address() + index * size).reinterpret(size);
+	}
+
+	/**
+	 * Compares a native NUL-terminated UTF-8 string with a Java string, encoding the Java string as it goes rather than
+	 * into a new array or native memory
+	 */
+	private static boolean nulTerminatedEquals(MemorySegment string, String expected) {
+		if (string.address() == 0) {
+			return false;
+		}
+
+		// A UTF-8 encoding is at most three bytes per char, plus the terminator
+		var actual = string.reinterpret(expected.length() * 3L + 1);
+		long offset = 0;
+		for (int i = 0; i < expected.length(); ) {
+			var codePoint = expected.codePointAt(i);
+			i += Character.charCount(codePoint);
+
+			// The native string ends at the first NUL, so it cannot contain one
+			if (codePoint == 0) {
+				return false;
+			}
+
+			// Unpaired surrogates encode as '?', as in String.getBytes
+			if (codePoint <= Character.MAX_VALUE && Character.isSurrogate((char) codePoint)) {
+				codePoint = '?';
+			}
+
+			if (codePoint < 0x80) {
+				if (actual.get(JAVA_BYTE, offset++) != (byte) codePoint) {
+					return false;
+				}
+			} else {
+				var length = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+				var leading = length == 2 ? 0xc0 : length == 3 ? 0xe0 : 0xf0;
+				if (actual.get(JAVA_BYTE, offset++) != (byte) (leading | (codePoint >>> (6 * (length - 1))))) {
+					return false;
+				}
+
+				for (int shift = 6 * (length - 2); shift >= 0; shift -= 6) {
+					if (actual.get(JAVA_BYTE, offset++) != (byte) (0x80 | ((codePoint >>> shift) & 0x3f))) {
+						return false;
+					}
+				}
+			}
+		}
+
+		return actual.get(JAVA_BYTE, offset) == 0;
+	}
+}
@@ -2,22 +2,25 @@ package dev.brownjames.lawu.vulkan.debugutils;
 
 import dev.brownjames.lawu.vulkan.BitFlag;
 import dev.brownjames.lawu.vulkan.InstanceCreateInfo;
-import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
 import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCreateInfoEXT;
 import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
 
-import java.lang.foreign.*;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
 import java.util.Collection;
 
-import static java.lang.foreign.ValueLayout.JAVA_INT;
-
 public record DebugUtilsMessengerCreateInfo(
 		Collection<DebugUtilsMessageSeverity> severities,
 		Collection<DebugUtilsMessageType> types,
 		DebugUtilsMessengerCallback callback
 ) implements InstanceCreateInfo.Next {
+	/**
+	 * Creates the native structure. The callback stays registered until the arena is closed, so the arena must outlive
+	 * the messenger or instance the structure is used to create.
+	 * @param arena the arena to allocate the structure from
+	 * @param next the next item in the chain
+	 * @return the structure
+	 */
 	@Override
 	public MemorySegment createNativeStructure(Arena arena, MemorySegment next) {
 		var structure = VkDebugUtilsMessengerCreateInfoEXT.allocate(arena);
@@ -28,34 +31,8 @@ public record DebugUtilsMessengerCreateInfo(
 		VkDebugUtilsMessengerCreateInfoEXT.messageSeverity$set(structure, BitFlag.getFlagBits(severities));
 		VkDebugUtilsMessengerCreateInfoEXT.messageType$set(structure, BitFlag.getFlagBits(types));
 
-		var adaptor = new Object() {
-			int callback(int severity, int flags, MemorySegment callbackData, MemorySegment userData) {
-				var severitySet = BitFlag.flags(severity, DebugUtilsMessageSeverity.class);
-				assert severitySet.size() == 1;
-				var severityEnum = severitySet.iterator().next();
-
-				callback.callback(severityEnum, flags, callbackData);
-
-				return vulkan_h.VK_FALSE();
-			}
-		};
-
-		try {
-			var upCallMethod = Linker.nativeLinker().upcallStub(
-					MethodHandles.lookup().bind(adaptor, "callback", MethodType.methodType(Integer.TYPE, Integer.TYPE, Integer.TYPE, MemorySegment.class, MemorySegment.class)),
-					FunctionDescriptor.of(vulkan_h.VkBool32,
-							JAVA_INT,
-							JAVA_INT,
-							AddressLayout.ADDRESS.withTargetLayout(VkDebugUtilsMessengerCallbackDataEXT.$LAYOUT()),
-							AddressLayout.ADDRESS),
-					Arena.global());
-
-			VkDebugUtilsMessengerCreateInfoEXT.pfnUserCallback$set(structure, upCallMethod);
-		} catch (NoSuchMethodException | IllegalAccessException e) {
-			throw new AssertionError(e);
-		}
-
-		VkDebugUtilsMessengerCreateInfoEXT.pUserData$set(structure, MemorySegment.NULL);
+		VkDebugUtilsMessengerCreateInfoEXT.pfnUserCallback$set(structure, DebugUtilsCallbackRegistry.trampoline());
+		VkDebugUtilsMessengerCreateInfoEXT.pUserData$set(structure, DebugUtilsCallbackRegistry.register(callback, arena));
 
 		return structure;
 	}
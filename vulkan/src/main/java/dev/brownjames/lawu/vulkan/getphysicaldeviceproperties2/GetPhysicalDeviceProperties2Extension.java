@@ -11,9 +11,9 @@ import java.util.List;
 public final class GetPhysicalDeviceProperties2Extension implements VulkanHandle {
 	private final MemorySegment handle;
 
-	private final PFN_vkGetPhysicalDeviceProperties2KHR getPhysicalDeviceProperties2KHR;
-	private final PFN_vkGetPhysicalDeviceFeatures2KHR getPhysicalDeviceFeatures2KHR;
-	private final PFN_vkGetPhysicalDeviceImageFormatProperties2KHR getPhysicalDeviceImageFormatProperties2KHR;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceProperties2KHR> getPhysicalDeviceProperties2KHR;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceFeatures2KHR> getPhysicalDeviceFeatures2KHR;
+	private final DispatchTable.Entry<PFN_vkGetPhysicalDeviceImageFormatProperties2KHR> getPhysicalDeviceImageFormatProperties2KHR;
 
 	public static GetPhysicalDeviceProperties2Extension extend(VulkanInstance instance) {
 		return new GetPhysicalDeviceProperties2Extension(instance.handle(), instance.arena(), instance.instanceFunctionLookup());
@@ -22,17 +22,11 @@ public final class GetPhysicalDeviceProperties2Extension implements VulkanHandle
 	public GetPhysicalDeviceProperties2Extension(MemorySegment handle, Arena arena, InstanceFunctionLookup lookup) {
 		this.handle = handle;
 
-		getPhysicalDeviceProperties2KHR = lookup.lookup("vkGetPhysicalDeviceProperties2KHR")
-				.map(address -> PFN_vkGetPhysicalDeviceProperties2KHR.ofAddress(address, arena))
-				.orElseThrow();
+		var dispatchTable = new DispatchTable(lookup, arena);
 
-		getPhysicalDeviceFeatures2KHR = lookup.lookup("vkGetPhysicalDeviceFeatures2KHR")
-				.map(address -> PFN_vkGetPhysicalDeviceFeatures2KHR.ofAddress(address, arena))
-				.orElseThrow();
-
-		getPhysicalDeviceImageFormatProperties2KHR = lookup.lookup("vkGetPhysicalDeviceImageFormatProperties2KHR")
-				.map(address -> PFN_vkGetPhysicalDeviceImageFormatProperties2KHR.ofAddress(address, arena))
-				.orElseThrow();
+		getPhysicalDeviceProperties2KHR = dispatchTable.entry("vkGetPhysicalDeviceProperties2KHR", PFN_vkGetPhysicalDeviceProperties2KHR::ofAddress);
+		getPhysicalDeviceFeatures2KHR = dispatchTable.entry("vkGetPhysicalDeviceFeatures2KHR", PFN_vkGetPhysicalDeviceFeatures2KHR::ofAddress);
+		getPhysicalDeviceImageFormatProperties2KHR = dispatchTable.entry("vkGetPhysicalDeviceImageFormatProperties2KHR", PFN_vkGetPhysicalDeviceImageFormatProperties2KHR::ofAddress);
 	}
 
 	public static String extensionName() {
@@ -45,14 +39,14 @@ public final class GetPhysicalDeviceProperties2Extension implements VulkanHandle
 	}
 
 	public void getPhysicalDeviceProperties2(MemorySegment device, MemorySegment properties) {
-		getPhysicalDeviceProperties2KHR.apply(device, properties);
+		getPhysicalDeviceProperties2KHR.get().apply(device, properties);
 	}
 
 	public void getPhysicalDeviceFeatures2(MemorySegment device, MemorySegment features) {
-		getPhysicalDeviceFeatures2KHR.apply(device, features);
+		getPhysicalDeviceFeatures2KHR.get().apply(device, features);
 	}
 
 	public void getPhysicalDeviceImageFormatProperties2(MemorySegment device, MemorySegment imageFormatInfo, MemorySegment imageFormatProperties) {
-		Vulkan.checkResult(getPhysicalDeviceImageFormatProperties2KHR.apply(device, imageFormatInfo, imageFormatProperties));
+		Vulkan.checkResult(getPhysicalDeviceImageFormatProperties2KHR.get().apply(device, imageFormatInfo, imageFormatProperties));
 	}
 }
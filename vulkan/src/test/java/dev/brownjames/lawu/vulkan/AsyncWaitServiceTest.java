@@ -0,0 +1,150 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class AsyncWaitServiceTest {
+	VulkanInstance instance;
+	LogicalDevice device;
+	DeviceQueue queue;
+	CommandPool commandPool;
+	AsyncWaitService waits;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		var queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.withTimelineSemaphores()
+				.validate(physicalDevice);
+		queue = device.getQueue(queueFamilyIndex, 0);
+		commandPool = CommandPool.create(device, queueFamilyIndex, EnumSet.noneOf(CommandPool.Flag.class));
+		waits = new AsyncWaitService(device);
+	}
+
+	@AfterEach
+	void closeDevice() throws InterruptedException {
+		waits.close();
+		device.waitIdle();
+		commandPool.close();
+		device.close();
+		instance.close();
+	}
+
+	@Test
+	void completesWhenValueIsReached() throws ExecutionException, InterruptedException, TimeoutException {
+		try (var semaphore = TimelineSemaphore.create(device)) {
+			var reached = waits.whenReached(semaphore, 2);
+
+			semaphore.signal(1);
+			assertThrows(TimeoutException.class, () -> reached.get(10, TimeUnit.MILLISECONDS));
+
+			semaphore.signal(2);
+			reached.get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void completesOnlyTheValuesReached() throws ExecutionException, InterruptedException, TimeoutException {
+		try (var semaphore = TimelineSemaphore.create(device)) {
+			var futures = new ArrayList<CompletableFuture<Void>>();
+			for (int value = 1; value <= 1000; value++) {
+				futures.add(waits.whenReached(semaphore, value));
+			}
+
+			semaphore.signal(500);
+			CompletableFuture.allOf(futures.subList(0, 500).toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+			assertTrue(futures.subList(500, 1000).stream().noneMatch(CompletableFuture::isDone));
+
+			semaphore.signal(1000);
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void completesWhenFenceIsSignalled() throws ExecutionException, InterruptedException, TimeoutException {
+		try (var fence = Fence.create(device);
+		     var signalled = Fence.create(device, true)) {
+			assertTrue(signalled.isSignalled());
+			waits.whenSignalled(signalled).get(5, TimeUnit.SECONDS);
+
+			var buffer = commandPool.allocate(CommandBuffer.Level.PRIMARY);
+			buffer.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			buffer.end();
+
+			queue.submit(List.of(SubmitInfo.of(List.of(buffer))), fence);
+			waits.whenSignalled(fence).get(5, TimeUnit.SECONDS);
+			assertTrue(fence.isSignalled());
+
+			fence.reset();
+			assertFalse(fence.isSignalled());
+		}
+	}
+
+	@Test
+	void waitsForFencesAndValuesTogether() throws ExecutionException, InterruptedException, TimeoutException {
+		try (var fence = Fence.create(device);
+		     var semaphore = TimelineSemaphore.create(device)) {
+			var fenceSignalled = waits.whenSignalled(fence);
+			var reached = waits.whenReached(semaphore, 1);
+
+			semaphore.signal(1);
+			reached.get(5, TimeUnit.SECONDS);
+			assertFalse(fenceSignalled.isDone());
+
+			queue.submit(List.of(new SubmitInfo()), fence);
+			fenceSignalled.get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void completesWhenTheExecutorRejects() throws ExecutionException, InterruptedException, TimeoutException {
+		var executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+
+		try (var semaphore = TimelineSemaphore.create(device)) {
+			var rejecting = new AsyncWaitService(device, executor, AsyncWaitService.DEFAULT_POLL_INTERVAL);
+			var reached = rejecting.whenReached(semaphore, 1);
+			var outstanding = rejecting.whenReached(semaphore, 2);
+
+			semaphore.signal(1);
+			reached.get(5, TimeUnit.SECONDS);
+
+			rejecting.close();
+			var exception = assertThrows(ExecutionException.class, () -> outstanding.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(CancellationException.class, exception.getCause());
+		}
+	}
+
+	@Test
+	void closingCancelsOutstandingWaits() throws InterruptedException {
+		try (var semaphore = TimelineSemaphore.create(device)) {
+			var closing = new AsyncWaitService(device);
+			var reached = closing.whenReached(semaphore, 1);
+			closing.close();
+
+			var exception = assertThrows(ExecutionException.class, () -> reached.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(CancellationException.class, exception.getCause());
+
+			var late = closing.whenReached(semaphore, 1);
+			assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+		}
+	}
+}
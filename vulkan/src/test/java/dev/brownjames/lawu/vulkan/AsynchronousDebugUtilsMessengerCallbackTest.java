@@ -0,0 +1,96 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+import dev.brownjames.lawu.vulkan.debugutils.AsynchronousDebugUtilsMessengerCallback;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessage;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record AsynchronousDebugUtilsMessengerCallbackTest() {
+	private static MemorySegment callbackData(Arena arena, int id, String message) {
+		var data = VkDebugUtilsMessengerCallbackDataEXT.allocate(arena);
+		VkDebugUtilsMessengerCallbackDataEXT.messageIdNumber$set(data, id);
+		VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$set(data, arena.allocateUtf8String("VUID-test-%d".formatted(id)));
+		VkDebugUtilsMessengerCallbackDataEXT.pMessage$set(data, arena.allocateUtf8String(message));
+		return data;
+	}
+
+	@Test
+	void messagesAreDeliveredInOrder() throws InterruptedException {
+		var received = new CopyOnWriteArrayList<DebugUtilsMessage>();
+		var validation = DebugUtilsMessageType.VALIDATION.bit();
+
+		try (var arena = Arena.ofConfined()) {
+			var callback = new AsynchronousDebugUtilsMessengerCallback(received::addAll);
+			for (int i = 0; i < 100; i++) {
+				callback.callback(DebugUtilsMessageSeverity.WARNING, validation, callbackData(arena, i, "message " + i));
+			}
+			callback.close();
+
+			assertEquals(100, callback.delivered());
+			assertEquals(0, callback.dropped());
+		}
+
+		assertEquals(100, received.size());
+		for (int i = 0; i < 100; i++) {
+			var message = received.get(i);
+			assertEquals(DebugUtilsMessageSeverity.WARNING, message.severity());
+			assertEquals(List.of(DebugUtilsMessageType.VALIDATION), List.copyOf(message.types()));
+			assertEquals(i, message.messageIdNumber());
+			assertEquals("VUID-test-%d".formatted(i), message.messageIdName());
+			assertEquals("message " + i, message.message());
+		}
+	}
+
+	@Test
+	void fullRingDropsMessages() throws InterruptedException {
+		var entered = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		try (var arena = Arena.ofConfined()) {
+			var callback = new AsynchronousDebugUtilsMessengerCallback(batch -> {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}, 4, 64);
+
+			var data = callbackData(arena, 1, "x".repeat(100));
+			callback.callback(DebugUtilsMessageSeverity.INFO, 0, data);
+			entered.await();
+
+			for (int i = 0; i < 10; i++) {
+				callback.callback(DebugUtilsMessageSeverity.INFO, 0, data);
+			}
+			assertEquals(6, callback.dropped());
+
+			release.countDown();
+			callback.close();
+			assertEquals(5, callback.delivered());
+		}
+	}
+
+	@Test
+	void longMessagesAreTruncated() throws InterruptedException {
+		var received = new CopyOnWriteArrayList<DebugUtilsMessage>();
+
+		try (var arena = Arena.ofConfined()) {
+			var callback = new AsynchronousDebugUtilsMessengerCallback(received::addAll, 4, 8);
+			callback.callback(DebugUtilsMessageSeverity.ERROR, 0, callbackData(arena, 0, "0123456789"));
+			callback.close();
+		}
+
+		assertEquals("01234567", received.get(0).message());
+	}
+}
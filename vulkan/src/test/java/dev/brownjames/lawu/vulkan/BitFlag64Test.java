@@ -0,0 +1,68 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record BitFlag64Test() {
+	@Test
+	void highBitsRoundTrip() {
+		var flags = BitFlag64.flags(PipelineStage2Flag.COPY, PipelineStage2Flag.PRE_RASTERIZATION_SHADERS, PipelineStage2Flag.TOP_OF_PIPE);
+
+		assertEquals(3, flags.size());
+		assertEquals(0x4100000001L, BitFlag64.getFlagBits(flags));
+		assertEquals(flags, BitFlag64.flags(0x4100000001L, PipelineStage2Flag.class));
+		assertEquals(EnumSet.of(PipelineStage2Flag.TOP_OF_PIPE, PipelineStage2Flag.COPY, PipelineStage2Flag.PRE_RASTERIZATION_SHADERS), flags);
+		assertEquals(List.of(PipelineStage2Flag.TOP_OF_PIPE, PipelineStage2Flag.COPY, PipelineStage2Flag.PRE_RASTERIZATION_SHADERS), List.copyOf(flags));
+	}
+
+	@Test
+	void legacyBitsMatch() {
+		for (var stage : PipelineStageFlag.values()) {
+			var widened = BitFlag64.widen(Set.of(stage), PipelineStage2Flag.class);
+			assertEquals(1, widened.size());
+			assertEquals(stage.name(), widened.iterator().next().name().replace("ALL_TRANSFER", "TRANSFER"));
+		}
+
+		for (var access : AccessFlag.values()) {
+			var widened = BitFlag64.widen(Set.of(access), Access2Flag.class);
+			assertEquals(access.name(), widened.iterator().next().name());
+		}
+	}
+
+	@Test
+	void narrowRejectsHighBits() {
+		var low = BitFlag64.flags(Access2Flag.SHADER_READ, Access2Flag.TRANSFER_WRITE);
+		assertEquals(Set.of(AccessFlag.SHADER_READ, AccessFlag.TRANSFER_WRITE), BitFlag64.narrow(low, AccessFlag.class));
+
+		var high = BitFlag64.flags(Access2Flag.SHADER_STORAGE_WRITE);
+		assertThrows(IllegalArgumentException.class, () -> BitFlag64.narrow(high, AccessFlag.class));
+		assertThrows(IllegalArgumentException.class, () -> BitFlags64.of(Access2Flag.class, high).narrow(AccessFlag.class));
+	}
+
+	@Test
+	void narrowRejectsUnknownLowBits() {
+		var low = BitFlags64.of(Access2Flag.SHADER_READ, Access2Flag.TRANSFER_WRITE);
+		assertEquals(BitFlags.of(AccessFlag.SHADER_READ, AccessFlag.TRANSFER_WRITE), low.narrow(AccessFlag.class));
+
+		var unknown = low.with(Access2Flag.CONDITIONAL_RENDERING_READ_EXT);
+		assertThrows(IllegalArgumentException.class, () -> unknown.narrow(AccessFlag.class));
+		assertThrows(IllegalArgumentException.class, () -> BitFlag64.narrow(unknown.asSet(), AccessFlag.class));
+	}
+
+	@Test
+	void bitFlags64Operations() {
+		var stages = BitFlags64.of(PipelineStage2Flag.COPY)
+				.with(PipelineStage2Flag.FRAGMENT_SHADER)
+				.union(BitFlags64.widen(BitFlags.of(PipelineStageFlag.COMPUTE_SHADER), PipelineStage2Flag.class));
+
+		assertEquals(3, stages.size());
+		assertTrue(stages.contains(PipelineStage2Flag.COMPUTE_SHADER));
+		assertFalse(stages.without(PipelineStage2Flag.COPY).contains(PipelineStage2Flag.COPY));
+		assertThrows(UnsupportedOperationException.class, () -> stages.asSet().add(PipelineStage2Flag.BLIT));
+	}
+}
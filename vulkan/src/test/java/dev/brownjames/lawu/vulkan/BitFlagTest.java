@@ -0,0 +1,67 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record BitFlagTest() {
+	@Test
+	void decodeRoundTrips() {
+		for (int bits = 0; bits < 16; bits++) {
+			var flags = BitFlag.flags(bits, QueueFlag.class);
+			assertEquals(Integer.bitCount(bits & BitFlag.getFlagBits(BitFlag.allFlags(QueueFlag.class))), flags.size());
+			assertEquals(bits & BitFlag.getFlagBits(BitFlag.allFlags(QueueFlag.class)), BitFlag.getFlagBits(flags));
+		}
+	}
+
+	@Test
+	void equalToOtherSets() {
+		var flags = BitFlag.flags(DebugUtilsMessageType.GENERAL, DebugUtilsMessageType.VALIDATION);
+		var enumSet = EnumSet.of(DebugUtilsMessageType.GENERAL, DebugUtilsMessageType.VALIDATION);
+
+		assertEquals(enumSet, flags);
+		assertEquals(flags, enumSet);
+		assertEquals(enumSet.hashCode(), flags.hashCode());
+		assertEquals(BitFlag.getFlagBits(flags), BitFlag.getFlagBits(enumSet));
+	}
+
+	@Test
+	void containsRejectsOtherTypes() {
+		var flags = BitFlag.allFlags(DebugUtilsMessageType.class);
+
+		assertFalse(flags.contains(QueueFlag.GRAPHICS));
+		assertFalse(flags.contains("GENERAL"));
+		assertFalse(flags.contains(null));
+		assertTrue(flags.contains(DebugUtilsMessageType.PERFORMANCE));
+	}
+
+	@Test
+	void immutableFlagsCannotChange() {
+		var flags = BitFlag.immutableFlags(DebugUtilsMessageType.GENERAL.bit(), DebugUtilsMessageType.class);
+
+		assertThrows(UnsupportedOperationException.class, () -> flags.add(DebugUtilsMessageType.VALIDATION));
+		assertThrows(UnsupportedOperationException.class, () -> flags.remove(DebugUtilsMessageType.GENERAL));
+		assertThrows(UnsupportedOperationException.class, flags::clear);
+		assertEquals(Set.of(DebugUtilsMessageType.GENERAL), flags);
+	}
+
+	@Test
+	void bitFlagsOperations() {
+		var flags = BitFlags.of(DebugUtilsMessageType.GENERAL, DebugUtilsMessageType.VALIDATION);
+
+		assertTrue(flags.contains(DebugUtilsMessageType.GENERAL));
+		assertFalse(flags.contains(DebugUtilsMessageType.PERFORMANCE));
+		assertEquals(2, flags.size());
+
+		var changed = flags.with(DebugUtilsMessageType.PERFORMANCE).without(DebugUtilsMessageType.GENERAL);
+		assertEquals(Set.of(DebugUtilsMessageType.VALIDATION, DebugUtilsMessageType.PERFORMANCE), changed.asSet());
+		assertTrue(changed.containsAll(BitFlags.of(DebugUtilsMessageType.VALIDATION)));
+		assertTrue(flags.intersection(changed).containsAny(BitFlags.of(DebugUtilsMessageType.VALIDATION)));
+		assertEquals(flags, BitFlags.of(DebugUtilsMessageType.class, List.of(DebugUtilsMessageType.VALIDATION, DebugUtilsMessageType.GENERAL)));
+	}
+}
@@ -0,0 +1,61 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record BuddyAllocatorTest() {
+	@Test
+	void allocationsAreAlignedAndDisjoint() {
+		var allocator = new BuddyAllocator(1 << 20, 256);
+		var random = new Random(1);
+		var offsets = new ArrayList<long[]>();
+
+		for (int i = 0; i < 64; i++) {
+			var size = 1 + random.nextInt(8192);
+			var alignment = 1L << random.nextInt(12);
+			var offset = allocator.allocate(size, alignment);
+			assertTrue(offset >= 0);
+			assertEquals(0, offset % alignment);
+			assertTrue(allocator.blockSize(offset) >= size);
+			offsets.add(new long[] { offset, allocator.blockSize(offset) });
+		}
+
+		offsets.sort((a, b) -> Long.compare(a[0], b[0]));
+		for (int i = 1; i < offsets.size(); i++) {
+			assertTrue(offsets.get(i - 1)[0] + offsets.get(i - 1)[1] <= offsets.get(i)[0]);
+		}
+	}
+
+	@Test
+	void freeingEverythingCoalesces() {
+		var allocator = new BuddyAllocator(1 << 16, 256);
+		var offsets = new ArrayList<Long>();
+
+		long offset;
+		while ((offset = allocator.allocate(300, 1)) >= 0) {
+			offsets.add(offset);
+		}
+		assertEquals(0, allocator.freeBytes());
+
+		Collections.shuffle(offsets, new Random(2));
+		offsets.forEach(allocator::free);
+
+		assertTrue(allocator.isEmpty());
+		assertEquals(0, allocator.allocate(1 << 16, 1));
+	}
+
+	@Test
+	void tooLargeAllocationFails() {
+		var allocator = new BuddyAllocator(1 << 12, 256);
+		assertEquals(-1, allocator.allocate((1 << 12) + 1, 1));
+		assertEquals(-1, allocator.allocate(1, 1 << 13));
+
+		assertEquals(0, allocator.allocate(1 << 11, 1));
+		assertEquals(-1, allocator.allocate(1 << 12, 1));
+	}
+}
@@ -0,0 +1,152 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class CommandPoolsTest {
+	private static final int FRAMES_IN_FLIGHT = 2;
+
+	VulkanInstance instance;
+	LogicalDevice device;
+	int queueFamilyIndex;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.validate(physicalDevice);
+	}
+
+	@AfterEach
+	void closeDevice() {
+		device.close();
+		instance.close();
+	}
+
+	@Test
+	void recordsPrimaryAndSecondary() {
+		try (var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT)) {
+			var primary = pools.primary();
+			var secondary = pools.secondary();
+			assertEquals(CommandBuffer.Level.PRIMARY, primary.level());
+			assertEquals(CommandBuffer.Level.SECONDARY, secondary.level());
+			assertSame(primary.pool(), secondary.pool());
+
+			secondary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			secondary.end();
+			primary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			primary.end();
+		}
+	}
+
+	@Test
+	void reusesBuffersOfTheSameSlot() {
+		try (var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT)) {
+			var first = pools.primary();
+			first.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			first.end();
+
+			pools.nextFrame();
+			var second = pools.primary();
+			assertNotEquals(first.pool(), second.pool());
+
+			pools.nextFrame();
+			var third = pools.primary();
+			assertEquals(first.handle(), third.handle());
+
+			// The pool was reset, so the buffer can be recorded again
+			third.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			third.end();
+
+			assertEquals(FRAMES_IN_FLIGHT, pools.poolCount());
+		}
+	}
+
+	@Test
+	void handsOutDistinctBuffersWithinAFrame() {
+		try (var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT)) {
+			var handles = new HashSet<Long>();
+			for (int i = 0; i < 10; i++) {
+				assertTrue(handles.add(pools.primary().handle().address()));
+			}
+		}
+	}
+
+	@Test
+	void givesEachThreadItsOwnPools() throws InterruptedException, ExecutionException {
+		try (var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT);
+		     var executor = Executors.newFixedThreadPool(4)) {
+			var futures = executor.invokeAll(IntStream.range(0, 4)
+					.<Callable<CommandPool>>mapToObj(i -> () -> {
+						var buffer = pools.secondary();
+						buffer.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+						buffer.end();
+
+						// Keep the thread busy so every task runs on a different thread
+						Thread.sleep(50);
+						return buffer.pool();
+					})
+					.toList());
+
+			var distinctPools = new HashSet<CommandPool>();
+			for (var future : futures) {
+				distinctPools.add(future.get());
+			}
+
+			assertEquals(4, distinctPools.size());
+			assertEquals(4 * FRAMES_IN_FLIGHT, pools.poolCount());
+		}
+	}
+
+	@Test
+	void destroysPoolsOfFinishedThreads() throws InterruptedException {
+		try (var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT)) {
+			var thread = Thread.ofPlatform().start(() -> {
+				var buffer = pools.secondary();
+				buffer.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+				buffer.end();
+			});
+			thread.join();
+			pools.primary();
+
+			assertEquals(2 * FRAMES_IN_FLIGHT, pools.poolCount());
+
+			// The finished thread's buffers may still be executing until the frame that reuses their slot
+			pools.nextFrame();
+			assertEquals(2 * FRAMES_IN_FLIGHT, pools.poolCount());
+
+			pools.nextFrame();
+			assertEquals(FRAMES_IN_FLIGHT, pools.poolCount());
+		}
+	}
+
+	@Test
+	void rejectsUseAfterClose() throws InterruptedException, ExecutionException {
+		var pools = new CommandPools(device, queueFamilyIndex, FRAMES_IN_FLIGHT);
+
+		try (var executor = Executors.newSingleThreadExecutor()) {
+			executor.submit(pools::secondary).get();
+			pools.primary();
+			pools.close();
+
+			assertThrows(IllegalStateException.class, pools::primary);
+			var exception = assertThrows(ExecutionException.class, () -> executor.submit(pools::secondary).get());
+			assertInstanceOf(IllegalStateException.class, exception.getCause());
+		}
+	}
+}
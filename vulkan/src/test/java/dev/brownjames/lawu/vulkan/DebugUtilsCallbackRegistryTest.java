@@ -0,0 +1,93 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCreateInfoEXT;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsCallbackRegistry;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessengerCreateInfo;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record DebugUtilsCallbackRegistryTest() {
+	private static final int SOAK_INSTANCE_COUNT = 10_000;
+	private static final int WARM_UP_INSTANCE_COUNT = 100;
+
+	/**
+	 * The growth in native memory allowed over the soak, for memory freed late by automatic arenas. Leaking even a
+	 * callback registration's worth of memory for each instance would exceed it.
+	 */
+	private static final long SOAK_NATIVE_MEMORY_TOLERANCE = 64 * 1024;
+
+	private static final DebugUtilsMessengerCreateInfo createInfo = new DebugUtilsMessengerCreateInfo(
+			BitFlag.allFlags(DebugUtilsMessageSeverity.class),
+			BitFlag.allFlags(DebugUtilsMessageType.class),
+			(severity, messageTypes, callbackData) -> { });
+
+	@Test
+	void registrationsShareTrampoline() {
+		var before = DebugUtilsCallbackRegistry.size();
+
+		try (var arena = Arena.ofConfined()) {
+			var first = createInfo.createNativeStructure(arena);
+			var second = createInfo.createNativeStructure(arena);
+
+			assertEquals(
+					VkDebugUtilsMessengerCreateInfoEXT.pfnUserCallback$get(first).address(),
+					VkDebugUtilsMessengerCreateInfoEXT.pfnUserCallback$get(second).address());
+			assertNotEquals(
+					VkDebugUtilsMessengerCreateInfoEXT.pUserData$get(first).address(),
+					VkDebugUtilsMessengerCreateInfoEXT.pUserData$get(second).address());
+			assertEquals(before + 2, DebugUtilsCallbackRegistry.size());
+		}
+
+		assertEquals(before, DebugUtilsCallbackRegistry.size());
+	}
+
+	/**
+	 * Reads the native memory allocated through the JDK, which includes every arena allocation
+	 */
+	private static long nativeMemoryUsed() {
+		return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+				.filter(pool -> pool.getName().equals("direct"))
+				.mapToLong(BufferPoolMXBean::getMemoryUsed)
+				.sum();
+	}
+
+	@Test
+	void soakInstances() {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var builder = VulkanInstance.builder()
+					.withDebugCallback(createInfo)
+					.withAllocationCallbacks(callbacks);
+			var before = DebugUtilsCallbackRegistry.size();
+
+			// Let one-time allocations, such as pooled strings and scratch buffers, happen before measuring
+			for (int i = 0; i < WARM_UP_INSTANCE_COUNT; i++) {
+				builder.build().close();
+			}
+
+			System.gc();
+			var nativeMemoryBefore = nativeMemoryUsed();
+
+			for (int i = 0; i < SOAK_INSTANCE_COUNT; i++) {
+				builder.build().close();
+				assertEquals(before, DebugUtilsCallbackRegistry.size());
+			}
+
+			System.gc();
+			var nativeMemoryAfter = nativeMemoryUsed();
+			assertTrue(nativeMemoryAfter - nativeMemoryBefore <= SOAK_NATIVE_MEMORY_TOLERANCE,
+					"Native memory grew by %d bytes".formatted(nativeMemoryAfter - nativeMemoryBefore));
+
+			// Everything the driver allocated through the callbacks was freed with its instance
+			for (var statistics : callbacks.statistics().values()) {
+				assertEquals(0, statistics.currentBytes());
+			}
+		}
+	}
+}
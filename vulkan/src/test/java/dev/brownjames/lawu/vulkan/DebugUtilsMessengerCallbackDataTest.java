@@ -0,0 +1,113 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsLabelEXT;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
+import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsObjectNameInfoEXT;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessengerCallback;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessengerCallbackData;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+record DebugUtilsMessengerCallbackDataTest() {
+	private static MemorySegment callbackData(Arena arena) {
+		var data = VkDebugUtilsMessengerCallbackDataEXT.allocate(arena);
+		VkDebugUtilsMessengerCallbackDataEXT.messageIdNumber$set(data, 0x1234);
+		VkDebugUtilsMessengerCallbackDataEXT.pMessageIdName$set(data, arena.allocateUtf8String("VUID-vkCmdDraw-None-02859"));
+		VkDebugUtilsMessengerCallbackDataEXT.pMessage$set(data, arena.allocateUtf8String("a message"));
+
+		var labels = VkDebugUtilsLabelEXT.allocateArray(2, arena);
+		for (int i = 0; i < 2; i++) {
+			VkDebugUtilsLabelEXT.pLabelName$set(labels, i, arena.allocateUtf8String("label " + i));
+			VkDebugUtilsLabelEXT.color$slice(labels.asSlice(i * VkDebugUtilsLabelEXT.$LAYOUT().byteSize())).setAtIndex(JAVA_FLOAT, 2, i + 0.5f);
+		}
+		VkDebugUtilsMessengerCallbackDataEXT.queueLabelCount$set(data, 2);
+		VkDebugUtilsMessengerCallbackDataEXT.pQueueLabels$set(data, labels);
+		VkDebugUtilsMessengerCallbackDataEXT.cmdBufLabelCount$set(data, 0);
+		VkDebugUtilsMessengerCallbackDataEXT.pCmdBufLabels$set(data, MemorySegment.NULL);
+
+		var objects = VkDebugUtilsObjectNameInfoEXT.allocateArray(1, arena);
+		VkDebugUtilsObjectNameInfoEXT.objectType$set(objects, 0, 9);
+		VkDebugUtilsObjectNameInfoEXT.objectHandle$set(objects, 0, 0xabcdL);
+		VkDebugUtilsObjectNameInfoEXT.pObjectName$set(objects, 0, MemorySegment.NULL);
+		VkDebugUtilsMessengerCallbackDataEXT.objectCount$set(data, 1);
+		VkDebugUtilsMessengerCallbackDataEXT.pObjects$set(data, objects);
+
+		return data;
+	}
+
+	@Test
+	void viewReadsFields() {
+		try (var arena = Arena.ofConfined()) {
+			var data = new DebugUtilsMessengerCallbackData(callbackData(arena));
+
+			assertEquals(0x1234, data.messageIdNumber());
+			assertEquals(Optional.of("VUID-vkCmdDraw-None-02859"), data.messageIdName());
+			assertEquals("a message", data.message());
+
+			assertEquals(2, data.queueLabelCount());
+			assertEquals("label 1", data.queueLabel(1).name());
+			assertEquals(1.5f, data.queueLabel(1).color(2));
+			assertTrue(data.queueLabel(0).nameEquals("label 0"));
+			assertEquals(0, data.commandBufferLabelCount());
+
+			assertEquals(1, data.objectCount());
+			assertEquals(9, data.object(0).objectType());
+			assertEquals(0xabcdL, data.object(0).objectHandle());
+			assertEquals(Optional.empty(), data.object(0).objectName());
+		}
+	}
+
+	@Test
+	void messageIdNameComparison() {
+		try (var arena = Arena.ofConfined()) {
+			var data = new DebugUtilsMessengerCallbackData(callbackData(arena));
+
+			assertTrue(data.messageIdNameEquals("VUID-vkCmdDraw-None-02859"));
+			assertFalse(data.messageIdNameEquals("VUID-vkCmdDraw-None"));
+			assertFalse(data.messageIdNameEquals("VUID-vkCmdDraw-None-028590"));
+		}
+	}
+
+	@Test
+	void nameComparisonEncodesWithoutInterning() {
+		try (var arena = Arena.ofConfined()) {
+			var label = VkDebugUtilsLabelEXT.allocate(arena);
+			VkDebugUtilsLabelEXT.pLabelName$set(label, arena.allocateUtf8String("pass \u00e9\u4e2d\ud83d\ude00"));
+			var view = new DebugUtilsMessengerCallbackData.Label(label);
+
+			var pooled = NativeStringPool.statistics().size();
+
+			assertTrue(view.nameEquals("pass \u00e9\u4e2d\ud83d\ude00"));
+			assertFalse(view.nameEquals("pass \u00e9\u4e2d"));
+			assertFalse(view.nameEquals("pass \u00e9\u4e2d\ud83d\ude01"));
+			assertFalse(view.nameEquals("pass \u00e9\u4e2d\ud83d\ude00\u0000"));
+			assertFalse(view.nameEquals("pass e"));
+
+			assertEquals(pooled, NativeStringPool.statistics().size());
+		}
+	}
+
+	@Test
+	void ignoringFiltersByNumber() {
+		var count = new AtomicInteger();
+		DebugUtilsMessengerCallback counter = (severity, messageTypes, callbackData) -> count.incrementAndGet();
+
+		try (var arena = Arena.ofConfined()) {
+			var data = callbackData(arena);
+
+			DebugUtilsMessengerCallback.ignoring(new int[] { 7, 0x1234 }, counter).callback(DebugUtilsMessageSeverity.INFO, 0, data);
+			assertEquals(0, count.get());
+
+			DebugUtilsMessengerCallback.ignoring(new int[] { 7 }, counter).callback(DebugUtilsMessageSeverity.INFO, 0, data);
+			assertEquals(1, count.get());
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class DeviceCapabilitySnapshotTest {
+	static final DeviceCapabilitySnapshot.ImageFormatQuery COLOUR_QUERY = new DeviceCapabilitySnapshot.ImageFormatQuery(
+			vulkan_h.VK_FORMAT_R8G8B8A8_UNORM(),
+			vulkan_h.VK_IMAGE_TYPE_2D(),
+			vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+			vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT(),
+			0);
+
+	@TempDir
+	Path directory;
+
+	VulkanInstance instance;
+	PhysicalDevice device;
+
+	@BeforeEach
+	void createPhysicalDeviceAndInstance() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder().validate();
+		device = instance.allPhysicalDevices().getFirst();
+	}
+
+	@AfterEach
+	void closeInstance() {
+		instance.close();
+	}
+
+	@Test
+	void captureMatchesQueries() {
+		var request = DeviceCapabilitySnapshot.Request.of().withImageFormatQueries(List.of(COLOUR_QUERY));
+
+		try (var snapshot = DeviceCapabilitySnapshot.capture(device, request)) {
+			assertEquals(DeviceCacheKey.of(device), snapshot.key());
+			assertEquals(device.getProperties().deviceName(), snapshot.properties().deviceName());
+			assertEquals(device.getQueueFamilyProperties(), snapshot.queueFamilyProperties());
+			assertEquals(device.getMemoryProperties(), snapshot.memoryProperties());
+			assertEquals(-1L, snapshot.features().mismatch(device.getFeatures()));
+
+			var format = vulkan_h.VK_FORMAT_R8G8B8A8_UNORM();
+			assertEquals(device.getFormatProperties(format), snapshot.formatProperties(format).orElseThrow());
+			assertTrue(snapshot.formatProperties(Integer.MAX_VALUE).isEmpty());
+
+			assertEquals(device.getImageFormatProperties(COLOUR_QUERY.format(), COLOUR_QUERY.type(), COLOUR_QUERY.tiling(), COLOUR_QUERY.usage(), COLOUR_QUERY.flags()),
+					snapshot.imageFormatProperties(COLOUR_QUERY).orElseThrow());
+			assertThrows(IllegalArgumentException.class, () -> snapshot.imageFormatProperties(new DeviceCapabilitySnapshot.ImageFormatQuery(0, 0, 0, 0, 0)));
+		}
+	}
+
+	@Test
+	void storedSnapshotIsReused() throws IOException {
+		var request = DeviceCapabilitySnapshot.Request.of().withImageFormatQueries(List.of(COLOUR_QUERY));
+		var path = DeviceCapabilitySnapshot.path(directory, DeviceCacheKey.of(device));
+
+		try (var captured = DeviceCapabilitySnapshot.loadOrCapture(directory, device, request)) {
+			assertTrue(Files.exists(path));
+
+			try (var loaded = DeviceCapabilitySnapshot.load(path, captured.key(), request).orElseThrow()) {
+				assertEquals(captured.properties().deviceName(), loaded.properties().deviceName());
+				assertEquals(captured.queueFamilyProperties(), loaded.queueFamilyProperties());
+				assertEquals(captured.formatProperties(COLOUR_QUERY.format()), loaded.formatProperties(COLOUR_QUERY.format()));
+				assertEquals(captured.imageFormatProperties(COLOUR_QUERY), loaded.imageFormatProperties(COLOUR_QUERY));
+			}
+		}
+	}
+
+	@Test
+	void differentRequestOrDriverIsNotLoaded() throws IOException {
+		var request = DeviceCapabilitySnapshot.Request.of();
+		var key = DeviceCacheKey.of(device);
+		var path = DeviceCapabilitySnapshot.path(directory, key);
+
+		DeviceCapabilitySnapshot.loadOrCapture(directory, device, request).close();
+
+		assertTrue(DeviceCapabilitySnapshot.load(path, key, request.withImageFormatQueries(List.of(COLOUR_QUERY))).isEmpty());
+		assertTrue(DeviceCapabilitySnapshot.load(path, new DeviceCacheKey(key.vendorId(), key.deviceId(), key.driverVersion() + 1, key.pipelineCacheUUID()), request).isEmpty());
+		assertTrue(DeviceCapabilitySnapshot.load(directory.resolve("missing.bin"), key, request).isEmpty());
+	}
+}
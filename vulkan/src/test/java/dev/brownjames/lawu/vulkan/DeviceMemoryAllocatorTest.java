@@ -0,0 +1,195 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkBufferCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.VkExtent3D;
+import dev.brownjames.lawu.vulkan.bindings.VkImageCreateInfo;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class DeviceMemoryAllocatorTest {
+	private static final long BLOCK_SIZE = 1L << 20;
+	private static final Set<MemoryPropertyFlag> HOST_VISIBLE = BitFlag.flags(MemoryPropertyFlag.HOST_VISIBLE, MemoryPropertyFlag.HOST_COHERENT);
+
+	VulkanInstance instance;
+	LogicalDevice device;
+	DeviceMemoryAllocator allocator;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder().validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		device = LogicalDevice.builder()
+				.withQueues(physicalDevice.getQueueFamilyProperties().getFirst().index(), 1)
+				.validate(physicalDevice);
+		allocator = new DeviceMemoryAllocator(device, BLOCK_SIZE);
+	}
+
+	@AfterEach
+	void closeDevice() {
+		allocator.close();
+		device.close();
+		instance.close();
+	}
+
+	private static MemoryRequirements requirements(long size) {
+		return new MemoryRequirements(size, 256, -1);
+	}
+
+	private MemorySegment createBuffer(long size) {
+		try (var arena = ScratchAllocator.push()) {
+			var createInfo = VkBufferCreateInfo.allocate(arena);
+			VkBufferCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_BUFFER_CREATE_INFO());
+			VkBufferCreateInfo.pNext$set(createInfo, MemorySegment.NULL);
+			VkBufferCreateInfo.flags$set(createInfo, 0);
+			VkBufferCreateInfo.size$set(createInfo, size);
+			VkBufferCreateInfo.usage$set(createInfo, vulkan_h.VK_BUFFER_USAGE_TRANSFER_SRC_BIT() | vulkan_h.VK_BUFFER_USAGE_UNIFORM_BUFFER_BIT());
+			VkBufferCreateInfo.sharingMode$set(createInfo, vulkan_h.VK_SHARING_MODE_EXCLUSIVE());
+			VkBufferCreateInfo.queueFamilyIndexCount$set(createInfo, 0);
+			VkBufferCreateInfo.pQueueFamilyIndices$set(createInfo, MemorySegment.NULL);
+
+			return device.createBuffer(createInfo);
+		}
+	}
+
+	private MemorySegment createImage(int width, int height) {
+		try (var arena = ScratchAllocator.push()) {
+			var createInfo = VkImageCreateInfo.allocate(arena);
+			VkImageCreateInfo.sType$set(createInfo, vulkan_h.VK_STRUCTURE_TYPE_IMAGE_CREATE_INFO());
+			VkImageCreateInfo.pNext$set(createInfo, MemorySegment.NULL);
+			VkImageCreateInfo.flags$set(createInfo, 0);
+			VkImageCreateInfo.imageType$set(createInfo, vulkan_h.VK_IMAGE_TYPE_2D());
+			VkImageCreateInfo.format$set(createInfo, vulkan_h.VK_FORMAT_R8G8B8A8_UNORM());
+
+			var extent = VkImageCreateInfo.extent$slice(createInfo);
+			VkExtent3D.width$set(extent, width);
+			VkExtent3D.height$set(extent, height);
+			VkExtent3D.depth$set(extent, 1);
+
+			VkImageCreateInfo.mipLevels$set(createInfo, 1);
+			VkImageCreateInfo.arrayLayers$set(createInfo, 1);
+			VkImageCreateInfo.samples$set(createInfo, vulkan_h.VK_SAMPLE_COUNT_1_BIT());
+			VkImageCreateInfo.tiling$set(createInfo, vulkan_h.VK_IMAGE_TILING_OPTIMAL());
+			VkImageCreateInfo.usage$set(createInfo, vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT() | vulkan_h.VK_IMAGE_USAGE_TRANSFER_DST_BIT());
+			VkImageCreateInfo.sharingMode$set(createInfo, vulkan_h.VK_SHARING_MODE_EXCLUSIVE());
+			VkImageCreateInfo.queueFamilyIndexCount$set(createInfo, 0);
+			VkImageCreateInfo.pQueueFamilyIndices$set(createInfo, MemorySegment.NULL);
+			VkImageCreateInfo.initialLayout$set(createInfo, vulkan_h.VK_IMAGE_LAYOUT_UNDEFINED());
+
+			return device.createImage(createInfo);
+		}
+	}
+
+	@Test
+	void selectsAMemoryTypeWithTheRequiredProperties() {
+		var memoryProperties = allocator.memoryProperties();
+
+		try (var allocation = allocator.allocate(requirements(4096), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of())) {
+			var type = memoryProperties.types().get(allocation.memoryTypeIndex());
+			assertTrue(type.propertyFlags().containsAll(HOST_VISIBLE));
+
+			var mapped = allocation.mapped().orElseThrow();
+			assertEquals(4096, mapped.byteSize());
+			mapped.set(ValueLayout.JAVA_INT, 0, 0x12345678);
+			assertEquals(0x12345678, mapped.get(ValueLayout.JAVA_INT, 0));
+		}
+
+		var preferred = Set.of(MemoryPropertyFlag.DEVICE_LOCAL);
+		try (var allocation = allocator.allocate(requirements(4096), DeviceMemoryAllocator.ResourceKind.LINEAR, Set.of(), preferred)) {
+			assertEquals(memoryProperties.findMemoryType(-1, Set.of(), preferred).orElseThrow(), allocation.memoryTypeIndex());
+		}
+
+		var noTypes = new MemoryRequirements(4096, 256, 0);
+		assertThrows(IllegalArgumentException.class, () -> allocator.allocate(noTypes, DeviceMemoryAllocator.ResourceKind.LINEAR, Set.of(), Set.of()));
+	}
+
+	@Test
+	void sharesBlocksAndFreesEmptyOnes() {
+		var half = BLOCK_SIZE / 2;
+		var first = allocator.allocate(requirements(half), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+		var second = allocator.allocate(requirements(half), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+
+		assertFalse(first.isDedicated());
+		assertEquals(first.memory(), second.memory());
+		assertNotEquals(first.offset(), second.offset());
+		assertEquals(1, allocator.deviceAllocationCount());
+
+		// The first block is full, so this takes a new one
+		var third = allocator.allocate(requirements(half), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+		assertNotEquals(first.memory(), third.memory());
+		assertEquals(2, allocator.deviceAllocationCount());
+
+		// One empty block is kept, but not two
+		third.close();
+		assertEquals(2, allocator.deviceAllocationCount());
+
+		first.close();
+		second.close();
+		assertEquals(1, allocator.deviceAllocationCount());
+
+		// Closing twice does not free the range twice
+		first.close();
+		assertEquals(1, allocator.deviceAllocationCount());
+	}
+
+	@Test
+	void dedicatesLargeAllocations() {
+		var allocation = allocator.allocate(requirements(BLOCK_SIZE), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+		assertTrue(allocation.isDedicated());
+		assertEquals(0, allocation.offset());
+		assertEquals(BLOCK_SIZE, allocation.mapped().orElseThrow().byteSize());
+		assertEquals(1, allocator.deviceAllocationCount());
+
+		allocation.close();
+		assertEquals(0, allocator.deviceAllocationCount());
+	}
+
+	@Test
+	void closingAllocationsAfterTheAllocatorDoesNothing() {
+		var pooled = allocator.allocate(requirements(4096), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+		var dedicated = allocator.allocate(requirements(BLOCK_SIZE), DeviceMemoryAllocator.ResourceKind.LINEAR, HOST_VISIBLE, Set.of());
+		assertEquals(2, allocator.deviceAllocationCount());
+
+		allocator.close();
+		assertEquals(0, allocator.deviceAllocationCount());
+
+		assertDoesNotThrow(pooled::close);
+		assertDoesNotThrow(dedicated::close);
+		assertEquals(0, allocator.deviceAllocationCount());
+	}
+
+	@Test
+	void bindsBuffersAndImages() {
+		var buffer = createBuffer(64 * 1024);
+		var bufferRequirements = device.getBufferMemoryRequirements(buffer);
+		var bufferAllocation = allocator.allocateForBuffer(buffer, Set.of(), Set.of(MemoryPropertyFlag.DEVICE_LOCAL));
+
+		assertNotEquals(0, bufferRequirements.memoryTypeBits() & (1 << bufferAllocation.memoryTypeIndex()));
+		assertEquals(0, bufferAllocation.offset() % bufferRequirements.alignment());
+		assertTrue(bufferAllocation.size() >= bufferRequirements.size());
+
+		var image = createImage(64, 64);
+		var imageRequirements = device.getImageMemoryRequirements(image);
+		var imageAllocation = allocator.allocateForImage(image, DeviceMemoryAllocator.ResourceKind.OPTIMAL, Set.of(), Set.of(MemoryPropertyFlag.DEVICE_LOCAL));
+
+		assertNotEquals(0, imageRequirements.memoryTypeBits() & (1 << imageAllocation.memoryTypeIndex()));
+		assertEquals(0, imageAllocation.offset() % imageRequirements.alignment());
+		assertTrue(imageAllocation.size() >= imageRequirements.size());
+
+		// Resources must be destroyed before the memory bound to them is returned
+		device.destroyBuffer(buffer);
+		device.destroyImage(image);
+		bufferAllocation.close();
+		imageAllocation.close();
+
+		allocator.close();
+		assertEquals(0, allocator.deviceAllocationCount());
+	}
+}
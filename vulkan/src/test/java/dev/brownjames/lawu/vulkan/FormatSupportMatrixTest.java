@@ -0,0 +1,83 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class FormatSupportMatrixTest {
+	static final List<Integer> TYPES = List.of(vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TYPE_3D());
+	static final List<Integer> TILINGS = List.of(vulkan_h.VK_IMAGE_TILING_OPTIMAL(), vulkan_h.VK_IMAGE_TILING_LINEAR());
+	static final List<Integer> USAGES = List.of(
+			vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT(),
+			vulkan_h.VK_IMAGE_USAGE_DEPTH_STENCIL_ATTACHMENT_BIT());
+	static final List<Integer> FLAGS = List.of(0);
+
+	VulkanInstance instance;
+	PhysicalDevice device;
+
+	@BeforeEach
+	void createPhysicalDeviceAndInstance() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		device = instance.allPhysicalDevices().getFirst();
+	}
+
+	@AfterEach
+	void closeInstance() {
+		instance.close();
+	}
+
+	@Test
+	void matchesSequentialQueries() {
+		var formats = DeviceCapabilitySnapshot.Request.CORE_FORMATS;
+		try (var pool = new ForkJoinPool(4)) {
+			var matrix = FormatSupportMatrix.query(device, formats, TYPES, TILINGS, USAGES, FLAGS, pool);
+			assertEquals(formats.size() * TYPES.size() * TILINGS.size() * USAGES.size() * FLAGS.size(), matrix.size());
+
+			for (var format : formats) {
+				for (var type : TYPES) {
+					for (var tiling : TILINGS) {
+						for (var usage : USAGES) {
+							var index = matrix.index(format, type, tiling, usage, 0);
+							assertEquals(device.findImageFormatProperties(format, type, tiling, usage, 0), matrix.properties(index));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void bestDepthFormat() {
+		var matrix = FormatSupportMatrix.query(device, FormatSupportMatrix.DEPTH_FORMATS, TYPES, TILINGS, USAGES, FLAGS);
+		var depthAttachment = vulkan_h.VK_IMAGE_USAGE_DEPTH_STENCIL_ATTACHMENT_BIT();
+
+		// Every device supports D32_SFLOAT or X8_D24_UNORM_PACK32 as a depth attachment
+		var best = matrix.bestDepthFormat(depthAttachment).orElseThrow();
+		assertTrue(device.getFormatProperties(best).optimalTilingFeatures().contains(FormatFeatureFlag.DEPTH_STENCIL_ATTACHMENT));
+		assertTrue(matrix.isSupported(best, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(), depthAttachment, 0));
+
+		assertThrows(IllegalArgumentException.class, () -> matrix.bestDepthFormat(vulkan_h.VK_IMAGE_USAGE_STORAGE_BIT()));
+		assertEquals(-1, matrix.index(vulkan_h.VK_FORMAT_R8_UNORM(), vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(), depthAttachment, 0));
+	}
+
+	@Test
+	void queriesConfinedInstancesOnTheCallingThread() throws VulkanValidationException {
+		try (var confined = TestVulkanInstanceHelper.builder().validate()) {
+			var confinedDevice = confined.allPhysicalDevices().getFirst();
+			var matrix = FormatSupportMatrix.query(confinedDevice, FormatSupportMatrix.DEPTH_FORMATS, TYPES, TILINGS, USAGES, FLAGS);
+
+			for (var format : FormatSupportMatrix.DEPTH_FORMATS) {
+				var index = matrix.index(format, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(), vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT(), 0);
+				assertEquals(confinedDevice.findImageFormatProperties(format, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(), vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT(), 0), matrix.properties(index));
+			}
+		}
+	}
+}
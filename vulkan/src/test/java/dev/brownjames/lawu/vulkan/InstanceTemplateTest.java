@@ -0,0 +1,68 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.directdriverloading.DirectDriverLoadingMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class InstanceTemplateTest {
+	@Test
+	void buildsManyInstances() {
+		var driver = new TestVulkanDriver();
+		try (var template = VulkanInstance.builder()
+				.withApplicationInfo(new ApplicationInfo().withApplicationName("template"))
+				.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, driver)
+				.freeze()) {
+			for (int i = 0; i < 8; i++) {
+				try (var vulkan = template.build()) {
+					assertEquals(1, vulkan.allPhysicalDevices().size());
+				}
+			}
+
+			assertEquals(8, driver.calls("vkCreateInstance"));
+			assertEquals(8, driver.calls("vkDestroyInstance"));
+		}
+	}
+
+	@Test
+	void buildsWithOverrides() {
+		try (var template = VulkanInstance.builder()
+				.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, new TestVulkanDriver())
+				.freeze()) {
+			var overrides = new InstanceTemplate.Overrides()
+					.withApplicationName("worker")
+					.withApplicationVersion(3);
+
+			try (var vulkan = template.build(overrides)) {
+				assertFalse(vulkan.allPhysicalDevices().isEmpty());
+			}
+		}
+	}
+
+	@Test
+	void buildsConcurrently() throws InterruptedException, ExecutionException {
+		try (var template = VulkanInstance.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, new TestVulkanDriver())
+				.freeze();
+		     var executor = Executors.newFixedThreadPool(4)) {
+			var futures = executor.invokeAll(IntStream.range(0, 16)
+					.<Callable<Integer>>mapToObj(i -> () -> {
+						try (var vulkan = template.build("worker " + i)) {
+							return vulkan.allPhysicalDevices().size();
+						}
+					})
+					.toList());
+
+			for (Future<Integer> future : futures) {
+				assertEquals(1, future.get());
+			}
+		}
+	}
+}
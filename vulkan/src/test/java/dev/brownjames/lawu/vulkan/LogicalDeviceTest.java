@@ -0,0 +1,65 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class LogicalDeviceTest {
+	VulkanInstance instance;
+	PhysicalDevice physicalDevice;
+	QueueFamilyProperties queueFamily;
+
+	@BeforeEach
+	void createInstance() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder().validate();
+		physicalDevice = instance.allPhysicalDevices().getFirst();
+		queueFamily = physicalDevice.getQueueFamilyProperties().getFirst();
+	}
+
+	@AfterEach
+	void closeInstance() {
+		instance.close();
+	}
+
+	@Test
+	void getQueueFamilyProperties() {
+		var families = physicalDevice.getQueueFamilyProperties();
+
+		assertFalse(families.isEmpty());
+		assertTrue(families.stream().allMatch(family -> family.queueCount() > 0));
+	}
+
+	@Test
+	void createDevice() throws VulkanValidationException {
+		try (var device = LogicalDevice.builder()
+				.withQueues(queueFamily.index(), 1)
+				.validate(physicalDevice)) {
+			var queue = device.getQueue(queueFamily.index(), 0);
+			assertNotEquals(0L, queue.handle().address());
+
+			queue.waitIdle();
+			device.waitIdle();
+		}
+	}
+
+	@Test
+	void deviceFunctionLookup() throws VulkanValidationException {
+		try (var device = LogicalDevice.builder()
+				.withQueues(queueFamily.index(), 1)
+				.validate(physicalDevice)) {
+			assertTrue(device.deviceFunctionLookup().lookup("vkQueueSubmit").isPresent());
+			assertTrue(device.deviceFunctionLookup().lookup("vkEnumeratePhysicalDevices").isEmpty());
+		}
+	}
+
+	@Test
+	void unsupportedExtension() {
+		var createInfo = LogicalDevice.builder()
+				.withQueues(queueFamily.index(), 1)
+				.withExtension("VK_LAWU_not_an_extension");
+
+		assertThrows(UnsupportedExtensionException.class, () -> createInfo.validate(physicalDevice));
+	}
+}
@@ -0,0 +1,45 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record NativeStringPoolTest() {
+	@Test
+	void internReturnsSameSegment() {
+		var first = NativeStringPool.intern("vkNativeStringPoolTest");
+		var second = NativeStringPool.intern("vkNativeStringPoolTest");
+
+		assertEquals(first.address(), second.address());
+		assertEquals("vkNativeStringPoolTest", first.getUtf8String(0));
+		assertEquals(0, first.get(ValueLayout.JAVA_BYTE, first.byteSize() - 1));
+	}
+
+	@Test
+	void statisticsCountHits() {
+		NativeStringPool.intern("VK_LAWU_statistics_test");
+		var before = NativeStringPool.statistics();
+
+		for (int i = 0; i < 10; i++) {
+			NativeStringPool.intern("VK_LAWU_statistics_test");
+		}
+
+		var after = NativeStringPool.statistics();
+		assertTrue(after.hits() - before.hits() >= 10);
+		assertEquals(before.size(), after.size());
+		assertTrue(after.hitRate() > 0.0);
+	}
+
+	@Test
+	void lookupUsesPool() {
+		var before = NativeStringPool.statistics();
+
+		Vulkan.globalFunctionLookup().lookup("vkCreateInstance");
+		Vulkan.globalFunctionLookup().lookup("vkCreateInstance");
+
+		var after = NativeStringPool.statistics();
+		assertTrue(after.hits() > before.hits());
+	}
+}
@@ -0,0 +1,95 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkViewport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ParallelCommandRecorderTest {
+	private static final int TASK_COUNT = 1000;
+	private static final int TASKS_PER_BUFFER = 64;
+
+	VulkanInstance instance;
+	LogicalDevice device;
+	CommandPools pools;
+	Arena arena;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		var queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.validate(physicalDevice);
+		pools = new CommandPools(device, queueFamilyIndex, 2);
+		arena = Arena.ofShared();
+	}
+
+	@AfterEach
+	void closeDevice() {
+		arena.close();
+		pools.close();
+		device.close();
+		instance.close();
+	}
+
+	@Test
+	void recordsBatchesInOrder() {
+		var viewport = VkViewport.allocate(arena);
+		VkViewport.width$set(viewport, 1.0f);
+		VkViewport.height$set(viewport, 1.0f);
+		VkViewport.maxDepth$set(viewport, 1.0f);
+
+		var recordedInto = new ConcurrentHashMap<Integer, CommandBuffer>();
+		var tasks = IntStream.range(0, TASK_COUNT)
+				.<ParallelCommandRecorder.Task>mapToObj(i -> buffer -> {
+					buffer.setViewports(0, viewport);
+					assertNull(recordedInto.put(i, buffer));
+				})
+				.toList();
+
+		try (var forkJoinPool = new ForkJoinPool(4)) {
+			var recorder = new ParallelCommandRecorder(pools, forkJoinPool, TASKS_PER_BUFFER);
+
+			var primary = pools.primary();
+			primary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+			var secondaries = recorder.record(primary, tasks);
+			primary.end();
+
+			assertEquals((TASK_COUNT + TASKS_PER_BUFFER - 1) / TASKS_PER_BUFFER, secondaries.size());
+			assertEquals(TASK_COUNT, recordedInto.size());
+
+			var batches = new HashMap<CommandBuffer, Integer>();
+			for (int i = 0; i < secondaries.size(); i++) {
+				assertNull(batches.put(secondaries.get(i), i));
+			}
+
+			for (int i = 0; i < TASK_COUNT; i++) {
+				assertEquals(i / TASKS_PER_BUFFER, batches.get(recordedInto.get(i)));
+			}
+		}
+	}
+
+	@Test
+	void recordsNothingWithoutTasks() {
+		var recorder = new ParallelCommandRecorder(pools);
+
+		var primary = pools.primary();
+		primary.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		assertEquals(List.of(), recorder.record(primary, List.of()));
+		primary.end();
+	}
+}
@@ -35,6 +35,26 @@ final class PhysicalDeviceTest {
 		assertEquals(VulkanVersionNumber.headerVersion().major(), properties.apiVersion().major());
 	}
 
+	@Test
+	void propertiesView() {
+		var properties = device.getProperties();
+		var view = device.propertiesView();
+
+		assertSame(view, device.propertiesView());
+		assertEquals(properties.apiVersion(), view.apiVersion());
+		assertEquals(properties.deviceName(), view.deviceName());
+		assertEquals(properties.deviceType(), view.deviceType());
+		assertEquals(properties.pipelineCacheUUID(), view.pipelineCacheUUID());
+
+		var limits = view.limits();
+		assertEquals(VkPhysicalDeviceLimits.maxPushConstantsSize$get(properties.limits()), limits.maxPushConstantsSize());
+		assertTrue(limits.maxPushConstantsSize() >= 128);
+		assertTrue(limits.maxComputeWorkGroupSize(0) >= 128);
+		assertTrue(limits.timestampPeriod() > 0);
+		assertEquals(0, limits.alignUniformBufferOffset(1) % limits.minUniformBufferOffsetAlignment());
+		assertTrue(limits.framebufferColorSampleCounts().contains(SampleCountFlag.ONE));
+	}
+
 	@Test
 	void getProperties2() {
 		PhysicalDevice.PropertiesNext vulkanVersionOneProperties = (chainArena, next) -> {
@@ -253,4 +273,46 @@ final class PhysicalDeviceTest {
 		assertEquals(VkExternalImageFormatProperties.$LAYOUT().byteSize(), externalImageFormatPropertiesResult.byteSize());
 		assertEquals(vulkan_h.VK_STRUCTURE_TYPE_EXTERNAL_IMAGE_FORMAT_PROPERTIES(), VkExternalImageFormatProperties.sType$get(externalImageFormatPropertiesResult));
 	}
+
+	@Test
+	void getImageFormatPropertiesIntoScratch() {
+		PhysicalDevice.ImageFormatPropertiesNext externalImageFormatProperties = (arena, next) -> {
+			var result = VkExternalImageFormatProperties.allocate(arena);
+			VkExternalImageFormatProperties.sType$set(result, vulkan_h.VK_STRUCTURE_TYPE_EXTERNAL_IMAGE_FORMAT_PROPERTIES());
+			VkExternalImageFormatProperties.pNext$set(result, next);
+			return result;
+		};
+
+		var expected = device.getImageFormatProperties(vulkan_h.VK_FORMAT_R8G8B8A8_SRGB(),
+				vulkan_h.VK_IMAGE_TYPE_2D(),
+				vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+				vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT(),
+				0);
+
+		try (var scratch = ScratchAllocator.push()) {
+			var imageFormatProperties = device.getImageFormatProperties(scratch,
+					vulkan_h.VK_FORMAT_R8G8B8A8_SRGB(),
+					vulkan_h.VK_IMAGE_TYPE_2D(),
+					vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+					vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT(),
+					0,
+					List.of(),
+					List.of(externalImageFormatProperties));
+
+			assertEquals(expected, imageFormatProperties.properties());
+			assertEquals(vulkan_h.VK_STRUCTURE_TYPE_EXTERNAL_IMAGE_FORMAT_PROPERTIES(), VkExternalImageFormatProperties.sType$get(imageFormatProperties.nexts().getFirst()));
+
+			var extensionProperties = device.getImageFormatProperties(scratch,
+					vulkan_h.VK_FORMAT_R8G8B8A8_SRGB(),
+					vulkan_h.VK_IMAGE_TYPE_2D(),
+					vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+					vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT(),
+					0,
+					List.of(),
+					List.of(externalImageFormatProperties),
+					GetPhysicalDeviceProperties2Extension.extend(instance));
+
+			assertEquals(expected, extensionProperties.properties());
+		}
+	}
 }
@@ -0,0 +1,92 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PipelineCacheStoreTest {
+	@TempDir
+	Path directory;
+
+	VulkanInstance instance;
+	LogicalDevice device;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder().validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		device = LogicalDevice.builder()
+				.withQueues(physicalDevice.getQueueFamilyProperties().getFirst().index(), 1)
+				.validate(physicalDevice);
+	}
+
+	@AfterEach
+	void closeDevice() {
+		device.close();
+		instance.close();
+	}
+
+	@Test
+	void saveAndLoad() throws IOException {
+		var store = new PipelineCacheStore(directory);
+
+		try (var cache = store.load(device)) {
+			store.save(cache);
+		}
+
+		var path = store.path(DeviceCacheKey.of(device.physicalDevice()));
+		assertTrue(Files.exists(path));
+
+		try (var cache = store.load(device); var arena = Arena.ofConfined()) {
+			assertTrue(cache.getData(arena).byteSize() > 0);
+		}
+
+		assertTrue(Files.exists(path));
+	}
+
+	@Test
+	void mergeAndSave() throws IOException {
+		var store = new PipelineCacheStore(directory);
+
+		try (var first = PipelineCache.create(device); var second = PipelineCache.create(device)) {
+			store.save(device, List.of(first, second));
+		}
+
+		assertTrue(Files.exists(store.path(DeviceCacheKey.of(device.physicalDevice()))));
+	}
+
+	@Test
+	void driverChangeInvalidatesCache() throws IOException {
+		var store = new PipelineCacheStore(directory);
+
+		try (var cache = store.load(device)) {
+			store.save(cache);
+		}
+
+		var path = store.path(DeviceCacheKey.of(device.physicalDevice()));
+
+		// Corrupt the stored driver version, as if the driver had been updated since the cache was written
+		try (var arena = Arena.ofConfined();
+		     var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			var file = channel.map(FileChannel.MapMode.READ_WRITE, 0L, channel.size(), arena);
+			var driverVersionOffset = 4L * Integer.BYTES;
+			file.set(ValueLayout.JAVA_INT, driverVersionOffset, ~file.get(ValueLayout.JAVA_INT, driverVersionOffset));
+		}
+
+		try (var _ = store.load(device)) {
+			assertFalse(Files.exists(path));
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.VkAllocationCallbacks;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.junit.jupiter.api.Assertions.*;
+
+record PooledAllocationCallbacksTest() {
+	@Test
+	void allocationsAreAligned() {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var allocations = new ArrayList<MemorySegment>();
+
+			for (long alignment = 1; alignment <= 8192; alignment <<= 1) {
+				for (long size : new long[] { 1, 24, 100, 4000, 70000 }) {
+					var memory = callbacks.allocate(size, alignment, SystemAllocationScope.OBJECT);
+					assertNotEquals(0, memory.address());
+					assertEquals(0, memory.address() % alignment);
+					memory.reinterpret(size).fill((byte) 0x5a);
+					allocations.add(memory);
+				}
+			}
+
+			allocations.forEach(callbacks::free);
+			assertEquals(0, callbacks.statistics(SystemAllocationScope.OBJECT).currentBytes());
+		}
+	}
+
+	@Test
+	void reallocationKeepsContents() {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var memory = callbacks.allocate(16, 8, SystemAllocationScope.COMMAND);
+			for (int i = 0; i < 16; i++) {
+				memory.reinterpret(16).set(JAVA_BYTE, i, (byte) i);
+			}
+
+			for (long size : new long[] { 20, 1000, 200000, 8 }) {
+				memory = callbacks.reallocate(memory, size, 8, SystemAllocationScope.COMMAND);
+				for (int i = 0; i < 8; i++) {
+					assertEquals((byte) i, memory.reinterpret(8).get(JAVA_BYTE, i));
+				}
+			}
+
+			assertEquals(0, callbacks.reallocate(memory, 0, 8, SystemAllocationScope.COMMAND).address());
+			assertEquals(0, callbacks.statistics(SystemAllocationScope.COMMAND).currentBytes());
+		}
+	}
+
+	@Test
+	void statisticsArePerScope() {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var first = callbacks.allocate(100, 8, SystemAllocationScope.DEVICE);
+			var second = callbacks.allocate(300, 8, SystemAllocationScope.DEVICE);
+			var third = callbacks.allocate(50, 8, SystemAllocationScope.CACHE);
+			callbacks.free(first);
+
+			var device = callbacks.statistics(SystemAllocationScope.DEVICE);
+			assertEquals(300, device.currentBytes());
+			assertEquals(400, device.peakBytes());
+			assertEquals(2, device.allocations());
+			assertEquals(1, device.frees());
+
+			var statistics = callbacks.statistics();
+			assertEquals(50, statistics.get(SystemAllocationScope.CACHE).currentBytes());
+			assertEquals(0, statistics.get(SystemAllocationScope.INSTANCE).allocations());
+
+			callbacks.free(second);
+			callbacks.free(third);
+		}
+	}
+
+	@Test
+	void freedBlocksAreReused() {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var memory = callbacks.allocate(64, 16, SystemAllocationScope.OBJECT);
+			var address = memory.address();
+			callbacks.free(memory);
+
+			assertEquals(address, callbacks.allocate(64, 16, SystemAllocationScope.OBJECT).address());
+		}
+	}
+
+	@Test
+	void sharesOneNativeStructure() {
+		try (var callbacks = new PooledAllocationCallbacks();
+		     var first = Arena.ofConfined();
+		     var second = Arena.ofConfined()) {
+			assertEquals(callbacks.createNativeStructure(first).address(), callbacks.createNativeStructure(second).address());
+		}
+	}
+
+	@Test
+	void unknownValuesFromTheDriverAreIgnored() throws Throwable {
+		try (var callbacks = new PooledAllocationCallbacks();
+		     var arena = Arena.ofConfined()) {
+			var structure = callbacks.createNativeStructure(arena);
+			var internalAllocation = Linker.nativeLinker().downcallHandle(
+					VkAllocationCallbacks.pfnInternalAllocation$get(structure),
+					FunctionDescriptor.ofVoid(ADDRESS, vulkan_h.size_t, JAVA_INT, JAVA_INT));
+
+			// An exception escaping the upcall would crash the JVM
+			internalAllocation.invoke(MemorySegment.NULL, 64L, 0x7fff, 0x7fff);
+
+			assertTrue(callbacks.statistics().values().stream().allMatch(statistics -> statistics.internalBytes() == 0));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+record ScratchAllocatorTest() {
+	@Test
+	void closingAScopeReusesItsMemory() {
+		long first;
+		try (var scratch = ScratchAllocator.push()) {
+			var segment = scratch.allocate(ValueLayout.JAVA_LONG);
+			segment.set(ValueLayout.JAVA_LONG, 0, -1L);
+			first = segment.address();
+		}
+
+		try (var scratch = ScratchAllocator.push()) {
+			var segment = scratch.allocate(ValueLayout.JAVA_LONG);
+			assertEquals(first, segment.address());
+			assertEquals(0L, segment.get(ValueLayout.JAVA_LONG, 0));
+		}
+	}
+
+	@Test
+	void allocationsAreAligned() {
+		try (var scratch = ScratchAllocator.push()) {
+			scratch.allocate(1);
+			var segment = scratch.allocate(24, 16);
+			assertEquals(0, segment.address() % 16);
+		}
+	}
+
+	@Test
+	void largeAllocationsSpillIntoNewChunks() {
+		try (var scratch = ScratchAllocator.push()) {
+			var small = scratch.allocate(16);
+			var large = scratch.allocate(1 << 20);
+			assertEquals(1 << 20, large.byteSize());
+			assertNotEquals(small.address(), large.address());
+		}
+	}
+
+	@Test
+	void onlyTheInnermostScopeCanBeUsed() {
+		try (var outer = ScratchAllocator.push()) {
+			var before = outer.allocate(8);
+
+			try (var inner = ScratchAllocator.push()) {
+				inner.allocate(8);
+				assertThrows(IllegalStateException.class, () -> outer.allocate(8));
+				assertThrows(IllegalStateException.class, outer::close);
+			}
+
+			var after = outer.allocate(8);
+			assertTrue(after.address() > before.address());
+		}
+	}
+}
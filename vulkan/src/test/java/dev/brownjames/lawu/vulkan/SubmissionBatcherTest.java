@@ -0,0 +1,145 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class SubmissionBatcherTest {
+	VulkanInstance instance;
+	LogicalDevice device;
+	DeviceQueue queue;
+	CommandPool commandPool;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		var queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.withTimelineSemaphores()
+				.withSynchronization2()
+				.validate(physicalDevice);
+		queue = device.getQueue(queueFamilyIndex, 0);
+		commandPool = CommandPool.create(device, queueFamilyIndex, EnumSet.noneOf(CommandPool.Flag.class));
+	}
+
+	@AfterEach
+	void closeDevice() {
+		device.waitIdle();
+		commandPool.close();
+		device.close();
+		instance.close();
+	}
+
+	private CommandBuffer recordEmpty() {
+		var buffer = commandPool.allocate(CommandBuffer.Level.PRIMARY);
+		buffer.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		buffer.end();
+		return buffer;
+	}
+
+	private static CommandBuffer fakeCommandBuffer(long address) {
+		return new CommandBuffer(MemorySegment.ofAddress(address), null, CommandBuffer.Level.PRIMARY);
+	}
+
+	@Test
+	void mergesSubmissionsWithTheSameWaits() {
+		var first = new TimelineSemaphore(MemorySegment.ofAddress(1), null);
+		var second = new TimelineSemaphore(MemorySegment.ofAddress(2), null);
+
+		var merged = SubmissionBatcher.merge(List.of(
+				SubmitInfo.of(List.of(fakeCommandBuffer(10))).withSignal(first, 1),
+				SubmitInfo.of(List.of(fakeCommandBuffer(11))).withSignal(first, 2).withSignal(second, 1),
+				SubmitInfo.of(List.of(fakeCommandBuffer(12))).withWait(second, 1),
+				SubmitInfo.of(List.of(fakeCommandBuffer(13))).withWait(second, 1),
+				SubmitInfo.of(List.of(fakeCommandBuffer(14)))));
+
+		assertEquals(3, merged.size());
+
+		assertEquals(List.of(fakeCommandBuffer(10), fakeCommandBuffer(11)), merged.get(0).commandBuffers());
+		assertEquals(List.of(new SubmitInfo.SemaphoreSignal(first, 2), new SubmitInfo.SemaphoreSignal(second, 1)), merged.get(0).signals());
+
+		assertEquals(List.of(fakeCommandBuffer(12), fakeCommandBuffer(13)), merged.get(1).commandBuffers());
+		assertEquals(List.of(new SubmitInfo.SemaphoreWait(second, 1)), merged.get(1).waits());
+
+		assertEquals(List.of(fakeCommandBuffer(14)), merged.get(2).commandBuffers());
+		assertTrue(merged.get(2).waits().isEmpty());
+	}
+
+	@Test
+	void flushesWhenTheBatchIsFull() {
+		try (var semaphore = TimelineSemaphore.create(device)) {
+			var batcher = new SubmissionBatcher(queue, 4);
+
+			for (int value = 1; value <= 10; value++) {
+				batcher.submit(SubmitInfo.of(List.of(recordEmpty())).withSignal(semaphore, value));
+			}
+
+			assertEquals(2, batcher.staged());
+			assertTrue(semaphore.await(8, Duration.ofSeconds(5)));
+
+			batcher.flush();
+			assertEquals(0, batcher.staged());
+			assertTrue(semaphore.await(10, Duration.ofSeconds(5)));
+
+			var statistics = batcher.statistics();
+			assertEquals(10, statistics.submissions());
+			assertEquals(3, statistics.flushes());
+			assertEquals(3, statistics.batches());
+			assertEquals(4, statistics.largestFlush());
+			assertEquals(10.0 / 3, statistics.averageFlushSize(), 1e-9);
+		}
+	}
+
+	@Test
+	void flushesWithAFence() {
+		try (var fence = Fence.create(device)) {
+			var batcher = new SubmissionBatcher(queue, Integer.MAX_VALUE);
+			batcher.submit(SubmitInfo.of(List.of(recordEmpty())));
+
+			batcher.flush(fence);
+			assertTrue(fence.await(Duration.ofSeconds(5)));
+		}
+	}
+
+	@Test
+	void stagesFromManyThreads() throws InterruptedException, ExecutionException {
+		var batcher = new SubmissionBatcher(queue, 64);
+
+		try (var executor = Executors.newFixedThreadPool(4)) {
+			var futures = new ArrayList<Future<?>>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 250; i++) {
+						batcher.submit(new SubmitInfo());
+					}
+				}));
+			}
+
+			for (var future : futures) {
+				future.get();
+			}
+		}
+
+		batcher.flush();
+
+		var statistics = batcher.statistics();
+		assertEquals(1000, statistics.submissions());
+		assertTrue(statistics.largestFlush() >= 64);
+		assertEquals(statistics.flushes(), statistics.batches());
+	}
+}
@@ -0,0 +1,118 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TaskGraphTest {
+	VulkanInstance instance;
+	LogicalDevice device;
+	DeviceQueue queue;
+	CommandPool commandPool;
+	ExecutorService executor;
+	AsyncWaitService waits;
+
+	@BeforeEach
+	void createDevice() throws VulkanValidationException {
+		instance = TestVulkanInstanceHelper.builder()
+				.withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT)
+				.validate();
+		var physicalDevice = instance.allPhysicalDevices().getFirst();
+		var queueFamilyIndex = physicalDevice.getQueueFamilyProperties().getFirst().index();
+		device = LogicalDevice.builder()
+				.withQueues(queueFamilyIndex, 1)
+				.withTimelineSemaphores()
+				.validate(physicalDevice);
+		queue = device.getQueue(queueFamilyIndex, 0);
+		commandPool = CommandPool.create(device, queueFamilyIndex, EnumSet.noneOf(CommandPool.Flag.class));
+		executor = Executors.newFixedThreadPool(4);
+		waits = new AsyncWaitService(device, executor, AsyncWaitService.DEFAULT_POLL_INTERVAL);
+	}
+
+	@AfterEach
+	void closeDevice() throws InterruptedException {
+		waits.close();
+		executor.close();
+		device.waitIdle();
+		commandPool.close();
+		device.close();
+		instance.close();
+	}
+
+	private CommandBuffer recordEmpty() {
+		var buffer = commandPool.allocate(CommandBuffer.Level.PRIMARY);
+		buffer.begin(EnumSet.of(CommandBuffer.Usage.ONE_TIME_SUBMIT));
+		buffer.end();
+		return buffer;
+	}
+
+	@Test
+	void signalsFromTheHost() {
+		try (var semaphore = TimelineSemaphore.create(device, 3)) {
+			assertEquals(3, semaphore.value());
+			assertFalse(semaphore.await(4, Duration.ofMillis(1)));
+
+			semaphore.signal(5);
+			assertEquals(5, semaphore.value());
+			assertTrue(semaphore.await(4, Duration.ZERO));
+		}
+	}
+
+	@Test
+	void runsCpuAndGpuNodesInOrder() {
+		var order = new CopyOnWriteArrayList<String>();
+
+		try (var graph = new TaskGraph(device, executor, waits)) {
+			var buffer = recordEmpty();
+
+			var prepare = graph.cpu(() -> order.add("prepare"));
+			var render = graph.gpu(queue, () -> {
+				order.add("submit");
+				return SubmitInfo.of(List.of(buffer));
+			}, prepare);
+			var present = graph.cpu(() -> order.add("complete"), render);
+
+			present.completion().join();
+			assertEquals(List.of("prepare", "submit", "complete"), order);
+
+			var signal = render.submission().join();
+			assertTrue(signal.semaphore().value() >= signal.value());
+		}
+	}
+
+	@Test
+	void ordersGpuNodesOnTheDevice() {
+		try (var graph = new TaskGraph(device, executor, waits)) {
+			var first = graph.gpu(queue, List.of(recordEmpty()));
+			var second = graph.gpu(queue, List.of(recordEmpty()), first);
+
+			second.completion().join();
+			first.completion().join();
+			assertTrue(second.submission().join().value() > first.submission().join().value());
+
+			graph.whenIdle().join();
+		}
+	}
+
+	@Test
+	void propagatesFailures() {
+		try (var graph = new TaskGraph(device, executor, waits)) {
+			var failed = graph.cpu(() -> {
+				throw new IllegalStateException("failed");
+			});
+			var dependent = graph.gpu(queue, List.of(recordEmpty()), failed);
+
+			assertThrows(Exception.class, () -> dependent.completion().join());
+			assertTrue(dependent.submission().isCompletedExceptionally());
+		}
+	}
+}
@@ -4,108 +4,587 @@ import dev.brownjames.lawu.vulkan.bindings.*;
 import dev.brownjames.lawu.vulkan.directdriverloading.VulkanDriver;
 
 import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 /**
- * This driver only implements the minimum needed to test the direct driver loading. This may break, as it is not a compliant driver.
+ * A driver implemented in Java, loaded with VK_LUNARG_direct_driver_loading, which reports synthetic physical devices.
+ * <p>
+ * Each device is described by a {@link Device}, covering its properties, features, queue families, memory properties,
+ * format table and image format support. Every entry point counts its calls and can be given a latency, which it spins
+ * for before returning, so the overhead of the bindings can be measured and regression-tested without a GPU. Only the
+ * instance and physical device queries are implemented; this is not a compliant driver, and creating a device fails.
  */
-record TestVulkanDriver() implements VulkanDriver {
-	private static final System.Logger LOGGER = System.getLogger(String.valueOf(TestVulkanDriver.class.getModule().getName()));
+public final class TestVulkanDriver implements VulkanDriver {
+	/**
+	 * The value drivers must store at the start of dispatchable handles, for the loader to replace
+	 */
+	public static final long LOADER_MAGIC = 0x01CDC0DEL;
+
+	/**
+	 * The loader interface version required by direct driver loading
+	 */
+	private static final int LOADER_INTERFACE_VERSION = 7;
+
+	private static final MemoryLayout UINT32_POINTER = ADDRESS.withTargetLayout(vulkan_h.uint32_t);
+
+	/**
+	 * The layout of dispatchable handles, which start with the loader's dispatch pointer
+	 */
+	private static final StructLayout DISPATCHABLE = MemoryLayout.structLayout(
+			ADDRESS.withName("loaderData"),
+			JAVA_LONG.withName("index")
+	);
+
+	private static final Map<String, FunctionDescriptor> ENTRY_POINTS = Map.ofEntries(
+			Map.entry("vk_icdNegotiateLoaderICDInterfaceVersion", FunctionDescriptor.of(JAVA_INT, UINT32_POINTER)),
+			Map.entry("vk_icdGetPhysicalDeviceProcAddr", FunctionDescriptor.of(ADDRESS, ADDRESS, BindingHelper.CHAR_POINTER)),
+			Map.entry("vk_icdEnumerateAdapterPhysicalDevices", FunctionDescriptor.of(JAVA_INT,
+					ADDRESS, MemoryLayout.structLayout(JAVA_INT, JAVA_INT), UINT32_POINTER, ADDRESS)),
+			Map.entry("vkEnumerateInstanceVersion", FunctionDescriptor.of(JAVA_INT, UINT32_POINTER)),
+			Map.entry("vkEnumerateInstanceExtensionProperties", FunctionDescriptor.of(JAVA_INT, ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkCreateInstance", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS.withTargetLayout(ADDRESS))),
+			Map.entry("vkDestroyInstance", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS)),
+			Map.entry("vkEnumeratePhysicalDevices", FunctionDescriptor.of(JAVA_INT, ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkGetPhysicalDeviceProperties", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceProperties.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceProperties2", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceProperties2.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceFeatures", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceFeatures.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceFeatures2", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceFeatures2.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceFormatProperties", FunctionDescriptor.ofVoid(ADDRESS, JAVA_INT, ADDRESS.withTargetLayout(VkFormatProperties.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceFormatProperties2", FunctionDescriptor.ofVoid(ADDRESS, JAVA_INT, ADDRESS.withTargetLayout(VkFormatProperties2.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceImageFormatProperties", FunctionDescriptor.of(JAVA_INT,
+					ADDRESS, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT, ADDRESS.withTargetLayout(VkImageFormatProperties.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceImageFormatProperties2", FunctionDescriptor.of(JAVA_INT,
+					ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceImageFormatInfo2.$LAYOUT()), ADDRESS.withTargetLayout(VkImageFormatProperties2.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceSparseImageFormatProperties", FunctionDescriptor.ofVoid(
+					ADDRESS, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT, JAVA_INT, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkGetPhysicalDeviceQueueFamilyProperties", FunctionDescriptor.ofVoid(ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkGetPhysicalDeviceQueueFamilyProperties2", FunctionDescriptor.ofVoid(ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkGetPhysicalDeviceMemoryProperties", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceMemoryProperties.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceMemoryProperties2", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS.withTargetLayout(VkPhysicalDeviceMemoryProperties2.$LAYOUT()))),
+			Map.entry("vkGetPhysicalDeviceToolProperties", FunctionDescriptor.of(JAVA_INT, ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkEnumerateDeviceExtensionProperties", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, UINT32_POINTER, ADDRESS)),
+			Map.entry("vkEnumerateDeviceLayerProperties", FunctionDescriptor.of(JAVA_INT, ADDRESS, UINT32_POINTER, ADDRESS))
+	);
 
-	private MemorySegment makeUpcall(Object callable, FunctionDescriptor descriptor) {
-		Method callMethod = Arrays.stream(callable.getClass().getDeclaredMethods())
-				.filter(m -> m.getName().equals("call"))
-				.findFirst()
-				.orElseThrow();
+	private static final MethodHandle ENTER;
 
+	static {
 		try {
-			return Linker.nativeLinker().upcallStub(
-					MethodHandles.lookup().unreflect(callMethod).bindTo(callable),
-					descriptor,
-					Arena.global());
-		} catch (IllegalAccessException e) {
-			throw new AssertionError(e);
+			ENTER = MethodHandles.lookup().findVirtual(TestVulkanDriver.class, "enter", MethodType.methodType(void.class, String.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
 		}
 	}
 
+	/**
+	 * Decides whether a device supports a combination of image parameters
+	 */
+	@FunctionalInterface
+	public interface ImageFormatSupport {
+		Optional<ImageFormatProperties> query(Device device, int format, int type, int tiling, int usage, int flags);
+	}
+
+	/**
+	 * A synthetic physical device
+	 * @param properties the properties, including the limits and sparse properties
+	 * @param features a {@code VkPhysicalDeviceFeatures} structure
+	 * @param queueFamilies the queue families
+	 * @param memoryProperties the memory types and heaps
+	 * @param formats the format table, where missing formats support nothing
+	 * @param imageFormats the image format support
+	 */
+	public record Device(
+			PhysicalDevice.Properties properties,
+			MemorySegment features,
+			List<QueueFamilyProperties> queueFamilies,
+			MemoryProperties memoryProperties,
+			Map<Integer, FormatProperties> formats,
+			ImageFormatSupport imageFormats
+	) {
+		/**
+		 * A device with plausible limits, every feature, one queue family of each kind, device-local and host-visible
+		 * memory, and sampling and transfer support for every core format
+		 * @param index the index of the device, which distinguishes its name and identifiers
+		 * @return a device
+		 */
+		public static Device synthetic(int index) {
+			var arena = Arena.ofAuto();
+
+			var limits = VkPhysicalDeviceLimits.allocate(arena);
+			VkPhysicalDeviceLimits.maxImageDimension1D$set(limits, 16384);
+			VkPhysicalDeviceLimits.maxImageDimension2D$set(limits, 16384);
+			VkPhysicalDeviceLimits.maxImageDimension3D$set(limits, 2048);
+			VkPhysicalDeviceLimits.maxImageDimensionCube$set(limits, 16384);
+			VkPhysicalDeviceLimits.maxImageArrayLayers$set(limits, 2048);
+			VkPhysicalDeviceLimits.maxUniformBufferRange$set(limits, 65536);
+			VkPhysicalDeviceLimits.maxStorageBufferRange$set(limits, Integer.MAX_VALUE);
+			VkPhysicalDeviceLimits.maxPushConstantsSize$set(limits, 256);
+			VkPhysicalDeviceLimits.maxMemoryAllocationCount$set(limits, 4096);
+			VkPhysicalDeviceLimits.maxBoundDescriptorSets$set(limits, 8);
+			VkPhysicalDeviceLimits.bufferImageGranularity$set(limits, 1024);
+			VkPhysicalDeviceLimits.maxComputeWorkGroupInvocations$set(limits, 1024);
+			VkPhysicalDeviceLimits.maxComputeWorkGroupSize$slice(limits).setAtIndex(JAVA_INT, 0, 1024);
+			VkPhysicalDeviceLimits.maxComputeWorkGroupSize$slice(limits).setAtIndex(JAVA_INT, 1, 1024);
+			VkPhysicalDeviceLimits.maxComputeWorkGroupSize$slice(limits).setAtIndex(JAVA_INT, 2, 64);
+			VkPhysicalDeviceLimits.maxColorAttachments$set(limits, 8);
+			VkPhysicalDeviceLimits.maxViewports$set(limits, 16);
+			VkPhysicalDeviceLimits.maxViewportDimensions$slice(limits).setAtIndex(JAVA_INT, 0, 16384);
+			VkPhysicalDeviceLimits.maxViewportDimensions$slice(limits).setAtIndex(JAVA_INT, 1, 16384);
+			VkPhysicalDeviceLimits.minMemoryMapAlignment$set(limits, 64);
+			VkPhysicalDeviceLimits.minTexelBufferOffsetAlignment$set(limits, 16);
+			VkPhysicalDeviceLimits.minUniformBufferOffsetAlignment$set(limits, 256);
+			VkPhysicalDeviceLimits.minStorageBufferOffsetAlignment$set(limits, 64);
+			VkPhysicalDeviceLimits.timestampComputeAndGraphics$set(limits, vulkan_h.VK_TRUE());
+			VkPhysicalDeviceLimits.timestampPeriod$set(limits, 1.0f);
+			VkPhysicalDeviceLimits.nonCoherentAtomSize$set(limits, 64);
+
+			var sampleCounts = vulkan_h.VK_SAMPLE_COUNT_1_BIT() | vulkan_h.VK_SAMPLE_COUNT_4_BIT();
+			VkPhysicalDeviceLimits.framebufferColorSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.framebufferDepthSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.framebufferStencilSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.framebufferNoAttachmentsSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.sampledImageColorSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.sampledImageIntegerSampleCounts$set(limits, vulkan_h.VK_SAMPLE_COUNT_1_BIT());
+			VkPhysicalDeviceLimits.sampledImageDepthSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.sampledImageStencilSampleCounts$set(limits, sampleCounts);
+			VkPhysicalDeviceLimits.storageImageSampleCounts$set(limits, vulkan_h.VK_SAMPLE_COUNT_1_BIT());
+
+			var uuid = new byte[vulkan_h.VK_UUID_SIZE()];
+			uuid[0] = (byte) index;
+
+			var properties = new PhysicalDevice.Properties(
+					VulkanVersionNumber.of(vulkan_h.VK_API_VERSION_1_3()),
+					1,
+					0xffff,
+					index,
+					PhysicalDevice.Type.VIRTUAL_GPU,
+					"Lawu Test Device " + index,
+					new PipelineCacheUUID(uuid),
+					limits,
+					VkPhysicalDeviceSparseProperties.allocate(arena));
+
+			var features = VkPhysicalDeviceFeatures.allocate(arena);
+			for (long offset = 0; offset < features.byteSize(); offset += JAVA_INT.byteSize()) {
+				features.set(JAVA_INT, offset, vulkan_h.VK_TRUE());
+			}
+
+			var queueFamilies = List.of(
+					new QueueFamilyProperties(0, EnumSet.of(QueueFlag.GRAPHICS, QueueFlag.COMPUTE, QueueFlag.TRANSFER), 4, 64, new Extent3d(1, 1, 1)),
+					new QueueFamilyProperties(1, EnumSet.of(QueueFlag.COMPUTE, QueueFlag.TRANSFER), 2, 64, new Extent3d(1, 1, 1)),
+					new QueueFamilyProperties(2, EnumSet.of(QueueFlag.TRANSFER), 1, 64, new Extent3d(16, 16, 8)));
+
+			var memoryProperties = new MemoryProperties(
+					List.of(
+							new MemoryProperties.MemoryType(0, EnumSet.of(MemoryPropertyFlag.DEVICE_LOCAL), 0),
+							new MemoryProperties.MemoryType(1, EnumSet.of(MemoryPropertyFlag.HOST_VISIBLE, MemoryPropertyFlag.HOST_COHERENT), 1),
+							new MemoryProperties.MemoryType(2, EnumSet.of(MemoryPropertyFlag.HOST_VISIBLE, MemoryPropertyFlag.HOST_CACHED), 1)),
+					List.of(
+							new MemoryProperties.MemoryHeap(0, 4L << 30, EnumSet.of(MemoryHeapFlag.DEVICE_LOCAL)),
+							new MemoryProperties.MemoryHeap(1, 8L << 30, EnumSet.noneOf(MemoryHeapFlag.class))));
+
+			return new Device(properties, features, queueFamilies, memoryProperties, syntheticFormats(), Device::supportFromFormatFeatures);
+		}
+
+		private static Map<Integer, FormatProperties> syntheticFormats() {
+			var sampled = BitFlags.of(FormatFeatureFlag.SAMPLED_IMAGE, FormatFeatureFlag.TRANSFER_SRC, FormatFeatureFlag.TRANSFER_DST);
+			var linear = BitFlags.of(FormatFeatureFlag.TRANSFER_SRC, FormatFeatureFlag.TRANSFER_DST);
+			var buffer = BitFlags.of(FormatFeatureFlag.UNIFORM_TEXEL_BUFFER, FormatFeatureFlag.VERTEX_BUFFER);
+
+			var colourAttachment = sampled
+					.with(FormatFeatureFlag.COLOR_ATTACHMENT)
+					.with(FormatFeatureFlag.COLOR_ATTACHMENT_BLEND)
+					.with(FormatFeatureFlag.STORAGE_IMAGE)
+					.with(FormatFeatureFlag.SAMPLED_IMAGE_FILTER_LINEAR);
+			var colourFormats = Set.of(
+					vulkan_h.VK_FORMAT_R8G8B8A8_UNORM(),
+					vulkan_h.VK_FORMAT_R8G8B8A8_SRGB(),
+					vulkan_h.VK_FORMAT_B8G8R8A8_UNORM(),
+					vulkan_h.VK_FORMAT_B8G8R8A8_SRGB(),
+					vulkan_h.VK_FORMAT_R16G16B16A16_SFLOAT(),
+					vulkan_h.VK_FORMAT_R32G32B32A32_SFLOAT());
+
+			var depthAttachment = sampled.with(FormatFeatureFlag.DEPTH_STENCIL_ATTACHMENT);
+			var depthFormats = Set.of(
+					vulkan_h.VK_FORMAT_D16_UNORM(),
+					vulkan_h.VK_FORMAT_D32_SFLOAT(),
+					vulkan_h.VK_FORMAT_D24_UNORM_S8_UINT());
+
+			return DeviceCapabilitySnapshot.Request.CORE_FORMATS.stream()
+					.collect(Collectors.toUnmodifiableMap(format -> format, format -> {
+						if (colourFormats.contains(format)) {
+							return new FormatProperties(linear, colourAttachment, buffer);
+						} else if (depthFormats.contains(format)) {
+							return new FormatProperties(BitFlags.none(FormatFeatureFlag.class), depthAttachment, BitFlags.none(FormatFeatureFlag.class));
+						} else {
+							return new FormatProperties(linear, sampled, buffer);
+						}
+					}));
+		}
+
+		/**
+		 * Supports a combination if the format supports every feature its usage needs with the tiling
+		 */
+		public static Optional<ImageFormatProperties> supportFromFormatFeatures(Device device, int format, int type, int tiling, int usage, int flags) {
+			var properties = device.formats().get(format);
+			if (properties == null) {
+				return Optional.empty();
+			}
+
+			var features = tiling == vulkan_h.VK_IMAGE_TILING_LINEAR() ? properties.linearTilingFeatures() : properties.optimalTilingFeatures();
+			if (features.isEmpty()
+					|| (usage & vulkan_h.VK_IMAGE_USAGE_SAMPLED_BIT()) != 0 && !features.contains(FormatFeatureFlag.SAMPLED_IMAGE)
+					|| (usage & vulkan_h.VK_IMAGE_USAGE_STORAGE_BIT()) != 0 && !features.contains(FormatFeatureFlag.STORAGE_IMAGE)
+					|| (usage & vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT()) != 0 && !features.contains(FormatFeatureFlag.COLOR_ATTACHMENT)
+					|| (usage & vulkan_h.VK_IMAGE_USAGE_DEPTH_STENCIL_ATTACHMENT_BIT()) != 0 && !features.contains(FormatFeatureFlag.DEPTH_STENCIL_ATTACHMENT)) {
+				return Optional.empty();
+			}
+
+			var extent = type == vulkan_h.VK_IMAGE_TYPE_3D() ? new Extent3d(2048, 2048, 2048)
+					: type == vulkan_h.VK_IMAGE_TYPE_2D() ? new Extent3d(16384, 16384, 1)
+					: new Extent3d(16384, 1, 1);
+			var sampleCounts = tiling == vulkan_h.VK_IMAGE_TILING_OPTIMAL() && type == vulkan_h.VK_IMAGE_TYPE_2D()
+					? EnumSet.of(SampleCountFlag.ONE, SampleCountFlag.FOUR)
+					: EnumSet.of(SampleCountFlag.ONE);
+
+			return Optional.of(new ImageFormatProperties(extent, 15, type == vulkan_h.VK_IMAGE_TYPE_3D() ? 1 : 2048, sampleCounts, 1L << 32));
+		}
+
+		public Device withProperties(PhysicalDevice.Properties properties) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+
+		public Device withFeatures(MemorySegment features) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+
+		public Device withQueueFamilies(List<QueueFamilyProperties> queueFamilies) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+
+		public Device withMemoryProperties(MemoryProperties memoryProperties) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+
+		public Device withFormats(Map<Integer, FormatProperties> formats) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+
+		public Device withImageFormats(ImageFormatSupport imageFormats) {
+			return new Device(properties, features, queueFamilies, memoryProperties, formats, imageFormats);
+		}
+	}
+
+	/**
+	 * The handles created by one {@code vkCreateInstance} call
+	 */
+	private record InstanceState(Arena arena, MemorySegment handle, List<MemorySegment> physicalDevices) { }
+
+	private final List<Device> devices;
+	private final Map<String, MemorySegment> stubs = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+	private final Map<String, Long> latencies = new ConcurrentHashMap<>();
+	private final Map<Long, InstanceState> instances = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a driver with one synthetic device
+	 */
+	public TestVulkanDriver() {
+		this(List.of(Device.synthetic(0)));
+	}
+
+	public TestVulkanDriver(List<Device> devices) {
+		this.devices = List.copyOf(devices);
+	}
+
+	public List<Device> devices() {
+		return devices;
+	}
+
+	/**
+	 * Makes an entry point take at least a given time, by spinning before it returns
+	 * @param name the name of the entry point
+	 * @param latency the latency, or zero for none
+	 */
+	public void setLatency(String name, Duration latency) {
+		if (latency.isZero()) {
+			latencies.remove(name);
+		} else {
+			latencies.put(name, latency.toNanos());
+		}
+	}
+
+	/**
+	 * Gets the number of times an entry point has been called, including calls made by the loader
+	 * @param name the name of the entry point
+	 * @return the number of calls
+	 */
+	public long calls(String name) {
+		var counter = calls.get(name);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * Gets the number of calls to every entry point that has been called
+	 * @return the number of calls, by entry point
+	 */
+	public Map<String, Long> calls() {
+		return calls.entrySet().stream()
+				.collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+	}
+
+	public void resetCalls() {
+		calls.values().forEach(LongAdder::reset);
+	}
+
 	@Override
 	public MemorySegment getInstanceProcAddressPointer() {
-		return makeUpcall(new Object() {
-			MemorySegment call(MemorySegment instance, MemorySegment nativeName) {
-				var name = nativeName.getUtf8String(0);
-
-				return switch (name) {
-					case "vk_icdNegotiateLoaderICDInterfaceVersion" -> makeUpcall(new Object() {
-						int call(MemorySegment supportedVersion) {
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.uint32_t)));
-					case "vk_icdGetPhysicalDeviceProcAddr" -> makeUpcall(new Object() {
-						MemorySegment call(MemorySegment instance, MemorySegment name) {
-							return MemorySegment.NULL;
-						}
-					}, FunctionDescriptor.of(AddressLayout.ADDRESS,
-							vulkan_h.VkInstance,
-							BindingHelper.CHAR_POINTER));
-					case "vk_icdEnumerateAdapterPhysicalDevices" -> makeUpcall(new Object() {
-						int call(MemorySegment instance, MemorySegment adapterLUID, MemorySegment physicalDeviceCount, MemorySegment physicalDevices) {
-							if (physicalDevices.address() == 0L) {
-								physicalDeviceCount.set(vulkan_h.uint32_t, 0, 0);
-							}
-
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							vulkan_h.VkInstance,
-							MemoryLayout.structLayout(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT),
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.uint32_t),
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.VkPhysicalDevice)));
-					case "vkEnumeratePhysicalDevices" -> makeUpcall(new Object() {
-						int call(MemorySegment instance, MemorySegment physicalDeviceCount, MemorySegment physicalDevices) {
-							if (physicalDevices.address() == 0L) {
-								physicalDeviceCount.set(vulkan_h.uint32_t, 0, 0);
-							}
-
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							vulkan_h.VkInstance,
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.uint32_t),
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.VkPhysicalDevice)));
-					case "vkEnumerateInstanceVersion" -> makeUpcall(new Object() {
-						int call(MemorySegment apiVersion) {
-							apiVersion.set(vulkan_h.uint32_t, 0, vulkan_h.VK_VERSION_1_3());
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.uint32_t)));
-					case "vkEnumerateInstanceExtensionProperties" -> makeUpcall(new Object() {
-						int call(MemorySegment layerName, MemorySegment propertyCount, MemorySegment properties) {
-							propertyCount.set(vulkan_h.uint32_t, 0, 0);
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							BindingHelper.CHAR_POINTER,
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.uint32_t),
-							AddressLayout.ADDRESS.withTargetLayout(VkExtensionProperties.$LAYOUT())));
-					case "vkCreateInstance" -> makeUpcall(new Object() {
-						int call(MemorySegment createInfo, MemorySegment allocator, MemorySegment instance) {
-							return vulkan_h.VK_SUCCESS();
-						}
-					}, FunctionDescriptor.of(ValueLayout.JAVA_INT,
-							AddressLayout.ADDRESS.withTargetLayout(VkInstanceCreateInfo.$LAYOUT()),
-							AddressLayout.ADDRESS.withTargetLayout(VkAllocationCallbacks.$LAYOUT()),
-							AddressLayout.ADDRESS.withTargetLayout(vulkan_h.VkInstance)));
-					default -> makeUpcall(new Object() {
-						void call() {
-							throw new UnsupportedOperationException(name);
-						}
-					}, FunctionDescriptor.ofVoid());
-				};
+		return stub("vkGetInstanceProcAddr", FunctionDescriptor.of(ADDRESS, ADDRESS, BindingHelper.CHAR_POINTER));
+	}
+
+	private void enter(String name) {
+		calls.computeIfAbsent(name, key -> new LongAdder()).increment();
+
+		var latency = latencies.get(name);
+		if (latency != null) {
+			var deadline = System.nanoTime() + latency;
+			while (System.nanoTime() - deadline < 0) {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+	/**
+	 * Gets the upcall stub of an entry point, which is created once per driver and counts its calls
+	 */
+	private MemorySegment stub(String name, FunctionDescriptor descriptor) {
+		return stubs.computeIfAbsent(name, key -> {
+			try {
+				var target = MethodHandles.lookup()
+						.findVirtual(TestVulkanDriver.class, name, descriptor.toMethodType())
+						.bindTo(this);
+				var counted = MethodHandles.foldArguments(target, ENTER.bindTo(this).bindTo(name));
+
+				// The loader may hold on to entry points until the process exits
+				return Linker.nativeLinker().upcallStub(counted, descriptor, Arena.global());
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new AssertionError(e);
 			}
-		}, FunctionDescriptor.of(AddressLayout.ADDRESS, vulkan_h.VkInstance, BindingHelper.CHAR_POINTER));
+		});
+	}
+
+	private MemorySegment lookup(String name) {
+		var descriptor = ENTRY_POINTS.get(name);
+		return descriptor == null ? MemorySegment.NULL : stub(name, descriptor);
+	}
+
+	private Device device(MemorySegment physicalDevice) {
+		return devices.get((int) physicalDevice.reinterpret(DISPATCHABLE.byteSize()).get(JAVA_LONG, ADDRESS.byteSize()));
+	}
+
+	private static MemorySegment dispatchable(Arena arena, long index) {
+		var handle = arena.allocate(DISPATCHABLE);
+		handle.set(JAVA_LONG, 0, LOADER_MAGIC);
+		handle.set(JAVA_LONG, ADDRESS.byteSize(), index);
+		return handle;
+	}
+
+	/**
+	 * Copies items into an array in the usual two-call style
+	 * @return {@code VK_SUCCESS}, or {@code VK_INCOMPLETE} if the array was too small
+	 */
+	private static <T> int enumerate(List<T> items, MemorySegment count, MemorySegment array, long stride, ItemWriter<T> writer) {
+		if (array.address() == 0L) {
+			count.set(vulkan_h.uint32_t, 0, items.size());
+			return vulkan_h.VK_SUCCESS();
+		}
+
+		var written = Math.min(count.get(vulkan_h.uint32_t, 0), items.size());
+		var elements = array.reinterpret(written * stride);
+		for (int i = 0; i < written; i++) {
+			writer.write(items.get(i), elements.asSlice(i * stride, stride));
+		}
+
+		count.set(vulkan_h.uint32_t, 0, written);
+		return written < items.size() ? vulkan_h.VK_INCOMPLETE() : vulkan_h.VK_SUCCESS();
+	}
+
+	@FunctionalInterface
+	private interface ItemWriter<T> {
+		void write(T item, MemorySegment destination);
+	}
+
+	private MemorySegment vkGetInstanceProcAddr(MemorySegment instance, MemorySegment name) {
+		return lookup(name.getUtf8String(0));
+	}
+
+	private int vk_icdNegotiateLoaderICDInterfaceVersion(MemorySegment supportedVersion) {
+		if (supportedVersion.get(vulkan_h.uint32_t, 0) > LOADER_INTERFACE_VERSION) {
+			supportedVersion.set(vulkan_h.uint32_t, 0, LOADER_INTERFACE_VERSION);
+		}
+
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private MemorySegment vk_icdGetPhysicalDeviceProcAddr(MemorySegment instance, MemorySegment name) {
+		return lookup(name.getUtf8String(0));
+	}
+
+	private int vk_icdEnumerateAdapterPhysicalDevices(MemorySegment instance, MemorySegment adapterLUID, MemorySegment physicalDeviceCount, MemorySegment physicalDevices) {
+		physicalDeviceCount.set(vulkan_h.uint32_t, 0, 0);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkEnumerateInstanceVersion(MemorySegment apiVersion) {
+		apiVersion.set(vulkan_h.uint32_t, 0, vulkan_h.VK_API_VERSION_1_3());
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkEnumerateInstanceExtensionProperties(MemorySegment layerName, MemorySegment propertyCount, MemorySegment properties) {
+		propertyCount.set(vulkan_h.uint32_t, 0, 0);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkCreateInstance(MemorySegment createInfo, MemorySegment allocator, MemorySegment instance) {
+		var arena = Arena.ofShared();
+		var handle = dispatchable(arena, 0);
+
+		var physicalDevices = new ArrayList<MemorySegment>(devices.size());
+		for (int i = 0; i < devices.size(); i++) {
+			physicalDevices.add(dispatchable(arena, i));
+		}
+
+		instances.put(handle.address(), new InstanceState(arena, handle, List.copyOf(physicalDevices)));
+		instance.set(ADDRESS, 0, handle);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private void vkDestroyInstance(MemorySegment instance, MemorySegment allocator) {
+		var state = instances.remove(instance.address());
+		if (state != null) {
+			state.arena().close();
+		}
+	}
+
+	private int vkEnumeratePhysicalDevices(MemorySegment instance, MemorySegment physicalDeviceCount, MemorySegment physicalDevices) {
+		var state = instances.get(instance.address());
+		return enumerate(state.physicalDevices(), physicalDeviceCount, physicalDevices, ADDRESS.byteSize(),
+				(device, destination) -> destination.set(ADDRESS, 0, device));
+	}
+
+	private void vkGetPhysicalDeviceProperties(MemorySegment physicalDevice, MemorySegment properties) {
+		device(physicalDevice).properties().asNative(properties);
+	}
+
+	private void vkGetPhysicalDeviceProperties2(MemorySegment physicalDevice, MemorySegment properties) {
+		vkGetPhysicalDeviceProperties(physicalDevice, VkPhysicalDeviceProperties2.properties$slice(properties));
+	}
+
+	private void vkGetPhysicalDeviceFeatures(MemorySegment physicalDevice, MemorySegment features) {
+		features.copyFrom(device(physicalDevice).features());
+	}
+
+	private void vkGetPhysicalDeviceFeatures2(MemorySegment physicalDevice, MemorySegment features) {
+		vkGetPhysicalDeviceFeatures(physicalDevice, VkPhysicalDeviceFeatures2.features$slice(features));
+	}
+
+	private void vkGetPhysicalDeviceFormatProperties(MemorySegment physicalDevice, int format, MemorySegment properties) {
+		var formatProperties = device(physicalDevice).formats().get(format);
+		if (formatProperties == null) {
+			properties.fill((byte) 0);
+		} else {
+			formatProperties.asNative(properties);
+		}
+	}
+
+	private void vkGetPhysicalDeviceFormatProperties2(MemorySegment physicalDevice, int format, MemorySegment properties) {
+		vkGetPhysicalDeviceFormatProperties(physicalDevice, format, VkFormatProperties2.formatProperties$slice(properties));
+	}
+
+	private int vkGetPhysicalDeviceImageFormatProperties(MemorySegment physicalDevice, int format, int type, int tiling, int usage, int flags, MemorySegment properties) {
+		var device = device(physicalDevice);
+		var supported = device.imageFormats().query(device, format, type, tiling, usage, flags);
+		if (supported.isEmpty()) {
+			properties.fill((byte) 0);
+			return vulkan_h.VK_ERROR_FORMAT_NOT_SUPPORTED();
+		}
+
+		supported.get().asNative(properties);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkGetPhysicalDeviceImageFormatProperties2(MemorySegment physicalDevice, MemorySegment info, MemorySegment properties) {
+		return vkGetPhysicalDeviceImageFormatProperties(physicalDevice,
+				VkPhysicalDeviceImageFormatInfo2.format$get(info),
+				VkPhysicalDeviceImageFormatInfo2.type$get(info),
+				VkPhysicalDeviceImageFormatInfo2.tiling$get(info),
+				VkPhysicalDeviceImageFormatInfo2.usage$get(info),
+				VkPhysicalDeviceImageFormatInfo2.flags$get(info),
+				VkImageFormatProperties2.imageFormatProperties$slice(properties));
+	}
+
+	private void vkGetPhysicalDeviceSparseImageFormatProperties(MemorySegment physicalDevice, int format, int type, int samples, int usage, int tiling,
+	                                                            MemorySegment propertyCount, MemorySegment properties) {
+		propertyCount.set(vulkan_h.uint32_t, 0, 0);
+	}
+
+	private void vkGetPhysicalDeviceQueueFamilyProperties(MemorySegment physicalDevice, MemorySegment propertyCount, MemorySegment properties) {
+		enumerate(device(physicalDevice).queueFamilies(), propertyCount, properties, VkQueueFamilyProperties.$LAYOUT().byteSize(),
+				(family, destination) -> family.asNative(destination));
+	}
+
+	private void vkGetPhysicalDeviceQueueFamilyProperties2(MemorySegment physicalDevice, MemorySegment propertyCount, MemorySegment properties) {
+		enumerate(device(physicalDevice).queueFamilies(), propertyCount, properties, VkQueueFamilyProperties2.$LAYOUT().byteSize(),
+				(family, destination) -> family.asNative(VkQueueFamilyProperties2.queueFamilyProperties$slice(destination)));
+	}
+
+	private void vkGetPhysicalDeviceMemoryProperties(MemorySegment physicalDevice, MemorySegment properties) {
+		var memoryProperties = device(physicalDevice).memoryProperties();
+		properties.fill((byte) 0);
+
+		VkPhysicalDeviceMemoryProperties.memoryTypeCount$set(properties, memoryProperties.types().size());
+		var types = VkPhysicalDeviceMemoryProperties.memoryTypes$slice(properties);
+		for (var type : memoryProperties.types()) {
+			var destination = types.asSlice(type.index() * VkMemoryType.$LAYOUT().byteSize(), VkMemoryType.$LAYOUT());
+			VkMemoryType.propertyFlags$set(destination, BitFlag.getFlagBits(type.propertyFlags()));
+			VkMemoryType.heapIndex$set(destination, type.heapIndex());
+		}
+
+		VkPhysicalDeviceMemoryProperties.memoryHeapCount$set(properties, memoryProperties.heaps().size());
+		var heaps = VkPhysicalDeviceMemoryProperties.memoryHeaps$slice(properties);
+		for (var heap : memoryProperties.heaps()) {
+			var destination = heaps.asSlice(heap.index() * VkMemoryHeap.$LAYOUT().byteSize(), VkMemoryHeap.$LAYOUT());
+			VkMemoryHeap.size$set(destination, heap.size());
+			VkMemoryHeap.flags$set(destination, BitFlag.getFlagBits(heap.flags()));
+		}
+	}
+
+	private void vkGetPhysicalDeviceMemoryProperties2(MemorySegment physicalDevice, MemorySegment properties) {
+		vkGetPhysicalDeviceMemoryProperties(physicalDevice, VkPhysicalDeviceMemoryProperties2.memoryProperties$slice(properties));
+	}
+
+	private int vkGetPhysicalDeviceToolProperties(MemorySegment physicalDevice, MemorySegment toolCount, MemorySegment toolProperties) {
+		toolCount.set(vulkan_h.uint32_t, 0, 0);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkEnumerateDeviceExtensionProperties(MemorySegment physicalDevice, MemorySegment layerName, MemorySegment propertyCount, MemorySegment properties) {
+		propertyCount.set(vulkan_h.uint32_t, 0, 0);
+		return vulkan_h.VK_SUCCESS();
+	}
+
+	private int vkEnumerateDeviceLayerProperties(MemorySegment physicalDevice, MemorySegment propertyCount, MemorySegment properties) {
+		propertyCount.set(vulkan_h.uint32_t, 0, 0);
+		return vulkan_h.VK_SUCCESS();
 	}
 }
@@ -0,0 +1,105 @@
+package dev.brownjames.lawu.vulkan;
+
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
+import dev.brownjames.lawu.vulkan.directdriverloading.DirectDriverLoadingMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class TestVulkanDriverTest {
+	private static VulkanInstance createInstance(TestVulkanDriver driver) throws VulkanValidationException {
+		return VulkanInstance.builder()
+				.withDrivers(DirectDriverLoadingMode.EXCLUSIVE, driver)
+				.validate();
+	}
+
+	@Test
+	void reportsSyntheticDevices() throws VulkanValidationException {
+		var driver = new TestVulkanDriver(List.of(TestVulkanDriver.Device.synthetic(0), TestVulkanDriver.Device.synthetic(1)));
+		try (var vulkan = createInstance(driver)) {
+			var names = vulkan.allPhysicalDevices().stream()
+					.map(device -> device.getProperties().deviceName())
+					.sorted()
+					.toList();
+
+			assertEquals(List.of("Lawu Test Device 0", "Lawu Test Device 1"), names);
+		}
+	}
+
+	@Test
+	void reportsConfiguredCapabilities() throws VulkanValidationException {
+		var device = TestVulkanDriver.Device.synthetic(0);
+		try (var vulkan = createInstance(new TestVulkanDriver(List.of(device)))) {
+			var physicalDevice = vulkan.allPhysicalDevices().getFirst();
+
+			assertEquals(device.queueFamilies(), physicalDevice.getQueueFamilyProperties());
+			assertEquals(device.memoryProperties(), physicalDevice.getMemoryProperties());
+			assertEquals(device.features().byteSize(), physicalDevice.getFeatures().byteSize());
+			assertEquals(-1L, device.features().mismatch(physicalDevice.getFeatures()));
+
+			var depth = vulkan_h.VK_FORMAT_D32_SFLOAT();
+			assertEquals(device.formats().get(depth), physicalDevice.getFormatProperties(depth));
+			assertTrue(physicalDevice.findImageFormatProperties(depth, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+					vulkan_h.VK_IMAGE_USAGE_DEPTH_STENCIL_ATTACHMENT_BIT(), 0).isPresent());
+			assertTrue(physicalDevice.findImageFormatProperties(depth, vulkan_h.VK_IMAGE_TYPE_2D(), vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+					vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT(), 0).isEmpty());
+		}
+	}
+
+	@Test
+	void countsCalls() throws VulkanValidationException {
+		var driver = new TestVulkanDriver();
+		try (var vulkan = createInstance(driver)) {
+			var physicalDevice = vulkan.allPhysicalDevices().getFirst();
+			assertTrue(driver.calls("vkCreateInstance") > 0);
+
+			driver.resetCalls();
+			for (int i = 0; i < 10; i++) {
+				physicalDevice.getFormatProperties(vulkan_h.VK_FORMAT_R8G8B8A8_UNORM());
+			}
+
+			assertEquals(10, driver.calls("vkGetPhysicalDeviceFormatProperties"));
+			assertEquals(0, driver.calls("vkGetPhysicalDeviceImageFormatProperties"));
+		}
+	}
+
+	@Test
+	void injectsLatency() throws VulkanValidationException {
+		var driver = new TestVulkanDriver();
+		driver.setLatency("vkGetPhysicalDeviceFormatProperties", Duration.ofMillis(20));
+
+		try (var vulkan = createInstance(driver)) {
+			var physicalDevice = vulkan.allPhysicalDevices().getFirst();
+
+			var start = System.nanoTime();
+			physicalDevice.getFormatProperties(vulkan_h.VK_FORMAT_R8G8B8A8_UNORM());
+			assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+		}
+	}
+
+	@Test
+	void loadedSnapshotQueriesNoFormats(@TempDir Path directory) throws VulkanValidationException, IOException {
+		var driver = new TestVulkanDriver();
+		try (var vulkan = createInstance(driver)) {
+			var physicalDevice = vulkan.allPhysicalDevices().getFirst();
+			var request = DeviceCapabilitySnapshot.Request.of();
+
+			try (var _ = DeviceCapabilitySnapshot.loadOrCapture(directory, physicalDevice, request)) {
+				assertEquals(request.formats().size(), driver.calls("vkGetPhysicalDeviceFormatProperties"));
+			}
+
+			driver.resetCalls();
+			try (var snapshot = DeviceCapabilitySnapshot.loadOrCapture(directory, physicalDevice, request)) {
+				assertEquals(0, driver.calls("vkGetPhysicalDeviceFormatProperties"));
+				assertEquals(driver.devices().getFirst().formats().get(vulkan_h.VK_FORMAT_D16_UNORM()),
+						snapshot.formatProperties(vulkan_h.VK_FORMAT_D16_UNORM()).orElseThrow());
+			}
+		}
+	}
+}
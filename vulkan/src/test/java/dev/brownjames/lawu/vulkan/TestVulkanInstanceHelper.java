@@ -1,6 +1,5 @@
 package dev.brownjames.lawu.vulkan;
 
-import dev.brownjames.lawu.vulkan.bindings.VkDebugUtilsMessengerCallbackDataEXT;
 import dev.brownjames.lawu.vulkan.debugutils.*;
 
 public final class TestVulkanInstanceHelper {
@@ -10,14 +9,17 @@ public final class TestVulkanInstanceHelper {
 			BitFlag.allFlags(DebugUtilsMessageSeverity.class),
 			BitFlag.allFlags(DebugUtilsMessageType.class),
 			(severity, messageTypes, callbackData) -> {
-				var message = VkDebugUtilsMessengerCallbackDataEXT.pMessage$get(callbackData).getUtf8String(0);
-
-				LOGGER.log(switch (severity) {
+				var level = switch (severity) {
 					case VERBOSE -> System.Logger.Level.DEBUG;
 					case INFO -> System.Logger.Level.INFO;
 					case WARNING -> System.Logger.Level.WARNING;
 					case ERROR -> System.Logger.Level.ERROR;
-				}, "Vulkan Debug Message: {0} (type: {1})", message, messageTypes);
+				};
+
+				if (LOGGER.isLoggable(level)) {
+					var data = new DebugUtilsMessengerCallbackData(callbackData);
+					LOGGER.log(level, "Vulkan Debug Message: {0} (type: {1})", data.message(), messageTypes);
+				}
 			});
 
 	public static InstanceCreateInfo builder() {
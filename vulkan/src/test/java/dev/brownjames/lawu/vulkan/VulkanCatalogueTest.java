@@ -0,0 +1,56 @@
+package dev.brownjames.lawu.vulkan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class VulkanCatalogueTest {
+	@Test
+	void matchesEnumeration() {
+		var catalogue = new VulkanCatalogue();
+
+		assertEquals(LayerProperties.all(), List.copyOf(catalogue.layers()));
+		assertEquals(ExtensionProperties.vulkanOrImplicit(), List.copyOf(catalogue.extensions()));
+
+		for (var layer : catalogue.layers()) {
+			assertTrue(catalogue.hasLayer(layer.name()));
+			assertEquals(ExtensionProperties.forLayer(layer.name()), List.copyOf(catalogue.extensions(layer.name())));
+		}
+	}
+
+	@Test
+	void findsLayerExtensions() {
+		var catalogue = new VulkanCatalogue();
+		var validation = "VK_LAYER_KHRONOS_validation";
+		assertTrue(catalogue.hasLayer(validation));
+
+		for (var extension : catalogue.extensions(validation)) {
+			assertTrue(catalogue.hasExtension(extension.name(), List.of(validation)));
+		}
+	}
+
+	@Test
+	void rejectsUnknownNames() {
+		var catalogue = new VulkanCatalogue();
+
+		assertFalse(catalogue.hasLayer("VK_LAYER_lawu_missing"));
+		assertTrue(catalogue.extensions("VK_LAYER_lawu_missing").isEmpty());
+
+		var layers = assertThrows(UnsupportedLayerException.class, () -> catalogue.requireLayers(List.of("VK_LAYER_lawu_missing")));
+		assertEquals(List.of("VK_LAYER_lawu_missing"), List.copyOf(layers.unsupportedLayers()));
+
+		var extensions = assertThrows(UnsupportedExtensionException.class, () -> catalogue.requireExtensions(List.of("VK_lawu_missing"), List.of()));
+		assertEquals(List.of("VK_lawu_missing"), List.copyOf(extensions.unsupportedExtensions()));
+	}
+
+	@Test
+	void refreshKeepsContents() {
+		var catalogue = new VulkanCatalogue();
+		var layers = List.copyOf(catalogue.layers());
+
+		catalogue.refresh();
+		assertEquals(layers, List.copyOf(catalogue.layers()));
+	}
+}
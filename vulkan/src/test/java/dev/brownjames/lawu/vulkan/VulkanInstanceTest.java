@@ -2,12 +2,25 @@ package dev.brownjames.lawu.vulkan;
 
 import de.skuzzle.semantic.Version;
 import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsExtension;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageSeverity;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessageType;
+import dev.brownjames.lawu.vulkan.debugutils.DebugUtilsMessengerCreateInfo;
 import dev.brownjames.lawu.vulkan.directdriverloading.DirectDriverLoadingMode;
+import dev.brownjames.lawu.vulkan.bindings.vulkan_h;
 import org.junit.jupiter.api.Test;
 
+import java.lang.foreign.Arena;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 final class VulkanInstanceTest {
+	private static final int STRESS_THREAD_COUNT = 16;
+	private static final int STRESS_TASK_COUNT = 1024;
 	@Test
 	void createDefaultInstance() throws VulkanValidationException {
 		var v = VulkanInstance.create();
@@ -44,9 +57,76 @@ final class VulkanInstanceTest {
 		vulkan.close();
 	}
 
+	@Test
+	void pooledAllocationCallbacks() throws VulkanValidationException {
+		try (var callbacks = new PooledAllocationCallbacks()) {
+			var vulkan = TestVulkanInstanceHelper.builder().withAllocationCallbacks(callbacks).validate();
+			assertFalse(vulkan.allPhysicalDevices().isEmpty());
+			vulkan.close();
+
+			var instance = callbacks.statistics(SystemAllocationScope.INSTANCE);
+			assertTrue(instance.allocations() > 0);
+			assertEquals(instance.allocations(), instance.frees());
+		}
+	}
+
 	@Test
 	void portabilityEnumeration() throws VulkanValidationException {
 		var vulkan = TestVulkanInstanceHelper.builder().withPortabilityEnumeration().validate();
 		vulkan.close();
 	}
+
+	@Test
+	void concurrentAccess() throws VulkanValidationException, InterruptedException, ExecutionException {
+		try (var vulkan = TestVulkanInstanceHelper.builder().withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT).validate();
+		     var executor = Executors.newFixedThreadPool(STRESS_THREAD_COUNT)) {
+			var expectedNames = vulkan.allPhysicalDevices().stream()
+					.map(device -> device.getProperties().deviceName())
+					.toList();
+
+			var tasks = IntStream.range(0, STRESS_TASK_COUNT)
+					.mapToObj(i -> (Callable<List<String>>) () -> vulkan.allPhysicalDevices().stream()
+							.map(device -> {
+								device.getFeatures();
+								device.getImageFormatProperties(vulkan_h.VK_FORMAT_R8G8B8A8_SRGB(),
+										vulkan_h.VK_IMAGE_TYPE_2D(),
+										vulkan_h.VK_IMAGE_TILING_OPTIMAL(),
+										vulkan_h.VK_IMAGE_USAGE_COLOR_ATTACHMENT_BIT(),
+										0);
+								return device.getProperties().deviceName();
+							})
+							.toList())
+					.toList();
+
+			for (var result : executor.invokeAll(tasks)) {
+				assertEquals(expectedNames, result.get());
+			}
+		}
+	}
+
+	@Test
+	void confinedAccessFromOtherThread() throws VulkanValidationException, InterruptedException {
+		try (var vulkan = TestVulkanInstanceHelper.builder().validate();
+		     var executor = Executors.newSingleThreadExecutor()) {
+			var result = executor.submit(vulkan::allPhysicalDevices);
+
+			var exception = assertThrows(ExecutionException.class, result::get);
+			assertInstanceOf(WrongThreadException.class, exception.getCause());
+		}
+	}
+
+	@Test
+	void concurrentMessengerClosedFromOtherThread() throws VulkanValidationException, InterruptedException, ExecutionException {
+		var createInfo = new DebugUtilsMessengerCreateInfo(
+				BitFlag.allFlags(DebugUtilsMessageSeverity.class),
+				BitFlag.allFlags(DebugUtilsMessageType.class),
+				(severity, messageTypes, callbackData) -> { });
+
+		try (var vulkan = TestVulkanInstanceHelper.builder().withThreadingMode(VulkanInstance.ThreadingMode.CONCURRENT).validate();
+		     var arena = Arena.ofShared();
+		     var executor = Executors.newSingleThreadExecutor()) {
+			var messenger = DebugUtilsExtension.extend(vulkan).createDebugUtilsMessenger(createInfo.createNativeStructure(arena));
+			executor.submit(messenger::close).get();
+		}
+	}
 }